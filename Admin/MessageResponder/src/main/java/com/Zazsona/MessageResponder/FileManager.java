@@ -10,11 +10,15 @@ import java.io.*;
 import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FileManager implements Serializable
 {
     private static long serialVersionUID = 1L;
     private LinkedHashMap<String, HashMap<String, String>> guildToMessagesMap; //GuildID : ReceiveMessage, ResponseMessage
+    private LinkedHashMap<String, HashMap<String, TriggerType>> guildToTriggerTypesMap; //GuildID : ReceiveMessage, TriggerType (Absent for exact triggers)
+    private LinkedHashMap<String, HashMap<String, Integer>> guildToTriggerCooldownsMap; //GuildID : ReceiveMessage, Cooldown seconds (Absent for no cooldown)
+    private transient ConcurrentHashMap<String, TriggerMatcher> guildToMatcherMap = new ConcurrentHashMap<>();
     private static transient Logger logger = LoggerFactory.getLogger("MessageResponseLoader");
 
     private String getSavePath()
@@ -56,12 +60,17 @@ public class FileManager implements Serializable
                 Gson gson = new GsonBuilder().setPrettyPrinting().create();
                 String json = new String(Files.readAllBytes(configFile.toPath()));
                 FileManager fm = gson.fromJson(json, this.getClass());
-                this.guildToMessagesMap = fm.guildToMessagesMap;
+                this.guildToMessagesMap = (fm.guildToMessagesMap != null) ? fm.guildToMessagesMap : new LinkedHashMap<>();
+                this.guildToTriggerTypesMap = (fm.guildToTriggerTypesMap != null) ? fm.guildToTriggerTypesMap : new LinkedHashMap<>();
+                this.guildToTriggerCooldownsMap = (fm.guildToTriggerCooldownsMap != null) ? fm.guildToTriggerCooldownsMap : new LinkedHashMap<>();
             }
             else
             {
                 guildToMessagesMap = new LinkedHashMap<>();
+                guildToTriggerTypesMap = new LinkedHashMap<>();
+                guildToTriggerCooldownsMap = new LinkedHashMap<>();
             }
+            guildToMatcherMap.clear();
         }
         catch (IOException e)
         {
@@ -72,25 +81,148 @@ public class FileManager implements Serializable
 
     public void addMessageResponse(String guildID, String receivedMessage, String responseMessage)
     {
-        if (!guildToMessagesMap.containsKey(guildID))
+        addMessageResponse(guildID, receivedMessage, responseMessage, TriggerType.EXACT);
+    }
+
+    /**
+     * Adds a response, replacing any existing response to the same trigger.
+     * @param guildID the guild's ID
+     * @param receivedMessage the trigger. Regular expressions are kept as entered, and other triggers are made lower case.
+     * @param responseMessage the response
+     * @param triggerType how the trigger is matched against messages
+     */
+    public synchronized void addMessageResponse(String guildID, String receivedMessage, String responseMessage, TriggerType triggerType)
+    {
+        String trigger = (triggerType == TriggerType.REGEX) ? receivedMessage : receivedMessage.toLowerCase();
+        guildToMessagesMap.computeIfAbsent(guildID, (k) -> new HashMap<>()).put(trigger, responseMessage);
+        if (triggerType == TriggerType.EXACT)
         {
-            guildToMessagesMap.put(guildID, new HashMap<>());
+            removeTriggerType(guildID, trigger);
         }
-        guildToMessagesMap.get(guildID).put(receivedMessage.toLowerCase(), responseMessage);
+        else
+        {
+            guildToTriggerTypesMap.computeIfAbsent(guildID, (k) -> new HashMap<>()).put(trigger, triggerType);
+        }
+        guildToMatcherMap.remove(guildID);
         save();
     }
 
-    public void removeMessageResponse(String guildID, String receivedMessage)
+    public synchronized void removeMessageResponse(String guildID, String receivedMessage)
     {
-        guildToMessagesMap.get(guildID).remove(receivedMessage.toLowerCase());
+        HashMap<String, String> responses = guildToMessagesMap.get(guildID);
+        if (responses != null)
+        {
+            String trigger = (responses.containsKey(receivedMessage)) ? receivedMessage : receivedMessage.toLowerCase();
+            responses.remove(trigger);
+            removeTriggerType(guildID, trigger);
+            removeTriggerCooldown(guildID, trigger);
+            guildToMatcherMap.remove(guildID);
+            save();
+        }
+    }
+
+    private void removeTriggerType(String guildID, String trigger)
+    {
+        HashMap<String, TriggerType> triggerTypes = guildToTriggerTypesMap.get(guildID);
+        if (triggerTypes != null)
+        {
+            triggerTypes.remove(trigger);
+            if (triggerTypes.isEmpty())
+            {
+                guildToTriggerTypesMap.remove(guildID);
+            }
+        }
+    }
+
+    /**
+     * Sets the minimum time between a response being sent in the same channel.
+     * @param guildID the guild's ID
+     * @param receivedMessage the response's trigger
+     * @param cooldownSeconds the cooldown in seconds, or 0 for none
+     */
+    public synchronized void setTriggerCooldown(String guildID, String receivedMessage, int cooldownSeconds)
+    {
+        if (cooldownSeconds > 0)
+        {
+            guildToTriggerCooldownsMap.computeIfAbsent(guildID, (k) -> new HashMap<>()).put(receivedMessage, cooldownSeconds);
+        }
+        else
+        {
+            removeTriggerCooldown(guildID, receivedMessage);
+        }
+        guildToMatcherMap.remove(guildID);
         save();
     }
 
+    /**
+     * Gets the minimum time between a response being sent in the same channel
+     * @param guildID the guild's ID
+     * @param receivedMessage the response's trigger
+     * @return the cooldown in seconds, or 0 for none
+     */
+    public synchronized int getTriggerCooldown(String guildID, String receivedMessage)
+    {
+        HashMap<String, Integer> cooldowns = guildToTriggerCooldownsMap.get(guildID);
+        return (cooldowns != null) ? cooldowns.getOrDefault(receivedMessage, 0) : 0;
+    }
+
+    private void removeTriggerCooldown(String guildID, String trigger)
+    {
+        HashMap<String, Integer> cooldowns = guildToTriggerCooldownsMap.get(guildID);
+        if (cooldowns != null)
+        {
+            cooldowns.remove(trigger);
+            if (cooldowns.isEmpty())
+            {
+                guildToTriggerCooldownsMap.remove(guildID);
+            }
+        }
+    }
+
     public HashMap<String, String> getMessageResponses(String guildID)
     {
         return guildToMessagesMap.get(guildID);
     }
 
+    /**
+     * Gets how the trigger is matched against messages
+     * @param guildID the guild's ID
+     * @param receivedMessage the trigger
+     * @return the trigger type
+     */
+    public synchronized TriggerType getTriggerType(String guildID, String receivedMessage)
+    {
+        HashMap<String, TriggerType> triggerTypes = guildToTriggerTypesMap.get(guildID);
+        return (triggerTypes != null) ? triggerTypes.getOrDefault(receivedMessage, TriggerType.EXACT) : TriggerType.EXACT;
+    }
+
+    /**
+     * Gets the guild's triggers, compiled for matching against messages. They are compiled on first use after the
+     * guild's responses change, and kept until they change again.
+     * @param guildID the guild's ID
+     * @return the compiled triggers, which are empty if the guild has no responses
+     */
+    public TriggerMatcher getTriggerMatcher(String guildID)
+    {
+        TriggerMatcher matcher = guildToMatcherMap.get(guildID);
+        if (matcher == null)
+        {
+            synchronized (this)
+            {
+                matcher = guildToMatcherMap.get(guildID);
+                if (matcher == null)
+                {
+                    HashMap<String, String> responses = guildToMessagesMap.get(guildID);
+                    HashMap<String, TriggerType> triggerTypes = guildToTriggerTypesMap.get(guildID);
+                    HashMap<String, Integer> cooldowns = guildToTriggerCooldownsMap.get(guildID);
+                    matcher = (responses != null && responses.size() > 0) ? new TriggerMatcher(responses, (triggerTypes != null) ? triggerTypes : new HashMap<>(), (cooldowns != null) ? cooldowns : new HashMap<>()) : TriggerMatcher.empty();
+                    guildToMatcherMap.put(guildID, matcher);
+                }
+            }
+        }
+        return matcher;
+    }
+
     public boolean doesGuildHaveResponses(String guildID)
     {
         return (guildToMessagesMap.get(guildID) != null && guildToMessagesMap.get(guildID).size() > 0);
@@ -9,12 +9,14 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 public class MessageResponder extends ModuleLoad
 {
     private static FileManager fm;
+    private static ResponseLimiter responseLimiter;
 
     @Override
     public void load()
     {
         fm = new FileManager();
         fm.restore();
+        responseLimiter = new ResponseLimiter();
         MessageListener msgListener = new MessageListener();
         Core.getShardManagerNotNull().addEventListener(msgListener);
     }
@@ -24,13 +26,17 @@ public class MessageResponder extends ModuleLoad
         @Override
         public void onGuildMessageReceived(GuildMessageReceivedEvent event)
         {
-            String guildID = event.getGuild().getId();
-            if (fm.doesGuildHaveResponses(guildID) && !event.getMessage().getAuthor().isBot())
+            if (!event.getMessage().getAuthor().isBot())
             {
-                String response = fm.getMessageResponses(guildID).get(event.getMessage().getContentRaw().toLowerCase());
-                if (response != null && SettingsUtil.getGuildSettings(guildID).isCommandEnabled("MessageResponder"))
+                String guildID = event.getGuild().getId();
+                TriggerMatcher matcher = fm.getTriggerMatcher(guildID);
+                if (!matcher.isEmpty() && SettingsUtil.getGuildSettings(guildID).isCommandEnabled("MessageResponder"))
                 {
-                    event.getChannel().sendMessage(response).queue();
+                    MessageResponse response = matcher.getResponse(event.getMessage().getContentRaw());
+                    if (response != null)
+                    {
+                        responseLimiter.submit(event.getChannel(), response);
+                    }
                 }
             }
         }
@@ -41,4 +47,9 @@ public class MessageResponder extends ModuleLoad
     {
         return fm;
     }
+
+    public static ResponseLimiter getResponseLimiter()
+    {
+        return responseLimiter;
+    }
 }
@@ -0,0 +1,37 @@
+package com.Zazsona.MessageResponder;
+
+/**
+ * A response to send when a message matches its trigger.
+ */
+public class MessageResponse
+{
+    private final String trigger;
+    private final String response;
+    private final int cooldownSeconds;
+
+    public MessageResponse(String trigger, String response, int cooldownSeconds)
+    {
+        this.trigger = trigger;
+        this.response = response;
+        this.cooldownSeconds = cooldownSeconds;
+    }
+
+    public String getTrigger()
+    {
+        return trigger;
+    }
+
+    public String getResponse()
+    {
+        return response;
+    }
+
+    /**
+     * Gets the minimum time between this response being sent in the same channel
+     * @return the cooldown in seconds, or 0 for none
+     */
+    public int getCooldownSeconds()
+    {
+        return cooldownSeconds;
+    }
+}
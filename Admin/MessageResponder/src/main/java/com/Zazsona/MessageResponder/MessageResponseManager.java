@@ -13,6 +13,7 @@ import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.concurrent.CancellationException;
+import java.util.regex.PatternSyntaxException;
 
 public class MessageResponseManager extends ModuleCommand
 {
@@ -27,12 +28,15 @@ public class MessageResponseManager extends ModuleCommand
                 switch (parameters[1].toLowerCase())
                 {
                     case "add":
-                        addMessageResponse(fm, msgEvent.getChannel(), msgEvent.getMember());
+                        addMessageResponse(fm, msgEvent.getChannel(), msgEvent.getMember(), getTriggerType(parameters));
                         break;
                     case "delete":
                     case "remove":
                         deleteMessageResponse(fm, msgEvent.getChannel(), msgEvent.getMember());
                         break;
+                    case "cooldown":
+                        setResponseCooldown(fm, msgEvent, parameters);
+                        break;
                     case "list":
                         if (parameters.length > 2 && parameters[2].matches("[0-9]+"))
                         {
@@ -61,24 +65,61 @@ public class MessageResponseManager extends ModuleCommand
         }
     }
 
-    private void addMessageResponse(FileManager fm, TextChannel channel, Member member) throws CancellationException
+    private TriggerType getTriggerType(String[] parameters)
+    {
+        if (parameters.length > 2)
+        {
+            switch (parameters[2].toLowerCase())
+            {
+                case "contains":
+                    return TriggerType.CONTAINS;
+                case "regex":
+                    return TriggerType.REGEX;
+            }
+        }
+        return TriggerType.EXACT;
+    }
+
+    private void addMessageResponse(FileManager fm, TextChannel channel, Member member, TriggerType triggerType) throws CancellationException
     {
         String identifyMessage = null;
         String responseMessage = null;
         MessageManager mm = new MessageManager();
         EmbedBuilder embed = new EmbedBuilder();
         embed.setColor(CmdUtil.getHighlightColour(channel.getGuild().getSelfMember()));
-        embed.setDescription("Please enter the message to identify. (Case insensitive)");
+        switch (triggerType)
+        {
+            case CONTAINS:
+                embed.setDescription("Please enter the text to look for within messages. (Case insensitive)");
+                break;
+            case REGEX:
+                embed.setDescription("Please enter the regular expression messages must match. (Case insensitive)");
+                break;
+            default:
+                embed.setDescription("Please enter the message to identify. (Case insensitive)");
+                break;
+        }
         channel.sendMessage(embed.build()).queue();
 
         Message msg = getMessage(channel, member, mm);
         identifyMessage = msg.getContentRaw();
+        if (triggerType == TriggerType.REGEX)
+        {
+            try
+            {
+                TriggerMatcher.compilePattern(identifyMessage);
+            }
+            catch (PatternSyntaxException e)
+            {
+                throw new CancellationException("That is not a valid regular expression.\n"+e.getDescription());
+            }
+        }
 
         embed.setDescription("Please enter the message to respond with.");
         channel.sendMessage(embed.build()).queue();
         msg = getMessage(channel, member, mm);
         responseMessage = msg.getContentRaw();
-        fm.addMessageResponse(channel.getGuild().getId(), identifyMessage, responseMessage);
+        fm.addMessageResponse(channel.getGuild().getId(), identifyMessage, responseMessage, triggerType);
         String identifyMessageSnippet = (identifyMessage.length() > 500) ? identifyMessage.substring(0, 497)+"..." : identifyMessage;
         String responseMessageSnippet = (responseMessage.length() > 500) ? responseMessage.substring(0, 497)+"..." : responseMessage;
         embed.setDescription("Response saved successfully!\n\n**Look for**:\n"+identifyMessageSnippet+"\n\n**Respond with**:\n"+responseMessageSnippet);
@@ -124,7 +165,11 @@ public class MessageResponseManager extends ModuleCommand
                 String response = responsesMap.get(key);
                 String keySnippet = (key.length() > 20) ? key.substring(0, 20) : key;
                 String responseSnippet = (response.length() > 20) ? response.substring(0, 20) : response;
-                listBuilder.append(i).append(". ").append(keySnippet).append("\n").append("*").append(responseSnippet).append("*\n\n");
+                TriggerType triggerType = fm.getTriggerType(channel.getGuild().getId(), key);
+                String typeTag = (triggerType == TriggerType.CONTAINS) ? "[Contains] " : (triggerType == TriggerType.REGEX) ? "[Regex] " : "";
+                int cooldownSeconds = fm.getTriggerCooldown(channel.getGuild().getId(), key);
+                String cooldownTag = (cooldownSeconds > 0) ? " ("+cooldownSeconds+"s cooldown)" : "";
+                listBuilder.append(i).append(". ").append(typeTag).append(keySnippet).append(cooldownTag).append("\n").append("*").append(responseSnippet).append("*\n\n");
             }
             embed.setDescription(listBuilder.toString());
             embed.setFooter("Page "+pageNo+" / "+(int) totalPages, null);
@@ -136,6 +181,35 @@ public class MessageResponseManager extends ModuleCommand
         channel.sendMessage(embed.build()).queue();
     }
 
+    private void setResponseCooldown(FileManager fm, GuildMessageReceivedEvent msgEvent, String[] parameters)
+    {
+        TextChannel channel = msgEvent.getChannel();
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setColor(CmdUtil.getHighlightColour(channel.getGuild().getSelfMember()));
+        if (parameters.length < 4 || !parameters[2].matches("[0-9]+") || !parameters[3].matches("[0-9]{1,6}"))
+        {
+            CmdUtil.sendHelpInfo(msgEvent, getModuleAttributes().getKey());
+            return;
+        }
+        int responseNo = Integer.parseInt(parameters[2]);
+        int cooldownSeconds = Integer.parseInt(parameters[3]);
+        ArrayList<String> keys = new ArrayList<>();
+        if (fm.doesGuildHaveResponses(channel.getGuild().getId()))
+        {
+            keys.addAll(fm.getMessageResponses(channel.getGuild().getId()).keySet());
+        }
+        if (responseNo < keys.size())
+        {
+            fm.setTriggerCooldown(channel.getGuild().getId(), keys.get(responseNo), cooldownSeconds);
+            embed.setDescription((cooldownSeconds > 0) ? "Response will be sent at most once every "+cooldownSeconds+" seconds per channel." : "Response cooldown removed.");
+        }
+        else
+        {
+            embed.setDescription("There is no message response with that ID.");
+        }
+        channel.sendMessage(embed.build()).queue();
+    }
+
     private void deleteMessageResponse(FileManager fm, TextChannel channel, Member member) throws CancellationException
     {
         EmbedBuilder embed = new EmbedBuilder();
@@ -0,0 +1,241 @@
+package com.Zazsona.MessageResponder;
+
+import net.dv8tion.jda.api.entities.TextChannel;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often responses are sent, so that a channel flooded with a trigger can't use up the bot's rate limit.<br>
+ * <br>
+ * Each guild and each channel has a token bucket, and a response needs a token from both. A response that would exceed
+ * either limit is queued in its channel until it can be sent. A response that is already queued in the channel is
+ * coalesced into it, and once {@link #MAX_PENDING_RESPONSES} different responses are queued, any more are dropped.
+ * Separately, a trigger with a cooldown is ignored if it was responded to in the same channel within the cooldown,
+ * which starts when the response is sent.
+ */
+public class ResponseLimiter
+{
+    private static final int GUILD_BURST = 10;
+    private static final long GUILD_REFILL_MILLIS = 1000;
+    private static final int CHANNEL_BURST = 3;
+    private static final long CHANNEL_REFILL_MILLIS = 3000;
+    /**
+     * The number of different responses that may be queued in a channel.
+     */
+    private static final int MAX_PENDING_RESPONSES = 10;
+    /**
+     * How often unused buckets and ended cooldowns are removed.
+     */
+    private static final long CLEANUP_INTERVAL_MINUTES = 10;
+    private final ConcurrentHashMap<String, TokenBucket> guildIDToBucket = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> channelIDToBucket = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> cooldownKeyToEndMillis = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PendingResponses> channelIDToPendingResponses = new ConcurrentHashMap<>();
+    private final ResponseMetrics metrics = new ResponseMetrics();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "MessageResponder-Limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The responses queued in a channel, in the order they were triggered. A channel's responses are only sent, and its
+     * cooldowns only checked and started, while holding its lock.
+     */
+    private static class PendingResponses
+    {
+        /**
+         * The responses, keyed by their text.
+         */
+        private final LinkedHashMap<String, MessageResponse> responses = new LinkedHashMap<>();
+        /**
+         * Set once the queue has been taken out of the map, after which it must not be used.
+         */
+        private boolean removed;
+    }
+
+    public ResponseLimiter()
+    {
+        scheduler.scheduleWithFixedDelay(this::removeIdleState, CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Sends the response now, later, or not at all, depending on the limits.
+     * @param channel the channel to send the response to
+     * @param response the response
+     */
+    public void submit(TextChannel channel, MessageResponse response)
+    {
+        while (true)
+        {
+            PendingResponses pending = channelIDToPendingResponses.computeIfAbsent(channel.getId(), (k) -> new PendingResponses());
+            synchronized (pending)
+            {
+                if (pending.removed)
+                {
+                    continue;
+                }
+                if (isOnCooldown(channel.getId(), response))
+                {
+                    metrics.recordDropped();
+                }
+                else if (pending.responses.containsKey(response.getResponse()))
+                {
+                    metrics.recordCoalesced();
+                }
+                else if (pending.responses.size() >= MAX_PENDING_RESPONSES)
+                {
+                    metrics.recordDropped();
+                }
+                else if (!pending.responses.isEmpty())
+                {
+                    //The queue is already waiting to be sent, so this waits its turn.
+                    pending.responses.put(response.getResponse(), response);
+                    metrics.recordDeferred();
+                }
+                else
+                {
+                    long waitMillis = tryAcquire(channel);
+                    if (waitMillis == 0)
+                    {
+                        send(channel, response);
+                    }
+                    else
+                    {
+                        pending.responses.put(response.getResponse(), response);
+                        metrics.recordDeferred();
+                        scheduler.schedule(() -> sendPending(channel, pending), waitMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the metrics recorded since startup.
+     * @return the metrics
+     */
+    public ResponseMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Checks if the trigger was responded to in the channel within its cooldown.
+     * @return true if the trigger is on cooldown
+     */
+    private boolean isOnCooldown(String channelID, MessageResponse response)
+    {
+        if (response.getCooldownSeconds() <= 0)
+        {
+            return false;
+        }
+        Long endMillis = cooldownKeyToEndMillis.get(channelID+"/"+response.getTrigger());
+        return endMillis != null && System.currentTimeMillis() < endMillis;
+    }
+
+    /**
+     * Starts the trigger's cooldown in the channel, if it has one.
+     */
+    private void startCooldown(String channelID, MessageResponse response)
+    {
+        if (response.getCooldownSeconds() > 0)
+        {
+            cooldownKeyToEndMillis.put(channelID+"/"+response.getTrigger(), System.currentTimeMillis()+(response.getCooldownSeconds()*1000L));
+        }
+    }
+
+    /**
+     * Takes a token from both the channel's and the guild's buckets, or from neither.
+     * @return 0 if the tokens were taken, otherwise the number of milliseconds to wait before trying again
+     */
+    private long tryAcquire(TextChannel channel)
+    {
+        TokenBucket channelBucket = channelIDToBucket.computeIfAbsent(channel.getId(), (k) -> new TokenBucket(CHANNEL_BURST, CHANNEL_REFILL_MILLIS));
+        long waitMillis = channelBucket.tryAcquire();
+        if (waitMillis == 0)
+        {
+            TokenBucket guildBucket = guildIDToBucket.computeIfAbsent(channel.getGuild().getId(), (k) -> new TokenBucket(GUILD_BURST, GUILD_REFILL_MILLIS));
+            waitMillis = guildBucket.tryAcquire();
+            if (waitMillis != 0)
+            {
+                channelBucket.release();
+            }
+        }
+        return waitMillis;
+    }
+
+    /**
+     * Sends the channel's queued responses in order for as long as the limits allow, then waits to send the rest.
+     */
+    private void sendPending(TextChannel channel, PendingResponses pending)
+    {
+        synchronized (pending)
+        {
+            try
+            {
+                Iterator<MessageResponse> responses = pending.responses.values().iterator();
+                while (responses.hasNext())
+                {
+                    MessageResponse response = responses.next();
+                    if (isOnCooldown(channel.getId(), response))
+                    {
+                        //The same trigger was responded to while this was queued, under another response.
+                        responses.remove();
+                        metrics.recordDropped();
+                        continue;
+                    }
+                    long waitMillis = tryAcquire(channel);
+                    if (waitMillis != 0)
+                    {
+                        scheduler.schedule(() -> sendPending(channel, pending), waitMillis, TimeUnit.MILLISECONDS);
+                        return;
+                    }
+                    responses.remove();
+                    send(channel, response);
+                }
+            }
+            catch (Exception e)
+            {
+                pending.responses.clear();
+                LoggerFactory.getLogger(getClass()).error("Unable to send message response.\n"+e.toString());
+            }
+        }
+    }
+
+    private void send(TextChannel channel, MessageResponse response)
+    {
+        startCooldown(channel.getId(), response);
+        channel.sendMessage(response.getResponse()).queue();
+        metrics.recordSent();
+    }
+
+    private void removeIdleState()
+    {
+        long now = System.currentTimeMillis();
+        cooldownKeyToEndMillis.values().removeIf(endMillis -> endMillis <= now);
+        channelIDToBucket.values().removeIf(TokenBucket::isFull);
+        guildIDToBucket.values().removeIf(TokenBucket::isFull);
+        for (Map.Entry<String, PendingResponses> entry : channelIDToPendingResponses.entrySet())
+        {
+            PendingResponses pending = entry.getValue();
+            synchronized (pending)
+            {
+                if (pending.responses.isEmpty())
+                {
+                    pending.removed = true;
+                    channelIDToPendingResponses.remove(entry.getKey(), pending);
+                }
+            }
+        }
+    }
+}
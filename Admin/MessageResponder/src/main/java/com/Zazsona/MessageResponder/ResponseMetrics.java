@@ -0,0 +1,73 @@
+package com.Zazsona.MessageResponder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records what happened to the responses triggered by messages.
+ */
+public class ResponseMetrics
+{
+    private final LongAdder responsesSent = new LongAdder();
+    private final LongAdder responsesDeferred = new LongAdder();
+    private final LongAdder responsesCoalesced = new LongAdder();
+    private final LongAdder responsesDropped = new LongAdder();
+
+    /**
+     * Records a response being sent.
+     */
+    protected void recordSent()
+    {
+        responsesSent.increment();
+    }
+
+    /**
+     * Records a response being held back until its channel or guild is within its rate limit.
+     */
+    protected void recordDeferred()
+    {
+        responsesDeferred.increment();
+    }
+
+    /**
+     * Records a response not being sent because the same response is already waiting to be sent in the channel.
+     */
+    protected void recordCoalesced()
+    {
+        responsesCoalesced.increment();
+    }
+
+    /**
+     * Records a response not being sent because its trigger's cooldown hadn't ended, or too many responses were already
+     * waiting to be sent in the channel.
+     */
+    protected void recordDropped()
+    {
+        responsesDropped.increment();
+    }
+
+    public long getResponsesSent()
+    {
+        return responsesSent.sum();
+    }
+
+    public long getResponsesDeferred()
+    {
+        return responsesDeferred.sum();
+    }
+
+    public long getResponsesCoalesced()
+    {
+        return responsesCoalesced.sum();
+    }
+
+    public long getResponsesDropped()
+    {
+        return responsesDropped.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Responses sent: "+getResponsesSent()+", deferred: "+getResponsesDeferred()+", coalesced: "+getResponsesCoalesced()+", dropped: "+getResponsesDropped();
+    }
+}
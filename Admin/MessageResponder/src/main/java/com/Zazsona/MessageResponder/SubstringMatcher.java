@@ -0,0 +1,205 @@
+package com.Zazsona.MessageResponder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds which of a set of patterns appear within a text, ignoring case, in a single pass over the text.<br>
+ * This is an Aho-Corasick automaton: a trie of the patterns where each node also links to the node for its longest
+ * suffix that is in the trie, so that on a mismatch the search carries on from there rather than restarting. The time
+ * taken is linear in the length of the text, regardless of how many patterns there are.
+ */
+public class SubstringMatcher
+{
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private int nodeCount = 1;
+    /**
+     * The pattern ending at each node, or {@link #NONE}.
+     */
+    private final int[] patterns;
+    /**
+     * The node for each node's longest proper suffix in the trie.
+     */
+    private final int[] failures;
+    /**
+     * The nearest node along each node's failure links that ends a pattern, or {@link #NONE}.
+     */
+    private final int[] dictionaryLinks;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final char[] nodeChars;
+    /**
+     * An open addressing hash table from (node, char) to child node.
+     */
+    private final long[] transitionKeys;
+    private final int[] transitionTargets;
+    private final int transitionMask;
+
+    /**
+     * Builds the automaton.
+     * @param patterns the patterns to look for. Empty patterns are ignored, and where patterns are the same ignoring case,
+     *                 the first is used.
+     */
+    public SubstringMatcher(List<String> patterns)
+    {
+        int maxNodes = 1;
+        for (String pattern : patterns)
+        {
+            maxNodes += pattern.length();
+        }
+        this.patterns = new int[maxNodes];
+        this.failures = new int[maxNodes];
+        this.dictionaryLinks = new int[maxNodes];
+        this.firstChildren = new int[maxNodes];
+        this.nextSiblings = new int[maxNodes];
+        this.nodeChars = new char[maxNodes];
+        Arrays.fill(this.patterns, NONE);
+        Arrays.fill(dictionaryLinks, NONE);
+        Arrays.fill(firstChildren, NONE);
+        Arrays.fill(nextSiblings, NONE);
+        int tableSize = Integer.highestOneBit(Math.max(maxNodes, 2)*2);
+        if (tableSize < maxNodes*2)
+        {
+            tableSize *= 2;
+        }
+        transitionKeys = new long[tableSize];
+        transitionTargets = new int[tableSize];
+        transitionMask = tableSize-1;
+        Arrays.fill(transitionKeys, NONE);
+
+        for (int i = 0; i<patterns.size(); i++)
+        {
+            addPattern(patterns.get(i), i);
+        }
+        linkFailures();
+    }
+
+    /**
+     * Finds the first pattern to appear in the text. If more than one pattern ends at the same position, the longest is chosen.
+     * @param text the text to search
+     * @return the index of the pattern, or -1 if no pattern appears in the text
+     */
+    public int find(CharSequence text)
+    {
+        int node = ROOT;
+        for (int i = 0; i<text.length(); i++)
+        {
+            char c = fold(text.charAt(i));
+            int next = getTransition(node, c);
+            while (next == NONE && node != ROOT)
+            {
+                node = failures[node];
+                next = getTransition(node, c);
+            }
+            node = (next == NONE) ? ROOT : next;
+            if (patterns[node] != NONE)
+            {
+                return patterns[node];
+            }
+            else if (dictionaryLinks[node] != NONE)
+            {
+                return patterns[dictionaryLinks[node]];
+            }
+        }
+        return NONE;
+    }
+
+    private void addPattern(String pattern, int index)
+    {
+        if (pattern.isEmpty())
+        {
+            return;
+        }
+        int node = ROOT;
+        for (int i = 0; i<pattern.length(); i++)
+        {
+            char c = fold(pattern.charAt(i));
+            int child = getTransition(node, c);
+            if (child == NONE)
+            {
+                child = nodeCount++;
+                nodeChars[child] = c;
+                nextSiblings[child] = firstChildren[node];
+                firstChildren[node] = child;
+                putTransition(node, c, child);
+            }
+            node = child;
+        }
+        if (patterns[node] == NONE)
+        {
+            patterns[node] = index;
+        }
+    }
+
+    /**
+     * Sets each node's failure and dictionary links, going through the trie breadth first so that shallower nodes are
+     * linked before the nodes that depend on them.
+     */
+    private void linkFailures()
+    {
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int child = firstChildren[ROOT]; child != NONE; child = nextSiblings[child])
+        {
+            failures[child] = ROOT;
+            queue[tail++] = child;
+        }
+        while (head < tail)
+        {
+            int node = queue[head++];
+            for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child])
+            {
+                char c = nodeChars[child];
+                int failure = failures[node];
+                int next = getTransition(failure, c);
+                while (next == NONE && failure != ROOT)
+                {
+                    failure = failures[failure];
+                    next = getTransition(failure, c);
+                }
+                failures[child] = (next == NONE) ? ROOT : next;
+                dictionaryLinks[child] = (patterns[failures[child]] != NONE) ? failures[child] : dictionaryLinks[failures[child]];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private int getTransition(int node, char c)
+    {
+        long key = ((long) node << 16) | c;
+        int slot = hash(key);
+        while (transitionKeys[slot] != NONE)
+        {
+            if (transitionKeys[slot] == key)
+            {
+                return transitionTargets[slot];
+            }
+            slot = (slot+1) & transitionMask;
+        }
+        return NONE;
+    }
+
+    private void putTransition(int node, char c, int child)
+    {
+        long key = ((long) node << 16) | c;
+        int slot = hash(key);
+        while (transitionKeys[slot] != NONE)
+        {
+            slot = (slot+1) & transitionMask;
+        }
+        transitionKeys[slot] = key;
+        transitionTargets[slot] = child;
+    }
+
+    private int hash(long key)
+    {
+        return (int) ((key*0x9E3779B97F4A7C15L) >>> 32) & transitionMask;
+    }
+
+    private static char fold(char c)
+    {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
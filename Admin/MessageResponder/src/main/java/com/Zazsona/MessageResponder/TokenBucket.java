@@ -0,0 +1,65 @@
+package com.Zazsona.MessageResponder;
+
+/**
+ * A rate limit that allows bursts of up to a set number of actions, then one action per refill period.
+ */
+public class TokenBucket
+{
+    private final int capacity;
+    private final long refillNanos;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a full bucket.
+     * @param capacity the maximum number of actions in a burst
+     * @param refillMillis the time it takes to regain one action
+     */
+    public TokenBucket(int capacity, long refillMillis)
+    {
+        this.capacity = capacity;
+        this.refillNanos = refillMillis*1000000L;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if one is available.
+     * @return 0 if a token was taken, otherwise the number of milliseconds until one will be available
+     */
+    public synchronized long tryAcquire()
+    {
+        refill();
+        if (tokens >= 1)
+        {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1-tokens)*refillNanos/1000000.0);
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire()} that went unused.
+     */
+    public synchronized void release()
+    {
+        tokens = Math.min(capacity, tokens+1);
+    }
+
+    /**
+     * Checks if the bucket has refilled completely, meaning it has not been used recently.
+     * @return true if full
+     */
+    public synchronized boolean isFull()
+    {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens+((double) (now-lastRefillNanos)/refillNanos));
+        lastRefillNanos = now;
+    }
+}
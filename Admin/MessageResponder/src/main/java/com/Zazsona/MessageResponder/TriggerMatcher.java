@@ -0,0 +1,220 @@
+package com.Zazsona.MessageResponder;
+
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A guild's message response triggers, compiled for matching against messages.<br>
+ * Exact triggers are checked first, then triggers the message contains, then regular expressions. Once compiled, a
+ * matcher never changes, so it is replaced rather than updated when the guild's responses change.<br>
+ * Regular expressions are given a shared time limit per message, as a badly written one can take practically forever to
+ * fail a match, and messages are matched on the event thread every guild shares. A pattern that runs out of time too
+ * often is skipped from then on.
+ */
+public class TriggerMatcher
+{
+    /**
+     * The longest the regular expressions may spend matching a single message, in total.
+     */
+    private static final long PATTERN_TIME_LIMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    /**
+     * The number of times a pattern can run out of time before it is skipped.
+     */
+    private static final int MAX_PATTERN_TIMEOUTS = 3;
+    private static final TriggerMatcher EMPTY = new TriggerMatcher(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private final HashMap<String, MessageResponse> exactResponses = new HashMap<>();
+    private final SubstringMatcher substringMatcher;
+    private final MessageResponse[] substringResponses;
+    private final Pattern[] patterns;
+    private final MessageResponse[] patternResponses;
+    private final AtomicIntegerArray patternTimeouts;
+
+    /**
+     * Compiles the triggers.
+     * @param responses the responses, keyed by trigger
+     * @param triggerTypes the type of each trigger. Triggers without a type are exact.
+     * @param cooldowns the cooldown of each trigger in seconds. Triggers without a cooldown have none.
+     */
+    public TriggerMatcher(Map<String, String> responses, Map<String, TriggerType> triggerTypes, Map<String, Integer> cooldowns)
+    {
+        ArrayList<String> substrings = new ArrayList<>();
+        ArrayList<MessageResponse> substringResponses = new ArrayList<>();
+        ArrayList<Pattern> patterns = new ArrayList<>();
+        ArrayList<MessageResponse> patternResponses = new ArrayList<>();
+        for (Map.Entry<String, String> entry : responses.entrySet())
+        {
+            TriggerType triggerType = triggerTypes.getOrDefault(entry.getKey(), TriggerType.EXACT);
+            MessageResponse response = new MessageResponse(entry.getKey(), entry.getValue(), cooldowns.getOrDefault(entry.getKey(), 0));
+            switch (triggerType)
+            {
+                case CONTAINS:
+                    substrings.add(entry.getKey());
+                    substringResponses.add(response);
+                    break;
+                case REGEX:
+                    try
+                    {
+                        patterns.add(compilePattern(entry.getKey()));
+                        patternResponses.add(response);
+                    }
+                    catch (PatternSyntaxException e)
+                    {
+                        LoggerFactory.getLogger("MessageResponseLoader").warn("Skipping invalid message response pattern: "+entry.getKey());
+                    }
+                    break;
+                default:
+                    exactResponses.put(entry.getKey(), response);
+                    break;
+            }
+        }
+        this.substringMatcher = (substrings.size() > 0) ? new SubstringMatcher(substrings) : null;
+        this.substringResponses = substringResponses.toArray(new MessageResponse[0]);
+        this.patterns = patterns.toArray(new Pattern[0]);
+        this.patternResponses = patternResponses.toArray(new MessageResponse[0]);
+        this.patternTimeouts = new AtomicIntegerArray(this.patterns.length);
+    }
+
+    /**
+     * Gets a matcher with no triggers
+     * @return the matcher
+     */
+    public static TriggerMatcher empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles a regular expression trigger.
+     * @param regex the regular expression
+     * @return the pattern
+     * @throws PatternSyntaxException the regular expression is invalid
+     */
+    public static Pattern compilePattern(String regex) throws PatternSyntaxException
+    {
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    public boolean isEmpty()
+    {
+        return exactResponses.isEmpty() && substringMatcher == null && patterns.length == 0;
+    }
+
+    /**
+     * Gets the response to a message
+     * @param message the message's raw content
+     * @return the response, or null if no trigger matches the message
+     */
+    public MessageResponse getResponse(String message)
+    {
+        if (!exactResponses.isEmpty())
+        {
+            MessageResponse response = exactResponses.get(message.toLowerCase());
+            if (response != null)
+            {
+                return response;
+            }
+        }
+        if (substringMatcher != null)
+        {
+            int index = substringMatcher.find(message);
+            if (index != -1)
+            {
+                return substringResponses[index];
+            }
+        }
+        if (patterns.length > 0)
+        {
+            DeadlineCharSequence timedMessage = new DeadlineCharSequence(message, System.nanoTime()+PATTERN_TIME_LIMIT_NANOS);
+            for (int i = 0; i<patterns.length; i++)
+            {
+                if (patternTimeouts.get(i) >= MAX_PATTERN_TIMEOUTS)
+                {
+                    continue;
+                }
+                try
+                {
+                    if (patterns[i].matcher(timedMessage).matches())
+                    {
+                        return patternResponses[i];
+                    }
+                }
+                catch (PatternTimeoutException e)
+                {
+                    if (patternTimeouts.incrementAndGet(i) == MAX_PATTERN_TIMEOUTS)
+                    {
+                        LoggerFactory.getLogger("MessageResponder").warn("Skipping message response pattern that keeps running out of time: "+patterns[i].pattern());
+                    }
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A message that stops a regular expression matching against it once the time limit has passed.
+     */
+    private static class DeadlineCharSequence implements CharSequence
+    {
+        /**
+         * The number of characters to read between checks of the time, as reading the clock costs more than a character.
+         */
+        private static final int CHECK_INTERVAL = 1024;
+        private final CharSequence message;
+        private final long deadlineNanos;
+        private int readsUntilCheck = CHECK_INTERVAL;
+
+        private DeadlineCharSequence(CharSequence message, long deadlineNanos)
+        {
+            this.message = message;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public int length()
+        {
+            return message.length();
+        }
+
+        @Override
+        public char charAt(int index)
+        {
+            if (--readsUntilCheck <= 0)
+            {
+                readsUntilCheck = CHECK_INTERVAL;
+                if (System.nanoTime()-deadlineNanos > 0)
+                {
+                    throw new PatternTimeoutException();
+                }
+            }
+            return message.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            return new DeadlineCharSequence(message.subSequence(start, end), deadlineNanos);
+        }
+
+        @Override
+        public String toString()
+        {
+            return message.toString();
+        }
+    }
+
+    private static class PatternTimeoutException extends RuntimeException
+    {
+        private PatternTimeoutException()
+        {
+            super(null, null, false, false);
+        }
+    }
+}
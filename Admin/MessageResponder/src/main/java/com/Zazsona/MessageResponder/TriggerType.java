@@ -0,0 +1,20 @@
+package com.Zazsona.MessageResponder;
+
+/**
+ * How a message response's trigger is matched against messages. Matching ignores case.
+ */
+public enum TriggerType
+{
+    /**
+     * The whole message is the trigger.
+     */
+    EXACT,
+    /**
+     * The message contains the trigger.
+     */
+    CONTAINS,
+    /**
+     * The whole message matches the trigger as a regular expression.
+     */
+    REGEX
+}
@@ -1,56 +1,38 @@
 package com.Zazsona.MobileApp;
 
-import com.Zazsona.MobileApp.requests.Request;
-import com.Zazsona.MobileApp.requests.RequestType;
 import com.Zazsona.MobileApp.responses.ReportResponse;
-import com.Zazsona.MobileApp.responses.Response;
-import com.google.gson.Gson;
-import jara.Core;
 import module.ModuleLoad;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.ServerSocket;
-import java.net.Socket;
 
 public class AppLoad extends ModuleLoad
 {
+    private static final int PORT = 42996;
+    /**
+     * The port used by earlier versions, which clients of those versions still connect to.
+     */
+    private static final int LEGACY_PORT = 42995;
+    private static ReportServer reportServer;
 
     @Override
     public void load()
     {
         try
         {
-            ServerSocket serverSocket = new ServerSocket(42995);
-            while (true)
-            {
-                try
-                {
-                    Socket connectedSocket = serverSocket.accept();
-                    ObjectOutputStream oos = new ObjectOutputStream(connectedSocket.getOutputStream());
-                    ObjectInputStream ois = new ObjectInputStream(connectedSocket.getInputStream());
-                    String json = (String) ois.readObject();
-                    Request request = new Gson().fromJson(json, Request.class);
-                    if (request.getRequestType() == RequestType.REPORT)
-                    {
-                        ReportResponse rr = new ReportResponse();
-                        oos.writeObject(new Gson().toJson(rr));
-                        oos.flush();
-                    }
-                    connectedSocket.close();
-                }
-                catch (IOException | ClassNotFoundException e)
-                {
-                    e.printStackTrace();
-                }
-            }
+            ReportCache reportCache = new ReportCache(ReportResponse::new);
+            reportServer = new ReportServer(PORT, LEGACY_PORT, reportCache);
+            reportServer.start();
+            reportCache.start();
         }
         catch (IOException e)
         {
-            e.printStackTrace();
+            LoggerFactory.getLogger("MobileAppServer").error("Unable to start the app server.\n"+e.toString());
         }
+    }
 
-
+    public static ReportServer getReportServer()
+    {
+        return reportServer;
     }
 }
@@ -0,0 +1,135 @@
+package com.Zazsona.MobileApp;
+
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Holds the latest report, already encoded for sending, and rebuilds it on an interval.<br>
+ * Building a report walks every guild, so it is done once per interval rather than once per request, and every
+ * client is sent the same encoded bytes.
+ */
+public class ReportCache
+{
+    private static final long REFRESH_INTERVAL_SECONDS = 30;
+    /**
+     * The stream magic and version that start every Java serialization stream.
+     */
+    private static final int LEGACY_STREAM_HEADER_BYTES = 4;
+    private static transient Logger logger = LoggerFactory.getLogger("MobileAppReports");
+    private final Gson gson = new Gson();
+    private final Supplier<?> reportSupplier;
+    private volatile Snapshot snapshot;
+    private final ScheduledExecutorService refreshScheduler = Executors.newSingleThreadScheduledExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "MobileApp-Report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A report, encoded in both of the formats clients may ask for.
+     */
+    public static class Snapshot
+    {
+        private final ByteBuffer frame;
+        private final ByteBuffer legacyFrame;
+        private final long createdMillis;
+
+        private Snapshot(ByteBuffer frame, ByteBuffer legacyFrame, long createdMillis)
+        {
+            this.frame = frame;
+            this.legacyFrame = legacyFrame;
+            this.createdMillis = createdMillis;
+        }
+
+        /**
+         * Gets the report as a JSON frame, prefixed with its length in bytes as a 4 byte big-endian int
+         * @return a buffer over the frame, ready to be written
+         */
+        public ByteBuffer getFrame()
+        {
+            return frame.duplicate();
+        }
+
+        /**
+         * Gets the report as the Java serialization of the JSON string, as sent by earlier versions. The stream header
+         * is left out, as it is sent when the client connects.
+         * @return a buffer over the serialized string, ready to be written
+         */
+        public ByteBuffer getLegacyFrame()
+        {
+            return legacyFrame.duplicate();
+        }
+
+        public long getCreatedMillis()
+        {
+            return createdMillis;
+        }
+    }
+
+    /**
+     * @param reportSupplier builds a report, which is serialized to JSON
+     */
+    public ReportCache(Supplier<?> reportSupplier)
+    {
+        this.reportSupplier = reportSupplier;
+    }
+
+    /**
+     * Starts building reports, the first straight away.
+     */
+    public void start()
+    {
+        refreshScheduler.scheduleWithFixedDelay(this::refresh, 0, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void stop()
+    {
+        refreshScheduler.shutdownNow();
+    }
+
+    /**
+     * Gets the latest report
+     * @return the report, or null if the first has not been built yet
+     */
+    public Snapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    private void refresh()
+    {
+        try
+        {
+            String json = gson.toJson(reportSupplier.get());
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES+bytes.length);
+            frame.putInt(bytes.length).put(bytes).flip();
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos))
+            {
+                oos.writeObject(json);
+            }
+            byte[] legacyBytes = baos.toByteArray();
+            ByteBuffer legacyFrame = ByteBuffer.wrap(legacyBytes, LEGACY_STREAM_HEADER_BYTES, legacyBytes.length-LEGACY_STREAM_HEADER_BYTES).slice();
+
+            snapshot = new Snapshot(frame.asReadOnlyBuffer(), legacyFrame.asReadOnlyBuffer(), System.currentTimeMillis());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error("Unable to build the app report.\n"+e.toString());
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.Zazsona.MobileApp;
+
+import com.Zazsona.MobileApp.requests.Request;
+import com.Zazsona.MobileApp.requests.RequestType;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Serves reports to the app over a single thread, using a selector so that no one client can hold up the rest.<br>
+ * Requests and responses are JSON, each sent as a frame prefixed with its length in bytes as a 4 byte big-endian int,
+ * and a client may send as many requests as it likes over one connection.<br>
+ * Clients of earlier versions use Java serialization streams instead, and are served on their own port as they were
+ * before: the server's stream header is sent as soon as they connect, as some wait for it before sending their request,
+ * and the connection is closed once the report has been sent.
+ */
+public class ReportServer implements Runnable
+{
+    private static final int MAX_FRAME_BYTES = 64*1024;
+    private static final long IDLE_TIMEOUT_MILLIS = 30*1000;
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    private static final int LEGACY_STREAM_MAGIC = 0xACED;
+    private static final short LEGACY_STREAM_VERSION = 5;
+    private static final byte LEGACY_STRING_TYPE = 0x74;
+    /**
+     * The stream magic, stream version, and string type code that start a legacy request.
+     */
+    private static final int LEGACY_HEADER_BYTES = 5;
+    private static transient Logger logger = LoggerFactory.getLogger("MobileAppServer");
+    private final Gson gson = new Gson();
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ServerSocketChannel legacyServerChannel;
+    private final ReportCache reportCache;
+    /**
+     * Connections that asked for a report before the first was built. They are checked on each pass of the selector.
+     */
+    private final ArrayList<Connection> waitingConnections = new ArrayList<>();
+
+    private static class Connection
+    {
+        private final SocketChannel channel;
+        private ByteBuffer readBuffer = ByteBuffer.allocate(512);
+        private ByteBuffer writeBuffer;
+        private final boolean legacy;
+        private boolean waiting;
+        private boolean closeAfterWrite;
+        private long lastActiveMillis = System.currentTimeMillis();
+
+        private Connection(SocketChannel channel, boolean legacy)
+        {
+            this.channel = channel;
+            this.legacy = legacy;
+        }
+    }
+
+    /**
+     * Opens the server.
+     * @param port the port to serve framed JSON on
+     * @param legacyPort the port to serve clients of earlier versions on
+     * @param reportCache the reports to serve
+     * @throws IOException unable to open the ports
+     */
+    public ReportServer(int port, int legacyPort, ReportCache reportCache) throws IOException
+    {
+        this.reportCache = reportCache;
+        this.selector = Selector.open();
+        this.serverChannel = openServerChannel(port, false);
+        this.legacyServerChannel = openServerChannel(legacyPort, true);
+    }
+
+    private ServerSocketChannel openServerChannel(int port, boolean legacy) throws IOException
+    {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try
+        {
+            channel.configureBlocking(false);
+            channel.bind(new InetSocketAddress(port), 1024);
+            channel.register(selector, SelectionKey.OP_ACCEPT, legacy);
+            return channel;
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts serving on a new thread.
+     */
+    public void start()
+    {
+        Thread thread = new Thread(this, "MobileApp-Server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void close() throws IOException
+    {
+        serverChannel.close();
+        legacyServerChannel.close();
+        selector.close();
+    }
+
+    @Override
+    public void run()
+    {
+        long lastIdleCheckMillis = System.currentTimeMillis();
+        while (serverChannel.isOpen())
+        {
+            try
+            {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext())
+                {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try
+                    {
+                        if (!key.isValid())
+                        {
+                            continue;
+                        }
+                        if (key.isAcceptable())
+                        {
+                            accept(key);
+                        }
+                        else
+                        {
+                            if (key.isWritable())
+                            {
+                                write(key);
+                            }
+                            if (key.isValid() && key.isReadable())
+                            {
+                                read(key);
+                            }
+                        }
+                    }
+                    catch (IOException | CancelledKeyException e)
+                    {
+                        close(key);
+                    }
+                }
+                serveWaitingConnections();
+                long now = System.currentTimeMillis();
+                if (now-lastIdleCheckMillis >= SELECT_TIMEOUT_MILLIS)
+                {
+                    closeIdleConnections(now);
+                    lastIdleCheckMillis = now;
+                }
+            }
+            catch (ClosedSelectorException e)
+            {
+                return;
+            }
+            catch (IOException e)
+            {
+                logger.error("App server error.\n"+e.toString());
+            }
+        }
+    }
+
+    private void accept(SelectionKey serverKey) throws IOException
+    {
+        boolean legacy = (Boolean) serverKey.attachment();
+        SocketChannel channel;
+        while ((channel = ((ServerSocketChannel) serverKey.channel()).accept()) != null)
+        {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel, legacy);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+            if (legacy)
+            {
+                //Sent by the ObjectOutputStream that earlier versions opened on connecting.
+                connection.writeBuffer = ByteBuffer.allocate(Short.BYTES*2).putShort((short) LEGACY_STREAM_MAGIC).putShort(LEGACY_STREAM_VERSION);
+                connection.writeBuffer.flip();
+                key.interestOps(SelectionKey.OP_WRITE);
+                write(key);
+            }
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException
+    {
+        Connection connection = (Connection) key.attachment();
+        if (connection.channel.read(connection.readBuffer) == -1)
+        {
+            close(key);
+            return;
+        }
+        connection.lastActiveMillis = System.currentTimeMillis();
+        handleRequests(key);
+    }
+
+    /**
+     * Handles each complete request in the connection's read buffer, stopping while a response is still being written.
+     */
+    private void handleRequests(SelectionKey key) throws IOException
+    {
+        Connection connection = (Connection) key.attachment();
+        while (key.isValid() && connection.writeBuffer == null && !connection.waiting)
+        {
+            String json = takeFrame(connection);
+            if (json == null)
+            {
+                return;
+            }
+            Request request;
+            try
+            {
+                request = gson.fromJson(json, Request.class);
+            }
+            catch (JsonParseException e)
+            {
+                request = null;
+            }
+            if (request == null || request.getRequestType() != RequestType.REPORT)
+            {
+                close(key);
+                return;
+            }
+            ReportCache.Snapshot snapshot = reportCache.getSnapshot();
+            if (snapshot == null)
+            {
+                key.interestOps(0);
+                connection.waiting = true;
+                waitingConnections.add(connection);
+                return;
+            }
+            respond(key, snapshot);
+        }
+    }
+
+    /**
+     * Takes the next complete request from the connection's read buffer.
+     * @return the request's JSON, or null if no complete request has been received
+     * @throws IOException the request is malformed or too large
+     */
+    private String takeFrame(Connection connection) throws IOException
+    {
+        ByteBuffer buffer = connection.readBuffer;
+        int headerBytes = (connection.legacy) ? LEGACY_HEADER_BYTES+Short.BYTES : Integer.BYTES;
+        if (buffer.position() < headerBytes)
+        {
+            return null;
+        }
+        int length;
+        if (connection.legacy)
+        {
+            if ((buffer.getShort(0) & 0xFFFF) != LEGACY_STREAM_MAGIC || buffer.get(LEGACY_HEADER_BYTES-1) != LEGACY_STRING_TYPE)
+            {
+                throw new IOException("Unsupported legacy request.");
+            }
+            length = buffer.getShort(LEGACY_HEADER_BYTES) & 0xFFFF;
+        }
+        else
+        {
+            length = buffer.getInt(0);
+        }
+        if (length < 0 || length > MAX_FRAME_BYTES)
+        {
+            throw new IOException("Request too large.");
+        }
+        int frameBytes = headerBytes+length;
+        if (buffer.position() < frameBytes)
+        {
+            if (buffer.capacity() < frameBytes)
+            {
+                ByteBuffer grownBuffer = ByteBuffer.allocate(frameBytes);
+                buffer.flip();
+                grownBuffer.put(buffer);
+                connection.readBuffer = grownBuffer;
+            }
+            return null;
+        }
+
+        String json;
+        if (connection.legacy)
+        {
+            //Java serialization writes strings as modified UTF-8, preceded by their length.
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array(), LEGACY_HEADER_BYTES, Short.BYTES+length));
+            json = in.readUTF();
+        }
+        else
+        {
+            json = new String(buffer.array(), headerBytes, length, StandardCharsets.UTF_8);
+        }
+        buffer.flip();
+        buffer.position(frameBytes);
+        buffer.compact();
+        return json;
+    }
+
+    private void respond(SelectionKey key, ReportCache.Snapshot snapshot) throws IOException
+    {
+        Connection connection = (Connection) key.attachment();
+        connection.writeBuffer = (connection.legacy) ? snapshot.getLegacyFrame() : snapshot.getFrame();
+        connection.closeAfterWrite = connection.legacy;
+        key.interestOps(SelectionKey.OP_WRITE);
+        write(key);
+    }
+
+    private void write(SelectionKey key) throws IOException
+    {
+        Connection connection = (Connection) key.attachment();
+        connection.channel.write(connection.writeBuffer);
+        connection.lastActiveMillis = System.currentTimeMillis();
+        if (!connection.writeBuffer.hasRemaining())
+        {
+            connection.writeBuffer = null;
+            if (connection.closeAfterWrite)
+            {
+                close(key);
+            }
+            else
+            {
+                key.interestOps(SelectionKey.OP_READ);
+                handleRequests(key);
+            }
+        }
+    }
+
+    private void serveWaitingConnections()
+    {
+        ReportCache.Snapshot snapshot = reportCache.getSnapshot();
+        if (snapshot == null || waitingConnections.isEmpty())
+        {
+            return;
+        }
+        ArrayList<Connection> connections = new ArrayList<>(waitingConnections);
+        waitingConnections.clear();
+        for (Connection connection : connections)
+        {
+            connection.waiting = false;
+            SelectionKey key = connection.channel.keyFor(selector);
+            try
+            {
+                if (key != null && key.isValid())
+                {
+                    respond(key, snapshot);
+                }
+            }
+            catch (IOException | CancelledKeyException e)
+            {
+                close(key);
+            }
+        }
+    }
+
+    private void closeIdleConnections(long now)
+    {
+        for (SelectionKey key : new ArrayList<>(selector.keys()))
+        {
+            Connection connection = (Connection) key.attachment();
+            if (connection != null && now-connection.lastActiveMillis > IDLE_TIMEOUT_MILLIS)
+            {
+                close(key);
+            }
+        }
+    }
+
+    private void close(SelectionKey key)
+    {
+        if (key == null)
+        {
+            return;
+        }
+        key.cancel();
+        Connection connection = (Connection) key.attachment();
+        if (connection != null && connection.waiting)
+        {
+            waitingConnections.remove(connection);
+        }
+        try
+        {
+            key.channel().close();
+        }
+        catch (IOException e)
+        {
+            logger.debug("Unable to close app connection.\n"+e.toString());
+        }
+    }
+}
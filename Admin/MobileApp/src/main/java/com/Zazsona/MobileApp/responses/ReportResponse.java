@@ -1,14 +1,24 @@
 package com.Zazsona.MobileApp.responses;
 
+import com.Zazsona.UsageHistoryCore.Resolution;
+import com.Zazsona.UsageHistoryCore.UsageHistory;
 import configuration.SettingsUtil;
 import jara.CommandHandler;
 import jara.Core;
 
 import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class ReportResponse extends Response
 {
+    /**
+     * The number of hours of usage to graph.
+     */
+    private static final int USAGE_GRAPH_HOURS = 24;
     private String botName;
     private String profileImageURL;
     private int activeGuilds;
@@ -32,7 +42,24 @@ public class ReportResponse extends Response
         this.ping = Core.getShardManager().getAverageGatewayPing();
         this.activeGuilds = SettingsUtil.getActiveGuildCount();
         this.commandUsageForSession = CommandHandler.getCommandCount();
-        this.usageGraph = CommandHandler.getCommandUsageMap();
+        this.usageGraph = getUsageGraph(USAGE_GRAPH_HOURS);
+    }
+
+    /**
+     * Gets how many commands were used across all guilds in each of the last hours
+     * @param hours the number of hours, including the current one
+     * @return the number of commands used, as HourSinceEpoch : Commands
+     */
+    private HashMap<Integer, Integer> getUsageGraph(int hours)
+    {
+        HashMap<Integer, Integer> usageGraph = new HashMap<>();
+        Instant now = Instant.now();
+        TreeMap<Instant, Long> hourlyUsage = UsageHistory.getTotals(UsageHistory.ALL_GUILDS, Resolution.HOUR, now.minus(hours-1, ChronoUnit.HOURS), now);
+        for (Map.Entry<Instant, Long> entry : hourlyUsage.entrySet())
+        {
+            usageGraph.put((int) (entry.getKey().getEpochSecond()/3600), (int) Math.min(entry.getValue(), Integer.MAX_VALUE));
+        }
+        return usageGraph;
     }
 
     public String getBotName()
@@ -1,129 +1,133 @@
 package com.Zazsona.MonthlyUsage;
 
+import com.Zazsona.UsageHistoryCore.UsageRecorder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import configuration.SettingsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.HashMap;
+import java.util.Map;
 
-public class FileManager implements Serializable
+/**
+ * Records when usage was last broadcast. The usage itself is kept in the usage history.
+ */
+public class FileManager
 {
-    private static long serialVersionUID = 1L;
-    private long lastReset;
-    private HashMap<String, HashMap<String, Integer>> commandUsage; //GuildID : UserID, CommandCount
+    /**
+     * The command key that usage saved before the usage history existed is recorded under.
+     */
+    private static final String IMPORTED_COMMAND = "Unknown";
     private static transient Logger logger = LoggerFactory.getLogger("CommandUsageLoader");
+    private volatile long lastReset;
+
+    /**
+     * The format the broadcast state is saved in.
+     */
+    private static class UsageData
+    {
+        private long lastReset;
+        /**
+         * Usage saved by earlier versions, as GuildID : UserID, CommandCount. It is moved into the usage history when read.
+         */
+        private HashMap<String, HashMap<String, Long>> commandUsage;
+    }
 
     private String getSavePath()
     {
         return SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/CommandUsage.jara";
     }
 
-    public void save()
+    /**
+     * Saves the broadcast state. It is written to a temporary file that then replaces the existing one, so the save file is never left part-written.
+     */
+    public synchronized void save()
     {
-        synchronized (this)
+        UsageData usageData = new UsageData();
+        usageData.lastReset = lastReset;
+        try
         {
-            try
-            {
-                File quoteFile = new File(getSavePath());
-                if (!quoteFile.exists())
-                {
-                    quoteFile.getParentFile().mkdirs();
-                    quoteFile.createNewFile();
-                }
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                String json = gson.toJson(this);
-                FileOutputStream fos = new FileOutputStream(getSavePath());
-                PrintWriter pw = new PrintWriter(fos);
-                pw.print(json);
-                pw.close();
-                fos.close();
-            }
-            catch (IOException e)
+            File saveFile = new File(getSavePath());
+            saveFile.getParentFile().mkdirs();
+            File tempFile = new File(saveFile.getPath()+".tmp");
+            Gson gson = new GsonBuilder().setPrettyPrinting().create();
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)))
             {
-                logger.error(e.getMessage());
+                gson.toJson(usageData, writer);
             }
+            Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            logger.error(e.getMessage());
         }
-
     }
 
-    public void restore()
+    /**
+     * Restores the broadcast state. Any usage saved by earlier versions is recorded in the usage history, in the hour the
+     * state was last reset, so it is counted in the month it was saved for, even if that month has not been broadcast yet.
+     */
+    public synchronized void restore()
     {
-        synchronized (this)
+        lastReset = Instant.now().getEpochSecond();
+        File saveFile = new File(getSavePath());
+        if (saveFile.exists())
         {
-            try
+            try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(saveFile), StandardCharsets.UTF_8)))
             {
-                File saveFile = new File(getSavePath());
-                if (saveFile.exists())
+                UsageData usageData = new Gson().fromJson(reader, UsageData.class);
+                if (usageData != null)
                 {
-                    Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                    String json = new String(Files.readAllBytes(saveFile.toPath()));
-                    FileManager fm = gson.fromJson(json, FileManager.class);
-                    this.commandUsage = (fm.commandUsage == null) ? new HashMap<>() : fm.commandUsage;
-                    this.lastReset = (fm.lastReset == 0) ? Instant.now().getEpochSecond() : fm.lastReset;
-                }
-                else
-                {
-                    commandUsage = new HashMap<>();
-                    lastReset = Instant.now().getEpochSecond();
+                    if (usageData.lastReset != 0)
+                    {
+                        lastReset = usageData.lastReset;
+                    }
+                    if (usageData.commandUsage != null)
+                    {
+                        importUsage(usageData.commandUsage);
+                    }
                 }
             }
-            catch (IOException e)
+            catch (IOException | JsonParseException e)
             {
                 logger.error(e.getMessage());
-                return;
             }
         }
     }
 
-    public void addUsage(String guildID, String userID)
+    private void importUsage(HashMap<String, HashMap<String, Long>> commandUsage)
     {
-        synchronized (this)
+        UsageRecorder recorder = UsageRecorder.getInstance();
+        Instant usageTime = Instant.ofEpochSecond(lastReset);
+        for (Map.Entry<String, HashMap<String, Long>> guildEntry : commandUsage.entrySet())
         {
-            if (commandUsage.get(guildID) == null)
+            for (Map.Entry<String, Long> userEntry : guildEntry.getValue().entrySet())
             {
-                commandUsage.put(guildID, new HashMap<>());
-            }
-            if (!commandUsage.get(guildID).containsKey(userID))
-            {
-                commandUsage.get(guildID).put(userID, 1);
-            }
-            else
-            {
-                int recordedNum = commandUsage.get(guildID).get(userID);
-                recordedNum++;
-                commandUsage.get(guildID).put(userID, recordedNum);
+                recorder.recordUsage(guildEntry.getKey(), userEntry.getKey(), IMPORTED_COMMAND, userEntry.getValue(), usageTime);
             }
         }
-
+        recorder.flush();
+        save();
     }
 
+    /**
+     * Records that usage has been broadcast, so the next broadcast is for the month after.
+     */
     public void reset()
     {
-        synchronized (this)
-        {
-            commandUsage = new HashMap<>();
-            lastReset = Instant.now().getEpochSecond();
-        }
+        lastReset = Instant.now().getEpochSecond();
         save();
     }
 
-    public HashMap<String, HashMap<String, Integer>> getCommandUsage()
-    {
-        return commandUsage;
-    }
-
-    public HashMap<String, Integer> getGuildCommandUsage(String guildID)
-    {
-        return commandUsage.get(guildID);
-    }
-
     public OffsetDateTime getLastReset()
     {
         return OffsetDateTime.ofInstant(Instant.ofEpochSecond(lastReset), ZoneOffset.UTC);
@@ -1,13 +1,15 @@
 package com.Zazsona.MonthlyUsage;
 
+import com.Zazsona.UsageHistoryCore.Resolution;
+import com.Zazsona.UsageHistoryCore.UsageHistory;
 import commands.CmdUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.time.*;
 import java.util.HashMap;
 
 public class MonthlyUsage extends ModuleCommand
@@ -15,41 +17,85 @@ public class MonthlyUsage extends ModuleCommand
     @Override
     public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
     {
-        FileManager fm = MonthlyUsageRecorder.getFileManager();
-        EmbedBuilder embed = buildEmbed(fm, msgEvent.getGuild(), false);
-        msgEvent.getChannel().sendMessage(embed.build()).queue();
-
+        try
+        {
+            YearMonth month = getMonth(parameters);
+            HashMap<String, Long> guildCommandUsage = getGuildCommandUsage(msgEvent.getGuild().getId(), month);
+            EmbedBuilder embed = buildEmbed(guildCommandUsage, msgEvent.getGuild(), month);
+            msgEvent.getChannel().sendMessage(embed.build()).queue();
+        }
+        catch (DateTimeException | NumberFormatException e)
+        {
+            CmdUtil.sendHelpInfo(msgEvent, getModuleAttributes().getKey());
+        }
     }
 
-    public EmbedBuilder buildEmbed(FileManager fm, Guild guild, boolean isAuto)
+    /**
+     * Gets the month to report on from the parameters, which may give a month, and then a year
+     * @param parameters the command parameters
+     * @return the month, which is the current month if none is given
+     * @throws DateTimeException the month is invalid
+     * @throws NumberFormatException the year is invalid
+     */
+    private YearMonth getMonth(String... parameters) throws DateTimeException, NumberFormatException
     {
-        HashMap<String, Integer> guildCommandUsage = fm.getGuildCommandUsage(guild.getId());
-        if (guildCommandUsage != null)
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        if (parameters.length < 2)
         {
-            OffsetDateTime utc = OffsetDateTime.now(ZoneOffset.UTC);
-            String[] topThree = getTopThree(guildCommandUsage);
-            StringBuilder descBuilder = new StringBuilder();
-            if (!isAuto)
+            return currentMonth;
+        }
+        Month month;
+        try
+        {
+            month = Month.of(Integer.parseInt(parameters[1]));
+        }
+        catch (NumberFormatException e)
+        {
+            try
             {
-                descBuilder.append("**").append(utc.getMonth().name()).append(" ").append(utc.getYear()).append("**\n\n");
+                month = Month.valueOf(parameters[1].toUpperCase());
             }
-            else
+            catch (IllegalArgumentException e1)
             {
-                descBuilder.append("**").append(utc.getMonth().minus(1).name()).append(" ");
-                if (utc.getMonthValue() != 1)
-                    descBuilder.append(utc.getYear()).append("\n\n");
-                else
-                    descBuilder.append((utc.getYear()-1)).append("\n\n");
-                descBuilder.append("**");
+                throw new DateTimeException("Unknown month: "+parameters[1]);
             }
+        }
+        if (parameters.length > 2)
+        {
+            return YearMonth.of(Integer.parseInt(parameters[2]), month);
+        }
+        YearMonth yearMonth = currentMonth.withMonth(month.getValue());
+        return (yearMonth.isAfter(currentMonth)) ? yearMonth.minusYears(1) : yearMonth;
+    }
+
+    /**
+     * Gets how many commands each user in the guild used in the month
+     * @param guildID the guild's ID
+     * @param month the month
+     * @return the number of commands used, keyed by user ID
+     */
+    public static HashMap<String, Long> getGuildCommandUsage(String guildID, YearMonth month)
+    {
+        Instant start = month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant end = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        return UsageHistory.getUserTotals(guildID, Resolution.MONTH, start, end);
+    }
+
+    public EmbedBuilder buildEmbed(HashMap<String, Long> guildCommandUsage, Guild guild, YearMonth month)
+    {
+        if (!guildCommandUsage.isEmpty())
+        {
+            String[] topThree = getTopThree(guildCommandUsage);
+            StringBuilder descBuilder = new StringBuilder();
+            descBuilder.append("**").append(month.getMonth().name()).append(" ").append(month.getYear()).append("**\n\n");
 
             descBuilder.append("Total Commands Used: ").append(getTotal(guildCommandUsage)).append("\n");
             if (!topThree[0].equalsIgnoreCase(""))
-                descBuilder.append("1st. ").append(guild.getMemberById(topThree[0]).getEffectiveName()).append(" (").append(guildCommandUsage.get(topThree[0])).append(")\n");
+                descBuilder.append("1st. ").append(getName(guild, topThree[0])).append(" (").append(guildCommandUsage.get(topThree[0])).append(")\n");
             if (!topThree[1].equalsIgnoreCase(""))
-                descBuilder.append("2nd. ").append(guild.getMemberById(topThree[1]).getEffectiveName()).append(" (").append(guildCommandUsage.get(topThree[1])).append(")\n");
+                descBuilder.append("2nd. ").append(getName(guild, topThree[1])).append(" (").append(guildCommandUsage.get(topThree[1])).append(")\n");
             if (!topThree[2].equalsIgnoreCase(""))
-                descBuilder.append("3rd. ").append(guild.getMemberById(topThree[2]).getEffectiveName()).append(" (").append(guildCommandUsage.get(topThree[2])).append(")\n");
+                descBuilder.append("3rd. ").append(getName(guild, topThree[2])).append(" (").append(guildCommandUsage.get(topThree[2])).append(")\n");
 
             descBuilder.append("\n");
             descBuilder.append(getIndividualValues(guildCommandUsage, guild));
@@ -71,17 +117,23 @@ public class MonthlyUsage extends ModuleCommand
 
     }
 
-    private int getTotal(HashMap<String, Integer> guildCommandUsage)
+    private String getName(Guild guild, String userID)
+    {
+        Member member = guild.getMemberById(userID);
+        return (member == null) ? "Former member" : member.getEffectiveName();
+    }
+
+    private long getTotal(HashMap<String, Long> guildCommandUsage)
     {
-        int total = 0;
-        for (int usage : guildCommandUsage.values())
+        long total = 0;
+        for (long usage : guildCommandUsage.values())
         {
             total += usage;
         }
         return total;
     }
 
-    private String getIndividualValues(HashMap<String, Integer> guildCommandUsage, Guild guild)
+    private String getIndividualValues(HashMap<String, Long> guildCommandUsage, Guild guild)
     {
         if (guildCommandUsage.size() <= 20)
         {
@@ -89,25 +141,25 @@ public class MonthlyUsage extends ModuleCommand
             listBuilder.append("**==========Individual Values===========**").append("\n");
             for (String userID : guildCommandUsage.keySet())
             {
-                listBuilder.append(guild.getMemberById(userID).getEffectiveName()).append(": ").append(guildCommandUsage.get(userID)).append("\n");
+                listBuilder.append(getName(guild, userID)).append(": ").append(guildCommandUsage.get(userID)).append("\n");
             }
             return listBuilder.toString();
         }
         return "";
     }
 
-    private String[] getTopThree(HashMap<String, Integer> guildCommandUsage)
+    private String[] getTopThree(HashMap<String, Long> guildCommandUsage)
     {
         String firstPlaceId = "";
-        int firstPlaceUsage = 0;
+        long firstPlaceUsage = 0;
         String secondPlaceId = "";
-        int secondPlaceUsage = -1;
+        long secondPlaceUsage = -1;
         String thirdPlaceId = "";
-        int thirdPlaceUsage = -2;
+        long thirdPlaceUsage = -2;
 
         for (String userID : guildCommandUsage.keySet())
         {
-            int commandUsage = guildCommandUsage.get(userID);
+            long commandUsage = guildCommandUsage.get(userID);
             if (commandUsage > firstPlaceUsage)
             {
                 thirdPlaceId = secondPlaceId;
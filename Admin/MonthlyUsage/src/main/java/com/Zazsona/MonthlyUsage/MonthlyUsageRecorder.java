@@ -1,5 +1,7 @@
 package com.Zazsona.MonthlyUsage;
 
+import com.Zazsona.UsageHistoryCore.UsageHistory;
+import com.Zazsona.UsageHistoryCore.UsageRecorder;
 import configuration.SettingsUtil;
 import jara.Core;
 import jara.ModuleAttributes;
@@ -11,6 +13,7 @@ import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
 import java.time.OffsetDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.util.*;
 
@@ -21,23 +24,11 @@ public class MonthlyUsageRecorder extends ModuleLoad
     @Override
     public void load()
     {
+        UsageRecorder.getInstance();
         fm = new FileManager();
         fm.restore();
         GlobalCommandListener cmdListener = new GlobalCommandListener();
         ListenerManager.registerListener(cmdListener);
-
-
-        Timer autosaveScheduler = new Timer();
-        TimerTask tt = new TimerTask()
-        {
-            @Override
-            public void run()
-            {
-                fm.save();
-            }
-        };
-        autosaveScheduler.schedule(tt, 1000*60, 1000*60);
-
         scheduleNextBroadcast();
     }
 
@@ -74,20 +65,24 @@ public class MonthlyUsageRecorder extends ModuleLoad
         @Override
         public void onCommandSuccess(GuildMessageReceivedEvent msgEvent, ModuleAttributes moduleAttributes)
         {
-            fm.addUsage(msgEvent.getGuild().getId(), msgEvent.getAuthor().getId());
+            UsageRecorder.getInstance().recordUsage(msgEvent.getGuild().getId(), msgEvent.getAuthor().getId(), moduleAttributes.getKey());
         }
     }
 
     private void broadcast()
     {
         MonthlyUsage mu = new MonthlyUsage();
-        HashMap<String, HashMap<String, Integer>> commandUsage = fm.getCommandUsage();
-        for (String guildID : commandUsage.keySet())
+        YearMonth month = YearMonth.from(fm.getLastReset());
+        for (String guildID : UsageHistory.getGuildIDs())
         {
-            if (SettingsUtil.getGuildSettings(guildID).isCommandEnabled("MonthlyUsage"))
+            Guild guild = Core.getShardManager().getGuildById(guildID);
+            if (guild != null && SettingsUtil.getGuildSettings(guildID).isCommandEnabled("MonthlyUsage"))
             {
-                Guild guild = Core.getShardManager().getGuildById(guildID);
-                guild.getDefaultChannel().sendMessage(mu.buildEmbed(fm, guild, true).build()).queue();
+                HashMap<String, Long> guildCommandUsage = MonthlyUsage.getGuildCommandUsage(guildID, month);
+                if (!guildCommandUsage.isEmpty())
+                {
+                    guild.getDefaultChannel().sendMessage(mu.buildEmbed(guildCommandUsage, guild, month).build()).queue();
+                }
             }
         }
         fm.reset();
@@ -0,0 +1,160 @@
+package com.Zazsona.Quiz.api;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * A persistent store of unused questions, keyed by category and difficulty, so quizzes can be filled without going to the API.
+ */
+public class TriviaPool
+{
+    private static final String[] DIFFICULTIES = {"easy", "medium", "hard"};
+    private static final int MAX_QUESTIONS_PER_KEY = 100;
+    private transient static Logger logger = LoggerFactory.getLogger(TriviaPool.class);
+    private final File poolFile;
+    private final Random random = new Random();
+    private HashMap<String, LinkedList<TriviaResponse.TriviaQuestion>> keyToQuestions;
+
+    /**
+     * Creates a pool backed by the specified file, restoring any questions already saved to it.
+     * @param poolFile the file to save the pool to
+     */
+    public TriviaPool(File poolFile)
+    {
+        this.poolFile = poolFile;
+        restore();
+    }
+
+    /**
+     * Takes up to the specified number of questions for the category, mixing difficulties.
+     * @param categoryID the OpenTDB category ID
+     * @param quantity the maximum number of questions to take
+     * @return the questions, which are removed from the pool
+     */
+    public synchronized ArrayList<TriviaResponse.TriviaQuestion> take(int categoryID, int quantity)
+    {
+        ArrayList<TriviaResponse.TriviaQuestion> questions = new ArrayList<>();
+        ArrayList<LinkedList<TriviaResponse.TriviaQuestion>> candidates = new ArrayList<>();
+        for (String difficulty : DIFFICULTIES)
+        {
+            LinkedList<TriviaResponse.TriviaQuestion> difficultyQuestions = keyToQuestions.get(getKey(categoryID, difficulty));
+            if (difficultyQuestions != null && difficultyQuestions.size() > 0)
+            {
+                candidates.add(difficultyQuestions);
+            }
+        }
+        while (questions.size() < quantity && candidates.size() > 0)
+        {
+            int candidateIndex = random.nextInt(candidates.size());
+            LinkedList<TriviaResponse.TriviaQuestion> difficultyQuestions = candidates.get(candidateIndex);
+            questions.add(difficultyQuestions.poll());
+            if (difficultyQuestions.size() == 0)
+            {
+                candidates.remove(candidateIndex);
+            }
+        }
+        return questions;
+    }
+
+    /**
+     * Adds the questions to the pool. Questions already in the pool, and those over the per-difficulty limit, are discarded.
+     * @param categoryID the OpenTDB category ID the questions belong to
+     * @param questions the questions to add
+     */
+    public synchronized void add(int categoryID, Collection<TriviaResponse.TriviaQuestion> questions)
+    {
+        for (TriviaResponse.TriviaQuestion question : questions)
+        {
+            if (question == null || question.getDifficulty() == null)
+            {
+                continue;
+            }
+            LinkedList<TriviaResponse.TriviaQuestion> difficultyQuestions = keyToQuestions.computeIfAbsent(getKey(categoryID, question.getDifficulty()), (k) -> new LinkedList<>());
+            if (difficultyQuestions.size() < MAX_QUESTIONS_PER_KEY && !containsQuestion(difficultyQuestions, question))
+            {
+                difficultyQuestions.add(question);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of questions held for the category
+     * @param categoryID the OpenTDB category ID
+     * @return the number of questions
+     */
+    public synchronized int size(int categoryID)
+    {
+        int size = 0;
+        for (String difficulty : DIFFICULTIES)
+        {
+            LinkedList<TriviaResponse.TriviaQuestion> difficultyQuestions = keyToQuestions.get(getKey(categoryID, difficulty));
+            size += (difficultyQuestions != null) ? difficultyQuestions.size() : 0;
+        }
+        return size;
+    }
+
+    /**
+     * Saves the pool to disk.
+     */
+    public synchronized void save()
+    {
+        try
+        {
+            File tempFile = new File(poolFile.getAbsolutePath()+".tmp");
+            Files.write(tempFile.toPath(), new Gson().toJson(keyToQuestions).getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile.toPath(), poolFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to save the trivia pool.\n"+e.toString());
+        }
+    }
+
+    private synchronized void restore()
+    {
+        keyToQuestions = null;
+        try
+        {
+            if (poolFile.exists())
+            {
+                String json = new String(Files.readAllBytes(poolFile.toPath()), StandardCharsets.UTF_8);
+                TypeToken<HashMap<String, LinkedList<TriviaResponse.TriviaQuestion>>> token = new TypeToken<HashMap<String, LinkedList<TriviaResponse.TriviaQuestion>>>() {};
+                keyToQuestions = new Gson().fromJson(json, token.getType());
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Unable to restore the trivia pool. Starting with an empty pool.\n"+e.toString());
+        }
+        if (keyToQuestions == null)
+        {
+            keyToQuestions = new HashMap<>();
+        }
+    }
+
+    private boolean containsQuestion(LinkedList<TriviaResponse.TriviaQuestion> questions, TriviaResponse.TriviaQuestion question)
+    {
+        for (TriviaResponse.TriviaQuestion pooledQuestion : questions)
+        {
+            if (pooledQuestion.getQuestion().equals(question.getQuestion()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getKey(int categoryID, String difficulty)
+    {
+        return categoryID+"/"+difficulty.toLowerCase();
+    }
+}
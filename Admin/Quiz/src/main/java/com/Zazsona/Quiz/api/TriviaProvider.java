@@ -0,0 +1,314 @@
+package com.Zazsona.Quiz.api;
+
+import com.Zazsona.Quiz.config.QuizBuilder;
+import com.google.gson.Gson;
+import commands.CmdUtil;
+import configuration.SettingsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fetches questions from OpenTDB, keeping unused questions in a {@link TriviaPool} so that quizzes can be filled from disk.<br>
+ * OpenTDB allows one request from an IP every {@link #REQUEST_INTERVAL_MILLIS}ms, so requests are sent one at a time,
+ * each waiting until that long after the last has finished.
+ */
+public class TriviaProvider
+{
+    private static final String DEFAULT_API_URL = "https://opentdb.com";
+    private static final int MAX_REQUEST_AMOUNT = 50;
+    private static final int POOL_TOP_UP = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long REQUEST_INTERVAL_MILLIS = 5000;
+    private static final int RESPONSE_SUCCESS = 0;
+    private static final int RESPONSE_NO_RESULTS = 1;
+    private static final int RESPONSE_TOKEN_NOT_FOUND = 3;
+    private static final int RESPONSE_TOKEN_EMPTY = 4;
+    private static final int RESPONSE_RATE_LIMIT = 5;
+    private static TriviaProvider triviaProvider;
+    private transient static Logger logger = LoggerFactory.getLogger(TriviaProvider.class);
+    private final String apiUrl;
+    private final TriviaPool triviaPool;
+    private final ExecutorService requestExecutor;
+    private final Gson gson = new Gson();
+    private final Object requestLock = new Object();
+    private String token;
+    /**
+     * The earliest time the next request may be sent.
+     */
+    private long nextRequestMillis = 0;
+
+    /**
+     * Creates a provider for the specified API.
+     * @param apiUrl the base URL of the API, without a trailing slash
+     * @param triviaPool the pool to hold unused questions
+     */
+    public TriviaProvider(String apiUrl, TriviaPool triviaPool)
+    {
+        this.apiUrl = apiUrl;
+        this.triviaPool = triviaPool;
+        this.requestExecutor = Executors.newSingleThreadExecutor((runnable) ->
+        {
+            Thread thread = new Thread(runnable, "Quiz-Trivia");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized TriviaProvider getInstance()
+    {
+        if (triviaProvider == null)
+        {
+            File poolFile = new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/QuizTriviaPool.jara");
+            triviaProvider = new TriviaProvider(DEFAULT_API_URL, new TriviaPool(poolFile));
+        }
+        return triviaProvider;
+    }
+
+    /**
+     * Starts gathering the questions for a quiz. Questions are taken from the pool first, and any shortfall is requested
+     * one category at a time, behind any other quiz's requests. Each request fetches extra questions to top up the pool
+     * for later quizzes.
+     * @param quizBuilder the quiz's settings
+     * @return a future that completes with the questions, which may be fewer than requested if the API is unavailable
+     */
+    public CompletableFuture<TriviaResponse.TriviaQuestion[]> prefetch(QuizBuilder quizBuilder)
+    {
+        HashMap<Integer, Integer> categoryQuantityMap = getCategoryQuantities(quizBuilder);
+        ArrayList<TriviaResponse.TriviaQuestion> questions = new ArrayList<>();
+        ArrayList<CompletableFuture<List<TriviaResponse.TriviaQuestion>>> requests = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : categoryQuantityMap.entrySet())
+        {
+            int categoryID = entry.getKey();
+            ArrayList<TriviaResponse.TriviaQuestion> pooledQuestions = triviaPool.take(categoryID, entry.getValue());
+            questions.addAll(pooledQuestions);
+            int shortfall = entry.getValue()-pooledQuestions.size();
+            if (shortfall > 0)
+            {
+                requests.add(CompletableFuture.supplyAsync(() -> fetch(categoryID, shortfall), requestExecutor));
+            }
+        }
+        if (requests.size() == 0)
+        {
+            triviaPool.save();
+            return CompletableFuture.completedFuture(shuffle(questions));
+        }
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).thenApply((v) ->
+        {
+            for (CompletableFuture<List<TriviaResponse.TriviaQuestion>> request : requests)
+            {
+                questions.addAll(request.join());
+            }
+            if (questions.size() < quizBuilder.getQuestionCount())
+            {
+                questions.addAll(takeFromPool(getValidCategories(quizBuilder), quizBuilder.getQuestionCount()-questions.size()));
+            }
+            triviaPool.save();
+            return shuffle(questions);
+        });
+    }
+
+    /**
+     * Gets questions for a quiz from the pool alone, without going to the API.
+     * @param quizBuilder the quiz's settings
+     * @return the questions, which may be fewer than requested if the pool is short
+     */
+    public TriviaResponse.TriviaQuestion[] takeFromPool(QuizBuilder quizBuilder)
+    {
+        ArrayList<TriviaResponse.TriviaQuestion> questions = takeFromPool(getValidCategories(quizBuilder), quizBuilder.getQuestionCount());
+        triviaPool.save();
+        return shuffle(questions);
+    }
+
+    /**
+     * Returns unused questions to the pool, such as when a quiz started without them.
+     * @param questions the questions
+     */
+    public void returnToPool(TriviaResponse.TriviaQuestion[] questions)
+    {
+        for (TriviaResponse.TriviaQuestion question : questions)
+        {
+            int categoryID = QuizBuilder.getCategoryID(question.getCategory());
+            if (categoryID != -1)
+            {
+                triviaPool.add(categoryID, Collections.singletonList(question));
+            }
+        }
+        triviaPool.save();
+    }
+
+    private ArrayList<TriviaResponse.TriviaQuestion> takeFromPool(ArrayList<Integer> categoryIDs, int quantity)
+    {
+        ArrayList<TriviaResponse.TriviaQuestion> questions = new ArrayList<>();
+        Collections.shuffle(categoryIDs);
+        for (int categoryID : categoryIDs)
+        {
+            if (questions.size() >= quantity)
+            {
+                break;
+            }
+            questions.addAll(triviaPool.take(categoryID, quantity-questions.size()));
+        }
+        return questions;
+    }
+
+    /**
+     * Requests the questions needed from the category, plus extras which are added to the pool.
+     * @param categoryID the OpenTDB category ID
+     * @param quantity the number of questions needed
+     * @return the needed questions, which may be fewer than requested if the API is unavailable
+     */
+    private List<TriviaResponse.TriviaQuestion> fetch(int categoryID, int quantity)
+    {
+        List<TriviaResponse.TriviaQuestion> questions = request(categoryID, quantity, Math.min(quantity+POOL_TOP_UP, MAX_REQUEST_AMOUNT));
+        if (questions.size() > quantity)
+        {
+            triviaPool.add(categoryID, questions.subList(quantity, questions.size()));
+            return new ArrayList<>(questions.subList(0, quantity));
+        }
+        return questions;
+    }
+
+    private List<TriviaResponse.TriviaQuestion> request(int categoryID, int minAmount, int amount)
+    {
+        try
+        {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++)
+            {
+                String sessionToken = getToken();
+                String tokenParameter = (sessionToken != null) ? "&token="+sessionToken : "";
+                String json = sendRequest(apiUrl+"/api.php?amount="+amount+"&category="+categoryID+tokenParameter);
+                TriviaResponse triviaResponse = (json != null) ? gson.fromJson(json, TriviaResponse.class) : null;
+                if (triviaResponse == null)
+                {
+                    break;
+                }
+                switch (triviaResponse.getResponseCode())
+                {
+                    case RESPONSE_SUCCESS:
+                        return (triviaResponse.results != null) ? Arrays.asList(triviaResponse.results) : new ArrayList<>();
+                    case RESPONSE_NO_RESULTS:
+                        if (amount == minAmount)
+                        {
+                            return new ArrayList<>();
+                        }
+                        amount = minAmount; //The category may not have enough questions left for the top up.
+                        break;
+                    case RESPONSE_TOKEN_NOT_FOUND:
+                    case RESPONSE_TOKEN_EMPTY:
+                        invalidateToken(sessionToken);
+                        break;
+                    case RESPONSE_RATE_LIMIT:
+                        break; //The next attempt waits out the interval, as any request does.
+                    default:
+                        logger.warn("Unexpected response code "+triviaResponse.getResponseCode()+" for trivia category "+categoryID);
+                        return new ArrayList<>();
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Unable to fetch trivia for category "+categoryID+"\n"+e.toString());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Gets the session token, which stops the API from repeating questions. One token is shared by every quiz, so that
+     * repeats are avoided across quizzes too.
+     * @return the token, or null if one could not be obtained
+     */
+    private synchronized String getToken()
+    {
+        if (token == null)
+        {
+            try
+            {
+                String tokenJson = sendRequest(apiUrl+"/api_token.php?command=request");
+                TokenResponse tokenResponse = (tokenJson != null) ? gson.fromJson(tokenJson, TokenResponse.class) : null;
+                if (tokenResponse != null && tokenResponse.getResponseCode() == RESPONSE_SUCCESS)
+                {
+                    token = tokenResponse.getToken();
+                }
+            }
+            catch (Exception e)
+            {
+                logger.error("Unable to get a trivia session token.\n"+e.toString());
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Sends a request to the API once the interval since the last request has passed.
+     * @param url the request's URL
+     * @return the response, or null if the request failed
+     * @throws InterruptedException interrupted while waiting to send the request
+     */
+    private String sendRequest(String url) throws InterruptedException
+    {
+        synchronized (requestLock)
+        {
+            long waitMillis = nextRequestMillis-System.currentTimeMillis();
+            if (waitMillis > 0)
+            {
+                Thread.sleep(waitMillis);
+            }
+            try
+            {
+                return CmdUtil.sendHTTPRequest(url);
+            }
+            finally
+            {
+                nextRequestMillis = System.currentTimeMillis()+REQUEST_INTERVAL_MILLIS;
+            }
+        }
+    }
+
+    private synchronized void invalidateToken(String staleToken)
+    {
+        if (token != null && token.equals(staleToken))
+        {
+            token = null;
+        }
+    }
+
+    private HashMap<Integer, Integer> getCategoryQuantities(QuizBuilder quizBuilder)
+    {
+        Random r = new Random();
+        HashMap<Integer, Integer> categoryQuantityMap = new HashMap<>();
+        ArrayList<Integer> validCategories = getValidCategories(quizBuilder);
+        for (int i = 0; i<quizBuilder.getQuestionCount(); i++)
+        {
+            int categoryID = validCategories.get(r.nextInt(validCategories.size()));
+            int baseQuantity = categoryQuantityMap.getOrDefault(categoryID, 0);
+            categoryQuantityMap.put(categoryID, baseQuantity+1);
+        }
+        return categoryQuantityMap;
+    }
+
+    private ArrayList<Integer> getValidCategories(QuizBuilder quizBuilder)
+    {
+        ArrayList<Integer> validCategories = new ArrayList<Integer>();
+        for (int categoryID : QuizBuilder.CATEGORY_IDs)
+            validCategories.add(categoryID);
+        validCategories.removeAll(quizBuilder.getCategoriesBlacklist());
+        if (validCategories.size() == 0)
+        {
+            for (int categoryID : QuizBuilder.CATEGORY_IDs)
+                validCategories.add(categoryID);
+        }
+        return validCategories;
+    }
+
+    private TriviaResponse.TriviaQuestion[] shuffle(ArrayList<TriviaResponse.TriviaQuestion> questions)
+    {
+        Collections.shuffle(questions);
+        return questions.toArray(new TriviaResponse.TriviaQuestion[0]);
+    }
+}
@@ -4,9 +4,20 @@ import java.util.Random;
 
 public class TriviaResponse
 {
+    private int response_code;
     public TriviaQuestion[] results;
 
-    public class TriviaQuestion
+    /**
+     * Gets response_code
+     *
+     * @return response_code
+     */
+    public int getResponseCode()
+    {
+        return response_code;
+    }
+
+    public static class TriviaQuestion
     {
         private String category;
         private String type;
@@ -1,16 +1,14 @@
 package com.Zazsona.Quiz.config;
 
-import com.Zazsona.Quiz.api.TokenResponse;
+import com.Zazsona.Quiz.api.TriviaProvider;
 import com.Zazsona.Quiz.api.TriviaResponse;
 import com.Zazsona.Quiz.quiz.Quiz;
-import com.Zazsona.Quiz.quiz.Trivia;
-import com.google.gson.Gson;
-import commands.CmdUtil;
 import jara.Core;
 import net.dv8tion.jda.api.entities.Guild;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class QuizBuilder implements Serializable
 {
@@ -181,48 +179,9 @@ public class QuizBuilder implements Serializable
 
     public Quiz build()
     {
-        Trivia[] trivia = getTrivia();
+        CompletableFuture<TriviaResponse.TriviaQuestion[]> questions = TriviaProvider.getInstance().prefetch(this);
         Guild guild = Core.getShardManagerNotNull().getGuildById(guildID);
-        return new Quiz(guild, trivia, this);
-    }
-
-    private Trivia[] getTrivia()
-    {
-        LinkedList<Trivia> triviaList = new LinkedList<>();
-        Gson gson = new Gson();
-        String tokenJson = CmdUtil.sendHTTPRequest("https://opentdb.com/api_token.php?command=request");
-        TokenResponse tokenResponse = gson.fromJson(tokenJson, TokenResponse.class);
-        if (categoryBlacklist.size() > 0 && categoryBlacklist.size() < CATEGORY_IDs.length)
-        {
-            Random r = new Random();
-            HashMap<Integer, Integer> categoryQuantityMap = new HashMap<>();
-            ArrayList<Integer> validCategories = new ArrayList<Integer>();
-            for (int categoryID : CATEGORY_IDs)
-                validCategories.add(categoryID);
-            validCategories.removeAll(categoryBlacklist);
-
-            for (int i = 0; i<questionCount; i++)
-            {
-                int categoryID = validCategories.get(r.nextInt(validCategories.size()));
-                int baseQuantity = categoryQuantityMap.getOrDefault(categoryID, 0);
-                categoryQuantityMap.put(categoryID, baseQuantity+1);
-            }
-            for (Map.Entry<Integer, Integer> entry : categoryQuantityMap.entrySet())
-            {
-                String json = CmdUtil.sendHTTPRequest("https://opentdb.com/api.php?amount="+entry.getValue()+"&token="+tokenResponse.getToken()+"&category="+entry.getKey());
-                TriviaResponse triviaResponse = gson.fromJson(json, TriviaResponse.class);
-                for (TriviaResponse.TriviaQuestion question : triviaResponse.results)
-                    triviaList.add(new Trivia(question));
-            }
-        }
-        else
-        {
-            String json = CmdUtil.sendHTTPRequest("https://opentdb.com/api.php?amount="+questionCount);
-            TriviaResponse triviaResponse = gson.fromJson(json, TriviaResponse.class);
-            for (TriviaResponse.TriviaQuestion question : triviaResponse.results)
-                triviaList.add(new Trivia(question));
-        }
-        return triviaList.toArray(new Trivia[0]);
+        return new Quiz(guild, questions, this);
     }
 
     public QuizBuilder clone()
@@ -239,6 +198,7 @@ public class QuizBuilder implements Serializable
             case "GENERAL":
                 return 9;
             case "SCIENCE AND NATURE":
+            case "SCIENCE & NATURE":
             case "SCIENCE":
             case "NATURE":
                 return 17;
@@ -1,57 +1,53 @@
 package com.Zazsona.Quiz.quiz;
 
-import net.dv8tion.jda.api.entities.Category;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
-import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class AnswerHandler extends ListenerAdapter
+public class AnswerHandler
 {
-    private Category channelCategory;
-    private ArrayList<QuizTeam> quizTeams;
     private int questionNo;
     private Trivia trivia;
-    private HashSet<QuizTeam> teamsWithAnswerSet;
+    private AtomicInteger answeredTeamCount;
     private int startingTeamCount;
+    private AtomicBoolean isOpen;
+    private Runnable onEveryoneAnswered;
 
-    public AnswerHandler(Category channelCategory, ArrayList<QuizTeam> quizTeams, Trivia trivia, int questionNo)
+    /**
+     * Creates a handler for the question.
+     * @param trivia the question
+     * @param questionNo the question's index in the quiz
+     * @param startingTeamCount the number of teams playing as the question is asked
+     * @param onEveryoneAnswered run once every team has answered, so the quiz can move on early
+     */
+    public AnswerHandler(Trivia trivia, int questionNo, int startingTeamCount, Runnable onEveryoneAnswered)
     {
-        this.channelCategory = channelCategory;
-        this.quizTeams = quizTeams;
         this.questionNo = questionNo;
         this.trivia = trivia;
-        this.teamsWithAnswerSet = new HashSet<>();
-        this.startingTeamCount = quizTeams.size();
+        this.answeredTeamCount = new AtomicInteger(0);
+        this.startingTeamCount = startingTeamCount;
+        this.isOpen = new AtomicBoolean(true);
+        this.onEveryoneAnswered = onEveryoneAnswered;
     }
 
-    @Override
-    public void onGuildMessageReceived(@Nonnull GuildMessageReceivedEvent event)
+    /**
+     * Records the team's answer, if the message is one.
+     * @param quizTeam the team whose channel the message was sent in
+     * @param event the message event
+     */
+    public void handleAnswer(QuizTeam quizTeam, GuildMessageReceivedEvent event)
     {
         try
         {
-            if (channelCategory.getTextChannels().contains(event.getChannel()))
+            String messageContent = event.getMessage().getContentDisplay();
+            if (isOpen.get() && trivia.isAnswerValid(messageContent))
             {
-                synchronized (quizTeams)
-                {
-                    QuizTeam quizTeam = getTeamByChannel(event.getChannel().getId());
-                    if (quizTeam != null)
-                    {
-                        String messageContent = event.getMessage().getContentDisplay();
-                        if (trivia.isAnswerValid(messageContent))
-                        {
-                            quizTeam.getTeamChannel().sendMessage(Quiz.getQuizEmbedStyle(event.getGuild()).setAuthor(null).setDescription("Your Answer: **"+trivia.getAnswers()[trivia.getAnswerIndex(messageContent)]+"**").build()).queue();
-                            teamsWithAnswerSet.add(quizTeam);
-                            if (trivia.isAnswerCorrect(messageContent))
-                                quizTeam.setAnswerResult(questionNo, true);
-                            else
-                                quizTeam.setAnswerResult(questionNo, false); //This handles if they change their answer from a correct one to a wrong one
-                        }
-                    }
-                }
+                quizTeam.getTeamChannel().sendMessage(Quiz.getQuizEmbedStyle(event.getGuild()).setAuthor(null).setDescription("Your Answer: **"+trivia.getAnswers()[trivia.getAnswerIndex(messageContent)]+"**").build()).queue();
+                boolean isFirstAnswer = quizTeam.setAnswerResult(questionNo, trivia.isAnswerCorrect(messageContent)); //This handles if they change their answer from a correct one to a wrong one
+                if (isFirstAnswer && answeredTeamCount.incrementAndGet() == startingTeamCount)
+                    onEveryoneAnswered.run();
             }
         }
         catch (NoSuchElementException e)
@@ -60,19 +56,23 @@ public class AnswerHandler extends ListenerAdapter
         }
     }
 
-    private QuizTeam getTeamByChannel(String channelID)
+    /**
+     * Stops accepting answers to the question.
+     * @return true if the question was open, false if it had already been closed
+     */
+    public boolean close()
     {
-        for (QuizTeam quizTeam : quizTeams)
-        {
-            if (quizTeam.getTeamChannel().getId().equalsIgnoreCase(channelID))
-                return quizTeam;
-        }
-        return null;
+        return isOpen.compareAndSet(true, false);
+    }
+
+    public int getQuestionNo()
+    {
+        return questionNo;
     }
 
     public boolean hasEveryoneAnswered()
     {
-        return (startingTeamCount > 0 && teamsWithAnswerSet.size() == startingTeamCount); //0 check is so that, if no one joins during the countdown period, the quiz doesn't just speed through.
+        return (startingTeamCount > 0 && answeredTeamCount.get() >= startingTeamCount); //0 check is so that, if no one joins during the countdown period, the quiz doesn't just speed through.
     }
 
 }
@@ -4,7 +4,6 @@ import configuration.SettingsUtil;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
-import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
@@ -12,7 +11,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
-public class JoinHandler extends ListenerAdapter
+public class JoinHandler
 {
     private Quiz quiz;
     private Guild guild;
@@ -29,8 +28,7 @@ public class JoinHandler extends ListenerAdapter
         this.rolesPermittedToJoin = rolesPermittedToJoin;
     }
 
-    @Override
-    public void onGuildMessageReceived(@Nonnull GuildMessageReceivedEvent event)
+    public void handleMessage(@Nonnull GuildMessageReceivedEvent event)
     {
         if (event.getGuild().equals(guild) && event.getMessage().getContentDisplay().toLowerCase().startsWith(SettingsUtil.getGuildCommandPrefix(event.getGuild().getId())+"join"))
         {
@@ -57,6 +55,7 @@ public class JoinHandler extends ListenerAdapter
                     currentTeam.removeTeamMember(event.getMember());
                     if (currentTeam.getTeamSize() == 0)
                     {
+                        QuizEventRouter.getInstance().removeTeam(currentTeam);
                         currentTeam.getTeamChannel().delete().queue();
                         quizTeams.remove(currentTeam);
                     }
@@ -80,6 +79,7 @@ public class JoinHandler extends ListenerAdapter
                 currentTeam.removeTeamMember(event.getMember());
                 if (currentTeam.getTeamSize() == 0)
                 {
+                    QuizEventRouter.getInstance().removeTeam(currentTeam);
                     currentTeam.getTeamChannel().delete().queue();
                     quizTeams.remove(currentTeam);
                 }
@@ -93,8 +93,9 @@ public class JoinHandler extends ListenerAdapter
                 {
                     if (teamName.length() <= 40)
                     {
-                        QuizTeam quizTeam = new QuizTeam(teamName, event.getMember(), quizCategory, quiz.getQuestionCount());
+                        QuizTeam quizTeam = new QuizTeam(quiz, teamName, event.getMember(), quizCategory, quiz.getQuestionCount());
                         quizTeams.add(quizTeam);
+                        QuizEventRouter.getInstance().addTeam(quizTeam);
                         allowGlobalChannelAccess(event.getMember());
                         if (quiz.isStarted())
                             quizTeam.getTeamChannel().sendMessage(Quiz.getQuizEmbedStyle(event.getGuild()).setDescription("Please wait for the next question...").build()).queue();
@@ -1,56 +1,63 @@
 package com.Zazsona.Quiz.quiz;
 
+import com.Zazsona.Quiz.api.TriviaProvider;
+import com.Zazsona.Quiz.api.TriviaResponse;
 import com.Zazsona.Quiz.config.QuizBuilder;
 import com.Zazsona.Quiz.stats.UserStatManager;
+import com.Zazsona.Quiz.system.QuizRuntime;
 import commands.CmdUtil;
 import configuration.SettingsUtil;
-import jara.Core;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Quiz
 {
-    private boolean isQuizStarted;
-    private Trivia[] trivia;
+    private static final int TRIVIA_WAIT_SECONDS = 10;
+    private static final int ANSWER_TIME_SECONDS = 60;
+    private static final int CLEANUP_DELAY_MINUTES = 10;
+    private transient static Logger logger = LoggerFactory.getLogger(Quiz.class);
+    private volatile boolean isQuizStarted;
+    private CompletableFuture<TriviaResponse.TriviaQuestion[]> triviaFuture;
+    private AtomicBoolean isTriviaResolved;
+    private volatile Trivia[] trivia;
     private JoinHandler joinHandler;
+    private volatile AnswerHandler answerHandler;
+    private volatile ScheduledFuture<?> answerDeadline;
     private Category quizCategory;
     private ArrayList<QuizTeam> quizTeams;
     private TextChannel globalQuizChannel;
     private QuizBuilder quizSettings;
 
-    public Quiz(Guild guild, Trivia[] trivia, QuizBuilder quizBuilder)
+    public Quiz(Guild guild, CompletableFuture<TriviaResponse.TriviaQuestion[]> triviaFuture, QuizBuilder quizBuilder)
     {
         this.quizSettings = quizBuilder;
-        this.trivia = trivia;
+        this.triviaFuture = triviaFuture;
+        this.isTriviaResolved = new AtomicBoolean(false);
         this.quizTeams = new ArrayList<>();
         this.isQuizStarted = false;
         this.quizCategory = guild.createCategory("Quiz").complete();
         this.joinHandler = new JoinHandler(this, guild, quizCategory, quizTeams, quizBuilder.getRolesPermittedToJoin());
     }
 
+    /**
+     * Starts the quiz. This returns straight away, as the countdown, questions and clean up are run on the {@link QuizRuntime}.
+     */
     public void runQuiz()
     {
-        Core.getShardManagerNotNull().addEventListener(joinHandler);
-        runCountdown();
-        for (int questionNo = 0; questionNo<trivia.length; questionNo++)
-        {
-            postQuestion(questionNo);
-            getAnswers(trivia[questionNo], questionNo);
-        }
-        Core.getShardManagerNotNull().removeEventListener(joinHandler);
-        if (quizTeams.size() > 0)
-        {
-            ArrayList<QuizTeam> leaderboard = getLeaderboard();
-            postResults(leaderboard);
-            recordStats(leaderboard.get(0));
-        }
-        dispose();
+        QuizEventRouter.getInstance().addQuiz(quizCategory.getGuild().getId(), this);
+        QuizRuntime.execute(this::runCountdown);
     }
 
     private void runCountdown()
@@ -65,22 +72,108 @@ public class Quiz
             if (quizSettings.isPingOnCountdown())
                 guild.getDefaultChannel().sendMessage(guild.getPublicRole().getAsMention()).queue();
         }
-        while (countdownTime > 0)
+        if (countdownTime >= 30)
         {
-            try
-            {
-                if (countdownTime == 30)
-                    guild.getDefaultChannel().sendMessage(getQuizEmbedStyle(guild).setDescription("Quiz will start in "+countdownTime+" seconds!\nUse "+ SettingsUtil.getGuildCommandPrefix(guild.getId())+"join to play.").build()).queue();
-                Thread.sleep(1000);
-                countdownTime--;
-            }
-            catch (InterruptedException e)
-            {
-                countdownTime--;
-            }
+            QuizRuntime.schedule(() -> guild.getDefaultChannel().sendMessage(getQuizEmbedStyle(guild).setDescription("Quiz will start in 30 seconds!\nUse "+ SettingsUtil.getGuildCommandPrefix(guild.getId())+"join to play.").build()).queue(), countdownTime-30, TimeUnit.SECONDS);
         }
+        QuizRuntime.schedule(this::beginQuiz, countdownTime, TimeUnit.SECONDS);
+    }
+
+    private void beginQuiz()
+    {
+        Guild guild = quizCategory.getGuild();
         guild.getDefaultChannel().sendMessage(getQuizEmbedStyle(guild).setDescription("The quiz has now begun!").build()).queue();
         isQuizStarted = true;
+        ScheduledFuture<?> triviaTimeout = QuizRuntime.schedule(() -> startQuestions(null), TRIVIA_WAIT_SECONDS, TimeUnit.SECONDS);
+        triviaFuture.whenComplete((questions, e) ->
+        {
+            triviaTimeout.cancel(false);
+            QuizRuntime.execute(() -> startQuestions(questions));
+        });
+    }
+
+    /**
+     * Starts asking the questions gathered during the countdown. If they weren't ready in time, the quiz is filled from
+     * the pool instead, and the late questions are returned to the pool once they arrive.
+     * @param questions the questions, or null if they weren't ready in time
+     */
+    private void startQuestions(@Nullable TriviaResponse.TriviaQuestion[] questions)
+    {
+        if (!isTriviaResolved.compareAndSet(false, true))
+        {
+            if (questions != null)
+                TriviaProvider.getInstance().returnToPool(questions);
+            return;
+        }
+        if (questions == null)
+        {
+            logger.warn("Trivia was not ready for the quiz in guild "+quizCategory.getGuild().getId()+". Using pooled questions.");
+            questions = TriviaProvider.getInstance().takeFromPool(quizSettings);
+        }
+        Trivia[] trivia = new Trivia[questions.length];
+        for (int i = 0; i<questions.length; i++)
+        {
+            trivia[i] = new Trivia(questions[i]);
+        }
+        this.trivia = trivia;
+        if (trivia.length == 0)
+        {
+            Guild guild = quizCategory.getGuild();
+            guild.getDefaultChannel().sendMessage(getQuizEmbedStyle(guild).setDescription("Unable to get any questions. Please try again later.").build()).queue();
+        }
+        openQuestion(0);
+    }
+
+    private void openQuestion(int questionNo)
+    {
+        if (questionNo >= trivia.length)
+        {
+            finishQuiz();
+            return;
+        }
+        postQuestion(questionNo);
+        AnswerHandler answerHandler;
+        synchronized (quizTeams)
+        {
+            answerHandler = new AnswerHandler(trivia[questionNo], questionNo, quizTeams.size(), () -> QuizRuntime.execute(() -> closeQuestion(questionNo)));
+        }
+        answerDeadline = QuizRuntime.schedule(() -> closeQuestion(questionNo), ANSWER_TIME_SECONDS, TimeUnit.SECONDS);
+        this.answerHandler = answerHandler;
+    }
+
+    /**
+     * Closes the question, either as its time is up or as everyone has answered, and moves on to the next.
+     * @param questionNo the question to close
+     */
+    private void closeQuestion(int questionNo)
+    {
+        AnswerHandler answerHandler = this.answerHandler;
+        if (answerHandler == null || answerHandler.getQuestionNo() != questionNo || !answerHandler.close())
+        {
+            return; //The question has already been closed.
+        }
+        this.answerHandler = null;
+        answerDeadline.cancel(false);
+        openQuestion(questionNo+1);
+    }
+
+    private void finishQuiz()
+    {
+        QuizEventRouter.getInstance().removeQuiz(quizCategory.getGuild().getId(), this);
+        synchronized (quizTeams)
+        {
+            for (QuizTeam quizTeam : quizTeams)
+            {
+                QuizEventRouter.getInstance().removeTeam(quizTeam);
+            }
+        }
+        if (quizTeams.size() > 0)
+        {
+            ArrayList<QuizTeam> leaderboard = getLeaderboard();
+            postResults(leaderboard);
+            recordStats(leaderboard.get(0));
+        }
+        QuizRuntime.schedule(this::dispose, CLEANUP_DELAY_MINUTES, TimeUnit.MINUTES);
     }
 
     private void postQuestion(int questionNo)
@@ -139,21 +232,6 @@ public class Quiz
         }
     }
 
-    private void getAnswers(Trivia trivia, int questionNo)
-    {
-        AnswerHandler answerHandler = new AnswerHandler(quizCategory, quizTeams, trivia, questionNo);
-        Core.getShardManagerNotNull().addEventListener(answerHandler);
-        int answerTime = 60;
-        while (answerTime > 0)
-        {
-            try {Thread.sleep(1000);} catch (InterruptedException e) {}
-            answerTime--;
-            if (answerHandler.hasEveryoneAnswered())
-                break;
-        }
-        Core.getShardManagerNotNull().removeEventListener(answerHandler);
-    }
-
     private ArrayList<QuizTeam> getLeaderboard()
     {
         for (int i = 0; i<trivia.length; i++)
@@ -171,27 +249,16 @@ public class Quiz
 
     private void recordStats(QuizTeam winningTeam)
     {
-        UserStatManager.saveQuizStats(winningTeam, trivia, quizTeams);
+        UserStatManager.saveQuizStats(quizCategory.getGuild().getId(), winningTeam, trivia, quizTeams);
     }
 
     private void dispose()
     {
-        try
-        {
-            Thread.sleep(1000*60*10);
-        }
-        catch (InterruptedException e)
+        for (TextChannel channel : quizCategory.getTextChannels())
         {
-            //Do nothing
-        }
-        finally
-        {
-            for (TextChannel channel : quizCategory.getTextChannels())
-            {
-                channel.delete().queue();
-            }
-            quizCategory.delete().queue();
+            channel.delete().queue();
         }
+        quizCategory.delete().queue();
     }
 
     private void createGlobalChannel(boolean midGame)
@@ -213,6 +280,21 @@ public class Quiz
             globalQuizChannel.sendMessage("Due to a high number of teams, questions will now be posted here.").queue();
     }
 
+    /**
+     * Gets the handler for the question currently being answered
+     * @return the answer handler, or null if no question is open
+     */
+    @Nullable
+    public AnswerHandler getAnswerHandler()
+    {
+        return answerHandler;
+    }
+
+    public JoinHandler getJoinHandler()
+    {
+        return joinHandler;
+    }
+
     public boolean isStarted()
     {
         return isQuizStarted;
@@ -220,7 +302,7 @@ public class Quiz
 
     public int getQuestionCount()
     {
-        return trivia.length;
+        return (trivia != null) ? trivia.length : quizSettings.getQuestionCount();
     }
 
     public static EmbedBuilder getQuizEmbedStyle(Guild guild)
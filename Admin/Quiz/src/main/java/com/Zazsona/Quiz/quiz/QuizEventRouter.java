@@ -0,0 +1,103 @@
+package com.Zazsona.Quiz.quiz;
+
+import jara.Core;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+import javax.annotation.Nonnull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single listener that passes guild messages on to the quizzes running in that guild.<br>
+ * Answers are routed by channel, so a message outside a team channel is dismissed with two map lookups.
+ */
+public class QuizEventRouter extends ListenerAdapter
+{
+    private static QuizEventRouter quizEventRouter;
+    private final ConcurrentHashMap<String, Set<Quiz>> guildIDToQuizzes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, QuizTeam> channelIDToTeam = new ConcurrentHashMap<>();
+
+    private QuizEventRouter()
+    {
+
+    }
+
+    /**
+     * Gets the router, registering it with the shard manager the first time it is used.
+     * @return the router
+     */
+    public static synchronized QuizEventRouter getInstance()
+    {
+        if (quizEventRouter == null)
+        {
+            quizEventRouter = new QuizEventRouter();
+            Core.getShardManagerNotNull().addEventListener(quizEventRouter);
+        }
+        return quizEventRouter;
+    }
+
+    @Override
+    public void onGuildMessageReceived(@Nonnull GuildMessageReceivedEvent event)
+    {
+        Set<Quiz> quizzes = guildIDToQuizzes.get(event.getGuild().getId());
+        if (quizzes != null)
+        {
+            QuizTeam quizTeam = channelIDToTeam.get(event.getChannel().getId());
+            if (quizTeam != null)
+            {
+                AnswerHandler answerHandler = quizTeam.getQuiz().getAnswerHandler();
+                if (answerHandler != null)
+                {
+                    answerHandler.handleAnswer(quizTeam, event);
+                }
+            }
+            for (Quiz quiz : quizzes)
+            {
+                quiz.getJoinHandler().handleMessage(event);
+            }
+        }
+    }
+
+    /**
+     * Starts passing the guild's messages to the quiz.
+     * @param guildID the ID of the guild the quiz is running in
+     * @param quiz the quiz
+     */
+    public void addQuiz(String guildID, Quiz quiz)
+    {
+        guildIDToQuizzes.computeIfAbsent(guildID, (k) -> ConcurrentHashMap.newKeySet()).add(quiz);
+    }
+
+    /**
+     * Stops passing the guild's messages to the quiz.
+     * @param guildID the ID of the guild the quiz is running in
+     * @param quiz the quiz
+     */
+    public void removeQuiz(String guildID, Quiz quiz)
+    {
+        guildIDToQuizzes.computeIfPresent(guildID, (k, quizzes) ->
+        {
+            quizzes.remove(quiz);
+            return (quizzes.size() > 0) ? quizzes : null;
+        });
+    }
+
+    /**
+     * Routes answers posted in the team's channel to the team.
+     * @param quizTeam the team
+     */
+    public void addTeam(QuizTeam quizTeam)
+    {
+        channelIDToTeam.put(quizTeam.getTeamChannel().getId(), quizTeam);
+    }
+
+    /**
+     * Stops routing answers to the team.
+     * @param quizTeam the team
+     */
+    public void removeTeam(QuizTeam quizTeam)
+    {
+        channelIDToTeam.remove(quizTeam.getTeamChannel().getId(), quizTeam);
+    }
+}
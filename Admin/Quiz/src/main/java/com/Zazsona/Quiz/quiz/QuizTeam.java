@@ -8,21 +8,27 @@ import net.dv8tion.jda.api.entities.TextChannel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 public class QuizTeam
 {
+    private static final int UNANSWERED = 0;
+    private static final int CORRECT = 1;
+    private static final int INCORRECT = 2;
+    private Quiz quiz;
     private String name;
     private ArrayList<Member> members;
-    private boolean[] correct;
+    private AtomicIntegerArray answers;
     private TextChannel channel;
     private int points;
 
-    public QuizTeam(String name, Member member, Category channelCategory, int questionCount)
+    public QuizTeam(Quiz quiz, String name, Member member, Category channelCategory, int questionCount)
     {
+        this.quiz = quiz;
         this.name = name;
         this.members = new ArrayList<>();
         this.members.add(member);
-        this.correct = new boolean[questionCount];
+        this.answers = new AtomicIntegerArray(questionCount);
         this.channel = channelCategory.createTextChannel(name.replace(" ", "-")).complete();
         this.channel.putPermissionOverride(channelCategory.getGuild().getPublicRole()).setDeny(Permission.MESSAGE_READ).queue();
         addMemberToChannel(member);
@@ -62,6 +68,11 @@ public class QuizTeam
         return members.size();
     }
 
+    public Quiz getQuiz()
+    {
+        return quiz;
+    }
+
     public String getTeamName()
     {
         return name;
@@ -72,9 +83,15 @@ public class QuizTeam
         return channel;
     }
 
-    public void setAnswerResult(int questionNo, boolean correct)
+    /**
+     * Sets the team's answer to the question, replacing any previous answer.
+     * @param questionNo the question
+     * @param correct whether the answer is correct
+     * @return true if this is the team's first answer to the question
+     */
+    public boolean setAnswerResult(int questionNo, boolean correct)
     {
-        this.correct[questionNo] = correct;
+        return answers.getAndSet(questionNo, (correct) ? CORRECT : INCORRECT) == UNANSWERED;
     }
 
     public int getPoints()
@@ -89,11 +106,16 @@ public class QuizTeam
 
     public boolean isCorrectlyAnswered(int questionNo)
     {
-        return correct[questionNo];
+        return answers.get(questionNo) == CORRECT;
     }
 
     public boolean[] getCorrectAnswers()
     {
+        boolean[] correct = new boolean[answers.length()];
+        for (int i = 0; i<correct.length; i++)
+        {
+            correct[i] = isCorrectlyAnswered(i);
+        }
         return correct;
     }
 
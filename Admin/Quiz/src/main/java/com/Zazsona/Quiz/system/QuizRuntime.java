@@ -0,0 +1,59 @@
+package com.Zazsona.Quiz.system;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared scheduler that every running quiz steps through, so quizzes don't hold a thread while waiting.
+ */
+public class QuizRuntime
+{
+    private static final int THREADS = 4;
+    private static final AtomicInteger threadCount = new AtomicInteger(0);
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(THREADS, (runnable) ->
+    {
+        Thread thread = new Thread(runnable, "Quiz-Runtime-"+threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private transient static Logger logger = LoggerFactory.getLogger(QuizRuntime.class);
+
+    /**
+     * Runs the task on the quiz scheduler as soon as possible.
+     * @param task the task to run
+     */
+    public static void execute(Runnable task)
+    {
+        scheduler.execute(() -> run(task));
+    }
+
+    /**
+     * Runs the task on the quiz scheduler after the delay.
+     * @param task the task to run
+     * @param delay the time to wait
+     * @param unit the unit of the delay
+     * @return the future of the scheduled task, which can be used to cancel it
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit)
+    {
+        return scheduler.schedule(() -> run(task), delay, unit);
+    }
+
+    private static void run(Runnable task)
+    {
+        try
+        {
+            task.run();
+        }
+        catch (Exception e)
+        {
+            logger.error("A quiz task failed.", e); //Log here, as the executor would otherwise discard the exception.
+        }
+    }
+}
@@ -115,9 +115,7 @@ public class QuizScheduler extends ModuleLoad
                             for (String guildID : quizMap.get(epochSecond))
                             {
                                 QuizBuilder quizBuilder = SettingsManager.getInstance().getGuildQuizBuilder(guildID);
-                                Thread quizThread = new Thread(() -> quizBuilder.build().runQuiz()); //Build in the new thread, as the build process can take over a second, which could miss other scheduled items.
-                                quizThread.setName(guildID+"-Quiz");
-                                quizThread.start();
+                                QuizRuntime.execute(() -> quizBuilder.build().runQuiz()); //Build on the quiz runtime, as the build process can take over a second, which could miss other scheduled items.
                             }
                         }
                         Thread.sleep(((epochSecond+1)*1000)-Instant.now().toEpochMilli());
@@ -1,20 +1,30 @@
 package com.Zazsona.QuizStats;
 
-import com.Zazsona.QuizStats.json.UserStats;
+import com.Zazsona.QuizStatsCore.QuizStatManager;
+import com.Zazsona.QuizStatsCore.UserStats;
 import commands.CmdUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class QuizStats extends ModuleCommand
 {
+    private static final int LEADERBOARD_SIZE = 10;
+
     @Override
     public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
     {
+        if (parameters.length > 1 && parameters[1].equalsIgnoreCase("leaderboard"))
+        {
+            boolean global = (parameters.length > 2 && parameters[2].equalsIgnoreCase("global"));
+            sendLeaderboard(msgEvent, global);
+            return;
+        }
         Member member = msgEvent.getMember();
         if (parameters.length > 1)
         {
@@ -27,45 +37,75 @@ public class QuizStats extends ModuleCommand
         EmbedBuilder embed = new EmbedBuilder();
         embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
 
-        HashMap<String, UserStats> statsMap = UserStatManager.restore();
-        if (statsMap != null)
+        UserStats stats = QuizStatManager.getUserStats(member.getUser().getId());
+        if (stats != null)
         {
-            UserStats stats = statsMap.get(member.getUser().getId());
-            if (stats != null)
-            {
-                embed.addField("============ Quiz Stats =============", member.getEffectiveName()+"'s Stats", false);
-                embed.addField("Quizzes", String.valueOf(stats.getQuizNightTotal()), true);
-                embed.addField("Wins", String.valueOf(stats.getWins()), true);
-                embed.addField("Win %", String.format("%,.2f", (double) (stats.getWins()*100.0f/stats.getQuizNightTotal()))+"%", true);
+            embed.addField("============ Quiz Stats =============", member.getEffectiveName()+"'s Stats", false);
+            embed.addField("Quizzes", String.valueOf(stats.getQuizNightTotal()), true);
+            embed.addField("Wins", String.valueOf(stats.getWins()), true);
+            embed.addField("Win %", String.format("%,.2f", (double) (stats.getWins()*100.0f/stats.getQuizNightTotal()))+"%", true);
 
-                int questionTotal = (stats.getEasyQuestionsTotal()+stats.getMediumQuestionsTotal()+stats.getHardQuestionsTotal());
-                int questionsCorrect = (stats.getEasyQuestionsCorrect()+stats.getMediumQuestionsCorrect()+stats.getHardQuestionsCorrect());
-                embed.addField("Questions", String.valueOf(questionTotal), true);
-                embed.addField("Correct", String.valueOf(questionsCorrect), true);
-                embed.addField("Correct %", String.format("%,.2f", (double) (questionsCorrect*100.0f/questionTotal))+"%", true);
+            embed.addField("Server Rank", getRankDescription(QuizStatManager.getRank(member.getUser().getId(), msgEvent.getGuild().getId()), QuizStatManager.getPlayerCount(msgEvent.getGuild().getId())), true);
+            embed.addField("Global Rank", getRankDescription(QuizStatManager.getRank(member.getUser().getId()), QuizStatManager.getPlayerCount()), true);
+            embed.addBlankField(true);
 
-                embed.addField("=========== Question Stats ===========", "", false);
-                embed.addField("Easy Questions", String.valueOf(stats.getEasyQuestionsTotal()), true);
-                embed.addField("Correct", String.valueOf(stats.getEasyQuestionsCorrect()), true);
-                embed.addField("Correct %", String.format("%,.2f", (double) (stats.getEasyQuestionsCorrect()*100.0f/stats.getEasyQuestionsTotal()))+"%", true);
+            int questionTotal = (stats.getEasyQuestionsTotal()+stats.getMediumQuestionsTotal()+stats.getHardQuestionsTotal());
+            int questionsCorrect = (stats.getEasyQuestionsCorrect()+stats.getMediumQuestionsCorrect()+stats.getHardQuestionsCorrect());
+            embed.addField("Questions", String.valueOf(questionTotal), true);
+            embed.addField("Correct", String.valueOf(questionsCorrect), true);
+            embed.addField("Correct %", String.format("%,.2f", (double) (questionsCorrect*100.0f/questionTotal))+"%", true);
 
-                embed.addField("Medium Questions", String.valueOf(stats.getMediumQuestionsTotal()), true);
-                embed.addField("Correct", String.valueOf(stats.getMediumQuestionsCorrect()), true);
-                embed.addField("Correct %", String.format("%,.2f", (double) (stats.getMediumQuestionsCorrect()*100.0f/stats.getMediumQuestionsTotal()))+"%", true);
+            embed.addField("=========== Question Stats ===========", "", false);
+            embed.addField("Easy Questions", String.valueOf(stats.getEasyQuestionsTotal()), true);
+            embed.addField("Correct", String.valueOf(stats.getEasyQuestionsCorrect()), true);
+            embed.addField("Correct %", String.format("%,.2f", (double) (stats.getEasyQuestionsCorrect()*100.0f/stats.getEasyQuestionsTotal()))+"%", true);
 
-                embed.addField("Hard Questions", String.valueOf(stats.getHardQuestionsTotal()), true);
-                embed.addField("Correct", String.valueOf(stats.getHardQuestionsCorrect()), true);
-                embed.addField("Correct %", String.format("%,.2f", (double) (stats.getHardQuestionsCorrect()*100.0f/stats.getHardQuestionsTotal()))+"%", true);
-            }
-            else
+            embed.addField("Medium Questions", String.valueOf(stats.getMediumQuestionsTotal()), true);
+            embed.addField("Correct", String.valueOf(stats.getMediumQuestionsCorrect()), true);
+            embed.addField("Correct %", String.format("%,.2f", (double) (stats.getMediumQuestionsCorrect()*100.0f/stats.getMediumQuestionsTotal()))+"%", true);
+
+            embed.addField("Hard Questions", String.valueOf(stats.getHardQuestionsTotal()), true);
+            embed.addField("Correct", String.valueOf(stats.getHardQuestionsCorrect()), true);
+            embed.addField("Correct %", String.format("%,.2f", (double) (stats.getHardQuestionsCorrect()*100.0f/stats.getHardQuestionsTotal()))+"%", true);
+        }
+        else
+        {
+            embed.setDescription("There aren't any quizzes to know about!");
+        }
+        msgEvent.getChannel().sendMessage(embed.build()).queue();
+    }
+
+    private void sendLeaderboard(GuildMessageReceivedEvent msgEvent, boolean global)
+    {
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
+        embed.setTitle((global) ? "Global Quiz Leaderboard" : msgEvent.getGuild().getName()+" Quiz Leaderboard");
+        LinkedHashMap<String, UserStats> leaderboard = (global) ? QuizStatManager.getLeaderboard(LEADERBOARD_SIZE) : QuizStatManager.getLeaderboard(msgEvent.getGuild().getId(), LEADERBOARD_SIZE);
+        if (leaderboard.size() > 0)
+        {
+            StringBuilder descBuilder = new StringBuilder();
+            int position = 1;
+            for (Map.Entry<String, UserStats> entry : leaderboard.entrySet())
             {
-                embed.setDescription("There aren't any quizzes to know about!");
+                Member member = msgEvent.getGuild().getMemberById(entry.getKey());
+                String name = (member != null) ? member.getEffectiveName() : "Unknown Player";
+                descBuilder.append(position).append(". **").append(name).append("** - ").append(entry.getValue().getWins()).append(" wins\n");
+                position++;
             }
+            String rank = getRankDescription((global) ? QuizStatManager.getRank(msgEvent.getAuthor().getId()) : QuizStatManager.getRank(msgEvent.getAuthor().getId(), msgEvent.getGuild().getId()),
+                                             (global) ? QuizStatManager.getPlayerCount() : QuizStatManager.getPlayerCount(msgEvent.getGuild().getId()));
+            descBuilder.append("\nYour Rank: ").append(rank);
+            embed.setDescription(descBuilder.toString());
         }
         else
         {
-            embed.setDescription("An error occurred.");
+            embed.setDescription("There aren't any quizzes to know about!");
         }
         msgEvent.getChannel().sendMessage(embed.build()).queue();
     }
+
+    private String getRankDescription(int rank, int playerCount)
+    {
+        return (rank != -1) ? rank+" of "+playerCount : "Unranked";
+    }
 }
@@ -0,0 +1,213 @@
+package com.Zazsona.QuizStatsCore;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import configuration.SettingsUtil;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FileManager
+{
+    /**
+     * The number of journal entries after which the stats are written out in full, and the journal is cleared.
+     */
+    private static final int CHECKPOINT_ENTRIES = 500;
+    private static final int BUFFER_SIZE = 64*1024;
+    private static int journalEntries = 0;
+    private static long journalOffset = 0;
+    private static long statsFileModified = -1;
+    private static long statsFileLength = -1;
+
+    private static File getStatsFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/QuizUserStats.jara");
+    }
+
+    private static File getJournalFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/QuizUserStatsJournal.jara");
+    }
+
+    private static File getRetiredJournalFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/QuizUserStatsJournal.jara.old");
+    }
+
+    /**
+     * Reads the last checkpoint of the stats. The journal is read from the start on the next call to {@link #readJournal()}.
+     * @return the stats, keyed by user ID
+     */
+    protected static synchronized HashMap<String, UserStats> readStats()
+    {
+        HashMap<String, UserStats> userStats = new HashMap<>();
+        File statsFile = getStatsFile();
+        statsFileModified = statsFile.lastModified();
+        statsFileLength = statsFile.length();
+        journalOffset = 0;
+        journalEntries = 0;
+        if (statsFile.exists() && statsFile.length() > 0)
+        {
+            Gson gson = new Gson();
+            try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(statsFile), StandardCharsets.UTF_8), BUFFER_SIZE)))
+            {
+                if (reader.peek() == JsonToken.BEGIN_OBJECT)
+                {
+                    reader.beginObject();
+                    while (reader.hasNext())
+                    {
+                        String userID = reader.nextName();
+                        UserStats stats = gson.fromJson(reader, UserStats.class);
+                        if (stats != null)
+                        {
+                            userStats.put(userID, stats);
+                        }
+                    }
+                    reader.endObject();
+                }
+            }
+            catch (IOException | JsonParseException e)
+            {
+                LoggerFactory.getLogger("QuizStats-File-Manager").error("Unable to read Quiz user stats file.\n"+e.toString());
+            }
+        }
+        return userStats;
+    }
+
+    /**
+     * Checks if the stats have been checkpointed since they were last read, such as by another module.
+     * @return true if {@link #readStats()} needs to be called again
+     */
+    protected static synchronized boolean isStatsFileChanged()
+    {
+        File statsFile = getStatsFile();
+        return statsFile.lastModified() != statsFileModified || statsFile.length() != statsFileLength || getJournalFile().length() < journalOffset;
+    }
+
+    /**
+     * Reads the journal entries written since it was last read. Only complete entries are read, so an entry that is
+     * still being written is picked up next time.
+     * @return the new results
+     */
+    protected static synchronized ArrayList<QuizResult> readJournal()
+    {
+        ArrayList<QuizResult> results = new ArrayList<>();
+        File journalFile = getJournalFile();
+        if (!journalFile.exists() || journalFile.length() <= journalOffset)
+        {
+            return results;
+        }
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (channel.size()-journalOffset));
+            while (buffer.hasRemaining() && channel.read(buffer, journalOffset+buffer.position()) > 0);
+            byte[] bytes = buffer.array();
+            int completeLength = bytes.length;
+            while (completeLength > 0 && bytes[completeLength-1] != '\n')
+            {
+                completeLength--;
+            }
+            Gson gson = new Gson();
+            for (String line : new String(bytes, 0, completeLength, StandardCharsets.UTF_8).split("\n"))
+            {
+                try
+                {
+                    QuizResult result = gson.fromJson(line, QuizResult.class);
+                    if (result != null)
+                    {
+                        results.add(result);
+                        journalEntries++;
+                    }
+                }
+                catch (JsonParseException e)
+                {
+                    LoggerFactory.getLogger("QuizStats-File-Manager").warn("Skipping corrupt Quiz stats journal entry.");
+                }
+            }
+            journalOffset += completeLength;
+        }
+        catch (IOException e)
+        {
+            LoggerFactory.getLogger("QuizStats-File-Manager").error("Unable to read Quiz stats journal.\n"+e.toString());
+        }
+        return results;
+    }
+
+    /**
+     * Records the results in the journal, as a single write.
+     * @param results the results, which have already been applied
+     * @return true if enough results have been recorded that the stats should be checkpointed with {@link #saveStats(Map)}
+     * @throws IOException unable to write to the journal
+     */
+    protected static synchronized boolean appendToJournal(Collection<QuizResult> results) throws IOException
+    {
+        Gson gson = new Gson();
+        StringBuilder sb = new StringBuilder();
+        for (QuizResult result : results)
+        {
+            sb.append(gson.toJson(result)).append("\n");
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        try (FileOutputStream fos = new FileOutputStream(getJournalFile(), true))
+        {
+            fos.write(bytes);
+            fos.getFD().sync();
+        }
+        journalOffset += bytes.length;
+        journalEntries += results.size();
+        return journalEntries >= CHECKPOINT_ENTRIES;
+    }
+
+    /**
+     * Writes out all stats in the format used by earlier versions, and clears the journal.<br>
+     * The stats are written to a temporary file that then replaces the existing one, so the stats file is never left part-written.
+     * The journal is moved aside before the new stats replace the old, as other modules reload the stats when they see them
+     * change, and would count the journal's entries twice if it were still there.
+     * @param userStats the stats to save, keyed by user ID
+     * @throws IOException unable to write the stats
+     */
+    protected static synchronized void saveStats(Map<String, UserStats> userStats) throws IOException
+    {
+        Gson gson = new Gson();
+        File statsFile = getStatsFile();
+        File tempFile = new File(statsFile.getPath()+".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile))
+        {
+            JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8), BUFFER_SIZE));
+            writer.beginObject();
+            for (Map.Entry<String, UserStats> entry : userStats.entrySet())
+            {
+                writer.name(entry.getKey());
+                gson.toJson(entry.getValue(), UserStats.class, writer);
+            }
+            writer.endObject();
+            writer.flush();
+            fos.getFD().sync();
+        }
+        File journalFile = getJournalFile();
+        File retiredJournalFile = getRetiredJournalFile();
+        if (journalFile.exists())
+        {
+            Files.move(journalFile.toPath(), retiredJournalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(tempFile.toPath(), statsFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(retiredJournalFile.toPath());
+        statsFileModified = statsFile.lastModified();
+        statsFileLength = statsFile.length();
+        journalOffset = 0;
+        journalEntries = 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.Zazsona.QuizStatsCore;
+
+/**
+ * One player's result from a quiz, as recorded in the stats journal.
+ */
+public class QuizResult
+{
+    private long userID;
+    private long guildID;
+    private boolean winner;
+    private int easyQuestions;
+    private int mediumQuestions;
+    private int hardQuestions;
+    private int easyQuestionsCorrect;
+    private int mediumQuestionsCorrect;
+    private int hardQuestionsCorrect;
+
+    /**
+     * Creates a result for a player.
+     * @param userID the player's ID
+     * @param guildID the ID of the guild the quiz was held in
+     * @param winner whether this user was on the winning team
+     * @param easyQuestions the number of easy questions in the quiz
+     * @param mediumQuestions the number of medium questions in the quiz
+     * @param hardQuestions the number of hard questions in the quiz
+     * @param easyQuestionsCorrect how many easy questions they got correct
+     * @param mediumQuestionsCorrect how many medium questions they got correct
+     * @param hardQuestionsCorrect how many hard questions they got correct
+     */
+    public QuizResult(long userID, long guildID, boolean winner, int easyQuestions, int mediumQuestions, int hardQuestions, int easyQuestionsCorrect, int mediumQuestionsCorrect, int hardQuestionsCorrect)
+    {
+        this.userID = userID;
+        this.guildID = guildID;
+        this.winner = winner;
+        this.easyQuestions = easyQuestions;
+        this.mediumQuestions = mediumQuestions;
+        this.hardQuestions = hardQuestions;
+        this.easyQuestionsCorrect = easyQuestionsCorrect;
+        this.mediumQuestionsCorrect = mediumQuestionsCorrect;
+        this.hardQuestionsCorrect = hardQuestionsCorrect;
+    }
+
+    public long getUserID()
+    {
+        return userID;
+    }
+
+    public long getGuildID()
+    {
+        return guildID;
+    }
+
+    public boolean isWinner()
+    {
+        return winner;
+    }
+
+    public int getEasyQuestions()
+    {
+        return easyQuestions;
+    }
+
+    public int getMediumQuestions()
+    {
+        return mediumQuestions;
+    }
+
+    public int getHardQuestions()
+    {
+        return hardQuestions;
+    }
+
+    public int getEasyQuestionsCorrect()
+    {
+        return easyQuestionsCorrect;
+    }
+
+    public int getMediumQuestionsCorrect()
+    {
+        return mediumQuestionsCorrect;
+    }
+
+    public int getHardQuestionsCorrect()
+    {
+        return hardQuestionsCorrect;
+    }
+}
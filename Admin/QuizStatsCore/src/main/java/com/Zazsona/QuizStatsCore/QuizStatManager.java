@@ -0,0 +1,204 @@
+package com.Zazsona.QuizStatsCore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Keeps every player's quiz stats in memory, along with global and per-guild leaderboards.<br>
+ * Changes are appended to a journal, and any other copy of this class (such as one loaded by another module) picks
+ * them up by reading just the new entries.
+ */
+public class QuizStatManager
+{
+    private static StatsTable table;
+    private static RankIndex globalRanks;
+    private static HashMap<Long, RankIndex> guildIDToRanks;
+    private transient static Logger logger = LoggerFactory.getLogger(QuizStatManager.class);
+
+    /**
+     * Records the results of a quiz.
+     * @param results each player's result
+     */
+    public static synchronized void recordResults(Collection<QuizResult> results)
+    {
+        refresh();
+        for (QuizResult result : results)
+        {
+            apply(result);
+        }
+        try
+        {
+            if (FileManager.appendToJournal(results))
+            {
+                FileManager.saveStats(getAllUserStats());
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to save Quiz user stats.\n"+e.toString());
+        }
+    }
+
+    /**
+     * Gets the player's stats
+     * @param userID the player's ID
+     * @return the stats, or null if they haven't played a quiz
+     */
+    public static synchronized UserStats getUserStats(String userID)
+    {
+        refresh();
+        int row = table.getRow(Long.parseLong(userID));
+        return (row != -1) ? table.getUserStats(row) : null;
+    }
+
+    /**
+     * Gets the player's position on the global leaderboard
+     * @param userID the player's ID
+     * @return the position, starting at 1, or -1 if they haven't played a quiz
+     */
+    public static synchronized int getRank(String userID)
+    {
+        refresh();
+        int row = table.getRow(Long.parseLong(userID));
+        return (row != -1) ? globalRanks.getRank(row) : -1;
+    }
+
+    /**
+     * Gets the player's position on the guild's leaderboard
+     * @param userID the player's ID
+     * @param guildID the guild's ID
+     * @return the position, starting at 1, or -1 if they haven't played a quiz in the guild
+     */
+    public static synchronized int getRank(String userID, String guildID)
+    {
+        refresh();
+        int row = table.getRow(Long.parseLong(userID));
+        RankIndex guildRanks = guildIDToRanks.get(Long.parseLong(guildID));
+        return (row != -1 && guildRanks != null) ? guildRanks.getRank(row) : -1;
+    }
+
+    /**
+     * Gets the number of players on the global leaderboard
+     * @return the player count
+     */
+    public static synchronized int getPlayerCount()
+    {
+        refresh();
+        return globalRanks.size();
+    }
+
+    /**
+     * Gets the number of players on the guild's leaderboard
+     * @param guildID the guild's ID
+     * @return the player count
+     */
+    public static synchronized int getPlayerCount(String guildID)
+    {
+        refresh();
+        RankIndex guildRanks = guildIDToRanks.get(Long.parseLong(guildID));
+        return (guildRanks != null) ? guildRanks.size() : 0;
+    }
+
+    /**
+     * Gets the top of the global leaderboard.
+     * @param count the maximum number of players to get
+     * @return the players' stats keyed by user ID, best first
+     */
+    public static synchronized LinkedHashMap<String, UserStats> getLeaderboard(int count)
+    {
+        refresh();
+        return getLeaderboard(globalRanks, count);
+    }
+
+    /**
+     * Gets the top of the guild's leaderboard.
+     * @param guildID the guild's ID
+     * @param count the maximum number of players to get
+     * @return the players' stats keyed by user ID, best first
+     */
+    public static synchronized LinkedHashMap<String, UserStats> getLeaderboard(String guildID, int count)
+    {
+        refresh();
+        RankIndex guildRanks = guildIDToRanks.get(Long.parseLong(guildID));
+        return (guildRanks != null) ? getLeaderboard(guildRanks, count) : new LinkedHashMap<>();
+    }
+
+    private static LinkedHashMap<String, UserStats> getLeaderboard(RankIndex ranks, int count)
+    {
+        LinkedHashMap<String, UserStats> leaderboard = new LinkedHashMap<>();
+        for (int row : ranks.getTop(count))
+        {
+            leaderboard.put(String.valueOf(table.getUserID(row)), table.getUserStats(row));
+        }
+        return leaderboard;
+    }
+
+    /**
+     * Brings the stats up to date with the files, reading them in full only if they have been checkpointed elsewhere.
+     */
+    private static void refresh()
+    {
+        if (table == null || FileManager.isStatsFileChanged())
+        {
+            table = new StatsTable();
+            globalRanks = new RankIndex(table);
+            guildIDToRanks = new HashMap<>();
+            for (Map.Entry<String, UserStats> entry : FileManager.readStats().entrySet())
+            {
+                try
+                {
+                    int row = table.getOrAddRow(Long.parseLong(entry.getKey()));
+                    table.set(row, entry.getValue());
+                    globalRanks.add(row);
+                    for (long guildID : table.getGuildIDs(row))
+                    {
+                        getGuildRanks(guildID).add(row);
+                    }
+                }
+                catch (NumberFormatException e)
+                {
+                    logger.warn("Skipping Quiz stats for invalid user ID "+entry.getKey());
+                }
+            }
+        }
+        for (QuizResult result : FileManager.readJournal())
+        {
+            apply(result);
+        }
+    }
+
+    private static void apply(QuizResult result)
+    {
+        int row = table.getOrAddRow(result.getUserID());
+        long[] guildIDs = table.getGuildIDs(row);
+        globalRanks.remove(row);
+        for (long guildID : guildIDs)
+        {
+            getGuildRanks(guildID).remove(row);
+        }
+        table.add(row, result);
+        globalRanks.add(row);
+        for (long guildID : table.getGuildIDs(row))
+        {
+            getGuildRanks(guildID).add(row);
+        }
+    }
+
+    private static RankIndex getGuildRanks(long guildID)
+    {
+        return guildIDToRanks.computeIfAbsent(guildID, (k) -> new RankIndex(table));
+    }
+
+    private static HashMap<String, UserStats> getAllUserStats()
+    {
+        HashMap<String, UserStats> userStats = new HashMap<>();
+        for (int row = 0; row<table.size(); row++)
+        {
+            userStats.put(String.valueOf(table.getUserID(row)), table.getUserStats(row));
+        }
+        return userStats;
+    }
+}
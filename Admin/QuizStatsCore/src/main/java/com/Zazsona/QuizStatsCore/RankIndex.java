@@ -0,0 +1,210 @@
+package com.Zazsona.QuizStatsCore;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Orders players by leaderboard position, as defined by {@link StatsTable#compareRank(int, int)}.<br>
+ * This is a treap where each node also counts the nodes beneath it, so a player's rank can be found in O(log n).<br>
+ * <br>
+ * The ordering is read from the table, so a row must be removed before its stats change, then added back afterwards.
+ */
+public class RankIndex
+{
+    private final StatsTable table;
+    private final Random random = new Random();
+    private final BitSet rows = new BitSet();
+    private Node root;
+
+    private static class Node
+    {
+        private final int row;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(int row, int priority)
+        {
+            this.row = row;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Creates an empty index.
+     * @param table the table holding the stats to rank by
+     */
+    public RankIndex(StatsTable table)
+    {
+        this.table = table;
+    }
+
+    /**
+     * Adds the player to the index. If they are already in it, nothing happens.
+     * @param row the player's row
+     */
+    public void add(int row)
+    {
+        if (!rows.get(row))
+        {
+            rows.set(row);
+            Node[] split = split(root, row, false);
+            root = merge(merge(split[0], new Node(row, random.nextInt())), split[1]);
+        }
+    }
+
+    /**
+     * Removes the player from the index.
+     * @param row the player's row
+     */
+    public void remove(int row)
+    {
+        if (rows.get(row))
+        {
+            rows.clear(row);
+            Node[] lower = split(root, row, false);
+            Node[] upper = split(lower[1], row, true);
+            root = merge(lower[0], upper[1]);
+        }
+    }
+
+    public boolean contains(int row)
+    {
+        return rows.get(row);
+    }
+
+    /**
+     * Gets the player's leaderboard position
+     * @param row the player's row
+     * @return the position, starting at 1, or -1 if the player is not in the index
+     */
+    public int getRank(int row)
+    {
+        if (!rows.get(row))
+        {
+            return -1;
+        }
+        int playersAbove = 0;
+        Node node = root;
+        while (node != null)
+        {
+            int comparison = table.compareRank(row, node.row);
+            if (comparison == 0)
+            {
+                return playersAbove+size(node.left)+1;
+            }
+            else if (comparison < 0)
+            {
+                node = node.left;
+            }
+            else
+            {
+                playersAbove += size(node.left)+1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the highest ranked players, best first.
+     * @param count the maximum number of players to get
+     * @return the players' rows
+     */
+    public ArrayList<Integer> getTop(int count)
+    {
+        ArrayList<Integer> topRows = new ArrayList<>();
+        addInOrder(root, topRows, count);
+        return topRows;
+    }
+
+    public int size()
+    {
+        return size(root);
+    }
+
+    private void addInOrder(Node node, ArrayList<Integer> topRows, int count)
+    {
+        if (node == null || topRows.size() >= count)
+        {
+            return;
+        }
+        addInOrder(node.left, topRows, count);
+        if (topRows.size() < count)
+        {
+            topRows.add(node.row);
+            addInOrder(node.right, topRows, count);
+        }
+    }
+
+    /**
+     * Splits the tree into the players that rank above the row, and those that don't.
+     * @param node the root of the tree to split
+     * @param row the row to split at
+     * @param inclusive whether the row itself goes into the first tree
+     * @return the two trees
+     */
+    private Node[] split(Node node, int row, boolean inclusive)
+    {
+        if (node == null)
+        {
+            return new Node[2];
+        }
+        int comparison = table.compareRank(node.row, row);
+        if (comparison < 0 || (inclusive && comparison == 0))
+        {
+            Node[] split = split(node.right, row, inclusive);
+            node.right = split[0];
+            update(node);
+            split[0] = node;
+            return split;
+        }
+        else
+        {
+            Node[] split = split(node.left, row, inclusive);
+            node.left = split[1];
+            update(node);
+            split[1] = node;
+            return split;
+        }
+    }
+
+    /**
+     * Joins two trees, where every player in the first ranks above every player in the second.
+     */
+    private Node merge(Node left, Node right)
+    {
+        if (left == null)
+        {
+            return right;
+        }
+        else if (right == null)
+        {
+            return left;
+        }
+        else if (left.priority > right.priority)
+        {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        else
+        {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private void update(Node node)
+    {
+        node.size = size(node.left)+size(node.right)+1;
+    }
+
+    private int size(Node node)
+    {
+        return (node != null) ? node.size : 0;
+    }
+}
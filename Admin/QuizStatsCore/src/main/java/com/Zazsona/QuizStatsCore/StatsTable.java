@@ -0,0 +1,172 @@
+package com.Zazsona.QuizStatsCore;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Holds every player's stats in primitive columns, one row per player.<br>
+ * Rows are never removed, so a row number identifies a player for as long as the table exists.
+ */
+public class StatsTable
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private HashMap<Long, Integer> userIDToRow = new HashMap<>();
+    private int size = 0;
+    private long[] userIDs = new long[INITIAL_CAPACITY];
+    private int[] quizNightTotals = new int[INITIAL_CAPACITY];
+    private int[] wins = new int[INITIAL_CAPACITY];
+    private int[] easyQuestionsTotals = new int[INITIAL_CAPACITY];
+    private int[] mediumQuestionsTotals = new int[INITIAL_CAPACITY];
+    private int[] hardQuestionsTotals = new int[INITIAL_CAPACITY];
+    private int[] easyQuestionsCorrect = new int[INITIAL_CAPACITY];
+    private int[] mediumQuestionsCorrect = new int[INITIAL_CAPACITY];
+    private int[] hardQuestionsCorrect = new int[INITIAL_CAPACITY];
+    private long[][] guildIDs = new long[INITIAL_CAPACITY][];
+
+    /**
+     * Gets the row holding the player's stats
+     * @param userID the player's ID
+     * @return the row, or -1 if the player has no stats
+     */
+    public int getRow(long userID)
+    {
+        Integer row = userIDToRow.get(userID);
+        return (row != null) ? row : -1;
+    }
+
+    /**
+     * Gets the row holding the player's stats, adding an empty one if they have none.
+     * @param userID the player's ID
+     * @return the row
+     */
+    public int getOrAddRow(long userID)
+    {
+        int row = getRow(userID);
+        if (row == -1)
+        {
+            if (size == userIDs.length)
+            {
+                grow();
+            }
+            row = size++;
+            userIDs[row] = userID;
+            guildIDs[row] = new long[0];
+            userIDToRow.put(userID, row);
+        }
+        return row;
+    }
+
+    /**
+     * Adds the quiz result to the player's row.
+     * @param row the player's row
+     * @param result the result
+     */
+    public void add(int row, QuizResult result)
+    {
+        quizNightTotals[row]++;
+        wins[row] += (result.isWinner()) ? 1 : 0;
+        easyQuestionsTotals[row] += result.getEasyQuestions();
+        mediumQuestionsTotals[row] += result.getMediumQuestions();
+        hardQuestionsTotals[row] += result.getHardQuestions();
+        easyQuestionsCorrect[row] += result.getEasyQuestionsCorrect();
+        mediumQuestionsCorrect[row] += result.getMediumQuestionsCorrect();
+        hardQuestionsCorrect[row] += result.getHardQuestionsCorrect();
+        addGuild(row, result.getGuildID());
+    }
+
+    /**
+     * Sets the player's row to the stats.
+     * @param row the player's row
+     * @param stats the stats
+     */
+    public void set(int row, UserStats stats)
+    {
+        quizNightTotals[row] = stats.getQuizNightTotal();
+        wins[row] = stats.getWins();
+        easyQuestionsTotals[row] = stats.getEasyQuestionsTotal();
+        mediumQuestionsTotals[row] = stats.getMediumQuestionsTotal();
+        hardQuestionsTotals[row] = stats.getHardQuestionsTotal();
+        easyQuestionsCorrect[row] = stats.getEasyQuestionsCorrect();
+        mediumQuestionsCorrect[row] = stats.getMediumQuestionsCorrect();
+        hardQuestionsCorrect[row] = stats.getHardQuestionsCorrect();
+        guildIDs[row] = stats.getGuildIDs().clone();
+    }
+
+    /**
+     * Copies the player's row out into a stats object.
+     * @param row the player's row
+     * @return the stats
+     */
+    public UserStats getUserStats(int row)
+    {
+        UserStats stats = new UserStats(quizNightTotals[row], easyQuestionsTotals[row], mediumQuestionsTotals[row], hardQuestionsTotals[row], wins[row], easyQuestionsCorrect[row], mediumQuestionsCorrect[row], hardQuestionsCorrect[row]);
+        stats.setGuildIDs(guildIDs[row].clone());
+        return stats;
+    }
+
+    public long getUserID(int row)
+    {
+        return userIDs[row];
+    }
+
+    public long[] getGuildIDs(int row)
+    {
+        return guildIDs[row];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Compares two players by leaderboard position. Players are ordered by wins, then correct answers, then user ID so that
+     * no two players are equal.
+     * @param rowA the first player's row
+     * @param rowB the second player's row
+     * @return a negative number if the first player ranks higher, a positive number if they rank lower, or 0 if the rows are the same
+     */
+    public int compareRank(int rowA, int rowB)
+    {
+        if (wins[rowA] != wins[rowB])
+        {
+            return Integer.compare(wins[rowB], wins[rowA]);
+        }
+        int correctA = easyQuestionsCorrect[rowA]+mediumQuestionsCorrect[rowA]+hardQuestionsCorrect[rowA];
+        int correctB = easyQuestionsCorrect[rowB]+mediumQuestionsCorrect[rowB]+hardQuestionsCorrect[rowB];
+        if (correctA != correctB)
+        {
+            return Integer.compare(correctB, correctA);
+        }
+        return Long.compare(userIDs[rowA], userIDs[rowB]);
+    }
+
+    private void addGuild(int row, long guildID)
+    {
+        for (long rowGuildID : guildIDs[row])
+        {
+            if (rowGuildID == guildID)
+            {
+                return;
+            }
+        }
+        long[] rowGuildIDs = Arrays.copyOf(guildIDs[row], guildIDs[row].length+1);
+        rowGuildIDs[rowGuildIDs.length-1] = guildID;
+        guildIDs[row] = rowGuildIDs;
+    }
+
+    private void grow()
+    {
+        int capacity = userIDs.length*2;
+        userIDs = Arrays.copyOf(userIDs, capacity);
+        quizNightTotals = Arrays.copyOf(quizNightTotals, capacity);
+        wins = Arrays.copyOf(wins, capacity);
+        easyQuestionsTotals = Arrays.copyOf(easyQuestionsTotals, capacity);
+        mediumQuestionsTotals = Arrays.copyOf(mediumQuestionsTotals, capacity);
+        hardQuestionsTotals = Arrays.copyOf(hardQuestionsTotals, capacity);
+        easyQuestionsCorrect = Arrays.copyOf(easyQuestionsCorrect, capacity);
+        mediumQuestionsCorrect = Arrays.copyOf(mediumQuestionsCorrect, capacity);
+        hardQuestionsCorrect = Arrays.copyOf(hardQuestionsCorrect, capacity);
+        guildIDs = Arrays.copyOf(guildIDs, capacity);
+    }
+}
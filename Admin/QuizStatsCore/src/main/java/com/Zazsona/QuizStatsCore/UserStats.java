@@ -1,4 +1,4 @@
-package com.Zazsona.Quiz.stats;
+package com.Zazsona.QuizStatsCore;
 
 import java.io.Serializable;
 
@@ -13,6 +13,7 @@ public class UserStats implements Serializable
     private int mediumQuestionsCorrect;
     private int hardQuestionsCorrect;
     private int wins;
+    private long[] guildIDs;
 
     /**
      * Creates a new user stat profile with values of 0.
@@ -236,4 +237,24 @@ public class UserStats implements Serializable
     {
         this.wins = wins;
     }
+
+    /**
+     * Gets the IDs of the guilds this user has played quizzes in
+     *
+     * @return guildIDs
+     */
+    public long[] getGuildIDs()
+    {
+        return (guildIDs != null) ? guildIDs : new long[0];
+    }
+
+    /**
+     * Sets the value of guildIDs
+     *
+     * @param guildIDs the value to set
+     */
+    public void setGuildIDs(long[] guildIDs)
+    {
+        this.guildIDs = guildIDs;
+    }
 }
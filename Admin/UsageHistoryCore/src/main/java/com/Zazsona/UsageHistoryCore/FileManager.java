@@ -0,0 +1,237 @@
+package com.Zazsona.UsageHistoryCore;
+
+import configuration.SettingsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+public class FileManager
+{
+    private static final int PENDING_MAGIC = 0x4A555350;
+    private static final byte PENDING_VERSION = 1;
+    private static final DateTimeFormatter HOURS_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DAYS_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter MONTHS_FORMAT = DateTimeFormatter.ofPattern("yyyy");
+    private static transient Logger logger = LoggerFactory.getLogger("UsageHistoryLoader");
+
+    private static File getHistoryDirectory()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/UsageHistory/");
+    }
+
+    private static File getPendingFile()
+    {
+        return new File(getHistoryDirectory(), "Pending.seg");
+    }
+
+    /**
+     * Gets the segment file holding a bucket
+     * @param guildID the guild's ID
+     * @param resolution the resolution of the bucket
+     * @param time a time in the bucket, in UTC
+     * @return the segment file
+     */
+    protected static File getSegmentFile(String guildID, Resolution resolution, LocalDateTime time)
+    {
+        LocalDateTime segmentStart = resolution.getSegmentStart(time);
+        String name;
+        switch (resolution)
+        {
+            case HOUR:
+                name = "Hours-"+HOURS_FORMAT.format(segmentStart);
+                break;
+            case DAY:
+                name = "Days-"+DAYS_FORMAT.format(segmentStart);
+                break;
+            default:
+                name = "Months-"+MONTHS_FORMAT.format(segmentStart);
+                break;
+        }
+        return new File(getHistoryDirectory(), guildID+"/"+name+".seg");
+    }
+
+    /**
+     * Gets the IDs of the guilds with usage history
+     * @return the guild IDs, including {@link UsageHistory#ALL_GUILDS}
+     */
+    protected static ArrayList<String> getGuildIDs()
+    {
+        ArrayList<String> guildIDs = new ArrayList<>();
+        File[] guildDirectories = getHistoryDirectory().listFiles(File::isDirectory);
+        if (guildDirectories != null)
+        {
+            for (File guildDirectory : guildDirectories)
+            {
+                guildIDs.add(guildDirectory.getName());
+            }
+        }
+        return guildIDs;
+    }
+
+    /**
+     * Gets the names of a guild's segment files
+     * @param guildID the guild's ID
+     * @return the file names, which is empty if the guild has no history
+     */
+    protected static HashSet<String> getSegmentFileNames(String guildID)
+    {
+        HashSet<String> fileNames = new HashSet<>();
+        String[] names = new File(getHistoryDirectory(), guildID).list();
+        if (names != null)
+        {
+            fileNames.addAll(Arrays.asList(names));
+        }
+        return fileNames;
+    }
+
+    /**
+     * Gets the days that a guild has hourly segments for
+     * @param guildID the guild's ID
+     * @return the start of each day, in UTC
+     */
+    protected static ArrayList<LocalDateTime> getHourSegmentDays(String guildID)
+    {
+        ArrayList<LocalDateTime> days = new ArrayList<>();
+        for (String fileName : getSegmentFileNames(guildID))
+        {
+            if (fileName.startsWith("Hours-") && fileName.endsWith(".seg"))
+            {
+                try
+                {
+                    days.add(LocalDate.parse(fileName.substring(6, fileName.length()-4), HOURS_FORMAT).atStartOfDay());
+                }
+                catch (DateTimeParseException e)
+                {
+                    logger.error("Unrecognised usage segment "+fileName+" for guild "+guildID+".");
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Reads a segment file
+     * @param segmentFile the file
+     * @return the segment, which is empty if the file does not exist or cannot be read
+     */
+    protected static Segment readSegment(File segmentFile)
+    {
+        if (segmentFile.exists())
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segmentFile))))
+            {
+                return Segment.read(in);
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to read usage segment "+segmentFile.getName()+".\n"+e.toString());
+            }
+        }
+        return new Segment();
+    }
+
+    /**
+     * Writes a segment file. The segment is written to a temporary file that then replaces the existing one, so readers never see it part-written.
+     * @param segmentFile the file
+     * @param segment the segment
+     * @throws IOException unable to write the segment
+     */
+    protected static void writeSegment(File segmentFile, Segment segment) throws IOException
+    {
+        segmentFile.getParentFile().mkdirs();
+        File tempFile = new File(segmentFile.getPath()+".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            segment.write(out);
+        }
+        Files.move(tempFile.toPath(), segmentFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes a segment file
+     * @param segmentFile the file
+     * @throws IOException unable to delete the segment
+     */
+    protected static void deleteSegment(File segmentFile) throws IOException
+    {
+        Files.deleteIfExists(segmentFile.toPath());
+    }
+
+    /**
+     * Reads the usage that has been recorded, but not yet written to the hourly segments.
+     * @return the usage, as HourSinceEpoch : GuildID, Usage
+     */
+    protected static HashMap<Long, HashMap<String, Map<UsageKey, Long>>> readPending()
+    {
+        HashMap<Long, HashMap<String, Map<UsageKey, Long>>> pending = new HashMap<>();
+        File pendingFile = getPendingFile();
+        if (pendingFile.exists())
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(pendingFile))))
+            {
+                if (in.readInt() != PENDING_MAGIC || in.readByte() != PENDING_VERSION)
+                {
+                    throw new IOException("Not a pending usage file.");
+                }
+                long hourCount = Segment.readVarLong(in);
+                for (long i = 0; i<hourCount; i++)
+                {
+                    long hour = in.readLong();
+                    HashMap<String, Map<UsageKey, Long>> guildUsage = new HashMap<>();
+                    long guildCount = Segment.readVarLong(in);
+                    for (long j = 0; j<guildCount; j++)
+                    {
+                        String guildID = in.readUTF();
+                        guildUsage.put(guildID, Segment.read(in).getBucket(0));
+                    }
+                    pending.put(hour, guildUsage);
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to read pending usage.\n"+e.toString());
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Writes the usage that has been recorded, but not yet written to the hourly segments, replacing what was there before.
+     * @param buckets the hours of usage
+     * @throws IOException unable to write the usage
+     */
+    protected static void writePending(ArrayList<HourBucket> buckets) throws IOException
+    {
+        File pendingFile = getPendingFile();
+        pendingFile.getParentFile().mkdirs();
+        File tempFile = new File(pendingFile.getPath()+".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            out.writeInt(PENDING_MAGIC);
+            out.writeByte(PENDING_VERSION);
+            Segment.writeVarLong(out, buckets.size());
+            for (HourBucket bucket : buckets)
+            {
+                HashMap<String, HashMap<UsageKey, Long>> usage = bucket.getUsage();
+                out.writeLong(bucket.getHour());
+                Segment.writeVarLong(out, usage.size());
+                for (Map.Entry<String, HashMap<UsageKey, Long>> entry : usage.entrySet())
+                {
+                    Segment segment = new Segment();
+                    segment.setBucket(0, entry.getValue());
+                    out.writeUTF(entry.getKey());
+                    segment.write(out);
+                }
+            }
+        }
+        Files.move(tempFile.toPath(), pendingFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
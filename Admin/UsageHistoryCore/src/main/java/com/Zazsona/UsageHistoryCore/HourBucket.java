@@ -0,0 +1,112 @@
+package com.Zazsona.UsageHistoryCore;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The usage recorded in one hour, across all guilds, before it is written to the hourly segments.<br>
+ * Each count is a {@link LongAdder}, so usage can be recorded from many threads without taking a lock.
+ */
+public class HourBucket
+{
+    private final long hour;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>>> usage = new ConcurrentHashMap<>(); //GuildID : UserID : Command, Count
+    private volatile boolean flushed = false;
+
+    /**
+     * @param hour the hour, as hours since the epoch
+     */
+    public HourBucket(long hour)
+    {
+        this.hour = hour;
+    }
+
+    /**
+     * Gets the hour the bucket is for
+     * @return the hour, as hours since the epoch
+     */
+    public long getHour()
+    {
+        return hour;
+    }
+
+    /**
+     * Adds to a user's usage of a command
+     * @param guildID the ID of the guild the command was used in
+     * @param userID the ID of the user
+     * @param command the command's key
+     * @param count the number of uses
+     */
+    public void add(String guildID, String userID, String command, long count)
+    {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>> guildUsage = usage.get(guildID);
+        if (guildUsage == null)
+        {
+            guildUsage = usage.computeIfAbsent(guildID, (k) -> new ConcurrentHashMap<>());
+        }
+        ConcurrentHashMap<String, LongAdder> userUsage = guildUsage.get(userID);
+        if (userUsage == null)
+        {
+            userUsage = guildUsage.computeIfAbsent(userID, (k) -> new ConcurrentHashMap<>());
+        }
+        LongAdder counter = userUsage.get(command);
+        if (counter == null)
+        {
+            counter = userUsage.computeIfAbsent(command, (k) -> new LongAdder());
+        }
+        counter.add(count);
+    }
+
+    /**
+     * Gets a snapshot of the usage in each guild
+     * @return the usage, keyed by guild ID
+     */
+    public HashMap<String, HashMap<UsageKey, Long>> getUsage()
+    {
+        HashMap<String, HashMap<UsageKey, Long>> snapshot = new HashMap<>();
+        for (String guildID : usage.keySet())
+        {
+            snapshot.put(guildID, getUsage(guildID));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets a snapshot of the usage in a guild
+     * @param guildID the guild's ID
+     * @return the usage, which is empty if there was none
+     */
+    public HashMap<UsageKey, Long> getUsage(String guildID)
+    {
+        HashMap<UsageKey, Long> snapshot = new HashMap<>();
+        ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>> guildUsage = usage.get(guildID);
+        if (guildUsage != null)
+        {
+            for (Map.Entry<String, ConcurrentHashMap<String, LongAdder>> userEntry : guildUsage.entrySet())
+            {
+                long userID = Long.parseLong(userEntry.getKey());
+                for (Map.Entry<String, LongAdder> commandEntry : userEntry.getValue().entrySet())
+                {
+                    snapshot.put(new UsageKey(userID, commandEntry.getKey()), commandEntry.getValue().sum());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Checks if the bucket's usage has been written to the hourly segments
+     * @return true if written
+     */
+    public boolean isFlushed()
+    {
+        return flushed;
+    }
+
+    protected void setFlushed(boolean flushed)
+    {
+        this.flushed = flushed;
+    }
+}
@@ -0,0 +1,104 @@
+package com.Zazsona.UsageHistoryCore;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The length of time usage is totalled over. Each resolution is stored in its own segment files, with each file
+ * holding the buckets of one period of the next resolution up: the hours of a day, the days of a month, or the months of a year.
+ */
+public enum Resolution
+{
+    HOUR,
+    DAY,
+    MONTH;
+
+    /**
+     * Gets the start of the bucket the time is in
+     * @param time the time, in UTC
+     * @return the start of the bucket
+     */
+    public LocalDateTime truncate(LocalDateTime time)
+    {
+        switch (this)
+        {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+    }
+
+    /**
+     * Gets the start of the bucket after the one the time is in
+     * @param time the time, in UTC
+     * @return the start of the next bucket
+     */
+    public LocalDateTime next(LocalDateTime time)
+    {
+        switch (this)
+        {
+            case HOUR:
+                return truncate(time).plusHours(1);
+            case DAY:
+                return truncate(time).plusDays(1);
+            default:
+                return truncate(time).plusMonths(1);
+        }
+    }
+
+    /**
+     * Gets the next shorter resolution, which this resolution's buckets are totalled from.
+     * @return the resolution, or null if this is the shortest
+     */
+    public Resolution getFiner()
+    {
+        switch (this)
+        {
+            case MONTH:
+                return DAY;
+            case DAY:
+                return HOUR;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Gets the start of the period covered by the segment file holding the time's bucket
+     * @param time the time, in UTC
+     * @return the start of the segment's period
+     */
+    protected LocalDateTime getSegmentStart(LocalDateTime time)
+    {
+        switch (this)
+        {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            default:
+                return time.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+        }
+    }
+
+    /**
+     * Gets the position of the time's bucket within its segment
+     * @param time the time, in UTC
+     * @return the bucket index, from 0
+     */
+    protected int getBucketIndex(LocalDateTime time)
+    {
+        switch (this)
+        {
+            case HOUR:
+                return time.getHour();
+            case DAY:
+                return time.getDayOfMonth()-1;
+            default:
+                return time.getMonthValue()-1;
+        }
+    }
+}
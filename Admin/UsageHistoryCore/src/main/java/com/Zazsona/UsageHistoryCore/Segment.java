@@ -0,0 +1,161 @@
+package com.Zazsona.UsageHistoryCore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The usage held in one segment file, split into buckets such as the hours of a day.<br>
+ * A bucket is sealed once all of its usage has been written, after which it is read as it is, rather than being totalled
+ * from the buckets of the next resolution down. Sealing a bucket replaces whatever it held before, so writing the same
+ * bucket twice has no further effect.
+ */
+public class Segment
+{
+    private static final int MAGIC = 0x4A555347;
+    private static final byte VERSION = 1;
+    private long sealedBuckets = 0;
+    private final HashMap<Integer, HashMap<UsageKey, Long>> buckets = new HashMap<>();
+
+    /**
+     * Checks if all of the usage for a bucket has been written
+     * @param bucket the bucket index
+     * @return true if the bucket is sealed
+     */
+    public boolean isSealed(int bucket)
+    {
+        return (sealedBuckets & (1L << bucket)) != 0;
+    }
+
+    /**
+     * Gets the usage in a bucket
+     * @param bucket the bucket index
+     * @return the usage, which is empty if there was none
+     */
+    public Map<UsageKey, Long> getBucket(int bucket)
+    {
+        HashMap<UsageKey, Long> counts = buckets.get(bucket);
+        return (counts == null) ? Collections.emptyMap() : Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Replaces the usage in a bucket, and seals it
+     * @param bucket the bucket index
+     * @param counts the usage
+     */
+    public void setBucket(int bucket, Map<UsageKey, Long> counts)
+    {
+        if (counts.isEmpty())
+        {
+            buckets.remove(bucket);
+        }
+        else
+        {
+            buckets.put(bucket, new HashMap<>(counts));
+        }
+        sealedBuckets |= (1L << bucket);
+    }
+
+    public boolean isEmpty()
+    {
+        return sealedBuckets == 0 && buckets.isEmpty();
+    }
+
+    /**
+     * Writes the segment. Command keys are written once each, and records refer to them by index.
+     * @param out the stream to write to
+     * @throws IOException unable to write
+     */
+    protected void write(DataOutputStream out) throws IOException
+    {
+        LinkedHashMap<String, Integer> commandIndexes = new LinkedHashMap<>();
+        int recordCount = 0;
+        for (HashMap<UsageKey, Long> counts : buckets.values())
+        {
+            for (UsageKey key : counts.keySet())
+            {
+                commandIndexes.putIfAbsent(key.getCommand(), commandIndexes.size());
+                recordCount++;
+            }
+        }
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(sealedBuckets);
+        writeVarLong(out, commandIndexes.size());
+        for (String command : commandIndexes.keySet())
+        {
+            out.writeUTF(command);
+        }
+        writeVarLong(out, recordCount);
+        for (Integer bucket : new TreeSet<>(buckets.keySet()))
+        {
+            for (Map.Entry<UsageKey, Long> entry : buckets.get(bucket).entrySet())
+            {
+                out.writeByte(bucket);
+                out.writeLong(entry.getKey().getUserID());
+                writeVarLong(out, commandIndexes.get(entry.getKey().getCommand()));
+                writeVarLong(out, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a segment
+     * @param in the stream to read from
+     * @return the segment
+     * @throws IOException unable to read, or the data is not a segment
+     */
+    protected static Segment read(DataInputStream in) throws IOException
+    {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION)
+        {
+            throw new IOException("Not a usage segment.");
+        }
+        Segment segment = new Segment();
+        segment.sealedBuckets = in.readLong();
+        String[] commands = new String[(int) readVarLong(in)];
+        for (int i = 0; i<commands.length; i++)
+        {
+            commands[i] = in.readUTF();
+        }
+        long recordCount = readVarLong(in);
+        for (long i = 0; i<recordCount; i++)
+        {
+            int bucket = in.readUnsignedByte();
+            long userID = in.readLong();
+            String command = commands[(int) readVarLong(in)];
+            long count = readVarLong(in);
+            segment.buckets.computeIfAbsent(bucket, (k) -> new HashMap<>()).merge(new UsageKey(userID, command), count, Long::sum);
+        }
+        return segment;
+    }
+
+    /**
+     * Writes a non-negative number in as few bytes as it needs, seven bits to a byte.
+     */
+    protected static void writeVarLong(DataOutputStream out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    protected static long readVarLong(DataInputStream in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in usage segment.");
+    }
+}
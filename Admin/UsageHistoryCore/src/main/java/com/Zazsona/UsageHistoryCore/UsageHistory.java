@@ -0,0 +1,223 @@
+package com.Zazsona.UsageHistoryCore;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Queries the command usage history.<br>
+ * Each bucket is read from the segment for its resolution once it has been sealed. Until then, such as for the current
+ * day, it is totalled from the next resolution down, with the hours not yet written out being read from the
+ * {@link UsageRecorder} if it runs in this module, or from the pending file if not. A query only reads the segment
+ * files covering its range.
+ */
+public class UsageHistory
+{
+    /**
+     * The guild ID under which the usage across all guilds is recorded.
+     */
+    public static final String ALL_GUILDS = "Global";
+    private static volatile UsageRecorder recorder;
+
+    protected static void setRecorder(UsageRecorder usageRecorder)
+    {
+        recorder = usageRecorder;
+    }
+
+    /**
+     * Gets the usage in each bucket from the bucket containing the start time, up to the end time.
+     * @param guildID the guild's ID, or {@link #ALL_GUILDS}
+     * @param resolution the length of the buckets. Hourly usage is only kept for the last {@link UsageRecorder#HOUR_RETENTION_DAYS} days.
+     * @param from the start time
+     * @param to the end time, exclusive
+     * @return the usage, in time order
+     */
+    public static ArrayList<UsageRecord> getUsage(String guildID, Resolution resolution, Instant from, Instant to)
+    {
+        ArrayList<UsageRecord> records = new ArrayList<>();
+        Query query = new Query();
+        LocalDateTime end = LocalDateTime.ofInstant(to, ZoneOffset.UTC);
+        for (LocalDateTime time = resolution.truncate(LocalDateTime.ofInstant(from, ZoneOffset.UTC)); time.isBefore(end); time = resolution.next(time))
+        {
+            Instant bucketStart = time.toInstant(ZoneOffset.UTC);
+            for (Map.Entry<UsageKey, Long> entry : query.getCounts(guildID, resolution, time).entrySet())
+            {
+                records.add(new UsageRecord(bucketStart, entry.getKey(), entry.getValue()));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Gets how many commands each user used from the bucket containing the start time, up to the end time.
+     * @param guildID the guild's ID
+     * @param resolution the length of the buckets to read. The coarsest resolution that fits the range reads the fewest files.
+     * @param from the start time
+     * @param to the end time, exclusive
+     * @return the number of commands used, keyed by user ID
+     */
+    public static HashMap<String, Long> getUserTotals(String guildID, Resolution resolution, Instant from, Instant to)
+    {
+        HashMap<String, Long> totals = new HashMap<>();
+        for (UsageRecord record : getUsage(guildID, resolution, from, to))
+        {
+            totals.merge(String.valueOf(record.getUserID()), record.getCount(), Long::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Gets how many commands were used in each bucket from the bucket containing the start time, up to the end time.
+     * @param guildID the guild's ID, or {@link #ALL_GUILDS}
+     * @param resolution the length of the buckets
+     * @param from the start time
+     * @param to the end time, exclusive
+     * @return the number of commands used, keyed by the start of the bucket. Buckets with no usage are left out.
+     */
+    public static TreeMap<Instant, Long> getTotals(String guildID, Resolution resolution, Instant from, Instant to)
+    {
+        TreeMap<Instant, Long> totals = new TreeMap<>();
+        for (UsageRecord record : getUsage(guildID, resolution, from, to))
+        {
+            totals.merge(record.getBucketStart(), record.getCount(), Long::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Gets the IDs of the guilds with usage history
+     * @return the guild IDs
+     */
+    public static ArrayList<String> getGuildIDs()
+    {
+        ArrayList<String> guildIDs = FileManager.getGuildIDs();
+        guildIDs.remove(ALL_GUILDS);
+        return guildIDs;
+    }
+
+    /**
+     * A single query, which reads each segment file at most once.
+     */
+    protected static class Query
+    {
+        private final HashMap<File, Segment> segments = new HashMap<>();
+        private final HashMap<String, HashSet<String>> guildToFileNames = new HashMap<>();
+        private final UsageRecorder recorder = UsageHistory.recorder;
+        private final HashMap<Long, HashMap<String, Map<UsageKey, Long>>> pending;
+        private final long currentHour = System.currentTimeMillis()/UsageRecorder.MILLIS_PER_HOUR;
+
+        protected Query()
+        {
+            //The pending file is read before any segments are listed, so an hour written out during the query is found in one or the other.
+            this.pending = (recorder == null) ? FileManager.readPending() : null;
+        }
+
+        /**
+         * Gets the usage in a bucket
+         * @param guildID the guild's ID
+         * @param resolution the resolution of the bucket
+         * @param time the start of the bucket, in UTC
+         * @return the usage
+         */
+        protected Map<UsageKey, Long> getCounts(String guildID, Resolution resolution, LocalDateTime time)
+        {
+            if (resolution == Resolution.HOUR)
+            {
+                return getHourCounts(guildID, getHour(time), time.getHour(), getSegment(guildID, Resolution.HOUR, time));
+            }
+            Segment segment = getSegment(guildID, resolution, time);
+            int bucket = resolution.getBucketIndex(time);
+            if (segment.isSealed(bucket))
+            {
+                return segment.getBucket(bucket);
+            }
+            return sumCounts(guildID, resolution, time);
+        }
+
+        /**
+         * Totals the usage in a bucket from the buckets of the next resolution down, up to the current hour.
+         * @param guildID the guild's ID
+         * @param resolution the resolution of the bucket, which must not be {@link Resolution#HOUR}
+         * @param time the start of the bucket, in UTC
+         * @return the usage
+         */
+        protected HashMap<UsageKey, Long> sumCounts(String guildID, Resolution resolution, LocalDateTime time)
+        {
+            HashMap<UsageKey, Long> counts = new HashMap<>();
+            Resolution finer = resolution.getFiner();
+            if (finer == Resolution.HOUR)
+            {
+                Segment segment = getSegment(guildID, finer, time);
+                long startHour = getHour(resolution.truncate(time));
+                for (int hourOfDay = 0; hourOfDay < 24 && startHour+hourOfDay <= currentHour; hourOfDay++)
+                {
+                    addCounts(counts, getHourCounts(guildID, startHour+hourOfDay, hourOfDay, segment));
+                }
+            }
+            else
+            {
+                LocalDateTime end = resolution.next(time);
+                for (LocalDateTime subTime = resolution.truncate(time); subTime.isBefore(end) && getHour(subTime) <= currentHour; subTime = finer.next(subTime))
+                {
+                    addCounts(counts, getCounts(guildID, finer, subTime));
+                }
+            }
+            return counts;
+        }
+
+        private void addCounts(HashMap<UsageKey, Long> counts, Map<UsageKey, Long> addedCounts)
+        {
+            for (Map.Entry<UsageKey, Long> entry : addedCounts.entrySet())
+            {
+                counts.merge(entry.getKey(), entry.getValue(), Long::sum);
+            }
+        }
+
+        /**
+         * Gets the usage in an hour, from memory if the recorder still holds it, otherwise from the hourly segment or the pending file.
+         */
+        private Map<UsageKey, Long> getHourCounts(String guildID, long hour, int hourOfDay, Segment segment)
+        {
+            if (recorder != null)
+            {
+                HourBucket bucket = recorder.getBucket(hour);
+                if (bucket != null)
+                {
+                    return bucket.getUsage(guildID);
+                }
+            }
+            if (segment.isSealed(hourOfDay))
+            {
+                return segment.getBucket(hourOfDay);
+            }
+            if (pending != null && pending.containsKey(hour))
+            {
+                return pending.get(hour).getOrDefault(guildID, Collections.emptyMap());
+            }
+            return Collections.emptyMap();
+        }
+
+        /**
+         * Gets a segment, reading it only if the guild's files were listed as having it, to save looking for the many that do not exist.
+         */
+        private Segment getSegment(String guildID, Resolution resolution, LocalDateTime time)
+        {
+            File segmentFile = FileManager.getSegmentFile(guildID, resolution, time);
+            Segment segment = segments.get(segmentFile);
+            if (segment == null)
+            {
+                HashSet<String> fileNames = guildToFileNames.computeIfAbsent(guildID, FileManager::getSegmentFileNames);
+                segment = (fileNames.contains(segmentFile.getName())) ? FileManager.readSegment(segmentFile) : new Segment();
+                segments.put(segmentFile, segment);
+            }
+            return segment;
+        }
+
+        private long getHour(LocalDateTime time)
+        {
+            return time.toEpochSecond(ZoneOffset.UTC)/3600;
+        }
+    }
+}
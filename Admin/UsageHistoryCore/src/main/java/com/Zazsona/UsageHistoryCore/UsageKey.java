@@ -0,0 +1,53 @@
+package com.Zazsona.UsageHistoryCore;
+
+import java.util.Objects;
+
+/**
+ * A user's use of a particular command.
+ */
+public class UsageKey
+{
+    private final long userID;
+    private final String command;
+
+    public UsageKey(long userID, String command)
+    {
+        this.userID = userID;
+        this.command = command;
+    }
+
+    public long getUserID()
+    {
+        return userID;
+    }
+
+    /**
+     * Gets the key of the command used
+     * @return the command key
+     */
+    public String getCommand()
+    {
+        return command;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof UsageKey))
+        {
+            return false;
+        }
+        UsageKey usageKey = (UsageKey) o;
+        return userID == usageKey.userID && command.equals(usageKey.command);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(userID, command);
+    }
+}
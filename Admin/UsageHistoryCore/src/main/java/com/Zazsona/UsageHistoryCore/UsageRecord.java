@@ -0,0 +1,44 @@
+package com.Zazsona.UsageHistoryCore;
+
+import java.time.Instant;
+
+/**
+ * How many times a user used a command within one bucket of time.
+ */
+public class UsageRecord
+{
+    private final Instant bucketStart;
+    private final UsageKey key;
+    private final long count;
+
+    public UsageRecord(Instant bucketStart, UsageKey key, long count)
+    {
+        this.bucketStart = bucketStart;
+        this.key = key;
+        this.count = count;
+    }
+
+    /**
+     * Gets the start of the bucket the usage was in
+     * @return the bucket's start
+     */
+    public Instant getBucketStart()
+    {
+        return bucketStart;
+    }
+
+    public long getUserID()
+    {
+        return key.getUserID();
+    }
+
+    public String getCommand()
+    {
+        return key.getCommand();
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+}
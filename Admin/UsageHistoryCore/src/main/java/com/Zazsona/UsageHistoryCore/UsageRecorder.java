@@ -0,0 +1,352 @@
+package com.Zazsona.UsageHistoryCore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records command usage into the usage history.<br>
+ * The last day of usage is kept in a ring of hourly buckets. Once an hour is over, its bucket is written to the guilds'
+ * hourly segments, and once a day or month is over, it is totalled into the daily or monthly segments. Until then, the
+ * usage is saved every minute to a pending file, so other modules can read it and it survives a restart.<br>
+ * The hourly segments are deleted once their day has been totalled and is more than {@link #HOUR_RETENTION_DAYS} days
+ * old, so only the daily and monthly totals are kept for older usage.<br>
+ * Only one module should record usage, as each module loads its own copy of this class.
+ */
+public class UsageRecorder
+{
+    protected static final long MILLIS_PER_HOUR = 60*60*1000;
+    /**
+     * The user ID usage is recorded under in {@link UsageHistory#ALL_GUILDS}.
+     */
+    protected static final String ALL_USERS = "0";
+    /**
+     * The number of hours kept in memory.
+     */
+    private static final int RING_HOURS = 24;
+    /**
+     * How long to wait after an hour is over before writing it out, so usage recorded just as the hour ended is included.
+     */
+    private static final long CLOSE_DELAY_MILLIS = 60*1000;
+    private static final long FLUSH_INTERVAL_SECONDS = 60;
+    /**
+     * The number of days, before the current one, that the hourly segments are kept for.
+     */
+    protected static final int HOUR_RETENTION_DAYS = 31;
+    private static transient Logger logger = LoggerFactory.getLogger("UsageHistoryRecorder");
+    private static UsageRecorder instance;
+    private final AtomicReferenceArray<HourBucket> ring = new AtomicReferenceArray<>(RING_HOURS);
+    /**
+     * Hours that are no longer in the ring, but have not been written out.
+     */
+    private final CopyOnWriteArrayList<HourBucket> detachedBuckets = new CopyOnWriteArrayList<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "UsageHistory-Flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private UsageRecorder()
+    {
+        long currentHour = System.currentTimeMillis()/MILLIS_PER_HOUR;
+        for (Map.Entry<Long, HashMap<String, Map<UsageKey, Long>>> hourEntry : FileManager.readPending().entrySet())
+        {
+            long hour = hourEntry.getKey();
+            HourBucket bucket;
+            if (hour > currentHour-RING_HOURS && hour <= currentHour)
+            {
+                bucket = getRingBucket(hour);
+            }
+            else
+            {
+                bucket = new HourBucket(hour);
+                detachedBuckets.add(bucket);
+            }
+            for (Map.Entry<String, Map<UsageKey, Long>> guildEntry : hourEntry.getValue().entrySet())
+            {
+                for (Map.Entry<UsageKey, Long> entry : guildEntry.getValue().entrySet())
+                {
+                    bucket.add(guildEntry.getKey(), String.valueOf(entry.getKey().getUserID()), entry.getKey().getCommand(), entry.getValue());
+                }
+            }
+        }
+        UsageHistory.setRecorder(this);
+        flush();
+
+        flushScheduler.scheduleAtFixedRate(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets the recorder, restoring any usage that was pending when the bot last stopped.
+     * @return the recorder
+     */
+    public static synchronized UsageRecorder getInstance()
+    {
+        if (instance == null)
+        {
+            instance = new UsageRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Records a user using a command.
+     * @param guildID the ID of the guild the command was used in
+     * @param userID the ID of the user
+     * @param command the command's key
+     */
+    public void recordUsage(String guildID, String userID, String command)
+    {
+        recordUsage(guildID, userID, command, 1);
+    }
+
+    /**
+     * Records a user using a command a number of times in the current hour.
+     * @param guildID the ID of the guild the command was used in
+     * @param userID the ID of the user
+     * @param command the command's key
+     * @param count the number of uses
+     */
+    public void recordUsage(String guildID, String userID, String command, long count)
+    {
+        long hour = System.currentTimeMillis()/MILLIS_PER_HOUR;
+        HourBucket bucket = ring.get((int) (hour % RING_HOURS));
+        if (bucket == null || bucket.getHour() != hour)
+        {
+            bucket = getRingBucket(hour);
+        }
+        bucket.add(guildID, userID, command, count);
+        bucket.add(UsageHistory.ALL_GUILDS, ALL_USERS, command, count);
+    }
+
+    /**
+     * Records a user using a command a number of times at an earlier time, such as when importing usage saved elsewhere.<br>
+     * Writing out an hour replaces the usage saved for it, so this is only for hours that have had no usage written out
+     * since they were last held in memory, such as the hours before the usage history was kept.
+     * @param guildID the ID of the guild the command was used in
+     * @param userID the ID of the user
+     * @param command the command's key
+     * @param count the number of uses
+     * @param time when the commands were used. Times after now are recorded in the current hour.
+     */
+    public void recordUsage(String guildID, String userID, String command, long count, Instant time)
+    {
+        long currentHour = System.currentTimeMillis()/MILLIS_PER_HOUR;
+        long hour = Math.min(time.toEpochMilli()/MILLIS_PER_HOUR, currentHour);
+        synchronized (flushLock)
+        {
+            HourBucket bucket;
+            if (hour > currentHour-RING_HOURS)
+            {
+                bucket = getRingBucket(hour);
+            }
+            else
+            {
+                bucket = getDetachedBucket(hour);
+            }
+            bucket.add(guildID, userID, command, count);
+            bucket.add(UsageHistory.ALL_GUILDS, ALL_USERS, command, count);
+            bucket.setFlushed(false); //The hour may already have been written out, so it is written again with the added usage.
+        }
+    }
+
+    /**
+     * Gets the bucket for an hour that is no longer in the ring, adding one if it is not held.
+     */
+    private synchronized HourBucket getDetachedBucket(long hour)
+    {
+        for (HourBucket detachedBucket : detachedBuckets)
+        {
+            if (detachedBucket.getHour() == hour)
+            {
+                return detachedBucket;
+            }
+        }
+        HourBucket bucket = new HourBucket(hour);
+        detachedBuckets.add(bucket);
+        return bucket;
+    }
+
+    /**
+     * Gets the ring's bucket for an hour of the last day, replacing the bucket for the hour a day before it.
+     */
+    private synchronized HourBucket getRingBucket(long hour)
+    {
+        int slot = (int) (hour % RING_HOURS);
+        HourBucket bucket = ring.get(slot);
+        if (bucket == null || bucket.getHour() != hour)
+        {
+            if (bucket != null && !bucket.isFlushed())
+            {
+                detachedBuckets.add(bucket);
+            }
+            bucket = new HourBucket(hour);
+            ring.set(slot, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * Gets the usage recorded in an hour, if it is still held in memory
+     * @param hour the hour, as hours since the epoch
+     * @return the hour's bucket, or null if it is not held
+     */
+    protected HourBucket getBucket(long hour)
+    {
+        HourBucket bucket = ring.get((int) (hour % RING_HOURS));
+        if (bucket != null && bucket.getHour() == hour)
+        {
+            return bucket;
+        }
+        for (HourBucket detachedBucket : detachedBuckets)
+        {
+            if (detachedBucket.getHour() == hour)
+            {
+                return detachedBucket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes out the hours that are over, totals any days and months that are over, and saves the remaining usage to the pending file.
+     */
+    public void flush()
+    {
+        synchronized (flushLock)
+        {
+            try
+            {
+                long now = System.currentTimeMillis();
+                ArrayList<HourBucket> unflushedBuckets = new ArrayList<>(detachedBuckets);
+                for (int i = 0; i<RING_HOURS; i++)
+                {
+                    HourBucket bucket = ring.get(i);
+                    if (bucket != null && !bucket.isFlushed())
+                    {
+                        unflushedBuckets.add(bucket);
+                    }
+                }
+                unflushedBuckets.sort(Comparator.comparingLong(HourBucket::getHour));
+                ArrayList<HourBucket> closedBuckets = new ArrayList<>();
+                for (HourBucket bucket : unflushedBuckets)
+                {
+                    if ((bucket.getHour()+1)*MILLIS_PER_HOUR+CLOSE_DELAY_MILLIS <= now)
+                    {
+                        closedBuckets.add(bucket);
+                    }
+                }
+                closeHours(closedBuckets, now);
+                unflushedBuckets.removeAll(closedBuckets);
+                FileManager.writePending(unflushedBuckets);
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to save usage history.\n"+e.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes the hours to the hourly segments, then totals the days and months they were in, if those are over.
+     */
+    private void closeHours(ArrayList<HourBucket> buckets, long now) throws IOException
+    {
+        TreeSet<LocalDateTime> days = new TreeSet<>();
+        for (HourBucket bucket : buckets)
+        {
+            LocalDateTime time = LocalDateTime.ofEpochSecond(bucket.getHour()*MILLIS_PER_HOUR/1000, 0, ZoneOffset.UTC);
+            for (Map.Entry<String, HashMap<UsageKey, Long>> entry : bucket.getUsage().entrySet())
+            {
+                File segmentFile = FileManager.getSegmentFile(entry.getKey(), Resolution.HOUR, time);
+                Segment segment = FileManager.readSegment(segmentFile);
+                segment.setBucket(Resolution.HOUR.getBucketIndex(time), entry.getValue());
+                FileManager.writeSegment(segmentFile, segment);
+            }
+            bucket.setFlushed(true);
+            detachedBuckets.remove(bucket);
+            days.add(Resolution.DAY.truncate(time));
+        }
+
+        LocalDateTime nowTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneOffset.UTC);
+        TreeSet<LocalDateTime> months = new TreeSet<>();
+        for (LocalDateTime day : days)
+        {
+            if (day.isBefore(Resolution.DAY.truncate(nowTime)))
+            {
+                rollUp(Resolution.DAY, day);
+                months.add(Resolution.MONTH.truncate(day));
+            }
+        }
+        for (LocalDateTime month : months)
+        {
+            if (month.isBefore(Resolution.MONTH.truncate(nowTime)))
+            {
+                rollUp(Resolution.MONTH, month);
+            }
+        }
+        if (!months.isEmpty())
+        {
+            deleteExpiredHours(Resolution.DAY.truncate(nowTime).minusDays(HOUR_RETENTION_DAYS));
+        }
+    }
+
+    /**
+     * Deletes the hourly segments for the days before the cutoff, for every guild. A day is totalled first if it has
+     * not been, so its usage is still kept in the daily segment.
+     */
+    private void deleteExpiredHours(LocalDateTime cutoff) throws IOException
+    {
+        for (String guildID : FileManager.getGuildIDs())
+        {
+            UsageHistory.Query query = null;
+            for (LocalDateTime day : FileManager.getHourSegmentDays(guildID))
+            {
+                if (day.isBefore(cutoff))
+                {
+                    File daySegmentFile = FileManager.getSegmentFile(guildID, Resolution.DAY, day);
+                    Segment daySegment = FileManager.readSegment(daySegmentFile);
+                    if (!daySegment.isSealed(Resolution.DAY.getBucketIndex(day)))
+                    {
+                        query = (query == null) ? new UsageHistory.Query() : query;
+                        daySegment.setBucket(Resolution.DAY.getBucketIndex(day), query.sumCounts(guildID, Resolution.DAY, day));
+                        FileManager.writeSegment(daySegmentFile, daySegment);
+                    }
+                    FileManager.deleteSegment(FileManager.getSegmentFile(guildID, Resolution.HOUR, day));
+                }
+            }
+        }
+    }
+
+    /**
+     * Totals the usage in a bucket that is over from the buckets of the next resolution down, and seals it, for every guild that had usage.
+     */
+    private void rollUp(Resolution resolution, LocalDateTime time) throws IOException
+    {
+        UsageHistory.Query query = new UsageHistory.Query();
+        for (String guildID : FileManager.getGuildIDs())
+        {
+            Map<UsageKey, Long> counts = query.sumCounts(guildID, resolution, time);
+            File segmentFile = FileManager.getSegmentFile(guildID, resolution, time);
+            if (!counts.isEmpty() || segmentFile.exists())
+            {
+                Segment segment = FileManager.readSegment(segmentFile);
+                segment.setBucket(resolution.getBucketIndex(time), counts);
+                FileManager.writeSegment(segmentFile, segment);
+            }
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package com.Zazsona.Mixtape;
 
 import audio.Audio;
+import com.Zazsona.MixtapeCore.MixtapeRepository;
+import com.Zazsona.TrackQueueCore.BatchQueue;
+import com.Zazsona.TrackQueueCore.BatchResult;
 import commands.CmdUtil;
-import configuration.SettingsUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
 import java.util.ArrayList;
@@ -23,24 +24,13 @@ public class Mixtape extends ModuleCommand
             embed.setThumbnail("https://i.imgur.com/wHdSqH5.png");
             embed.setTitle("Mixtape");
 
-            if (SaveManager.isMixtapeNameTaken(msgEvent.getGuild().getIdLong(), parameters[1]))
+            ArrayList<String> tracks = MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).getTracks(parameters[1]);
+            if (tracks != null)
             {
                 Audio audio = CmdUtil.getGuildAudio(msgEvent.getGuild().getId());
-                ArrayList<String> tracks = SaveManager.getTracks(msgEvent.getGuild().getIdLong(), parameters[1]);
                 Collections.shuffle(tracks);
-                Audio.RequestResult rr = null;
-                String lastTrack = "";
-                int playLimit = getPlayLimit(msgEvent.getMember(), audio, tracks.size());
-                for (int i = 0; i<playLimit; i++)
-                {
-                    rr = audio.play(msgEvent.getMember(), tracks.get(i));
-                    lastTrack = tracks.get(i);
-                    if (!(rr == Audio.RequestResult.REQUEST_NOW_PLAYING || rr == Audio.RequestResult.REQUEST_ADDED_TO_QUEUE))
-                    {
-                        break;
-                    }
-                }
-                sendFeedback(msgEvent, embed, rr, lastTrack);
+                BatchResult result = BatchQueue.queue(audio, msgEvent.getMember(), tracks);
+                sendFeedback(msgEvent, embed, result);
             }
             else
             {
@@ -54,13 +44,24 @@ public class Mixtape extends ModuleCommand
         }
     }
 
-    private void sendFeedback(GuildMessageReceivedEvent msgEvent, EmbedBuilder embed, Audio.RequestResult rr, String lastTrack)
+    private void sendFeedback(GuildMessageReceivedEvent msgEvent, EmbedBuilder embed, BatchResult result)
     {
-        switch (rr)
+        switch (result.getRequestResult())
         {
             case REQUEST_ADDED_TO_QUEUE:
             case REQUEST_NOW_PLAYING:
-                embed.setDescription("Mixtape queued!");
+                if (result.isLimited())
+                {
+                    embed.setDescription("Mixtape queued! (Your queue is full, though, so only some tracks will play)");
+                }
+                else
+                {
+                    embed.setDescription("Mixtape queued!");
+                }
+                if (result.getFailedIdentifiers().size() > 0)
+                {
+                    embed.appendDescription("\n"+result.getFailedIdentifiers().size()+" track(s) could not be found.");
+                }
                 break;
             case REQUEST_CHANNEL_FULL:
                 embed.setTitle("Channel Full");
@@ -68,7 +69,7 @@ public class Mixtape extends ModuleCommand
                 break;
             case REQUEST_IS_BAD:
                 embed.setTitle("No Track Found");
-                embed.setDescription(lastTrack+" is not a supported URL.");
+                embed.setDescription(result.getFailedIdentifiers().get(result.getFailedIdentifiers().size()-1)+" is not a supported URL.");
                 break;
             case REQUEST_NO_LINK:
                 embed.setTitle("No Tracks");
@@ -87,23 +88,10 @@ public class Mixtape extends ModuleCommand
                 embed.setDescription("I can't find you in any voice channels! Please make sure you're in one I have access to.");
                 break;
             case REQUEST_USER_LIMITED:
-                embed.setDescription("Mixtape queued! (Your queue is full, though, so only some tracks will play)");
+                embed.setTitle("Queue Full");
+                embed.setDescription("Your queue is full, so no tracks could be added.");
                 break;
         }
         msgEvent.getChannel().sendMessage(embed.build()).queue();
     }
-
-    private int getPlayLimit(Member member, Audio audio, int trackCount)
-    {
-        /*
-                Here we limit the queuing to the user's remaining queue space if it is smaller than the amount specified.
-                While this may seem redundant, as Jara blocks additional queue requests, it isn't.
-
-                This is because if hundreds of replays are requested, it may take multiple minutes to load the tracks, long enough for the first track to end.
-                When this track does end, then the user has a spot free queue spot, and this will instantly be filled if tracks are still being loaded in, effectively allowing them to block the queue.
-         */
-        int remainingQueue = SettingsUtil.getGuildSettings(member.getGuild().getId()).getAudioQueueLimit(member)-audio.getUserQueueQuantity().get(member.getUser().getId());
-        int tracksToPlay = (trackCount < remainingQueue) ? trackCount : remainingQueue;
-        return tracksToPlay;
-    }
 }
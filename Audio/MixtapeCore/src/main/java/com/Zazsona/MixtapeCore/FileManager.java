@@ -0,0 +1,250 @@
+package com.Zazsona.MixtapeCore;
+
+import configuration.SettingsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FileManager
+{
+    private static final int MIXTAPES_MAGIC = 0x4A4D5854;
+    private static final byte MIXTAPES_VERSION = 1;
+    /**
+     * How long to wait before trying again to lock a guild's mixtapes, or the import, held by another module.
+     */
+    private static final long LOCK_RETRY_MILLIS = 5;
+    private static transient Logger logger = LoggerFactory.getLogger("MixtapeLoader");
+
+    private static File getMixtapesDirectory()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/Mixtapes/");
+    }
+
+    private static File getMixtapesFile(long guildID)
+    {
+        return new File(getMixtapesDirectory(), guildID+".mix");
+    }
+
+    private static File getLegacyFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/Mixtapes.jara");
+    }
+
+    private static File getLockFile(long guildID)
+    {
+        return new File(getMixtapesDirectory(), guildID+".lock");
+    }
+
+    private static File getImportLockFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/Mixtapes.lock");
+    }
+
+    /**
+     * Reads the guild's mixtapes
+     * @param guildID the guild's ID
+     * @return the mixtapes as Name : Tracks, which is empty if the guild has none
+     * @throws IOException unable to read the guild's mixtapes file, or it is not a mixtapes file
+     */
+    protected static LinkedHashMap<String, List<String>> readMixtapes(long guildID) throws IOException
+    {
+        LinkedHashMap<String, List<String>> mixtapes = new LinkedHashMap<>();
+        File mixtapesFile = getMixtapesFile(guildID);
+        if (mixtapesFile.exists())
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mixtapesFile))))
+            {
+                if (in.readInt() != MIXTAPES_MAGIC || in.readByte() != MIXTAPES_VERSION)
+                {
+                    throw new IOException("Not a mixtapes file.");
+                }
+                int mixtapeCount = in.readInt();
+                for (int i = 0; i<mixtapeCount; i++)
+                {
+                    String name = in.readUTF();
+                    int trackCount = in.readInt();
+                    ArrayList<String> tracks = new ArrayList<>(trackCount);
+                    for (int j = 0; j<trackCount; j++)
+                    {
+                        tracks.add(in.readUTF());
+                    }
+                    mixtapes.put(name, tracks);
+                }
+            }
+        }
+        return mixtapes;
+    }
+
+    /**
+     * Writes the guild's mixtapes, replacing those saved before. The mixtapes are written to a temporary file that then
+     * replaces the existing one, so the file is never left part-written. If the guild has no mixtapes, its file is deleted.
+     * The guild must be locked with {@link #lock(long)}.
+     * @param guildID the guild's ID
+     * @param mixtapes the mixtapes as Name : Tracks
+     * @throws IOException unable to write the mixtapes
+     */
+    protected static void writeMixtapes(long guildID, Map<String, List<String>> mixtapes) throws IOException
+    {
+        File mixtapesFile = getMixtapesFile(guildID);
+        if (mixtapes.isEmpty())
+        {
+            Files.deleteIfExists(mixtapesFile.toPath());
+            return;
+        }
+        mixtapesFile.getParentFile().mkdirs();
+        File tempFile = new File(mixtapesFile.getPath()+".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            out.writeInt(MIXTAPES_MAGIC);
+            out.writeByte(MIXTAPES_VERSION);
+            out.writeInt(mixtapes.size());
+            for (Map.Entry<String, List<String>> entry : mixtapes.entrySet())
+            {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (String track : entry.getValue())
+                {
+                    out.writeUTF(track);
+                }
+            }
+        }
+        Files.move(tempFile.toPath(), mixtapesFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gets the attributes of the guild's mixtapes file, such as when it was last written
+     * @param guildID the guild's ID
+     * @return the attributes, or null if the guild has no mixtapes file
+     */
+    protected static BasicFileAttributes getFileAttributes(long guildID)
+    {
+        try
+        {
+            return Files.readAttributes(getMixtapesFile(guildID).toPath(), BasicFileAttributes.class);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Moves the mixtapes saved by earlier versions, which kept every guild's mixtapes in one serialized map, into a file
+     * per guild. The old file is kept, renamed, once every guild has been written.<br>
+     * Each module that uses mixtapes has its own copy of this class, so the import is locked through a file for as long
+     * as it runs. A module that was waiting on the lock finds the old file renamed, and leaves the mixtapes as they are.
+     */
+    protected static void importLegacyMixtapes()
+    {
+        if (!getLegacyFile().exists())
+        {
+            return;
+        }
+        try (FileChannel lock = lock(getImportLockFile()))
+        {
+            File legacyFile = getLegacyFile();
+            if (!legacyFile.exists())
+            {
+                return;
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(legacyFile))))
+            {
+                HashMap<Long, HashMap<String, ArrayList<String>>> legacyMixtapes = (HashMap<Long, HashMap<String, ArrayList<String>>>) in.readObject();
+                if (legacyMixtapes != null)
+                {
+                    for (Map.Entry<Long, HashMap<String, ArrayList<String>>> entry : legacyMixtapes.entrySet())
+                    {
+                        try (FileChannel guildLock = lock(entry.getKey()))
+                        {
+                            writeMixtapes(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+                        }
+                    }
+                }
+            }
+            catch (IOException | ClassNotFoundException | ClassCastException e)
+            {
+                logger.error("Unable to import mixtapes.\n"+e.toString());
+                return;
+            }
+            try
+            {
+                Files.move(legacyFile.toPath(), new File(legacyFile.getPath()+".imported").toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to rename imported mixtapes file.\n"+e.toString());
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to lock the mixtapes import.\n"+e.toString());
+        }
+    }
+
+    /**
+     * Locks the guild's mixtapes, waiting until any other module or process holding the lock has released it.
+     * Only one holder of the lock may change the guild's mixtapes file at a time.
+     * @param guildID the guild's ID
+     * @return the locked channel, which releases the lock when closed
+     * @throws IOException unable to lock the guild's mixtapes
+     */
+    protected static FileChannel lock(long guildID) throws IOException
+    {
+        return lock(getLockFile(guildID));
+    }
+
+    /**
+     * Locks the file, waiting until any other module or process holding the lock has released it.
+     * @param lockFile the lock file, which is created if it doesn't exist
+     * @return the locked channel, which releases the lock when closed
+     * @throws IOException unable to lock the file
+     */
+    private static FileChannel lock(File lockFile) throws IOException
+    {
+        lockFile.getParentFile().mkdirs();
+        FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    FileLock lock = channel.tryLock();
+                    if (lock != null)
+                    {
+                        return channel;
+                    }
+                }
+                catch (OverlappingFileLockException e)
+                {
+                    //Another module in this JVM holds the lock.
+                }
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            }
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        catch (InterruptedException e)
+        {
+            channel.close();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while locking "+lockFile.getName());
+        }
+    }
+}
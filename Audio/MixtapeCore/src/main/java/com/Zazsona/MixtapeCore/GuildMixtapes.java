@@ -0,0 +1,274 @@
+package com.Zazsona.MixtapeCore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A guild's mixtapes, held in memory.<br>
+ * Reads are served from memory without locking. Each one first checks whether the guild's file has been written
+ * elsewhere (such as by another module) and, if so, reads it again. Changes are made one at a time, with the guild's
+ * file locked against other modules, and each rewrites only this guild's file.<br>
+ * If the guild's file cannot be read, no changes are saved until it can be, as rewriting it would lose the mixtapes that
+ * could not be read.
+ */
+public class GuildMixtapes
+{
+    private static transient Logger logger = LoggerFactory.getLogger("MixtapeLoader");
+    private final long guildID;
+    /**
+     * The mixtapes as Name : Tracks. The track lists are never changed once added, so may be handed out without copying.
+     */
+    private volatile ConcurrentHashMap<String, List<String>> mixtapes;
+    private volatile FileTime fileModified;
+    private volatile long fileLength;
+    /**
+     * Whether the guild's file was read in full when last loaded
+     */
+    private volatile boolean readable;
+
+    protected GuildMixtapes(long guildID)
+    {
+        this.guildID = guildID;
+        load();
+    }
+
+    public long getGuildID()
+    {
+        return guildID;
+    }
+
+    /**
+     * Gets the names of the guild's mixtapes
+     * @return the names, in alphabetical order
+     */
+    public ArrayList<String> getMixtapeNames()
+    {
+        refresh();
+        ArrayList<String> names = new ArrayList<>(mixtapes.keySet());
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    /**
+     * Gets the tracks in a mixtape
+     * @param name the mixtape's name
+     * @return a copy of the tracks, or null if there is no mixtape with that name
+     */
+    public ArrayList<String> getTracks(String name)
+    {
+        refresh();
+        List<String> tracks = mixtapes.get(name);
+        return (tracks != null) ? new ArrayList<>(tracks) : null;
+    }
+
+    /**
+     * Checks if a mixtape already has the name
+     * @param name the name
+     * @return true if the name is taken
+     */
+    public boolean isMixtapeNameTaken(String name)
+    {
+        refresh();
+        return mixtapes.containsKey(name);
+    }
+
+    /**
+     * Creates a mixtape
+     * @param name the mixtape's name
+     * @param tracks the mixtape's tracks
+     * @return true if the mixtape was created, false if the name is taken
+     */
+    public boolean createMixtape(String name, String... tracks)
+    {
+        return change(() -> !mixtapes.containsKey(name) && write(name, Collections.unmodifiableList(new ArrayList<>(Arrays.asList(tracks)))));
+    }
+
+    /**
+     * Removes a mixtape
+     * @param name the mixtape's name
+     * @return true if the mixtape was removed, false if there is no mixtape with that name
+     */
+    public boolean removeMixtape(String name)
+    {
+        return change(() -> mixtapes.containsKey(name) && write(name, null));
+    }
+
+    /**
+     * Adds tracks to the end of a mixtape, skipping any it already has
+     * @param name the mixtape's name
+     * @param tracks the tracks to add
+     * @return true if the tracks were added, false if there is no mixtape with that name
+     */
+    public boolean addTracks(String name, String... tracks)
+    {
+        return change(() ->
+        {
+            List<String> existingTracks = mixtapes.get(name);
+            if (existingTracks == null)
+            {
+                return false;
+            }
+            ArrayList<String> newTracks = new ArrayList<>(existingTracks);
+            HashSet<String> trackSet = new HashSet<>(existingTracks);
+            for (String track : tracks)
+            {
+                if (trackSet.add(track))
+                {
+                    newTracks.add(track);
+                }
+            }
+            return write(name, Collections.unmodifiableList(newTracks));
+        });
+    }
+
+    /**
+     * Removes tracks from a mixtape
+     * @param name the mixtape's name
+     * @param tracks the tracks to remove
+     * @return true if the tracks were removed, false if there is no mixtape with that name
+     */
+    public boolean removeTracks(String name, String... tracks)
+    {
+        return change(() ->
+        {
+            List<String> existingTracks = mixtapes.get(name);
+            if (existingTracks == null)
+            {
+                return false;
+            }
+            ArrayList<String> newTracks = new ArrayList<>(existingTracks);
+            for (String track : tracks)
+            {
+                newTracks.remove(track);
+            }
+            return write(name, Collections.unmodifiableList(newTracks));
+        });
+    }
+
+    /**
+     * Makes a change with the guild locked, so that no other module can make a change at the same time. The mixtapes
+     * are read again first if another module has changed them.
+     * @param change the change, which returns true if it was made
+     * @return true if the change was made
+     */
+    private synchronized boolean change(BooleanSupplier change)
+    {
+        try (FileChannel lock = FileManager.lock(guildID))
+        {
+            refresh();
+            return change.getAsBoolean();
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to lock mixtapes for guild "+guildID+".\n"+e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Saves the guild's mixtapes with one changed, then makes the change in memory.
+     * @param name the mixtape's name
+     * @param tracks the mixtape's new tracks, or null to remove it
+     * @return true if the change was saved
+     */
+    private boolean write(String name, List<String> tracks)
+    {
+        if (!readable)
+        {
+            logger.error("Not saving mixtapes for guild "+guildID+", as they could not be read.");
+            return false;
+        }
+        LinkedHashMap<String, List<String>> newMixtapes = new LinkedHashMap<>(mixtapes);
+        if (tracks == null)
+        {
+            newMixtapes.remove(name);
+        }
+        else
+        {
+            newMixtapes.put(name, tracks);
+        }
+        try
+        {
+            FileManager.writeMixtapes(guildID, newMixtapes);
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to save mixtapes for guild "+guildID+".\n"+e.toString());
+            return false;
+        }
+        if (tracks == null)
+        {
+            mixtapes.remove(name);
+        }
+        else
+        {
+            mixtapes.put(name, tracks);
+        }
+        updateFileAttributes();
+        return true;
+    }
+
+    /**
+     * Reads the guild's mixtapes again if their file has changed since it was last read or written.
+     */
+    private void refresh()
+    {
+        if (isFileChanged())
+        {
+            synchronized (this)
+            {
+                if (isFileChanged())
+                {
+                    load();
+                }
+            }
+        }
+    }
+
+    private boolean isFileChanged()
+    {
+        BasicFileAttributes attributes = FileManager.getFileAttributes(guildID);
+        return !Objects.equals(fileModified, (attributes != null) ? attributes.lastModifiedTime() : null)
+                || fileLength != ((attributes != null) ? attributes.size() : 0);
+    }
+
+    private void load()
+    {
+        updateFileAttributes();
+        ConcurrentHashMap<String, List<String>> loadedMixtapes = new ConcurrentHashMap<>();
+        try
+        {
+            for (Map.Entry<String, List<String>> entry : FileManager.readMixtapes(guildID).entrySet())
+            {
+                loadedMixtapes.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
+            readable = true;
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to read mixtapes for guild "+guildID+".\n"+e.toString());
+            readable = false;
+            if (mixtapes != null)
+            {
+                return; //Keep serving what was last read.
+            }
+            loadedMixtapes.clear();
+        }
+        mixtapes = loadedMixtapes;
+    }
+
+    private void updateFileAttributes()
+    {
+        BasicFileAttributes attributes = FileManager.getFileAttributes(guildID);
+        fileModified = (attributes != null) ? attributes.lastModifiedTime() : null;
+        fileLength = (attributes != null) ? attributes.size() : 0;
+    }
+}
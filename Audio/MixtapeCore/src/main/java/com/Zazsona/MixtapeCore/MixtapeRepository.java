@@ -0,0 +1,26 @@
+package com.Zazsona.MixtapeCore;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps each guild's mixtapes in memory once they have been read, so that commands don't each have to read the mixtapes files.
+ */
+public class MixtapeRepository
+{
+    private static final ConcurrentHashMap<Long, GuildMixtapes> guildIDToMixtapes = new ConcurrentHashMap<>();
+
+    static
+    {
+        FileManager.importLegacyMixtapes();
+    }
+
+    /**
+     * Gets the guild's mixtapes, loading them if they aren't already in memory.
+     * @param guildID the guild's ID
+     * @return the guild's mixtapes
+     */
+    public static GuildMixtapes getGuildMixtapes(long guildID)
+    {
+        return guildIDToMixtapes.computeIfAbsent(guildID, GuildMixtapes::new);
+    }
+}
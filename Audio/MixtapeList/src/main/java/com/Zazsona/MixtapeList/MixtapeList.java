@@ -1,5 +1,6 @@
 package com.Zazsona.MixtapeList;
 
+import com.Zazsona.MixtapeCore.MixtapeRepository;
 import commands.CmdUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -27,8 +28,7 @@ public class MixtapeList extends ModuleCommand
     {
         int pageNo = getPageNo(parameters[parameters.length-1]);
         EmbedBuilder embed = new EmbedBuilder();
-        ArrayList<String> mixtapes = new ArrayList<>();
-        mixtapes.addAll(SaveManager.getGuildMixtapes(msgEvent.getGuild().getIdLong()).keySet());
+        ArrayList<String> mixtapes = MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).getMixtapeNames();
         if (mixtapes.size() > 0)
         {
             embed = buildPageEmbed(msgEvent, mixtapes, 15, pageNo);
@@ -57,7 +57,7 @@ public class MixtapeList extends ModuleCommand
         if (parameters.length > 1)
         {
             int pageNo = getPageNo(parameters[parameters.length-1]);
-            ArrayList<String> tracks = SaveManager.getTracks(msgEvent.getGuild().getIdLong(), parameters[1]);
+            ArrayList<String> tracks = MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).getTracks(parameters[1]);
             if (tracks != null)
             {
                 embed = buildPageEmbed(msgEvent, tracks, 15, pageNo);
@@ -1,5 +1,6 @@
 package com.Zazsona.MixtapeManager;
 
+import com.Zazsona.MixtapeCore.MixtapeRepository;
 import commands.CmdUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -49,7 +50,7 @@ public class MixtapeManager extends ModuleCommand
             {
                 tracks[i-3] = parameters[i];
             }
-            boolean success = SaveManager.createMixtape(msgEvent.getGuild().getIdLong(), name, tracks);
+            boolean success = MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).createMixtape(name, tracks);
             EmbedBuilder embed = new EmbedBuilder();
             embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
             if (success)
@@ -80,9 +81,8 @@ public class MixtapeManager extends ModuleCommand
             }
             EmbedBuilder embed = new EmbedBuilder();
             embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-            if (!SaveManager.isMixtapeNameTaken(msgEvent.getGuild().getIdLong(), name))
+            if (MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).addTracks(name, tracks))
             {
-                SaveManager.addTracks(msgEvent.getGuild().getIdLong(), name, tracks);
                 embed.setDescription("Tracks added successfully.");
             }
             else
@@ -109,9 +109,8 @@ public class MixtapeManager extends ModuleCommand
             }
             EmbedBuilder embed = new EmbedBuilder();
             embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-            if (!SaveManager.isMixtapeNameTaken(msgEvent.getGuild().getIdLong(), name))
+            if (MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).removeTracks(name, tracks))
             {
-                SaveManager.removeTracks(msgEvent.getGuild().getIdLong(), name, tracks);
                 embed.setDescription("Tracks removed successfully.");
             }
             else
@@ -131,10 +130,10 @@ public class MixtapeManager extends ModuleCommand
         if (parameters.length == 3)
         {
             String name = parameters[2];
-            SaveManager.removeMixtape(msgEvent.getGuild().getIdLong(), name);
+            boolean success = MixtapeRepository.getGuildMixtapes(msgEvent.getGuild().getIdLong()).removeMixtape(name);
             EmbedBuilder embed = new EmbedBuilder();
             embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-            embed.setDescription("Mixtape removed.");
+            embed.setDescription((success) ? "Mixtape removed." : "Unable to find mixtape.");
             msgEvent.getChannel().sendMessage(embed.build()).queue();
         }
         else
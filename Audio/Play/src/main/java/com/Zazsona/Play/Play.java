@@ -1,15 +1,15 @@
 package com.Zazsona.Play;
 
 import audio.Audio;
+import com.Zazsona.TrackQueueCore.BatchQueue;
+import com.Zazsona.TrackQueueCore.BatchResult;
 import commands.CmdUtil;
-import configuration.SettingsUtil;
 import module.ModuleCommand;
+import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
-import java.util.HashMap;
-
 public class Play extends ModuleCommand
 {
     @Override
@@ -30,24 +30,43 @@ public class Play extends ModuleCommand
 
     private void queueTrackForMultiPlay(Member member, TextChannel channel, Audio audio, String query, String[] parameters)
     {
-        /*
-                Here we limit the queuing to the user's remaining queue space if it is smaller than the amount specified.
-                While this may seem redundant, as Jara blocks additional queue requests, it isn't.
-
-                This is because if hundreds of replays are requested, it may take multiple minutes to load the tracks, long enough for the first track to end.
-                When this track does end, then the user has a spot free queue spot, and this will instantly be filled if tracks are still being loaded in, effectively allowing them to block the queue.
-         */
         int replayCount = getReplayCount(parameters);
-        HashMap<String, Integer> queuedItems = audio.getUserQueueQuantity();
-        int userMaxQueueSize = SettingsUtil.getGuildSettings(channel.getGuild().getId()).getAudioQueueLimit(member);
-        int remainingQueue = (queuedItems.containsKey(member.getUser().getId())) ? userMaxQueueSize-queuedItems.get(member.getUser().getId()) : userMaxQueueSize;
-        int replaysToQueue = (replayCount < remainingQueue) ? replayCount : remainingQueue;
-        audio.playWithFeedback(member, query, channel);
-        for (int i = 1; i <replaysToQueue; i++)
+        if (replayCount <= 1)
         {
-            audio.play(member, query);
+            audio.playWithFeedback(member, query, channel);
+            return;
         }
+        BatchResult result = BatchQueue.queueRepeats(audio, member, query, replayCount);
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setColor(CmdUtil.getHighlightColour(channel.getGuild().getSelfMember()));
+        embed.setThumbnail("https://i.imgur.com/wHdSqH5.png");
+        embed.setTitle("Now Playing...");
+        switch (result.getRequestResult())
+        {
+            case REQUEST_NOW_PLAYING:
+            case REQUEST_ADDED_TO_QUEUE:
+                embed.setDescription("Queued "+query+" to play "+result.getQueuedCount()+((result.getQueuedCount() == 1) ? " time." : " times."));
+                if (result.isLimited())
+                {
+                    embed.appendDescription(" (Your queue is full, though, so it won't play as many times as you asked)");
+                }
+                break;
+            case REQUEST_USER_LIMITED:
+                embed.setDescription("Your queue is full.");
+                break;
+            case REQUEST_USER_NOT_IN_VOICE:
+                embed.setDescription("I can't find you in any voice channels! Please make sure you're in one I have access to.");
+                break;
+            case REQUEST_CHANNEL_FULL:
+                embed.setDescription("There's no space for me in that channel.");
+                break;
+            default:
+                embed.setDescription("Unable to play "+query+".");
+                break;
+        }
+        channel.sendMessage(embed.build()).queue();
     }
+
     private int getReplayCount(String[] parameters)
     {
         if (parameters[parameters.length-1].matches("[0-9]+"))
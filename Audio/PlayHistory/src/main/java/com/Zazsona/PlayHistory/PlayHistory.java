@@ -1,29 +1,34 @@
 package com.Zazsona.PlayHistory;
 
-import audio.Audio;
-import audio.ScheduledTrack;
+import com.Zazsona.PlayHistoryCore.PlayHistoryStore;
+import com.Zazsona.PlayHistoryCore.PlayRecord;
 import commands.CmdUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
+import java.util.List;
+
 public class PlayHistory extends ModuleCommand
 {
+    private static final int TRACK_COUNT = 10;
+
     @Override
     public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
     {
-        Audio audio = CmdUtil.getGuildAudio(msgEvent.getGuild().getId());
-        int trackCount = (audio.getTrackHistory().size() > 10) ? 10 : audio.getTrackHistory().size();
+        List<Member> mentionedMembers = msgEvent.getMessage().getMentionedMembers();
+        String guildID = msgEvent.getGuild().getId();
+        List<PlayRecord> plays = (mentionedMembers.size() > 0) ? PlayHistoryStore.getRecentPlays(guildID, mentionedMembers.get(0).getUser().getIdLong(), TRACK_COUNT) : PlayHistoryStore.getRecentPlays(guildID, TRACK_COUNT);
         StringBuilder trackListBuilder = new StringBuilder();
         StringBuilder entryBuilder = new StringBuilder();
-        if (trackCount > 0)
+        if (plays.size() > 0)
         {
-            for (int i = 1; i<(trackCount+1); i++)
+            for (PlayRecord play : plays)
             {
-                ScheduledTrack st = audio.getTrackHistory().get(audio.getTrackHistory().size()-i);
-                entryBuilder.append("**").append(st.getAudioTrack().getInfo().title).append("**\n");
-                entryBuilder.append(msgEvent.getGuild().getMemberById(st.getUserID()).getEffectiveName()).append("\n");
-                entryBuilder.append(st.getAudioTrack().getInfo().uri).append("\n");
+                entryBuilder.append("**").append(play.getTitle()).append("**\n");
+                entryBuilder.append("<@").append(play.getUserID()).append(">\n");
+                entryBuilder.append(play.getUri()).append("\n");
                 if (trackListBuilder.length() + entryBuilder.length() < 1020)
                 {
                     trackListBuilder.append(entryBuilder.toString()).append("\n");
@@ -0,0 +1,13 @@
+package com.Zazsona.PlayHistory;
+
+import com.Zazsona.PlayHistoryCore.PlayRecorder;
+import module.ModuleLoad;
+
+public class PlayHistoryLoad extends ModuleLoad
+{
+    @Override
+    public void load()
+    {
+        PlayRecorder.getInstance();
+    }
+}
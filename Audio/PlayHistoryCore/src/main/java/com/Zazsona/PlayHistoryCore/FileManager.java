@@ -0,0 +1,131 @@
+package com.Zazsona.PlayHistoryCore;
+
+import configuration.SettingsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.TreeMap;
+
+public class FileManager
+{
+    private static final String SEGMENT_EXTENSION = ".log";
+    private static transient Logger logger = LoggerFactory.getLogger("PlayHistoryLoader");
+
+    private static File getHistoryDirectory()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/PlayHistory/");
+    }
+
+    private static File getGuildDirectory(String guildID)
+    {
+        return new File(getHistoryDirectory(), guildID);
+    }
+
+    private static File getStatsFile(String guildID)
+    {
+        return new File(getGuildDirectory(guildID), "Stats.agg");
+    }
+
+    /**
+     * Gets the file for a segment of a guild's play log
+     * @param guildID the guild's ID
+     * @param baseMillis the time of the segment's first play
+     * @return the segment file
+     */
+    protected static File getSegmentFile(String guildID, long baseMillis)
+    {
+        return new File(getGuildDirectory(guildID), baseMillis+SEGMENT_EXTENSION);
+    }
+
+    /**
+     * Gets the segments of a guild's play log
+     * @param guildID the guild's ID
+     * @return the segment files as BaseMillis : File, oldest first, which is empty if the guild has no plays
+     */
+    protected static TreeMap<Long, File> getSegmentFiles(String guildID)
+    {
+        TreeMap<Long, File> segmentFiles = new TreeMap<>();
+        File[] files = getGuildDirectory(guildID).listFiles((directory, name) -> name.endsWith(SEGMENT_EXTENSION));
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                try
+                {
+                    segmentFiles.put(Long.parseLong(file.getName().substring(0, file.getName().length()-SEGMENT_EXTENSION.length())), file);
+                }
+                catch (NumberFormatException e)
+                {
+                    logger.warn("Skipping unexpected play log file "+file.getName()+".");
+                }
+            }
+        }
+        return segmentFiles;
+    }
+
+    /**
+     * Reads a guild's play totals
+     * @param guildID the guild's ID
+     * @return the totals, or null if they have not been saved or cannot be read
+     */
+    protected static GuildPlayStats readStats(String guildID)
+    {
+        File statsFile = getStatsFile(guildID);
+        if (statsFile.exists())
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(statsFile))))
+            {
+                return GuildPlayStats.read(in);
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to read play stats for guild "+guildID+".\n"+e.toString());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the summary of a guild's play totals, without the rest of the file
+     * @param guildID the guild's ID
+     * @return the summary, which is empty if the guild has no plays
+     */
+    protected static PlayStatsSummary readSummary(String guildID)
+    {
+        File statsFile = getStatsFile(guildID);
+        if (statsFile.exists())
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(statsFile))))
+            {
+                return GuildPlayStats.readSummary(in);
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to read play stats for guild "+guildID+".\n"+e.toString());
+            }
+        }
+        return PlayStatsSummary.empty();
+    }
+
+    /**
+     * Writes a guild's play totals. The totals are written to a temporary file that then replaces the existing one, so
+     * readers never see them part-written.
+     * @param guildID the guild's ID
+     * @param stats the totals
+     * @throws IOException unable to write the totals
+     */
+    protected static void writeStats(String guildID, GuildPlayStats stats) throws IOException
+    {
+        File statsFile = getStatsFile(guildID);
+        statsFile.getParentFile().mkdirs();
+        File tempFile = new File(statsFile.getPath()+".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            stats.write(out);
+        }
+        Files.move(tempFile.toPath(), statsFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,193 @@
+package com.Zazsona.PlayHistoryCore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A guild's play log and its running totals.<br>
+ * Plays are added to the end of the newest segment until it reaches {@link #MAX_SEGMENT_BYTES}, when a new segment is
+ * started. Once the guild's segments are more than {@link #MAX_GUILD_BYTES} in total, or the oldest is over a year old,
+ * the oldest segment is removed and its plays taken off the totals. The totals are saved after every change, and only
+ * then is a removed segment deleted, so a crash never counts a play twice or takes it off twice.
+ */
+public class GuildPlayLog
+{
+    private static final long MAX_SEGMENT_BYTES = 256*1024;
+    private static final long MAX_GUILD_BYTES = 4*1024*1024;
+    private static final long MAX_AGE_MILLIS = 1000L*60*60*24*365; //One year
+    private static transient Logger logger = LoggerFactory.getLogger("PlayHistoryRecorder");
+    private final String guildID;
+    /**
+     * The sizes of the segments as BaseMillis : Bytes, oldest first.
+     */
+    private final TreeMap<Long, Long> segmentLengths = new TreeMap<>();
+    private final GuildPlayStats stats;
+    private LogSegment currentSegment;
+
+    protected GuildPlayLog(String guildID)
+    {
+        this.guildID = guildID;
+        GuildPlayStats savedStats = FileManager.readStats(guildID);
+        this.stats = (savedStats != null) ? savedStats : new GuildPlayStats();
+        TreeMap<Long, File> segmentFiles = FileManager.getSegmentFiles(guildID);
+        if (savedStats == null && !segmentFiles.isEmpty())
+        {
+            stats.setSinceMillis(segmentFiles.firstKey());
+        }
+        for (Map.Entry<Long, File> entry : segmentFiles.entrySet())
+        {
+            if (savedStats != null && entry.getKey() < stats.getSinceMillis())
+            {
+                //Already taken off the totals, but not deleted before the bot stopped.
+                deleteSegment(entry.getValue());
+                continue;
+            }
+            segmentLengths.put(entry.getKey(), entry.getValue().length());
+            if (savedStats == null || entry.getKey() >= stats.getCheckpointSegment())
+            {
+                catchUp(entry.getKey(), entry.getValue(), (savedStats != null && entry.getKey() == stats.getCheckpointSegment()) ? stats.getCheckpointPlays() : 0);
+            }
+        }
+        if (!segmentLengths.isEmpty())
+        {
+            try
+            {
+                currentSegment = LogSegment.open(segmentFiles.get(segmentLengths.lastKey()));
+                segmentLengths.put(currentSegment.getBaseMillis(), currentSegment.getLength());
+                stats.setCheckpoint(currentSegment.getBaseMillis(), currentSegment.getPlayCount());
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to open play log for guild "+guildID+". A new segment will be started.\n"+e.toString());
+            }
+        }
+    }
+
+    /**
+     * Counts the plays in a segment that the totals do not include yet.
+     */
+    private void catchUp(long baseMillis, File segmentFile, int countedPlays)
+    {
+        try
+        {
+            List<PlayRecord> plays = LogSegment.read(segmentFile);
+            for (int i = countedPlays; i<plays.size(); i++)
+            {
+                stats.add(plays.get(i));
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to read play log segment "+baseMillis+" for guild "+guildID+".\n"+e.toString());
+        }
+    }
+
+    /**
+     * Adds plays to the log and the totals, then removes old plays if the log is too large
+     * @param plays the plays, oldest first
+     * @throws IOException unable to write the plays
+     */
+    protected synchronized void record(List<PlayRecord> plays) throws IOException
+    {
+        if (plays.isEmpty())
+        {
+            return;
+        }
+        if (currentSegment == null || currentSegment.getLength() >= MAX_SEGMENT_BYTES)
+        {
+            long baseMillis = plays.get(0).getPlayedMillis();
+            if (!segmentLengths.isEmpty())
+            {
+                baseMillis = Math.max(baseMillis, segmentLengths.lastKey()+1); //Segments are named by their base time, so each needs its own.
+            }
+            currentSegment = LogSegment.create(FileManager.getSegmentFile(guildID, baseMillis), baseMillis);
+            if (segmentLengths.isEmpty())
+            {
+                stats.setSinceMillis(baseMillis);
+            }
+        }
+        currentSegment.append(plays);
+        segmentLengths.put(currentSegment.getBaseMillis(), currentSegment.getLength());
+        for (PlayRecord play : plays)
+        {
+            stats.add(play);
+        }
+        stats.setCheckpoint(currentSegment.getBaseMillis(), currentSegment.getPlayCount());
+        File segmentToDelete = removeOldestSegment(plays.get(plays.size()-1).getPlayedMillis());
+        FileManager.writeStats(guildID, stats);
+        if (segmentToDelete != null)
+        {
+            deleteSegment(segmentToDelete);
+        }
+    }
+
+    /**
+     * Takes the oldest segment's plays off the totals if the log is over its size or age limit. Only one segment is
+     * removed at a time, as the limits are checked after every change. If the segment can't be read, it is kept.
+     * @param nowMillis the current time
+     * @return the segment's file, to be deleted once the totals are saved, or null if no segment was removed
+     */
+    private File removeOldestSegment(long nowMillis)
+    {
+        if (segmentLengths.size() < 2)
+        {
+            return null;
+        }
+        long totalBytes = 0;
+        for (long length : segmentLengths.values())
+        {
+            totalBytes += length;
+        }
+        long oldestSegment = segmentLengths.firstKey();
+        long nextSegment = segmentLengths.higherKey(oldestSegment);
+        if (totalBytes <= MAX_GUILD_BYTES && nowMillis-nextSegment <= MAX_AGE_MILLIS) //The next segment starts after the oldest's last play.
+        {
+            return null;
+        }
+        File segmentFile = FileManager.getSegmentFile(guildID, oldestSegment);
+        try
+        {
+            for (PlayRecord play : LogSegment.read(segmentFile))
+            {
+                stats.remove(play);
+            }
+        }
+        catch (IOException e)
+        {
+            //The segment is kept, so its plays stay in the totals they were counted in, and removing it is tried again on the next change.
+            logger.error("Unable to read play log segment "+oldestSegment+" for guild "+guildID+" before removing it.\n"+e.toString());
+            return null;
+        }
+        segmentLengths.remove(oldestSegment);
+        stats.setSinceMillis(nextSegment);
+        return segmentFile;
+    }
+
+    private void deleteSegment(File segmentFile)
+    {
+        try
+        {
+            Files.deleteIfExists(segmentFile.toPath());
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to delete play log segment "+segmentFile.getName()+" for guild "+guildID+".\n"+e.toString());
+        }
+    }
+
+    /**
+     * Gets the guild's play totals as they are shown to users
+     * @return the summary
+     */
+    public synchronized PlayStatsSummary getSummary()
+    {
+        return stats.getSummary();
+    }
+}
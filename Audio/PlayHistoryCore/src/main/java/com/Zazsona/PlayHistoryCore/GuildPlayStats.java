@@ -0,0 +1,231 @@
+package com.Zazsona.PlayHistoryCore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Running totals of a guild's plays, kept up to date as plays are added to the log and removed from it.<br>
+ * The totals are saved with a checkpoint, the number of plays they include from the log's newest segment, so plays
+ * written to the log but not yet counted when the bot stopped are counted when it next starts.
+ */
+public class GuildPlayStats
+{
+    private static final int MAGIC = 0x4A504853;
+    private static final byte VERSION = 1;
+    private static final int TOP_COUNT = 10;
+    private static final int RECENT_COUNT = 10;
+    private long sinceMillis;
+    private long totalPlays;
+    private long totalDuration;
+    private final long[] hourlyPlays = new long[24];
+    /**
+     * The tracks' plays as Uri : Plays.
+     */
+    private final HashMap<String, TrackPlays> trackPlays = new HashMap<>();
+    /**
+     * The users' plays as UserID : Plays.
+     */
+    private final HashMap<Long, Long> requesterPlays = new HashMap<>();
+    /**
+     * The last tracks played, most recent first.
+     */
+    private final LinkedList<PlayRecord> recentPlays = new LinkedList<>();
+    private long checkpointSegment;
+    private int checkpointPlays;
+
+    /**
+     * Counts a play that has been added to the log
+     * @param play the play
+     */
+    protected void add(PlayRecord play)
+    {
+        totalPlays++;
+        totalDuration += play.getDuration();
+        hourlyPlays[getHour(play)]++;
+        trackPlays.computeIfAbsent(play.getUri(), (uri) -> new TrackPlays(uri, play.getTitle(), 0)).add(1);
+        requesterPlays.merge(play.getUserID(), 1L, Long::sum);
+        recentPlays.addFirst(play);
+        if (recentPlays.size() > RECENT_COUNT)
+        {
+            recentPlays.removeLast();
+        }
+    }
+
+    /**
+     * Stops counting a play that has been removed from the log
+     * @param play the play
+     */
+    protected void remove(PlayRecord play)
+    {
+        totalPlays--;
+        totalDuration -= play.getDuration();
+        hourlyPlays[getHour(play)]--;
+        TrackPlays track = trackPlays.get(play.getUri());
+        if (track != null)
+        {
+            track.add(-1);
+            if (track.getCount() <= 0)
+            {
+                trackPlays.remove(play.getUri());
+            }
+        }
+        requesterPlays.computeIfPresent(play.getUserID(), (userID, plays) -> (plays > 1) ? plays-1 : null);
+    }
+
+    private static int getHour(PlayRecord play)
+    {
+        return Instant.ofEpochMilli(play.getPlayedMillis()).atZone(ZoneOffset.UTC).getHour();
+    }
+
+    /**
+     * Gets the time of the oldest segment the totals include
+     * @return the time, in epoch milliseconds
+     */
+    public long getSinceMillis()
+    {
+        return sinceMillis;
+    }
+
+    protected void setSinceMillis(long sinceMillis)
+    {
+        this.sinceMillis = sinceMillis;
+    }
+
+    /**
+     * Gets the segment the totals were last updated from
+     * @return the segment's base time
+     */
+    public long getCheckpointSegment()
+    {
+        return checkpointSegment;
+    }
+
+    /**
+     * Gets the number of plays in the checkpoint segment that the totals include
+     * @return the play count
+     */
+    public int getCheckpointPlays()
+    {
+        return checkpointPlays;
+    }
+
+    protected void setCheckpoint(long segment, int plays)
+    {
+        this.checkpointSegment = segment;
+        this.checkpointPlays = plays;
+    }
+
+    /**
+     * Gets the totals as they are shown to users, picking out the top tracks and requesters
+     * @return the summary
+     */
+    public PlayStatsSummary getSummary()
+    {
+        PriorityQueue<TrackPlays> topTracks = new PriorityQueue<>(Comparator.comparingLong(TrackPlays::getCount));
+        for (TrackPlays track : trackPlays.values())
+        {
+            topTracks.add(track);
+            if (topTracks.size() > TOP_COUNT)
+            {
+                topTracks.poll();
+            }
+        }
+        ArrayList<TrackPlays> sortedTopTracks = new ArrayList<>();
+        for (TrackPlays track : topTracks)
+        {
+            sortedTopTracks.add(new TrackPlays(track.getUri(), track.getTitle(), track.getCount()));
+        }
+        sortedTopTracks.sort(Comparator.comparingLong(TrackPlays::getCount).reversed());
+
+        PriorityQueue<RequesterPlays> topRequesters = new PriorityQueue<>(Comparator.comparingLong(RequesterPlays::getCount));
+        for (Map.Entry<Long, Long> entry : requesterPlays.entrySet())
+        {
+            topRequesters.add(new RequesterPlays(entry.getKey(), entry.getValue()));
+            if (topRequesters.size() > TOP_COUNT)
+            {
+                topRequesters.poll();
+            }
+        }
+        ArrayList<RequesterPlays> sortedTopRequesters = new ArrayList<>(topRequesters);
+        sortedTopRequesters.sort(Comparator.comparingLong(RequesterPlays::getCount).reversed());
+
+        return new PlayStatsSummary(sinceMillis, totalPlays, totalDuration, hourlyPlays.clone(), sortedTopTracks, sortedTopRequesters, new ArrayList<>(recentPlays));
+    }
+
+    /**
+     * Writes the totals. The summary goes first, so it can be read without the rest.
+     * @param out the stream to write to
+     * @throws IOException unable to write
+     */
+    protected void write(DataOutputStream out) throws IOException
+    {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        getSummary().write(out);
+        out.writeLong(checkpointSegment);
+        LogSegment.writeVarLong(out, checkpointPlays);
+        LogSegment.writeVarLong(out, trackPlays.size());
+        for (TrackPlays track : trackPlays.values())
+        {
+            out.writeUTF(track.getUri());
+            out.writeUTF(track.getTitle());
+            LogSegment.writeVarLong(out, track.getCount());
+        }
+        LogSegment.writeVarLong(out, requesterPlays.size());
+        for (Map.Entry<Long, Long> entry : requesterPlays.entrySet())
+        {
+            out.writeLong(entry.getKey());
+            LogSegment.writeVarLong(out, entry.getValue());
+        }
+    }
+
+    /**
+     * Reads the summary from the start of the totals
+     * @param in the stream to read from
+     * @return the summary
+     * @throws IOException unable to read, or the data is not play stats
+     */
+    protected static PlayStatsSummary readSummary(DataInputStream in) throws IOException
+    {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION)
+        {
+            throw new IOException("Not a play stats file.");
+        }
+        return PlayStatsSummary.read(in);
+    }
+
+    /**
+     * Reads the totals
+     * @param in the stream to read from
+     * @return the totals
+     * @throws IOException unable to read, or the data is not play stats
+     */
+    protected static GuildPlayStats read(DataInputStream in) throws IOException
+    {
+        PlayStatsSummary summary = readSummary(in);
+        GuildPlayStats stats = new GuildPlayStats();
+        stats.sinceMillis = summary.getSinceMillis();
+        stats.totalPlays = summary.getTotalPlays();
+        stats.totalDuration = summary.getTotalDuration();
+        System.arraycopy(summary.getHourlyPlays(), 0, stats.hourlyPlays, 0, stats.hourlyPlays.length);
+        stats.recentPlays.addAll(summary.getRecentPlays());
+        stats.checkpointSegment = in.readLong();
+        stats.checkpointPlays = (int) LogSegment.readVarLong(in);
+        long trackCount = LogSegment.readVarLong(in);
+        for (long i = 0; i<trackCount; i++)
+        {
+            TrackPlays track = new TrackPlays(in.readUTF(), in.readUTF(), LogSegment.readVarLong(in));
+            stats.trackPlays.put(track.getUri(), track);
+        }
+        long requesterCount = LogSegment.readVarLong(in);
+        for (long i = 0; i<requesterCount; i++)
+        {
+            stats.requesterPlays.put(in.readLong(), LogSegment.readVarLong(in));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,269 @@
+package com.Zazsona.PlayHistoryCore;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * One file of a guild's play log, which is only ever added to.<br>
+ * Each track is written once per segment, the first time it is played, and each play after refers to it by index. A
+ * play is then its time, as the difference from the play before it, its user, and its track, which is around a dozen
+ * bytes. A crash part way through writing can only leave the last entry part-written, which is dropped when the segment
+ * is next read.
+ */
+public class LogSegment
+{
+    private static final int MAGIC = 0x4A50484C;
+    private static final byte VERSION = 1;
+    private static final byte TRACK_ENTRY = 0;
+    private static final byte PLAY_ENTRY = 1;
+    private final File file;
+    private final long baseMillis;
+    /**
+     * The segment's tracks as Uri : Index.
+     */
+    private final HashMap<String, Integer> trackIndexes = new HashMap<>();
+    private long lastPlayedMillis;
+    private int playCount;
+    private long length;
+
+    private LogSegment(File file, long baseMillis)
+    {
+        this.file = file;
+        this.baseMillis = baseMillis;
+        this.lastPlayedMillis = baseMillis;
+    }
+
+    /**
+     * Starts a new segment
+     * @param file the segment's file
+     * @param baseMillis the time of the segment's first play, in epoch milliseconds
+     * @return the segment
+     * @throws IOException unable to write the segment
+     */
+    protected static LogSegment create(File file, long baseMillis) throws IOException
+    {
+        file.getParentFile().mkdirs();
+        LogSegment segment = new LogSegment(file, baseMillis);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file)))
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(baseMillis);
+            segment.length = out.size();
+        }
+        return segment;
+    }
+
+    /**
+     * Opens a segment to add to. Any entry left part-written is cut off.
+     * @param file the segment's file
+     * @return the segment
+     * @throws IOException unable to read the segment, or it is not a segment
+     */
+    protected static LogSegment open(File file) throws IOException
+    {
+        byte[] data = Files.readAllBytes(file.toPath());
+        LogSegment segment = scan(data, null);
+        if (segment.length < data.length)
+        {
+            try (RandomAccessFile segmentFile = new RandomAccessFile(file, "rw"))
+            {
+                segmentFile.setLength(segment.length);
+            }
+        }
+        return new LogSegment(file, segment);
+    }
+
+    private LogSegment(File file, LogSegment scannedSegment)
+    {
+        this.file = file;
+        this.baseMillis = scannedSegment.baseMillis;
+        this.trackIndexes.putAll(scannedSegment.trackIndexes);
+        this.lastPlayedMillis = scannedSegment.lastPlayedMillis;
+        this.playCount = scannedSegment.playCount;
+        this.length = scannedSegment.length;
+    }
+
+    /**
+     * Reads the plays in a segment
+     * @param file the segment's file
+     * @return the plays, oldest first, which is empty if the file cannot be read
+     * @throws IOException unable to read the segment, or it is not a segment
+     */
+    protected static ArrayList<PlayRecord> read(File file) throws IOException
+    {
+        ArrayList<PlayRecord> plays = new ArrayList<>();
+        scan(Files.readAllBytes(file.toPath()), plays);
+        return plays;
+    }
+
+    /**
+     * Reads a segment up to its last whole entry
+     * @param data the segment's bytes
+     * @param plays the list to add the plays to, or null to only find the segment's tracks and length
+     * @return the segment as read
+     * @throws IOException the data is not a segment
+     */
+    private static LogSegment scan(byte[] data, List<PlayRecord> plays) throws IOException
+    {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(data);
+        DataInputStream in = new DataInputStream(bytes);
+        if (data.length < 13 || in.readInt() != MAGIC || in.readByte() != VERSION)
+        {
+            throw new IOException("Not a play log segment.");
+        }
+        LogSegment segment = new LogSegment(null, in.readLong());
+        segment.length = data.length-bytes.available();
+        ArrayList<PlayRecord> tracks = new ArrayList<>(); //Plays with only their track set.
+        try
+        {
+            while (bytes.available() > 0)
+            {
+                byte entryType = in.readByte();
+                if (entryType == TRACK_ENTRY)
+                {
+                    String uri = in.readUTF();
+                    String title = in.readUTF();
+                    long duration = readVarLong(in);
+                    tracks.add(new PlayRecord(0, 0, uri, title, duration));
+                    segment.trackIndexes.put(uri, tracks.size()-1);
+                }
+                else if (entryType == PLAY_ENTRY)
+                {
+                    long playedMillis = segment.lastPlayedMillis+readVarLong(in);
+                    long userID = in.readLong();
+                    int trackIndex = (int) readVarLong(in);
+                    if (trackIndex >= tracks.size())
+                    {
+                        break;
+                    }
+                    if (plays != null)
+                    {
+                        PlayRecord track = tracks.get(trackIndex);
+                        plays.add(new PlayRecord(playedMillis, userID, track.getUri(), track.getTitle(), track.getDuration()));
+                    }
+                    segment.lastPlayedMillis = playedMillis;
+                    segment.playCount++;
+                }
+                else
+                {
+                    break;
+                }
+                segment.length = data.length-bytes.available();
+            }
+        }
+        catch (IOException e)
+        {
+            //The last entry was part-written, so it is left out.
+        }
+        return segment;
+    }
+
+    /**
+     * Adds plays to the end of the segment. The plays are written in one go.
+     * @param plays the plays, oldest first
+     * @throws IOException unable to write the plays
+     */
+    protected void append(List<PlayRecord> plays) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        HashMap<String, Integer> newTrackIndexes = new HashMap<>(trackIndexes);
+        long newLastPlayedMillis = lastPlayedMillis;
+        for (PlayRecord play : plays)
+        {
+            Integer trackIndex = newTrackIndexes.get(play.getUri());
+            if (trackIndex == null)
+            {
+                trackIndex = newTrackIndexes.size();
+                newTrackIndexes.put(play.getUri(), trackIndex);
+                out.writeByte(TRACK_ENTRY);
+                out.writeUTF(play.getUri());
+                out.writeUTF(play.getTitle());
+                writeVarLong(out, Math.max(0, play.getDuration()));
+            }
+            long playedMillis = Math.max(newLastPlayedMillis, play.getPlayedMillis()); //The clock going back would otherwise give a negative difference.
+            out.writeByte(PLAY_ENTRY);
+            writeVarLong(out, playedMillis-newLastPlayedMillis);
+            out.writeLong(play.getUserID());
+            writeVarLong(out, trackIndex);
+            newLastPlayedMillis = playedMillis;
+        }
+        try (FileOutputStream fileOut = new FileOutputStream(file, true))
+        {
+            fileOut.write(bytes.toByteArray());
+        }
+        trackIndexes.putAll(newTrackIndexes);
+        lastPlayedMillis = newLastPlayedMillis;
+        playCount += plays.size();
+        length += bytes.size();
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Gets the time of the segment's first play, which is also its name
+     * @return the time, in epoch milliseconds
+     */
+    public long getBaseMillis()
+    {
+        return baseMillis;
+    }
+
+    /**
+     * Gets the time of the segment's last play
+     * @return the time, in epoch milliseconds
+     */
+    public long getLastPlayedMillis()
+    {
+        return lastPlayedMillis;
+    }
+
+    public int getPlayCount()
+    {
+        return playCount;
+    }
+
+    /**
+     * Gets the size of the segment's file
+     * @return the size, in bytes
+     */
+    public long getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Writes a non-negative number in as few bytes as it needs, seven bits to a byte.
+     */
+    protected static void writeVarLong(DataOutputStream out, long value) throws IOException
+    {
+        while ((value & ~0x7FL) != 0)
+        {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    protected static long readVarLong(DataInputStream in) throws IOException
+    {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in play log segment.");
+    }
+}
@@ -0,0 +1,83 @@
+package com.Zazsona.PlayHistoryCore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads guilds' play history, as saved by the {@link PlayRecorder}.<br>
+ * Stats are read from the summary at the start of each guild's stats file, so take the same time however many plays
+ * there have been. Only a user's own recent plays need the log itself, which is read from the newest segment back until
+ * enough are found.
+ */
+public class PlayHistoryStore
+{
+    private static transient Logger logger = LoggerFactory.getLogger("PlayHistoryLoader");
+
+    /**
+     * Gets a guild's play stats
+     * @param guildID the guild's ID
+     * @return the stats, which are empty if the guild has no plays
+     */
+    public static PlayStatsSummary getSummary(String guildID)
+    {
+        return FileManager.readSummary(guildID);
+    }
+
+    /**
+     * Gets the last tracks played in a guild
+     * @param guildID the guild's ID
+     * @param count the most plays to get
+     * @return the plays, most recent first
+     */
+    public static List<PlayRecord> getRecentPlays(String guildID, int count)
+    {
+        List<PlayRecord> recentPlays = getSummary(guildID).getRecentPlays();
+        return (recentPlays.size() > count) ? recentPlays.subList(0, count) : recentPlays;
+    }
+
+    /**
+     * Gets the last tracks a user had played in a guild
+     * @param guildID the guild's ID
+     * @param userID the user's ID
+     * @param count the most plays to get
+     * @return the plays, most recent first
+     */
+    public static List<PlayRecord> getRecentPlays(String guildID, long userID, int count)
+    {
+        ArrayList<PlayRecord> userPlays = new ArrayList<>();
+        for (Map.Entry<Long, File> entry : FileManager.getSegmentFiles(guildID).descendingMap().entrySet())
+        {
+            LinkedList<PlayRecord> segmentPlays = new LinkedList<>();
+            try
+            {
+                for (PlayRecord play : LogSegment.read(entry.getValue()))
+                {
+                    if (play.getUserID() == userID)
+                    {
+                        segmentPlays.addFirst(play);
+                    }
+                }
+            }
+            catch (IOException e)
+            {
+                logger.debug("Unable to read play log segment "+entry.getKey()+" for guild "+guildID+".\n"+e.toString()); //Such as it being removed since the list was taken.
+            }
+            for (PlayRecord play : segmentPlays)
+            {
+                userPlays.add(play);
+                if (userPlays.size() >= count)
+                {
+                    return userPlays;
+                }
+            }
+        }
+        return userPlays;
+    }
+}
@@ -0,0 +1,59 @@
+package com.Zazsona.PlayHistoryCore;
+
+/**
+ * A track being played in a guild.
+ */
+public class PlayRecord
+{
+    private final long playedMillis;
+    private final long userID;
+    private final String uri;
+    private final String title;
+    private final long duration;
+
+    public PlayRecord(long playedMillis, long userID, String uri, String title, long duration)
+    {
+        this.playedMillis = playedMillis;
+        this.userID = userID;
+        this.uri = uri;
+        this.title = title;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets when the track was played
+     * @return the time, in epoch milliseconds
+     */
+    public long getPlayedMillis()
+    {
+        return playedMillis;
+    }
+
+    /**
+     * Gets the ID of the user that requested the track
+     * @return the user's ID
+     */
+    public long getUserID()
+    {
+        return userID;
+    }
+
+    public String getUri()
+    {
+        return uri;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    /**
+     * Gets the track's length
+     * @return the length, in milliseconds
+     */
+    public long getDuration()
+    {
+        return duration;
+    }
+}
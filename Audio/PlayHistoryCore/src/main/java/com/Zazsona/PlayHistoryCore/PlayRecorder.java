@@ -0,0 +1,164 @@
+package com.Zazsona.PlayHistoryCore;
+
+import audio.Audio;
+import audio.ScheduledTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import commands.CmdUtil;
+import jara.Core;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.GuildVoiceState;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the tracks played in each guild into its play log.<br>
+ * Every few seconds, the track history of each guild with audio connected, or connected at the last check, is compared
+ * with what has been recorded, and any tracks added since are recorded.<br>
+ * The track history does not say when each track was played, so plays are recorded at the time of the check that found
+ * them. A play can therefore be up to {@link #POLL_INTERVAL_SECONDS} seconds late, and one found just after the top of
+ * an hour is counted in that hour rather than the one it was played in.<br>
+ * Only one module should record plays, as each module loads its own copy of this class.
+ */
+public class PlayRecorder
+{
+    private static final long POLL_INTERVAL_SECONDS = 10;
+    private static transient Logger logger = LoggerFactory.getLogger("PlayHistoryRecorder");
+    private static PlayRecorder instance;
+    private final ConcurrentHashMap<String, GuildPlayLog> guildIDToLog = new ConcurrentHashMap<>();
+    /**
+     * The last entry recorded from each guild's track history as GuildID : Entry.
+     */
+    private final HashMap<String, ScheduledTrack> lastRecordedTracks = new HashMap<>();
+    private Set<String> lastActiveGuildIDs = new HashSet<>();
+    private final ScheduledExecutorService pollScheduler = Executors.newSingleThreadScheduledExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "PlayHistory-Recorder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PlayRecorder()
+    {
+        pollScheduler.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets the recorder, starting it if it is not already running.
+     * @return the recorder
+     */
+    public static synchronized PlayRecorder getInstance()
+    {
+        if (instance == null)
+        {
+            instance = new PlayRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Records plays in a guild.
+     * @param guildID the guild's ID
+     * @param plays the plays, oldest first
+     */
+    public void record(String guildID, List<PlayRecord> plays)
+    {
+        try
+        {
+            guildIDToLog.computeIfAbsent(guildID, GuildPlayLog::new).record(plays);
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to record plays for guild "+guildID+".\n"+e.toString());
+        }
+    }
+
+    private void poll()
+    {
+        try
+        {
+            ShardManager shardManager = Core.getShardManager();
+            if (shardManager == null)
+            {
+                return;
+            }
+            HashSet<String> activeGuildIDs = new HashSet<>();
+            for (Guild guild : shardManager.getGuilds())
+            {
+                GuildVoiceState voiceState = guild.getSelfMember().getVoiceState();
+                if (voiceState != null && voiceState.inVoiceChannel())
+                {
+                    activeGuildIDs.add(guild.getId());
+                }
+            }
+            HashSet<String> guildIDsToCheck = new HashSet<>(activeGuildIDs);
+            guildIDsToCheck.addAll(lastActiveGuildIDs); //The last track may not reach the history until audio has disconnected.
+            for (String guildID : guildIDsToCheck)
+            {
+                recordNewPlays(guildID);
+            }
+            lastActiveGuildIDs = activeGuildIDs;
+        }
+        catch (RuntimeException e)
+        {
+            logger.error("Unable to check for new plays.\n"+e.toString()); //Caught, as an exception would stop future checks.
+        }
+    }
+
+    /**
+     * Records the tracks added to a guild's track history since it was last checked.
+     */
+    private void recordNewPlays(String guildID)
+    {
+        Audio audio = CmdUtil.getGuildAudio(guildID);
+        if (audio == null)
+        {
+            return;
+        }
+        ArrayList<ScheduledTrack> history = new ArrayList<>(audio.getTrackHistory());
+        ScheduledTrack lastRecordedTrack = lastRecordedTracks.get(guildID);
+        int firstNewIndex = 0;
+        for (int i = history.size()-1; i >= 0; i--)
+        {
+            if (history.get(i) == lastRecordedTrack)
+            {
+                firstNewIndex = i+1;
+                break;
+            }
+        }
+        if (firstNewIndex >= history.size())
+        {
+            return;
+        }
+        long nowMillis = System.currentTimeMillis(); //The poll time, not the play time, which the history doesn't keep.
+        ArrayList<PlayRecord> plays = new ArrayList<>();
+        for (ScheduledTrack scheduledTrack : history.subList(firstNewIndex, history.size()))
+        {
+            AudioTrackInfo info = scheduledTrack.getAudioTrack().getInfo();
+            String uri = (info.uri != null) ? info.uri : info.identifier;
+            String title = (info.title != null) ? info.title : uri;
+            plays.add(new PlayRecord(nowMillis, parseUserID(scheduledTrack.getUserID()), uri, title, (info.isStream) ? 0 : info.length));
+        }
+        record(guildID, plays);
+        lastRecordedTracks.put(guildID, history.get(history.size()-1));
+    }
+
+    private static long parseUserID(String userID)
+    {
+        try
+        {
+            return Long.parseLong(userID);
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+}
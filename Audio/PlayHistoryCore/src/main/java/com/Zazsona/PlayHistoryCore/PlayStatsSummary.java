@@ -0,0 +1,165 @@
+package com.Zazsona.PlayHistoryCore;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A guild's play stats, as kept at the start of its stats file so they can be read without the rest of it.
+ */
+public class PlayStatsSummary
+{
+    private final long sinceMillis;
+    private final long totalPlays;
+    private final long totalDuration;
+    private final long[] hourlyPlays;
+    private final List<TrackPlays> topTracks;
+    private final List<RequesterPlays> topRequesters;
+    private final List<PlayRecord> recentPlays;
+
+    protected PlayStatsSummary(long sinceMillis, long totalPlays, long totalDuration, long[] hourlyPlays, List<TrackPlays> topTracks, List<RequesterPlays> topRequesters, List<PlayRecord> recentPlays)
+    {
+        this.sinceMillis = sinceMillis;
+        this.totalPlays = totalPlays;
+        this.totalDuration = totalDuration;
+        this.hourlyPlays = hourlyPlays;
+        this.topTracks = Collections.unmodifiableList(topTracks);
+        this.topRequesters = Collections.unmodifiableList(topRequesters);
+        this.recentPlays = Collections.unmodifiableList(recentPlays);
+    }
+
+    /**
+     * Gets the summary for a guild with no plays
+     * @return the summary
+     */
+    protected static PlayStatsSummary empty()
+    {
+        return new PlayStatsSummary(0, 0, 0, new long[24], new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Gets the time from which plays are counted, as older plays are removed to save space
+     * @return the time, in epoch milliseconds, or 0 if no plays have been removed
+     */
+    public long getSinceMillis()
+    {
+        return sinceMillis;
+    }
+
+    public long getTotalPlays()
+    {
+        return totalPlays;
+    }
+
+    /**
+     * Gets the combined length of every track played
+     * @return the length, in milliseconds
+     */
+    public long getTotalDuration()
+    {
+        return totalDuration;
+    }
+
+    /**
+     * Gets the number of plays in each hour of the day
+     * @return the plays, indexed by hour in UTC
+     */
+    public long[] getHourlyPlays()
+    {
+        return hourlyPlays.clone();
+    }
+
+    /**
+     * Gets the most played tracks
+     * @return the tracks, most played first
+     */
+    public List<TrackPlays> getTopTracks()
+    {
+        return topTracks;
+    }
+
+    /**
+     * Gets the users who have had the most tracks played
+     * @return the users, most plays first
+     */
+    public List<RequesterPlays> getTopRequesters()
+    {
+        return topRequesters;
+    }
+
+    /**
+     * Gets the last tracks played
+     * @return the plays, most recent first
+     */
+    public List<PlayRecord> getRecentPlays()
+    {
+        return recentPlays;
+    }
+
+    protected void write(DataOutputStream out) throws IOException
+    {
+        out.writeLong(sinceMillis);
+        LogSegment.writeVarLong(out, totalPlays);
+        LogSegment.writeVarLong(out, totalDuration);
+        for (long plays : hourlyPlays)
+        {
+            LogSegment.writeVarLong(out, plays);
+        }
+        LogSegment.writeVarLong(out, topTracks.size());
+        for (TrackPlays track : topTracks)
+        {
+            out.writeUTF(track.getUri());
+            out.writeUTF(track.getTitle());
+            LogSegment.writeVarLong(out, track.getCount());
+        }
+        LogSegment.writeVarLong(out, topRequesters.size());
+        for (RequesterPlays requester : topRequesters)
+        {
+            out.writeLong(requester.getUserID());
+            LogSegment.writeVarLong(out, requester.getCount());
+        }
+        LogSegment.writeVarLong(out, recentPlays.size());
+        for (PlayRecord play : recentPlays)
+        {
+            out.writeLong(play.getPlayedMillis());
+            out.writeLong(play.getUserID());
+            out.writeUTF(play.getUri());
+            out.writeUTF(play.getTitle());
+            LogSegment.writeVarLong(out, play.getDuration());
+        }
+    }
+
+    protected static PlayStatsSummary read(DataInputStream in) throws IOException
+    {
+        long sinceMillis = in.readLong();
+        long totalPlays = LogSegment.readVarLong(in);
+        long totalDuration = LogSegment.readVarLong(in);
+        long[] hourlyPlays = new long[24];
+        for (int i = 0; i<hourlyPlays.length; i++)
+        {
+            hourlyPlays[i] = LogSegment.readVarLong(in);
+        }
+        int trackCount = (int) LogSegment.readVarLong(in);
+        ArrayList<TrackPlays> topTracks = new ArrayList<>(trackCount);
+        for (int i = 0; i<trackCount; i++)
+        {
+            topTracks.add(new TrackPlays(in.readUTF(), in.readUTF(), LogSegment.readVarLong(in)));
+        }
+        int requesterCount = (int) LogSegment.readVarLong(in);
+        ArrayList<RequesterPlays> topRequesters = new ArrayList<>(requesterCount);
+        for (int i = 0; i<requesterCount; i++)
+        {
+            topRequesters.add(new RequesterPlays(in.readLong(), LogSegment.readVarLong(in)));
+        }
+        int playCount = (int) LogSegment.readVarLong(in);
+        ArrayList<PlayRecord> recentPlays = new ArrayList<>(playCount);
+        for (int i = 0; i<playCount; i++)
+        {
+            recentPlays.add(new PlayRecord(in.readLong(), in.readLong(), in.readUTF(), in.readUTF(), LogSegment.readVarLong(in)));
+        }
+        return new PlayStatsSummary(sinceMillis, totalPlays, totalDuration, hourlyPlays, topTracks, topRequesters, recentPlays);
+    }
+}
@@ -0,0 +1,26 @@
+package com.Zazsona.PlayHistoryCore;
+
+/**
+ * The number of tracks a user has had played in a guild.
+ */
+public class RequesterPlays
+{
+    private final long userID;
+    private final long count;
+
+    protected RequesterPlays(long userID, long count)
+    {
+        this.userID = userID;
+        this.count = count;
+    }
+
+    public long getUserID()
+    {
+        return userID;
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+}
@@ -0,0 +1,38 @@
+package com.Zazsona.PlayHistoryCore;
+
+/**
+ * The number of times a track has been played in a guild.
+ */
+public class TrackPlays
+{
+    private final String uri;
+    private final String title;
+    private long count;
+
+    protected TrackPlays(String uri, String title, long count)
+    {
+        this.uri = uri;
+        this.title = title;
+        this.count = count;
+    }
+
+    public String getUri()
+    {
+        return uri;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+
+    protected void add(long plays)
+    {
+        count += plays;
+    }
+}
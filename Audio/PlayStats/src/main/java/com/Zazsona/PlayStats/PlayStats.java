@@ -0,0 +1,101 @@
+package com.Zazsona.PlayStats;
+
+import com.Zazsona.PlayHistoryCore.PlayHistoryStore;
+import com.Zazsona.PlayHistoryCore.PlayStatsSummary;
+import com.Zazsona.PlayHistoryCore.RequesterPlays;
+import com.Zazsona.PlayHistoryCore.TrackPlays;
+import commands.CmdUtil;
+import module.ModuleCommand;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+public class PlayStats extends ModuleCommand
+{
+    private static final int BUSIEST_HOUR_COUNT = 3;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy").withZone(ZoneOffset.UTC);
+
+    @Override
+    public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
+    {
+        PlayStatsSummary stats = PlayHistoryStore.getSummary(msgEvent.getGuild().getId());
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
+        embed.setThumbnail("https://i.imgur.com/wHdSqH5.png");
+        embed.setTitle("Play Stats");
+        if (stats.getTotalPlays() > 0)
+        {
+            if (stats.getSinceMillis() > 0)
+            {
+                embed.setDescription("Since "+DATE_FORMAT.format(Instant.ofEpochMilli(stats.getSinceMillis())));
+            }
+            embed.addField("Plays", String.valueOf(stats.getTotalPlays()), true);
+            embed.addField("Play Time", CmdUtil.formatMillisecondsToHhMmSs(stats.getTotalDuration()), true);
+            embed.addField("Top Tracks", getTopTracks(stats), false);
+            embed.addField("Top Requesters", getTopRequesters(stats), false);
+            embed.addField("Busiest Hours (UTC)", getBusiestHours(stats), false);
+        }
+        else
+        {
+            embed.setDescription("No audio has been played.");
+        }
+        msgEvent.getChannel().sendMessage(embed.build()).queue();
+    }
+
+    private String getTopTracks(PlayStatsSummary stats)
+    {
+        StringBuilder trackListBuilder = new StringBuilder();
+        int rank = 1;
+        for (TrackPlays track : stats.getTopTracks())
+        {
+            String entry = rank+". **"+track.getTitle()+"** ("+track.getCount()+")\n";
+            if (trackListBuilder.length() + entry.length() >= 1020)
+            {
+                break;
+            }
+            trackListBuilder.append(entry);
+            rank++;
+        }
+        return trackListBuilder.toString();
+    }
+
+    private String getTopRequesters(PlayStatsSummary stats)
+    {
+        StringBuilder requesterListBuilder = new StringBuilder();
+        int rank = 1;
+        for (RequesterPlays requester : stats.getTopRequesters())
+        {
+            requesterListBuilder.append(rank).append(". <@").append(requester.getUserID()).append("> (").append(requester.getCount()).append(")\n");
+            rank++;
+        }
+        return requesterListBuilder.toString();
+    }
+
+    private String getBusiestHours(PlayStatsSummary stats)
+    {
+        long[] hourlyPlays = stats.getHourlyPlays();
+        StringBuilder hourListBuilder = new StringBuilder();
+        boolean[] listed = new boolean[hourlyPlays.length];
+        for (int i = 0; i<BUSIEST_HOUR_COUNT; i++)
+        {
+            int busiestHour = -1;
+            for (int hour = 0; hour<hourlyPlays.length; hour++)
+            {
+                if (!listed[hour] && hourlyPlays[hour] > 0 && (busiestHour == -1 || hourlyPlays[hour] > hourlyPlays[busiestHour]))
+                {
+                    busiestHour = hour;
+                }
+            }
+            if (busiestHour == -1)
+            {
+                break;
+            }
+            listed[busiestHour] = true;
+            hourListBuilder.append(String.format("%02d:00 - %02d:00", busiestHour, (busiestHour+1) % 24)).append(" (").append(hourlyPlays[busiestHour]).append(")\n");
+        }
+        return hourListBuilder.toString();
+    }
+}
@@ -3,8 +3,9 @@ package com.Zazsona.Replay;
 import audio.Audio;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.Zazsona.TrackQueueCore.BatchQueue;
+import com.Zazsona.TrackQueueCore.BatchResult;
 import commands.CmdUtil;
-import configuration.SettingsUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
@@ -25,7 +26,7 @@ public class Replay extends ModuleCommand
                 if (player.getPlayingTrack() != null)
                 {
                     AudioTrack track = player.getPlayingTrack();
-                    queueTrackForReplay(msgEvent.getMember(), msgEvent.getChannel(), audio, player, track, parameters);
+                    queueTrackForReplay(msgEvent.getMember(), msgEvent.getChannel(), audio, track, parameters);
                 }
                 else
                 {
@@ -39,7 +40,7 @@ public class Replay extends ModuleCommand
                 {
                     int indexOffset = 1;
                     AudioTrack track = audio.getTrackHistory().get(audio.getTrackHistory().size()-indexOffset).getAudioTrack();
-                    queueTrackForReplay(msgEvent.getMember(), msgEvent.getChannel(), audio, player, track, parameters);
+                    queueTrackForReplay(msgEvent.getMember(), msgEvent.getChannel(), audio, track, parameters);
                 }
                 else
                 {
@@ -51,7 +52,7 @@ public class Replay extends ModuleCommand
         if (audio.getTrackHistory().size() > 0 || audio.isAudioPlayingInGuild())
         {
             AudioTrack track = (audio.isAudioPlayingInGuild()) ? player.getPlayingTrack() : audio.getTrackHistory().get(audio.getTrackHistory().size()-1).getAudioTrack();
-            queueTrackForReplay(msgEvent.getMember(), msgEvent.getChannel(), audio, player, track, parameters);
+            queueTrackForReplay(msgEvent.getMember(), msgEvent.getChannel(), audio, track, parameters);
         }
         else
         {
@@ -60,23 +61,38 @@ public class Replay extends ModuleCommand
 
     }
 
-    private void queueTrackForReplay(Member member, TextChannel channel, Audio audio, AudioPlayer player, AudioTrack track, String[] parameters)
+    private void queueTrackForReplay(Member member, TextChannel channel, Audio audio, AudioTrack track, String[] parameters)
     {
-        /*
-                Here we limit the queuing to the user's remaining queue space if it is smaller than the amount specified.
-                While this may seem redundant, as Jara blocks additional queue requests, it isn't.
-
-                This is because if hundreds of replays are requested, it may take multiple minutes to load the tracks, long enough for the first track to end.
-                When this track does end, then the user has a spot free queue spot, and this will instantly be filled if tracks are still being loaded in, effectively allowing them to block the queue.
-         */
         int replayCount = getReplayCount(parameters);
-        int remainingQueue = SettingsUtil.getGuildSettings(channel.getGuild().getId()).getAudioQueueLimit(member)-audio.getUserQueueQuantity().get(member.getUser().getId());
-        int replaysToQueue = (replayCount < remainingQueue) ? replayCount : remainingQueue;
-        audio.playWithFeedback(member, track.getInfo().uri, channel);
-        for (int i = 1; i <replaysToQueue ; i++)
+        BatchResult result = BatchQueue.queueRepeats(audio, member, track, replayCount);
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setColor(CmdUtil.getHighlightColour(channel.getGuild().getSelfMember()));
+        embed.setThumbnail("https://i.imgur.com/wHdSqH5.png");
+        embed.setTitle("Now Playing...");
+        switch (result.getRequestResult())
         {
-            audio.play(member, player.getPlayingTrack().getInfo().uri);
+            case REQUEST_NOW_PLAYING:
+            case REQUEST_ADDED_TO_QUEUE:
+                embed.setDescription("Queued "+track.getInfo().title+" to play "+result.getQueuedCount()+((result.getQueuedCount() == 1) ? " time." : " times."));
+                if (result.isLimited())
+                {
+                    embed.appendDescription(" (Your queue is full, though, so it won't play as many times as you asked)");
+                }
+                break;
+            case REQUEST_USER_LIMITED:
+                embed.setDescription("Your queue is full.");
+                break;
+            case REQUEST_USER_NOT_IN_VOICE:
+                embed.setDescription("I can't find you in any voice channels! Please make sure you're in one I have access to.");
+                break;
+            case REQUEST_CHANNEL_FULL:
+                embed.setDescription("There's no space for me in that channel.");
+                break;
+            default:
+                embed.setDescription("Unable to replay "+track.getInfo().title+".");
+                break;
         }
+        channel.sendMessage(embed.build()).queue();
     }
 
     private void sendReplayMessage(GuildMessageReceivedEvent msgEvent, String s)
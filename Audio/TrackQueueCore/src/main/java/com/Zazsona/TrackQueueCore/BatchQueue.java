@@ -0,0 +1,232 @@
+package com.Zazsona.TrackQueueCore;
+
+import audio.Audio;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import configuration.SettingsUtil;
+import net.dv8tion.jda.api.entities.Member;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Queues lists of tracks for a user.<br>
+ * The first track is played as any other request is, so it starts the audio and is checked against the user's voice
+ * channel and permissions. The rest are looked up at the same time by the {@link TrackResolver}, so tracks that can't be
+ * found are dropped and searches are narrowed down to the track found, before they are requested in order.<br>
+ * Every track is requested through {@link Audio#play(Member, String)}, as the guild's queue belongs to the audio and is
+ * changed by its own threads. The audio checks each request against the user's queue limit, and starts playing again if
+ * it has stopped, but other requests may land in between the tracks of a list.
+ */
+public class BatchQueue
+{
+    private static final ExecutorService batchExecutor = Executors.newCachedThreadPool((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "TrackQueue-Batch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Queues the tracks, up to the user's remaining queue space.
+     * @param audio the guild's audio
+     * @param member the member requesting the tracks
+     * @param identifiers the track URLs or searches, in the order to play them
+     * @return the outcome
+     */
+    public static BatchResult queue(Audio audio, Member member, List<String> identifiers)
+    {
+        if (identifiers.isEmpty())
+        {
+            return new BatchResult(Audio.RequestResult.REQUEST_NO_LINK, 0, Collections.emptyList(), false);
+        }
+        int remainingQueue = getRemainingQueue(audio, member);
+        if (remainingQueue <= 0)
+        {
+            return new BatchResult(Audio.RequestResult.REQUEST_USER_LIMITED, 0, Collections.emptyList(), true);
+        }
+        boolean limited = identifiers.size() > remainingQueue;
+        List<String> identifiersToQueue = identifiers.subList(0, Math.min(identifiers.size(), remainingQueue));
+        List<String> remainingIdentifiers = identifiersToQueue.subList(1, identifiersToQueue.size());
+        CompletableFuture<ArrayList<AudioTrack>> lookup = (remainingIdentifiers.isEmpty()) ? CompletableFuture.completedFuture(new ArrayList<>()) : CompletableFuture.supplyAsync(() -> TrackResolver.resolve(remainingIdentifiers), batchExecutor);
+
+        ArrayList<String> failedIdentifiers = new ArrayList<>();
+        Audio.RequestResult requestResult = audio.play(member, identifiersToQueue.get(0));
+        ArrayList<AudioTrack> tracks = getTracks(lookup);
+        int nextIndex = 0;
+        if (requestResult == Audio.RequestResult.REQUEST_IS_BAD)
+        {
+            //Start with the first of the rest that could be found instead.
+            failedIdentifiers.add(identifiersToQueue.get(0));
+            while (nextIndex < tracks.size() && tracks.get(nextIndex) == null)
+            {
+                failedIdentifiers.add(remainingIdentifiers.get(nextIndex));
+                nextIndex++;
+            }
+            if (nextIndex < tracks.size())
+            {
+                requestResult = audio.play(member, tracks.get(nextIndex).getInfo().uri);
+                if (requestResult == Audio.RequestResult.REQUEST_IS_BAD)
+                {
+                    failedIdentifiers.add(remainingIdentifiers.get(nextIndex));
+                }
+                nextIndex++;
+            }
+        }
+        if (requestResult != Audio.RequestResult.REQUEST_NOW_PLAYING && requestResult != Audio.RequestResult.REQUEST_ADDED_TO_QUEUE)
+        {
+            return new BatchResult(requestResult, 0, failedIdentifiers, limited);
+        }
+
+        BatchResult playResult = playAll(audio, member, getFoundTracks(tracks, remainingIdentifiers, nextIndex, failedIdentifiers));
+        failedIdentifiers.addAll(playResult.getFailedIdentifiers());
+        return new BatchResult(requestResult, 1+playResult.getQueuedCount(), failedIdentifiers, limited || playResult.isLimited());
+    }
+
+    /**
+     * Queues a track a number of times, up to the user's remaining queue space.
+     * @param audio the guild's audio
+     * @param member the member requesting the track
+     * @param track the track
+     * @param count the number of times to queue it
+     * @return the outcome
+     */
+    public static BatchResult queueRepeats(Audio audio, Member member, AudioTrack track, int count)
+    {
+        int remainingQueue = getRemainingQueue(audio, member);
+        if (remainingQueue <= 0)
+        {
+            return new BatchResult(Audio.RequestResult.REQUEST_USER_LIMITED, 0, Collections.emptyList(), true);
+        }
+        BatchResult playResult = playAll(audio, member, Collections.nCopies(Math.min(count, remainingQueue), track));
+        return new BatchResult(playResult.getRequestResult(), playResult.getQueuedCount(), playResult.getFailedIdentifiers(), count > remainingQueue || playResult.isLimited());
+    }
+
+    /**
+     * Queues a track a number of times, up to the user's remaining queue space. The track is looked up while the first
+     * is requested, so a search is only run once, and the repeats are requested by the track found.
+     * @param audio the guild's audio
+     * @param member the member requesting the track
+     * @param identifier the track URL or search
+     * @param count the number of times to queue it
+     * @return the outcome
+     */
+    public static BatchResult queueRepeats(Audio audio, Member member, String identifier, int count)
+    {
+        int remainingQueue = getRemainingQueue(audio, member);
+        if (remainingQueue <= 0)
+        {
+            return new BatchResult(Audio.RequestResult.REQUEST_USER_LIMITED, 0, Collections.emptyList(), true);
+        }
+        int countToQueue = Math.min(count, remainingQueue);
+        boolean limited = count > remainingQueue;
+        CompletableFuture<ArrayList<AudioTrack>> lookup = (countToQueue > 1) ? CompletableFuture.supplyAsync(() -> TrackResolver.resolve(Collections.singletonList(identifier)), batchExecutor) : CompletableFuture.completedFuture(new ArrayList<>());
+        Audio.RequestResult requestResult = audio.play(member, identifier);
+        if (requestResult != Audio.RequestResult.REQUEST_NOW_PLAYING && requestResult != Audio.RequestResult.REQUEST_ADDED_TO_QUEUE)
+        {
+            return new BatchResult(requestResult, 0, (requestResult == Audio.RequestResult.REQUEST_IS_BAD) ? Collections.singletonList(identifier) : Collections.emptyList(), limited);
+        }
+        ArrayList<AudioTrack> tracks = getTracks(lookup);
+        if (tracks.isEmpty() || tracks.get(0) == null)
+        {
+            return new BatchResult(requestResult, 1, Collections.emptyList(), limited);
+        }
+        BatchResult playResult = playAll(audio, member, Collections.nCopies(countToQueue-1, tracks.get(0)));
+        return new BatchResult(requestResult, 1+playResult.getQueuedCount(), playResult.getFailedIdentifiers(), limited || playResult.isLimited());
+    }
+
+    /*
+            The queue space is worked out before anything is queued, rather than leaving each request to be refused once the queue is full.
+
+            This is because loading tracks can take long enough for the first to end. When it does end, the user has a queue spot
+            free, which would be filled if tracks were still being loaded, effectively allowing them to block the queue.
+     */
+    private static int getRemainingQueue(Audio audio, Member member)
+    {
+        int queuedCount = audio.getUserQueueQuantity().getOrDefault(member.getUser().getId(), 0);
+        return SettingsUtil.getGuildSettings(member.getGuild().getId()).getAudioQueueLimit(member)-queuedCount;
+    }
+
+    private static ArrayList<AudioTrack> getTracks(CompletableFuture<ArrayList<AudioTrack>> lookup)
+    {
+        try
+        {
+            return lookup.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException e)
+        {
+            //TrackResolver marks tracks it cannot find rather than throwing, so this is not expected.
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Gets the tracks that were found, from an index onwards, noting the identifiers of those that were not.
+     */
+    private static ArrayList<AudioTrack> getFoundTracks(List<AudioTrack> tracks, List<String> identifiers, int fromIndex, List<String> failedIdentifiers)
+    {
+        ArrayList<AudioTrack> foundTracks = new ArrayList<>();
+        for (int i = fromIndex; i<tracks.size(); i++)
+        {
+            if (tracks.get(i) != null)
+            {
+                foundTracks.add(tracks.get(i));
+            }
+            else
+            {
+                failedIdentifiers.add(identifiers.get(i));
+            }
+        }
+        return foundTracks;
+    }
+
+    /**
+     * Requests the tracks in order, stopping once the user's queue is full or a request is refused.<br>
+     * The audio checks every request against the user's queue limit, so the limit holds even if the user has other
+     * requests being queued at the same time.
+     * @param audio the guild's audio
+     * @param member the member requesting the tracks
+     * @param tracks the tracks, in the order to play them
+     * @return the outcome of the first request that was accepted, or of the one that stopped them if none were
+     */
+    private static BatchResult playAll(Audio audio, Member member, List<AudioTrack> tracks)
+    {
+        Audio.RequestResult requestResult = null;
+        ArrayList<String> failedIdentifiers = new ArrayList<>();
+        int queuedCount = 0;
+        boolean limited = false;
+        for (AudioTrack track : tracks)
+        {
+            String identifier = track.getInfo().uri;
+            Audio.RequestResult trackResult = audio.play(member, identifier);
+            if (trackResult == Audio.RequestResult.REQUEST_NOW_PLAYING || trackResult == Audio.RequestResult.REQUEST_ADDED_TO_QUEUE)
+            {
+                requestResult = (requestResult == null) ? trackResult : requestResult;
+                queuedCount++;
+            }
+            else if (trackResult == Audio.RequestResult.REQUEST_IS_BAD)
+            {
+                failedIdentifiers.add(identifier);
+            }
+            else
+            {
+                requestResult = (requestResult == null) ? trackResult : requestResult;
+                limited = trackResult == Audio.RequestResult.REQUEST_USER_LIMITED;
+                break;
+            }
+        }
+        if (requestResult == null)
+        {
+            requestResult = (failedIdentifiers.isEmpty()) ? Audio.RequestResult.REQUEST_ADDED_TO_QUEUE : Audio.RequestResult.REQUEST_IS_BAD;
+        }
+        return new BatchResult(requestResult, queuedCount, failedIdentifiers, limited);
+    }
+}
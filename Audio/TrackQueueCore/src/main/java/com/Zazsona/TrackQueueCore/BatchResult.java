@@ -0,0 +1,69 @@
+package com.Zazsona.TrackQueueCore;
+
+import audio.Audio;
+
+import java.util.List;
+
+/**
+ * The outcome of queuing a list of tracks.
+ */
+public class BatchResult
+{
+    private final Audio.RequestResult requestResult;
+    private final int queuedCount;
+    private final List<String> failedIdentifiers;
+    private final boolean limited;
+
+    protected BatchResult(Audio.RequestResult requestResult, int queuedCount, List<String> failedIdentifiers, boolean limited)
+    {
+        this.requestResult = requestResult;
+        this.queuedCount = queuedCount;
+        this.failedIdentifiers = failedIdentifiers;
+        this.limited = limited;
+    }
+
+    /**
+     * Gets the result of the request that started the tracks playing or queued the first of them
+     * @return the result
+     */
+    public Audio.RequestResult getRequestResult()
+    {
+        return requestResult;
+    }
+
+    /**
+     * Checks if any tracks were queued
+     * @return true if tracks were queued
+     */
+    public boolean isQueued()
+    {
+        return requestResult == Audio.RequestResult.REQUEST_NOW_PLAYING || requestResult == Audio.RequestResult.REQUEST_ADDED_TO_QUEUE;
+    }
+
+    /**
+     * Gets the number of tracks queued, including the first
+     * @return the track count
+     */
+    public int getQueuedCount()
+    {
+        return queuedCount;
+    }
+
+    /**
+     * Gets the identifiers of the tracks that could not be found
+     * @return the identifiers, in the order they were given
+     */
+    public List<String> getFailedIdentifiers()
+    {
+        return failedIdentifiers;
+    }
+
+    /**
+     * Checks if the user's queue limit meant only some of the tracks were queued
+     * @return true if tracks were left out
+     */
+    public boolean isLimited()
+    {
+        return limited;
+    }
+}
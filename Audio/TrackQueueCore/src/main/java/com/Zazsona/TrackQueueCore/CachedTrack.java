@@ -0,0 +1,58 @@
+package com.Zazsona.TrackQueueCore;
+
+/**
+ * A track's details, kept so the track can be rebuilt without looking it up again.
+ */
+public class CachedTrack
+{
+    private final String title;
+    private final long duration;
+    private final String uri;
+    /**
+     * The track as encoded by the player manager, which decodes it back into a playable track.
+     */
+    private final byte[] encodedTrack;
+    private final long cachedMillis;
+
+    protected CachedTrack(String title, long duration, String uri, byte[] encodedTrack, long cachedMillis)
+    {
+        this.title = title;
+        this.duration = duration;
+        this.uri = uri;
+        this.encodedTrack = encodedTrack;
+        this.cachedMillis = cachedMillis;
+    }
+
+    public String getTitle()
+    {
+        return title;
+    }
+
+    /**
+     * Gets the track's length
+     * @return the length, in milliseconds
+     */
+    public long getDuration()
+    {
+        return duration;
+    }
+
+    public String getUri()
+    {
+        return uri;
+    }
+
+    protected byte[] getEncodedTrack()
+    {
+        return encodedTrack;
+    }
+
+    /**
+     * Gets when the track was looked up
+     * @return the time, in epoch milliseconds
+     */
+    public long getCachedMillis()
+    {
+        return cachedMillis;
+    }
+}
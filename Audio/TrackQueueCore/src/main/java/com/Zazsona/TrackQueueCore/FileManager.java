@@ -0,0 +1,153 @@
+package com.Zazsona.TrackQueueCore;
+
+import configuration.SettingsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class FileManager
+{
+    private static final int CACHE_MAGIC = 0x4A545243;
+    private static final byte CACHE_VERSION = 1;
+    /**
+     * How long to wait before trying again to lock the track cache held by another module.
+     */
+    private static final long LOCK_RETRY_MILLIS = 5;
+    private static transient Logger logger = LoggerFactory.getLogger("TrackCache");
+
+    private static File getCacheFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/TrackCache.jara");
+    }
+
+    private static File getLockFile()
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/TrackCache.lock");
+    }
+
+    /**
+     * Reads the saved track cache
+     * @return the tracks as Identifier : Track, least recently used first, which is empty if none are saved
+     */
+    protected static LinkedHashMap<String, CachedTrack> readCache()
+    {
+        LinkedHashMap<String, CachedTrack> tracks = new LinkedHashMap<>();
+        File cacheFile = getCacheFile();
+        if (cacheFile.exists())
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile))))
+            {
+                if (in.readInt() != CACHE_MAGIC || in.readByte() != CACHE_VERSION)
+                {
+                    throw new IOException("Not a track cache file.");
+                }
+                int trackCount = in.readInt();
+                for (int i = 0; i<trackCount; i++)
+                {
+                    String identifier = in.readUTF();
+                    String title = in.readUTF();
+                    long duration = in.readLong();
+                    String uri = in.readUTF();
+                    long cachedMillis = in.readLong();
+                    byte[] encodedTrack = new byte[in.readInt()];
+                    in.readFully(encodedTrack);
+                    tracks.put(identifier, new CachedTrack(title, duration, uri, encodedTrack, cachedMillis));
+                }
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to read the track cache.\n"+e.toString());
+            }
+        }
+        return tracks;
+    }
+
+    /**
+     * Writes the track cache, replacing the one saved before. The tracks are written to a temporary file of this writer's
+     * own that then replaces the existing one, so the file is never left part-written. The cache must be locked with {@link #lock()}.
+     * @param tracks the tracks as Identifier : Track, least recently used first
+     * @throws IOException unable to write the tracks
+     */
+    protected static void writeCache(Map<String, CachedTrack> tracks) throws IOException
+    {
+        File cacheFile = getCacheFile();
+        cacheFile.getParentFile().mkdirs();
+        File tempFile = Files.createTempFile(cacheFile.getParentFile().toPath(), cacheFile.getName(), ".tmp").toFile();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            out.writeInt(CACHE_MAGIC);
+            out.writeByte(CACHE_VERSION);
+            out.writeInt(tracks.size());
+            for (Map.Entry<String, CachedTrack> entry : tracks.entrySet())
+            {
+                CachedTrack track = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeUTF(track.getTitle());
+                out.writeLong(track.getDuration());
+                out.writeUTF(track.getUri());
+                out.writeLong(track.getCachedMillis());
+                out.writeInt(track.getEncodedTrack().length);
+                out.write(track.getEncodedTrack());
+            }
+        }
+        catch (IOException e)
+        {
+            tempFile.delete();
+            throw e;
+        }
+        Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Locks the track cache, waiting until any other module or process holding the lock has released it.
+     * Each module has its own copy of the cache, so the lock must be held from reading the saved cache to writing the merged one,
+     * or one module's save could drop the tracks another has just saved.
+     * @return the locked channel, which releases the lock when closed
+     * @throws IOException unable to lock the track cache
+     */
+    protected static FileChannel lock() throws IOException
+    {
+        File lockFile = getLockFile();
+        lockFile.getParentFile().mkdirs();
+        FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    FileLock lock = channel.tryLock();
+                    if (lock != null)
+                    {
+                        return channel;
+                    }
+                }
+                catch (OverlappingFileLockException e)
+                {
+                    //Another module in this JVM holds the lock.
+                }
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            }
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        catch (InterruptedException e)
+        {
+            channel.close();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while locking the track cache");
+        }
+    }
+}
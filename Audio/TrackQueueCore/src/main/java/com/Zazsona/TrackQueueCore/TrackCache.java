@@ -0,0 +1,213 @@
+package com.Zazsona.TrackQueueCore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the tracks that identifiers were found to be, so that asking for the same track again does not need another
+ * lookup.<br>
+ * The cache holds the most recently used tracks, up to a limit, and forgets any looked up more than a week ago. It is
+ * saved every few minutes, so it survives a restart. As each module loads its own copy of this class, saving also keeps
+ * any tracks other modules have saved that this copy does not have, holding a lock on the file so their saves can't
+ * interleave.
+ */
+public class TrackCache
+{
+    private static final int MAX_ENTRIES = 10000;
+    private static final long TIME_TO_LIVE_MILLIS = 1000L*60*60*24*7; //One week
+    private static final long SAVE_INTERVAL_MINUTES = 10;
+    private static transient Logger logger = LoggerFactory.getLogger("TrackCache");
+    private static final TrackCacheStats stats = new TrackCacheStats();
+    /**
+     * The tracks as Identifier : Track, least recently used first.
+     */
+    private static final LinkedHashMap<String, CachedTrack> identifierToTrack = new LinkedHashMap<String, CachedTrack>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedTrack> eldest)
+        {
+            if (size() > MAX_ENTRIES)
+            {
+                stats.recordEviction();
+                return true;
+            }
+            return false;
+        }
+    };
+    private static final ScheduledExecutorService saveScheduler = Executors.newSingleThreadScheduledExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "TrackCache-Save");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile boolean persistent = true;
+    private static boolean changed;
+
+    static
+    {
+        for (Map.Entry<String, CachedTrack> entry : FileManager.readCache().entrySet())
+        {
+            if (!isExpired(entry.getValue()))
+            {
+                identifierToTrack.put(entry.getKey(), entry.getValue());
+            }
+        }
+        saveScheduler.scheduleWithFixedDelay(TrackCache::save, SAVE_INTERVAL_MINUTES, SAVE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Gets the track an identifier was found to be
+     * @param identifier the track URL or search
+     * @return the track, or null if it is not cached or was looked up too long ago
+     */
+    public static CachedTrack get(String identifier)
+    {
+        synchronized (identifierToTrack)
+        {
+            CachedTrack track = identifierToTrack.get(identifier);
+            if (track != null && isExpired(track))
+            {
+                identifierToTrack.remove(identifier);
+                changed = true;
+                stats.recordExpiration();
+                track = null;
+            }
+            if (track != null)
+            {
+                stats.recordHit();
+            }
+            else
+            {
+                stats.recordMiss();
+            }
+            return track;
+        }
+    }
+
+    /**
+     * Remembers the track an identifier was found to be
+     * @param identifier the track URL or search
+     * @param track the track
+     */
+    protected static void put(String identifier, CachedTrack track)
+    {
+        synchronized (identifierToTrack)
+        {
+            identifierToTrack.put(identifier, track);
+            changed = true;
+        }
+    }
+
+    /**
+     * Forgets the track an identifier was found to be, such as when it can no longer be played
+     * @param identifier the track URL or search
+     */
+    protected static void remove(String identifier)
+    {
+        synchronized (identifierToTrack)
+        {
+            if (identifierToTrack.remove(identifier) != null)
+            {
+                changed = true;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of tracks cached
+     * @return the track count
+     */
+    public static int size()
+    {
+        synchronized (identifierToTrack)
+        {
+            return identifierToTrack.size();
+        }
+    }
+
+    /**
+     * Gets the cache's hits, misses, and evictions
+     * @return the stats
+     */
+    public static TrackCacheStats getStats()
+    {
+        return stats;
+    }
+
+    /**
+     * Sets whether the cache is saved, so it survives a restart. It is saved by default.
+     * @param persistent true to save the cache
+     */
+    public static void setPersistent(boolean persistent)
+    {
+        TrackCache.persistent = persistent;
+    }
+
+    /**
+     * Saves the cache, along with any tracks saved by other modules that are not in it, if it has changed since it was last saved.
+     */
+    public static synchronized void save()
+    {
+        LinkedHashMap<String, CachedTrack> tracks = new LinkedHashMap<>();
+        synchronized (identifierToTrack)
+        {
+            if (!persistent || !changed)
+            {
+                return;
+            }
+            identifierToTrack.entrySet().removeIf(entry ->
+            {
+                if (isExpired(entry.getValue()))
+                {
+                    stats.recordExpiration();
+                    return true;
+                }
+                return false;
+            });
+            tracks.putAll(identifierToTrack);
+            changed = false;
+        }
+        try (FileChannel lock = FileManager.lock())
+        {
+            //Saved tracks that are missing here go first, as the least recently used, leaving room for this module's own.
+            LinkedHashMap<String, CachedTrack> savedTracks = FileManager.readCache();
+            savedTracks.keySet().removeAll(tracks.keySet());
+            savedTracks.values().removeIf(TrackCache::isExpired);
+            LinkedHashMap<String, CachedTrack> tracksToSave = new LinkedHashMap<>();
+            int savedTracksToSkip = Math.max(0, savedTracks.size()+tracks.size()-MAX_ENTRIES);
+            for (Map.Entry<String, CachedTrack> entry : savedTracks.entrySet())
+            {
+                if (savedTracksToSkip > 0)
+                {
+                    savedTracksToSkip--;
+                    continue;
+                }
+                tracksToSave.put(entry.getKey(), entry.getValue());
+            }
+            tracksToSave.putAll(tracks);
+            FileManager.writeCache(tracksToSave);
+            logger.info(stats.toString());
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to save the track cache.\n"+e.toString());
+            synchronized (identifierToTrack)
+            {
+                changed = true;
+            }
+        }
+    }
+
+    private static boolean isExpired(CachedTrack track)
+    {
+        return System.currentTimeMillis()-track.getCachedMillis() > TIME_TO_LIVE_MILLIS;
+    }
+}
@@ -0,0 +1,83 @@
+package com.Zazsona.TrackQueueCore;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how the track cache is being used.
+ */
+public class TrackCacheStats
+{
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Records a track being found in the cache.
+     */
+    protected void recordHit()
+    {
+        hits.increment();
+    }
+
+    /**
+     * Records a track not being in the cache, so having to be looked up.
+     */
+    protected void recordMiss()
+    {
+        misses.increment();
+    }
+
+    /**
+     * Records a track being removed to make room for another.
+     */
+    protected void recordEviction()
+    {
+        evictions.increment();
+    }
+
+    /**
+     * Records a track being removed for being too old to trust.
+     */
+    protected void recordExpiration()
+    {
+        expirations.increment();
+    }
+
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    public long getExpirations()
+    {
+        return expirations.sum();
+    }
+
+    /**
+     * Gets the share of requests for a track that were found in the cache
+     * @return the ratio, from 0 to 1, or 0 if no tracks have been requested
+     */
+    public double getHitRatio()
+    {
+        long hits = getHits();
+        long requests = hits+getMisses();
+        return (requests == 0) ? 0 : (double) hits/requests;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Track cache hits: "+getHits()+", misses: "+getMisses()+", hit ratio: "+String.format("%.1f%%", getHitRatio()*100)+", evictions: "+getEvictions()+", expirations: "+getExpirations();
+    }
+}
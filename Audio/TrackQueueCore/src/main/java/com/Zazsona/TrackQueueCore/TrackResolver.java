@@ -0,0 +1,213 @@
+package com.Zazsona.TrackQueueCore;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.source.AudioSourceManagers;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Looks up tracks, many at a time.<br>
+ * Each distinct identifier in a list is looked up once, and all of them at once, up to a limit on the lookups in flight
+ * across every guild. A list within that limit takes about as long as its slowest lookup, rather than the sum of them.<br>
+ * Tracks found are kept in the {@link TrackCache}, and identifiers already in it are rebuilt from there without a lookup.
+ */
+public class TrackResolver
+{
+    /**
+     * The most lookups to have in flight at once, across every guild.
+     */
+    private static final int MAX_CONCURRENT_LOOKUPS = 16;
+    /**
+     * How long to wait for a list's lookups before treating those still running as failed.
+     */
+    private static final long LOOKUP_TIMEOUT_SECONDS = 30;
+    private static transient Logger logger = LoggerFactory.getLogger("TrackResolver");
+    private static final AudioPlayerManager playerManager = createPlayerManager();
+    private static final Semaphore lookupPermits = new Semaphore(MAX_CONCURRENT_LOOKUPS);
+
+    private static AudioPlayerManager createPlayerManager()
+    {
+        DefaultAudioPlayerManager playerManager = new DefaultAudioPlayerManager();
+        playerManager.setItemLoaderThreadPoolSize(MAX_CONCURRENT_LOOKUPS);
+        AudioSourceManagers.registerRemoteSources(playerManager);
+        return playerManager;
+    }
+
+    /**
+     * Looks up the tracks. Identifiers that appear more than once are looked up once, and given a copy of the track for each time.
+     * @param identifiers the track URLs or searches
+     * @return the tracks, in the same order as the identifiers, with null for any that could not be found
+     */
+    public static ArrayList<AudioTrack> resolve(List<String> identifiers)
+    {
+        LinkedHashMap<String, CompletableFuture<AudioTrack>> lookups = new LinkedHashMap<>();
+        try
+        {
+            for (String identifier : identifiers)
+            {
+                if (!lookups.containsKey(identifier))
+                {
+                    AudioTrack cachedTrack = getCachedTrack(identifier);
+                    lookups.put(identifier, (cachedTrack != null) ? CompletableFuture.completedFuture(cachedTrack) : lookUp(identifier));
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        long deadline = System.nanoTime()+TimeUnit.SECONDS.toNanos(LOOKUP_TIMEOUT_SECONDS);
+        HashMap<String, AudioTrack> identifierToTrack = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<AudioTrack>> lookup : lookups.entrySet())
+        {
+            try
+            {
+                identifierToTrack.put(lookup.getKey(), lookup.getValue().get(Math.max(0, deadline-System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (ExecutionException | TimeoutException e)
+            {
+                logger.debug("Unable to look up track "+lookup.getKey()+".\n"+e.toString());
+            }
+        }
+
+        ArrayList<AudioTrack> tracks = new ArrayList<>(identifiers.size());
+        HashSet<String> usedIdentifiers = new HashSet<>();
+        for (String identifier : identifiers)
+        {
+            AudioTrack track = identifierToTrack.get(identifier);
+            if (track != null && !usedIdentifiers.add(identifier))
+            {
+                track = track.makeClone(); //A track can only be played once, so repeats each need their own.
+            }
+            tracks.add(track);
+        }
+        return tracks;
+    }
+
+    /**
+     * Starts looking up a track, waiting first for a free lookup permit.
+     * @param identifier the track URL or search
+     * @return the lookup, which completes with the track, or null if it could not be found
+     * @throws InterruptedException interrupted while waiting for a permit
+     */
+    private static CompletableFuture<AudioTrack> lookUp(String identifier) throws InterruptedException
+    {
+        CompletableFuture<AudioTrack> lookup = new CompletableFuture<>();
+        lookupPermits.acquire();
+        lookup.whenComplete((track, exception) -> lookupPermits.release());
+        lookup.thenAccept(track -> cacheTrack(identifier, track));
+        try
+        {
+            playerManager.loadItem(identifier, new AudioLoadResultHandler()
+            {
+                @Override
+                public void trackLoaded(AudioTrack track)
+                {
+                    lookup.complete(track);
+                }
+
+                @Override
+                public void playlistLoaded(AudioPlaylist playlist)
+                {
+                    AudioTrack track = playlist.getSelectedTrack();
+                    if (track == null && !playlist.getTracks().isEmpty())
+                    {
+                        track = playlist.getTracks().get(0);
+                    }
+                    lookup.complete(track);
+                }
+
+                @Override
+                public void noMatches()
+                {
+                    lookup.complete(null);
+                }
+
+                @Override
+                public void loadFailed(FriendlyException exception)
+                {
+                    lookup.completeExceptionally(exception);
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            lookup.completeExceptionally(e);
+        }
+        return lookup;
+    }
+
+    /**
+     * Rebuilds a track from the cache
+     * @param identifier the track URL or search
+     * @return the track, or null if it is not cached or could not be rebuilt
+     */
+    private static AudioTrack getCachedTrack(String identifier)
+    {
+        CachedTrack cachedTrack = TrackCache.get(identifier);
+        if (cachedTrack != null)
+        {
+            try
+            {
+                DecodedTrackHolder decodedTrack = playerManager.decodeTrack(new MessageInput(new ByteArrayInputStream(cachedTrack.getEncodedTrack())));
+                if (decodedTrack != null && decodedTrack.decodedTrack != null)
+                {
+                    return decodedTrack.decodedTrack;
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                logger.debug("Unable to rebuild cached track "+identifier+".\n"+e.toString());
+            }
+            TrackCache.remove(identifier);
+        }
+        return null;
+    }
+
+    /**
+     * Adds a track that has been looked up to the cache. Streams are left out, as their details change as they play.
+     * @param identifier the track URL or search
+     * @param track the track, or null if none was found
+     */
+    private static void cacheTrack(String identifier, AudioTrack track)
+    {
+        if (track == null || track.getInfo().isStream)
+        {
+            return;
+        }
+        try
+        {
+            ByteArrayOutputStream encodedTrack = new ByteArrayOutputStream();
+            playerManager.encodeTrack(new MessageOutput(encodedTrack), track);
+            AudioTrackInfo info = track.getInfo();
+            String title = (info.title != null) ? info.title : "";
+            String uri = (info.uri != null) ? info.uri : identifier;
+            TrackCache.put(identifier, new CachedTrack(title, info.length, uri, encodedTrack.toByteArray(), System.currentTimeMillis()));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.debug("Unable to cache track "+identifier+".\n"+e.toString());
+        }
+    }
+}
@@ -5,4 +5,5 @@ public enum AIDifficulty
     EASY,
     STANDARD,
     HARD,
+    EXPERT,
 }
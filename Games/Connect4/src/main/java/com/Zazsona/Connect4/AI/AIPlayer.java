@@ -2,22 +2,26 @@ package com.Zazsona.Connect4.AI;
 
 import com.Zazsona.Connect4.Connect4;
 import com.Zazsona.Connect4.game.Board;
-import com.Zazsona.Connect4.game.Counter;
 
 import java.util.ArrayList;
 import java.util.Random;
 
 public class AIPlayer
 {
+    private static final long EXPERT_TIME_BUDGET_MILLIS = 100;
+    private static final int TABLE_SIZE_BITS = 16;
+    private static final int EXPERT_TABLE_SIZE_BITS = 18;
     private Board board;
     private AIDifficulty difficulty;
     private boolean isPlayer1;
+    private Search search;
 
     public AIPlayer(Board board, boolean isPlayer1)
     {
         this.board = board;
         this.difficulty = AIDifficulty.STANDARD;
         this.isPlayer1 = isPlayer1;
+        this.search = createSearch(difficulty);
     }
 
     public AIPlayer(Board board, boolean isPlayer1, AIDifficulty difficulty)
@@ -25,6 +29,7 @@ public class AIPlayer
         this.board = board;
         this.isPlayer1 = isPlayer1;
         this.difficulty = difficulty;
+        this.search = createSearch(difficulty);
     }
 
     public void setBoard(Board board)
@@ -35,6 +40,7 @@ public class AIPlayer
     public void setDifficulty(AIDifficulty difficulty)
     {
         this.difficulty = difficulty;
+        this.search = createSearch(difficulty);
     }
 
     public boolean isPlayer1()
@@ -44,103 +50,27 @@ public class AIPlayer
 
     public void takeTurn()
     {
-        int predictionDepth = getPredictionDepthLimit();
-        Node root = new Node(null, 0, 0);
-        addChildren(board.clone(), root, true, predictionDepth);
-
-        minimax(root, predictionDepth, true);
-    }
-
-    private int minimax(Node parent, int depth, boolean isMaxPlayer)
-    {
-        if (depth == 0 || parent.isTerminal() || parent.getValue() != 0)
-            return parent.getValue();
-
-        if (isMaxPlayer)
+        BitBoard bitBoard = BitBoard.fromBoard(board, isPlayer1);
+        int column;
+        if (difficulty == AIDifficulty.EXPERT)
         {
-            ArrayList<Node> bestChildren = new ArrayList<>();
-            int maxEval = Integer.MIN_VALUE;
-            for (Node child : parent.getChildren())
-            {
-                if (child != null)
-                {
-                    int eval = minimax(child, depth-1, false);
-                    if (eval >= maxEval)
-                    {
-                        if (eval > maxEval)
-                        {
-                            maxEval = eval;
-                            bestChildren.clear();
-                        }
-                        bestChildren.add(child);
-                    }
-                }
-            }
-            if (depth == getPredictionDepthLimit())
-            {
-                int childIndex = new Random().nextInt(bestChildren.size());
-                board.placeCounter(bestChildren.get(childIndex).getColumn(), Connect4.getPlayerCounter(isPlayer1));
-            }
-            return maxEval;
+            column = search.getBestColumn(bitBoard, EXPERT_TIME_BUDGET_MILLIS);
         }
         else
         {
-            int minEval = Integer.MAX_VALUE;
-            for (Node child : parent.getChildren())
-            {
-                if (child != null)
-                {
-                    int eval = minimax(child, depth-1, true);
-                    if (eval < minEval)
-                    {
-                        minEval = eval;
-                    }
-
-                }
-            }
-            return minEval;
+            ArrayList<Integer> bestColumns = search.getBestColumns(bitBoard, getPredictionDepthLimit());
+            column = bestColumns.get(new Random().nextInt(bestColumns.size()));
         }
+        board.placeCounter(column, Connect4.getPlayerCounter(isPlayer1));
     }
 
-    private void addChildren(Board childBoard, Node parent, boolean isMaxPlayer, int predictionDepth)
+    /**
+     * Creates the search for the difficulty. Only expert estimates who is ahead, so the others still play as if the
+     * game could go any way beyond what they can see.
+     */
+    private static Search createSearch(AIDifficulty difficulty)
     {
-        if (parent.getValue() == 0) //If it has a value, then it's a win/loss scenario (game over), so no point going further in the tree
-        {
-            Counter maxCounter = Connect4.getPlayerCounter(isPlayer1);
-            Counter minCounter = Connect4.getPlayerCounter(!isPlayer1);
-            for (int column = 0; column<board.getBoardWidth(); column++)
-            {
-                if (!childBoard.isColumnFull(column))
-                {
-                    childBoard.placeCounter(column, (isMaxPlayer) ? maxCounter : minCounter);
-                    int moveValue = getMoveValue(childBoard, maxCounter, predictionDepth);
-                    Node childNode = new Node(parent, moveValue, column);
-                    parent.addChild(column, childNode);
-                    if (predictionDepth > 0 && moveValue == 0)
-                    {
-                        addChildren(childBoard.clone(), childNode, !isMaxPlayer, predictionDepth-1);
-                    }
-                    childBoard.removeCounter(column);
-                }
-            }
-        }
-    }
-
-    private int getMoveValue(Board board, Counter maxCounter, int depth)
-    {
-        Counter winState = board.getWinner();
-        if (winState == null)
-        {
-            return 0;
-        }
-        else if (winState == maxCounter) //If it's this player's win
-        {
-            return 1*(depth+1);
-        }
-        else //If it's the opponent's win
-        {
-            return -1*(depth+1);
-        }
+        return (difficulty == AIDifficulty.EXPERT) ? new Search(true, EXPERT_TABLE_SIZE_BITS) : new Search(false, TABLE_SIZE_BITS);
     }
 
     private int getPredictionDepthLimit()
@@ -153,6 +83,8 @@ public class AIPlayer
                 return 4;
             case HARD:
                 return 6;
+            case EXPERT:
+                return BitBoard.WIDTH*BitBoard.HEIGHT;
         }
         return 4;
     }
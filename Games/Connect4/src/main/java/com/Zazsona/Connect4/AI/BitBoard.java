@@ -0,0 +1,231 @@
+package com.Zazsona.Connect4.AI;
+
+import com.Zazsona.Connect4.Connect4;
+import com.Zazsona.Connect4.game.Board;
+import com.Zazsona.Connect4.game.Counter;
+
+import java.util.Random;
+
+/**
+ * A board held as one 64 bit number per player, for the AI to search quickly.<br>
+ * Each column takes seven bits, from the bottom row up, with the seventh always empty so that lines cannot run from the
+ * top of one column into the next. Checking for four in a row is then a few shifts of the board that just moved, rather
+ * than a scan of every cell. The board also keeps a Zobrist hash, updated with each move, for the {@link TranspositionTable}.
+ */
+public class BitBoard
+{
+    public static final int WIDTH = 7;
+    public static final int HEIGHT = 6;
+    private static final int COLUMN_BITS = HEIGHT+1;
+    private static final long BOTTOM_MASK = getBottomMask();
+    private static final long BOARD_MASK = BOTTOM_MASK*((1L << HEIGHT)-1);
+    /**
+     * The distances between neighbouring positions in a line: vertical, horizontal, and both diagonals.
+     */
+    private static final int[] LINE_SHIFTS = {1, COLUMN_BITS, COLUMN_BITS-1, COLUMN_BITS+1};
+    /**
+     * Random keys for each player having a counter in each position, combined to hash the board.
+     */
+    private static final long[][] ZOBRIST_KEYS = createZobristKeys();
+    /**
+     * The counters of each player, indexed by player number.
+     */
+    private final long[] counters = new long[2];
+    /**
+     * The position of the next free space in each column.
+     */
+    private final int[] heights = new int[WIDTH];
+    private int currentPlayer;
+    private int moveCount;
+    private long hash;
+
+    public BitBoard()
+    {
+        for (int column = 0; column<WIDTH; column++)
+        {
+            heights[column] = column*COLUMN_BITS;
+        }
+    }
+
+    /**
+     * Creates a bit board matching the board
+     * @param board the board
+     * @param isPlayer1Turn whether it is player 1's turn
+     * @return the bit board
+     */
+    public static BitBoard fromBoard(Board board, boolean isPlayer1Turn)
+    {
+        BitBoard bitBoard = new BitBoard();
+        Counter player1Counter = Connect4.getPlayerCounter(true);
+        for (int column = 0; column<WIDTH; column++)
+        {
+            for (int row = 0; row<HEIGHT; row++)
+            {
+                Counter counter = board.getCounter(column, row);
+                if (counter == Counter.NONE)
+                {
+                    break;
+                }
+                bitBoard.set(column, (counter == player1Counter) ? 0 : 1);
+            }
+        }
+        bitBoard.currentPlayer = (isPlayer1Turn) ? 0 : 1;
+        return bitBoard;
+    }
+
+    private void set(int column, int player)
+    {
+        int position = heights[column]++;
+        counters[player] |= 1L << position;
+        hash ^= ZOBRIST_KEYS[player][position];
+        moveCount++;
+    }
+
+    /**
+     * Checks if a counter can be placed in the column
+     * @param column the column index
+     * @return true if the column has space
+     */
+    public boolean canPlay(int column)
+    {
+        return heights[column] < column*COLUMN_BITS+HEIGHT;
+    }
+
+    /**
+     * Places the current player's counter in the column, and passes the turn to the other player
+     * @param column the column index, which must have space
+     */
+    public void play(int column)
+    {
+        int position = heights[column]++;
+        counters[currentPlayer] |= 1L << position;
+        hash ^= ZOBRIST_KEYS[currentPlayer][position];
+        currentPlayer ^= 1;
+        moveCount++;
+    }
+
+    /**
+     * Removes the top counter from the column, and passes the turn back to the player that placed it
+     * @param column the column index, which must be the last column played
+     */
+    public void undo(int column)
+    {
+        currentPlayer ^= 1;
+        moveCount--;
+        int position = --heights[column];
+        counters[currentPlayer] &= ~(1L << position);
+        hash ^= ZOBRIST_KEYS[currentPlayer][position];
+    }
+
+    /**
+     * Checks if the player who just moved has four in a row
+     * @return true if they have won
+     */
+    public boolean isLastMoveWin()
+    {
+        return hasFourInARow(counters[currentPlayer ^ 1]);
+    }
+
+    private static boolean hasFourInARow(long counters)
+    {
+        for (int shift : LINE_SHIFTS)
+        {
+            long pairs = counters & (counters >>> shift);
+            if ((pairs & (pairs >>> (2*shift))) != 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the empty spaces where a counter would give the player four in a row
+     * @param player the player number
+     * @return the spaces, as bits
+     */
+    public long getWinningSpaces(int player)
+    {
+        long p = counters[player];
+        long spaces = (p << 1) & (p << 2) & (p << 3); //Vertical lines can only be completed from above.
+        for (int i = 1; i<LINE_SHIFTS.length; i++)
+        {
+            int shift = LINE_SHIFTS[i];
+            long pair = (p << shift) & (p << 2*shift);
+            spaces |= pair & (p << 3*shift);
+            spaces |= pair & (p >>> shift);
+            pair = (p >>> shift) & (p >>> 2*shift);
+            spaces |= pair & (p << shift);
+            spaces |= pair & (p >>> 3*shift);
+        }
+        return spaces & (BOARD_MASK ^ (counters[0] | counters[1]));
+    }
+
+    /**
+     * Gets a player's counters
+     * @param player the player number
+     * @return the counters, as bits
+     */
+    public long getCounters(int player)
+    {
+        return counters[player];
+    }
+
+    /**
+     * Gets the bits of a column
+     * @param column the column index
+     * @return the column's bits
+     */
+    public static long getColumnMask(int column)
+    {
+        return ((1L << HEIGHT)-1) << (column*COLUMN_BITS);
+    }
+
+    /**
+     * Gets whose turn it is
+     * @return 0 for player 1, 1 for player 2
+     */
+    public int getCurrentPlayer()
+    {
+        return currentPlayer;
+    }
+
+    public int getMoveCount()
+    {
+        return moveCount;
+    }
+
+    public boolean isFull()
+    {
+        return moveCount == WIDTH*HEIGHT;
+    }
+
+    public long getHash()
+    {
+        return hash;
+    }
+
+    private static long getBottomMask()
+    {
+        long bottomMask = 0;
+        for (int column = 0; column<WIDTH; column++)
+        {
+            bottomMask |= 1L << (column*COLUMN_BITS);
+        }
+        return bottomMask;
+    }
+
+    private static long[][] createZobristKeys()
+    {
+        Random random = new Random(0x434F4E4E34L); //Fixed, so hashes are the same between runs.
+        long[][] keys = new long[2][WIDTH*COLUMN_BITS];
+        for (int player = 0; player<keys.length; player++)
+        {
+            for (int position = 0; position<keys[player].length; position++)
+            {
+                keys[player][position] = random.nextLong();
+            }
+        }
+        return keys;
+    }
+}
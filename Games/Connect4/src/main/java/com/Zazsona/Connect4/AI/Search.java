@@ -0,0 +1,266 @@
+package com.Zazsona.Connect4.AI;
+
+import java.util.ArrayList;
+
+/**
+ * Searches for the best move with negamax and alpha-beta pruning.<br>
+ * Moves are tried best first: the best move from an earlier search of the position, then the centre columns before the
+ * edges, which lets alpha-beta cut off more of the tree. Searched positions are kept in a {@link TranspositionTable},
+ * and the moves made on the one {@link BitBoard} are undone after each is searched, so no boards are copied.<br>
+ * Wins are scored higher the sooner they come, so the search takes the quickest win and puts off a loss for longest.
+ */
+public class Search
+{
+    private static final int WIN_SCORE = 10000;
+    /**
+     * Any score at least this large is a win or loss within the search, rather than an estimate.
+     */
+    private static final int MIN_WIN_SCORE = WIN_SCORE-BitBoard.WIDTH*BitBoard.HEIGHT;
+    private static final int INFINITY = WIN_SCORE+1;
+    private static final int[] COLUMN_ORDER = {3, 2, 4, 1, 5, 0, 6};
+    private static final long CENTRE_MASK = BitBoard.getColumnMask(3);
+    /**
+     * How often, in positions, to check whether the search is out of time.
+     */
+    private static final long TIME_CHECK_INTERVAL = 4096;
+    private final TranspositionTable transpositionTable;
+    private final boolean useEstimates;
+    private long nodeCount;
+    private long deadlineNanos;
+    private boolean timedOut;
+    private int lastDepth;
+
+    /**
+     * Creates a search
+     * @param useEstimates whether to estimate who is ahead when the search stops short of the end of the game, rather
+     *                     than only scoring wins and losses
+     * @param tableSizeBits the number of positions the transposition table can hold, as a power of two
+     */
+    public Search(boolean useEstimates, int tableSizeBits)
+    {
+        this.useEstimates = useEstimates;
+        this.transpositionTable = new TranspositionTable(tableSizeBits);
+    }
+
+    /**
+     * Finds every move that is equal best when searching a fixed number of moves ahead. Each move is searched in full,
+     * so moves that are only as good as the best are not cut off.
+     * @param board the board, with the searching player to move
+     * @param depth the number of moves to search ahead
+     * @return the columns of the best moves
+     */
+    public ArrayList<Integer> getBestColumns(BitBoard board, int depth)
+    {
+        deadlineNanos = 0;
+        timedOut = false;
+        ArrayList<Integer> bestColumns = new ArrayList<>();
+        int bestScore = -INFINITY;
+        for (int column : COLUMN_ORDER)
+        {
+            if (board.canPlay(column))
+            {
+                board.play(column);
+                int score = (board.isLastMoveWin()) ? WIN_SCORE-1 : -negamax(board, depth-1, -INFINITY, INFINITY, 1);
+                board.undo(column);
+                if (score >= bestScore)
+                {
+                    if (score > bestScore)
+                    {
+                        bestScore = score;
+                        bestColumns.clear();
+                    }
+                    bestColumns.add(column);
+                }
+            }
+        }
+        lastDepth = depth;
+        return bestColumns;
+    }
+
+    /**
+     * Finds the best move by searching one move ahead, then two, and so on, until the time is up or the outcome is
+     * certain. Each search starts with the best move from the one before, and the move from the deepest finished search is used.
+     * @param board the board, with the searching player to move
+     * @param timeBudgetMillis how long to search for
+     * @return the column of the best move
+     */
+    public int getBestColumn(BitBoard board, long timeBudgetMillis)
+    {
+        deadlineNanos = System.nanoTime()+timeBudgetMillis*1000000;
+        timedOut = false;
+        int bestColumn = -1;
+        for (int column : COLUMN_ORDER)
+        {
+            if (board.canPlay(column))
+            {
+                bestColumn = column;
+                break;
+            }
+        }
+        int maxDepth = BitBoard.WIDTH*BitBoard.HEIGHT-board.getMoveCount();
+        for (int depth = 1; depth <= maxDepth; depth++)
+        {
+            int alpha = -INFINITY;
+            int iterationBestColumn = -1;
+            for (int i = -1; i<COLUMN_ORDER.length; i++)
+            {
+                int column = (i == -1) ? bestColumn : COLUMN_ORDER[i];
+                if ((i >= 0 && column == bestColumn) || !board.canPlay(column))
+                {
+                    continue;
+                }
+                board.play(column);
+                int score = (board.isLastMoveWin()) ? WIN_SCORE-1 : -negamax(board, depth-1, -INFINITY, -alpha, 1);
+                board.undo(column);
+                if (timedOut)
+                {
+                    break;
+                }
+                if (score > alpha)
+                {
+                    alpha = score;
+                    iterationBestColumn = column;
+                }
+            }
+            if (timedOut)
+            {
+                break;
+            }
+            bestColumn = iterationBestColumn;
+            lastDepth = depth;
+            if (Math.abs(alpha) >= MIN_WIN_SCORE)
+            {
+                break;
+            }
+        }
+        deadlineNanos = 0;
+        return bestColumn;
+    }
+
+    private int negamax(BitBoard board, int depth, int alpha, int beta, int ply)
+    {
+        nodeCount++;
+        if (deadlineNanos != 0 && nodeCount % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos)
+        {
+            timedOut = true;
+        }
+        if (timedOut || board.isFull())
+        {
+            return 0;
+        }
+        if (depth == 0)
+        {
+            return estimate(board);
+        }
+
+        long hash = board.getHash();
+        int originalAlpha = alpha;
+        int tableColumn = -1;
+        int entry = transpositionTable.find(hash);
+        if (entry != -1)
+        {
+            tableColumn = transpositionTable.getBestColumn(entry);
+            if (transpositionTable.getDepth(entry) >= depth)
+            {
+                int score = fromTableScore(transpositionTable.getScore(entry), ply);
+                switch (transpositionTable.getFlag(entry))
+                {
+                    case TranspositionTable.EXACT:
+                        return score;
+                    case TranspositionTable.LOWER_BOUND:
+                        alpha = Math.max(alpha, score);
+                        break;
+                    case TranspositionTable.UPPER_BOUND:
+                        beta = Math.min(beta, score);
+                        break;
+                }
+                if (alpha >= beta)
+                {
+                    return score;
+                }
+            }
+        }
+
+        int bestScore = -INFINITY;
+        int bestColumn = -1;
+        for (int i = -1; i<COLUMN_ORDER.length; i++)
+        {
+            int column = (i == -1) ? tableColumn : COLUMN_ORDER[i];
+            if (column == -1 || (i >= 0 && column == tableColumn) || !board.canPlay(column))
+            {
+                continue;
+            }
+            board.play(column);
+            int score = (board.isLastMoveWin()) ? WIN_SCORE-(ply+1) : -negamax(board, depth-1, -beta, -alpha, ply+1);
+            board.undo(column);
+            if (score > bestScore)
+            {
+                bestScore = score;
+                bestColumn = column;
+            }
+            if (score > alpha)
+            {
+                alpha = score;
+            }
+            if (alpha >= beta)
+            {
+                break;
+            }
+        }
+
+        if (!timedOut)
+        {
+            byte flag = (bestScore <= originalAlpha) ? TranspositionTable.UPPER_BOUND : (bestScore >= beta) ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            transpositionTable.store(hash, depth, toTableScore(bestScore, ply), flag, bestColumn);
+        }
+        return bestScore;
+    }
+
+    /**
+     * Estimates how far ahead the player to move is, from the spaces each could win in and their counters in the centre column.
+     */
+    private int estimate(BitBoard board)
+    {
+        if (!useEstimates)
+        {
+            return 0;
+        }
+        int player = board.getCurrentPlayer();
+        int opponent = player ^ 1;
+        int winningSpaces = Long.bitCount(board.getWinningSpaces(player))-Long.bitCount(board.getWinningSpaces(opponent));
+        int centreCounters = Long.bitCount(board.getCounters(player) & CENTRE_MASK)-Long.bitCount(board.getCounters(opponent) & CENTRE_MASK);
+        return 4*winningSpaces+centreCounters;
+    }
+
+    /*
+            Win scores depend on how many moves from the start of the search the win is, but a position can be reached
+            after different numbers of moves. So, the table holds them as moves from the position itself.
+     */
+    private static int toTableScore(int score, int ply)
+    {
+        return (score >= MIN_WIN_SCORE) ? score+ply : (score <= -MIN_WIN_SCORE) ? score-ply : score;
+    }
+
+    private static int fromTableScore(int score, int ply)
+    {
+        return (score >= MIN_WIN_SCORE) ? score-ply : (score <= -MIN_WIN_SCORE) ? score+ply : score;
+    }
+
+    /**
+     * Gets the number of positions searched
+     * @return the position count
+     */
+    public long getNodeCount()
+    {
+        return nodeCount;
+    }
+
+    /**
+     * Gets how many moves ahead the last search looked
+     * @return the depth
+     */
+    public int getLastDepth()
+    {
+        return lastDepth;
+    }
+}
@@ -0,0 +1,95 @@
+package com.Zazsona.Connect4.AI;
+
+/**
+ * Remembers the results of searching positions, so a position reached by a different order of moves is not searched again.<br>
+ * Entries are kept in flat arrays indexed by the position's hash, rather than as objects, and a new result replaces the
+ * old unless the old came from a deeper search of the same position.
+ */
+public class TranspositionTable
+{
+    /**
+     * The score is the position's value.
+     */
+    public static final byte EXACT = 0;
+    /**
+     * The position is worth at least the score.
+     */
+    public static final byte LOWER_BOUND = 1;
+    /**
+     * The position is worth at most the score.
+     */
+    public static final byte UPPER_BOUND = 2;
+    private final long[] hashes;
+    private final int[] scores;
+    private final byte[] depths;
+    private final byte[] flags;
+    private final byte[] bestColumns;
+    private final int indexMask;
+
+    /**
+     * Creates a table
+     * @param sizeBits the number of entries, as a power of two
+     */
+    public TranspositionTable(int sizeBits)
+    {
+        int size = 1 << sizeBits;
+        hashes = new long[size];
+        scores = new int[size];
+        depths = new byte[size];
+        flags = new byte[size];
+        bestColumns = new byte[size];
+        indexMask = size-1;
+    }
+
+    /**
+     * Finds the entry for a position
+     * @param hash the position's hash
+     * @return the entry's index, or -1 if the position has no entry
+     */
+    public int find(long hash)
+    {
+        int index = (int) (hash ^ (hash >>> 32)) & indexMask;
+        return (hashes[index] == hash && depths[index] > 0) ? index : -1;
+    }
+
+    /**
+     * Records the result of searching a position
+     * @param hash the position's hash
+     * @param depth the depth searched, which must be at least 1
+     * @param score the score
+     * @param flag whether the score is {@link #EXACT}, a {@link #LOWER_BOUND}, or an {@link #UPPER_BOUND}
+     * @param bestColumn the best move found
+     */
+    public void store(long hash, int depth, int score, byte flag, int bestColumn)
+    {
+        int index = (int) (hash ^ (hash >>> 32)) & indexMask;
+        if (hashes[index] != hash || depth >= depths[index])
+        {
+            hashes[index] = hash;
+            scores[index] = score;
+            depths[index] = (byte) depth;
+            flags[index] = flag;
+            bestColumns[index] = (byte) bestColumn;
+        }
+    }
+
+    public int getScore(int index)
+    {
+        return scores[index];
+    }
+
+    public int getDepth(int index)
+    {
+        return depths[index];
+    }
+
+    public byte getFlag(int index)
+    {
+        return flags[index];
+    }
+
+    public int getBestColumn(int index)
+    {
+        return bestColumns[index];
+    }
+}
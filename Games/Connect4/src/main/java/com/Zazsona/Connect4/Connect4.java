@@ -213,6 +213,11 @@ public class Connect4 extends ModuleGameCommand
                     case "CRITICAL":
                         aiPlayer = new AIPlayer(board, false, AIDifficulty.HARD);
                         break;
+                    case "EXPERT":
+                    case "MERCILESS":
+                    case "MANIAC":
+                        aiPlayer = new AIPlayer(board, false, AIDifficulty.EXPERT);
+                        break;
                 }
                 }
                 else
@@ -0,0 +1,253 @@
+package com.Zazsona.QuoteCore;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import configuration.SettingsUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FileManager
+{
+    /**
+     * How long to wait before trying again to lock a guild's quotes held by another module.
+     */
+    private static final long LOCK_RETRY_MILLIS = 5;
+    private static transient Logger logger = LoggerFactory.getLogger("QuoteLoader");
+
+    private static File getQuotesFile(String guildID)
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/Quotes/"+guildID+".jara");
+    }
+
+    private static File getJournalFile(String guildID)
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/Quotes/"+guildID+"Journal.jara");
+    }
+
+    private static File getLockFile(String guildID)
+    {
+        return new File(SettingsUtil.getModuleDataDirectory().getAbsolutePath()+"/Quotes/"+guildID+".lock");
+    }
+
+    /**
+     * Gets the guild's quotes as of the last compaction, in the order they were saved.
+     * @param guildID the guild's ID
+     * @return the quotes, which is empty if the guild has none
+     */
+    protected static ArrayList<Quote> readQuotes(String guildID)
+    {
+        File quoteFile = getQuotesFile(guildID);
+        if (quoteFile.exists())
+        {
+            try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(quoteFile), StandardCharsets.UTF_8)))
+            {
+                TypeToken<ArrayList<Quote>> token = new TypeToken<ArrayList<Quote>>() {};
+                ArrayList<Quote> quotes = new Gson().fromJson(reader, token.getType());
+                if (quotes != null)
+                {
+                    return quotes;
+                }
+            }
+            catch (IOException | JsonParseException e)
+            {
+                logger.error("Unable to read quotes for guild "+guildID+".\n"+e.toString());
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Writes out all of the guild's quotes in the format used by earlier versions, and clears the journal.<br>
+     * The quotes are written to a temporary file that then replaces the existing one, so the quotes file is never left part-written.
+     * The guild must be locked with {@link #lock(String)}.
+     * @param guildID the guild's ID
+     * @param quotes the quotes to save
+     * @throws IOException unable to write the quotes
+     */
+    protected static void saveQuotes(String guildID, List<Quote> quotes) throws IOException
+    {
+        File quoteFile = getQuotesFile(guildID);
+        quoteFile.getParentFile().mkdirs();
+        File tempFile = new File(quoteFile.getPath()+".tmp");
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try (FileOutputStream fos = new FileOutputStream(tempFile))
+        {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8));
+            gson.toJson(quotes, writer);
+            writer.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), quoteFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(getJournalFile(guildID).toPath());
+    }
+
+    /**
+     * Reads the journal entries after the offset. Only complete entries are read.
+     * @param guildID the guild's ID
+     * @param offset the position in the journal to read from
+     * @param entries the list to add the entries to
+     * @return the position in the journal after the last complete entry
+     */
+    protected static long readJournal(String guildID, long offset, List<JournalEntry> entries)
+    {
+        File journalFile = getJournalFile(guildID);
+        if (!journalFile.exists() || journalFile.length() <= offset)
+        {
+            return offset;
+        }
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (channel.size()-offset));
+            while (buffer.hasRemaining() && channel.read(buffer, offset+buffer.position()) > 0);
+            byte[] bytes = buffer.array();
+            int completeLength = buffer.position();
+            while (completeLength > 0 && bytes[completeLength-1] != '\n')
+            {
+                completeLength--;
+            }
+            Gson gson = new Gson();
+            for (String line : new String(bytes, 0, completeLength, StandardCharsets.UTF_8).split("\n"))
+            {
+                try
+                {
+                    JournalEntry entry = gson.fromJson(line, JournalEntry.class);
+                    if (entry != null && entry.getOperation() != null)
+                    {
+                        entries.add(entry);
+                    }
+                }
+                catch (JsonParseException e)
+                {
+                    logger.warn("Skipping corrupt quotes journal entry for guild "+guildID+".");
+                }
+            }
+            return offset+completeLength;
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to read quotes journal for guild "+guildID+".\n"+e.toString());
+            return offset;
+        }
+    }
+
+    /**
+     * Records the change at the end of the guild's journal, as a single write. Anything after the end of the last complete
+     * entry, such as an entry left part-written by a crash, is overwritten. The guild must be locked with {@link #lock(String)}.
+     * @param guildID the guild's ID
+     * @param entry the change
+     * @param offset the position in the journal after the last complete entry
+     * @return the position in the journal after the new entry
+     * @throws IOException unable to write to the journal
+     */
+    protected static long appendToJournal(String guildID, JournalEntry entry, long offset) throws IOException
+    {
+        File journalFile = getJournalFile(guildID);
+        journalFile.getParentFile().mkdirs();
+        byte[] bytes = (new Gson().toJson(entry)+"\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE))
+        {
+            if (channel.size() > offset)
+            {
+                channel.truncate(offset);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining())
+            {
+                channel.write(buffer, offset+buffer.position());
+            }
+            channel.force(false);
+        }
+        return offset+bytes.length;
+    }
+
+    /**
+     * Locks the guild's quotes, waiting until any other module or process holding the lock has released it.
+     * Only one holder of the lock may change the guild's quotes files at a time.
+     * @param guildID the guild's ID
+     * @return the locked channel, which releases the lock when closed
+     * @throws IOException unable to lock the guild's quotes
+     */
+    protected static FileChannel lock(String guildID) throws IOException
+    {
+        File lockFile = getLockFile(guildID);
+        lockFile.getParentFile().mkdirs();
+        FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try
+        {
+            while (true)
+            {
+                try
+                {
+                    FileLock lock = channel.tryLock();
+                    if (lock != null)
+                    {
+                        return channel;
+                    }
+                }
+                catch (OverlappingFileLockException e)
+                {
+                    //Another module in this JVM holds the lock.
+                }
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            }
+        }
+        catch (IOException e)
+        {
+            channel.close();
+            throw e;
+        }
+        catch (InterruptedException e)
+        {
+            channel.close();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while locking quotes for guild "+guildID);
+        }
+    }
+
+    /**
+     * Gets the attributes of the guild's quotes file, such as when it was last written
+     * @param guildID the guild's ID
+     * @return the attributes, or null if the guild has no quotes file
+     */
+    protected static BasicFileAttributes getFileAttributes(String guildID)
+    {
+        return readAttributes(getQuotesFile(guildID));
+    }
+
+    /**
+     * Gets the attributes of the guild's quotes journal, such as when it was last written
+     * @param guildID the guild's ID
+     * @return the attributes, or null if the guild has no journal
+     */
+    protected static BasicFileAttributes getJournalAttributes(String guildID)
+    {
+        return readAttributes(getJournalFile(guildID));
+    }
+
+    private static BasicFileAttributes readAttributes(File file)
+    {
+        try
+        {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.Zazsona.QuoteCore;
+
+import net.dv8tion.jda.api.entities.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A guild's quotes, indexed by name and for full-text search.<br>
+ * Names are matched regardless of case.<br>
+ * <br>
+ * Each change is appended to the guild's journal rather than rewriting all of its quotes, and the journal is compacted
+ * into the quotes file in the background once it grows long. Every call first checks whether the files have been written
+ * elsewhere (such as by another module) and, if so, reads just the new journal entries, or everything if the journal
+ * has been compacted.
+ */
+public class GuildQuotes
+{
+    /**
+     * The number of journal entries after which the journal is compacted into the quotes file.
+     */
+    private static final int COMPACTION_ENTRIES = 100;
+    private static final ExecutorService compactionExecutor = Executors.newSingleThreadExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "Quote-Compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static transient Logger logger = LoggerFactory.getLogger("QuoteLoader");
+    private final String guildID;
+    private ArrayList<Quote> quotes;
+    private HashMap<String, Quote> nameToQuote;
+    private TreeMap<String, Quote> sortedNameToQuote;
+    private QuoteSearchIndex searchIndex;
+    private FileTime fileModified;
+    private long fileLength;
+    private FileTime journalModified;
+    private long journalLength;
+    private long journalOffset;
+    private int journalEntries;
+    private final AtomicBoolean isCompactionScheduled = new AtomicBoolean(false);
+
+    protected GuildQuotes(String guildID)
+    {
+        this.guildID = guildID;
+        refresh();
+    }
+
+    public String getGuildID()
+    {
+        return guildID;
+    }
+
+    /**
+     * Gets the guild's quotes, in the order they were saved.
+     * @return a copy of the quotes list
+     */
+    public synchronized ArrayList<Quote> getQuotes()
+    {
+        refresh();
+        return new ArrayList<>(quotes);
+    }
+
+    /**
+     * Gets the number of quotes the guild has
+     * @return the quote count
+     */
+    public synchronized int size()
+    {
+        refresh();
+        return quotes.size();
+    }
+
+    /**
+     * Gets the quote with the name, ignoring case
+     * @param quoteName the name
+     * @return the quote, or null if there is no quote with that name
+     */
+    public synchronized Quote getQuoteByName(String quoteName)
+    {
+        refresh();
+        return nameToQuote.get(foldCase(quoteName));
+    }
+
+    /**
+     * Checks if a quote already has the name, ignoring case
+     * @param quoteName the name
+     * @return true if the name is taken
+     */
+    public synchronized boolean isQuoteNameTaken(String quoteName)
+    {
+        refresh();
+        return nameToQuote.containsKey(foldCase(quoteName));
+    }
+
+    /**
+     * Gets the quotes whose names start with the prefix, ignoring case.
+     * @param prefix the start of the name
+     * @param limit the maximum number of quotes to get
+     * @return the quotes, in alphabetical order
+     */
+    public synchronized ArrayList<Quote> getQuotesByPrefix(String prefix, int limit)
+    {
+        refresh();
+        String foldedPrefix = foldCase(prefix);
+        ArrayList<Quote> matches = new ArrayList<>();
+        for (Map.Entry<String, Quote> entry : sortedNameToQuote.tailMap(foldedPrefix).entrySet())
+        {
+            if (matches.size() >= limit || !entry.getKey().startsWith(foldedPrefix))
+            {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the quotes that best match the query, searching their names, authors and messages.
+     * @param query the text to search for
+     * @param limit the maximum number of quotes to get
+     * @return the matching quotes, best first
+     */
+    public synchronized ArrayList<Quote> search(String query, int limit)
+    {
+        refresh();
+        return searchIndex.search(query, limit);
+    }
+
+    /**
+     * Gets a quote at random
+     * @param random the random number generator to use
+     * @return the quote, or null if the guild has no quotes
+     */
+    public synchronized Quote getRandomQuote(Random random)
+    {
+        refresh();
+        return (quotes.size() > 0) ? quotes.get(random.nextInt(quotes.size())) : null;
+    }
+
+    /**
+     * Saves the message as a quote.
+     * @param message the message to quote
+     * @param quoteName the name to save it under
+     * @return the quote, or null if the name is taken
+     */
+    public Quote addQuote(Message message, String quoteName)
+    {
+        Quote quote;
+        if (message.getAttachments().size() > 0)
+        {
+            quote = new Quote(quoteName, message.getMember().getEffectiveName(), message.getContentDisplay(), message.getAttachments().get(0).getUrl(), message.getTimeCreated().toEpochSecond());
+        }
+        else
+        {
+            quote = new Quote(quoteName, message.getMember().getEffectiveName(), message.getContentDisplay(), message.getTimeCreated().toEpochSecond());
+        }
+        return write(JournalEntry.add(quote));
+    }
+
+    /**
+     * Deletes the quote with the name, ignoring case
+     * @param quoteName the name
+     * @return true if the quote was deleted, false if there is no quote with that name
+     */
+    public boolean deleteQuote(String quoteName)
+    {
+        return write(JournalEntry.delete(quoteName)) != null;
+    }
+
+    /**
+     * Renames the quote. The new name may differ from the old one only by case.
+     * @param originalQuoteName the quote's current name, ignoring case
+     * @param newQuoteName the new name
+     * @return the renamed quote, or null if there is no quote with the original name, or the new name is taken by another quote
+     */
+    public Quote renameQuote(String originalQuoteName, String newQuoteName)
+    {
+        return write(JournalEntry.rename(originalQuoteName, newQuoteName));
+    }
+
+    /**
+     * Makes the change and records it in the journal, with the guild locked so that no other module can make a change at the same time.
+     * @param entry the change
+     * @return the added, deleted or renamed quote, or null if the change couldn't be made
+     */
+    private synchronized Quote write(JournalEntry entry)
+    {
+        try (FileChannel lock = FileManager.lock(guildID))
+        {
+            update();
+            if (!isApplicable(entry))
+            {
+                return null;
+            }
+            journalOffset = FileManager.appendToJournal(guildID, entry, journalOffset);
+            journalEntries++;
+            updateJournalAttributes();
+            if (journalEntries >= COMPACTION_ENTRIES)
+            {
+                scheduleCompaction();
+            }
+            return apply(entry);
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to save quotes for guild "+guildID+".\n"+e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the change can be made to the quotes as they are now.
+     */
+    private boolean isApplicable(JournalEntry entry)
+    {
+        switch (entry.getOperation())
+        {
+            case ADD:
+                return entry.getQuote() != null && entry.getQuote().name != null && !nameToQuote.containsKey(foldCase(entry.getQuote().name));
+            case DELETE:
+                return nameToQuote.containsKey(foldCase(entry.getQuoteName()));
+            case RENAME:
+                Quote quote = nameToQuote.get(foldCase(entry.getQuoteName()));
+                Quote existingQuote = nameToQuote.get(foldCase(entry.getNewQuoteName()));
+                return quote != null && (existingQuote == null || existingQuote == quote);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Makes the change to the quotes in memory, if it can be made.
+     * @param entry the change
+     * @return the added, deleted or renamed quote, or null if the change couldn't be made
+     */
+    private Quote apply(JournalEntry entry)
+    {
+        if (!isApplicable(entry))
+        {
+            return null;
+        }
+        Quote quote;
+        switch (entry.getOperation())
+        {
+            case ADD:
+                quote = entry.getQuote();
+                quotes.add(quote);
+                index(quote);
+                searchIndex.add(quote);
+                return quote;
+            case DELETE:
+                quote = nameToQuote.get(foldCase(entry.getQuoteName()));
+                quotes.remove(quote);
+                unindex(quote);
+                searchIndex.remove(quote);
+                return quote;
+            case RENAME:
+                quote = nameToQuote.get(foldCase(entry.getQuoteName()));
+                unindex(quote);
+                searchIndex.remove(quote);
+                quote.name = entry.getNewQuoteName();
+                index(quote);
+                searchIndex.add(quote);
+                return quote;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Brings the quotes up to date if the files have changed since they were last read or written.
+     */
+    private void refresh()
+    {
+        if (quotes == null || isFileChanged())
+        {
+            try (FileChannel lock = FileManager.lock(guildID))
+            {
+                update();
+            }
+            catch (IOException e)
+            {
+                logger.error("Unable to lock quotes for guild "+guildID+".\n"+e.toString());
+                if (quotes == null)
+                {
+                    load();
+                }
+            }
+        }
+    }
+
+    private boolean isFileChanged()
+    {
+        BasicFileAttributes fileAttributes = FileManager.getFileAttributes(guildID);
+        BasicFileAttributes journalAttributes = FileManager.getJournalAttributes(guildID);
+        return !Objects.equals(fileModified, (fileAttributes != null) ? fileAttributes.lastModifiedTime() : null)
+                || fileLength != ((fileAttributes != null) ? fileAttributes.size() : 0)
+                || !Objects.equals(journalModified, (journalAttributes != null) ? journalAttributes.lastModifiedTime() : null)
+                || journalLength != ((journalAttributes != null) ? journalAttributes.size() : 0);
+    }
+
+    /**
+     * Reads the journal entries written since the journal was last read, or reloads everything if the journal has been
+     * compacted. The guild must be locked.
+     */
+    private void update()
+    {
+        BasicFileAttributes fileAttributes = FileManager.getFileAttributes(guildID);
+        BasicFileAttributes journalAttributes = FileManager.getJournalAttributes(guildID);
+        if (quotes == null
+                || !Objects.equals(fileModified, (fileAttributes != null) ? fileAttributes.lastModifiedTime() : null)
+                || fileLength != ((fileAttributes != null) ? fileAttributes.size() : 0)
+                || ((journalAttributes != null) ? journalAttributes.size() : 0) < journalOffset)
+        {
+            load();
+        }
+        ArrayList<JournalEntry> entries = new ArrayList<>();
+        journalOffset = FileManager.readJournal(guildID, journalOffset, entries);
+        journalEntries += entries.size();
+        for (JournalEntry entry : entries)
+        {
+            apply(entry);
+        }
+        updateJournalAttributes();
+        if (journalEntries >= COMPACTION_ENTRIES)
+        {
+            scheduleCompaction();
+        }
+    }
+
+    private void load()
+    {
+        updateFileAttributes();
+        journalOffset = 0;
+        journalEntries = 0;
+        quotes = FileManager.readQuotes(guildID);
+        quotes.removeIf(quote -> quote == null || quote.name == null);
+        nameToQuote = new HashMap<>(quotes.size()*2);
+        sortedNameToQuote = new TreeMap<>();
+        searchIndex = new QuoteSearchIndex();
+        for (Quote quote : quotes)
+        {
+            index(quote);
+            searchIndex.add(quote);
+        }
+    }
+
+    private void scheduleCompaction()
+    {
+        if (isCompactionScheduled.compareAndSet(false, true))
+        {
+            compactionExecutor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Writes out all quotes to the quotes file and clears the journal, unless another module has done so already.
+     */
+    private synchronized void compact()
+    {
+        try (FileChannel lock = FileManager.lock(guildID))
+        {
+            update();
+            if (journalEntries >= COMPACTION_ENTRIES)
+            {
+                FileManager.saveQuotes(guildID, quotes);
+                updateFileAttributes();
+                updateJournalAttributes();
+                journalOffset = 0;
+                journalEntries = 0;
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Unable to compact quotes for guild "+guildID+".\n"+e.toString());
+        }
+        finally
+        {
+            isCompactionScheduled.set(false);
+        }
+    }
+
+    private void updateFileAttributes()
+    {
+        BasicFileAttributes attributes = FileManager.getFileAttributes(guildID);
+        fileModified = (attributes != null) ? attributes.lastModifiedTime() : null;
+        fileLength = (attributes != null) ? attributes.size() : 0;
+    }
+
+    private void updateJournalAttributes()
+    {
+        BasicFileAttributes attributes = FileManager.getJournalAttributes(guildID);
+        journalModified = (attributes != null) ? attributes.lastModifiedTime() : null;
+        journalLength = (attributes != null) ? attributes.size() : 0;
+    }
+
+    /**
+     * Adds the quote to the name indexes. If an earlier quote already has the name, it keeps it.
+     */
+    private void index(Quote quote)
+    {
+        String foldedName = foldCase(quote.name);
+        if (nameToQuote.putIfAbsent(foldedName, quote) == null)
+        {
+            sortedNameToQuote.put(foldedName, quote);
+        }
+    }
+
+    /**
+     * Removes the quote from the name indexes, handing its name to any other quote that shares it.
+     */
+    private void unindex(Quote quote)
+    {
+        String foldedName = foldCase(quote.name);
+        if (nameToQuote.get(foldedName) == quote)
+        {
+            nameToQuote.remove(foldedName);
+            sortedNameToQuote.remove(foldedName);
+            for (Quote otherQuote : quotes)
+            {
+                if (otherQuote != quote && foldCase(otherQuote.name).equals(foldedName))
+                {
+                    index(otherQuote);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String foldCase(String name)
+    {
+        return name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,62 @@
+package com.Zazsona.QuoteCore;
+
+/**
+ * A single change to a guild's quotes, as recorded in the guild's quotes journal.
+ */
+public class JournalEntry
+{
+    public enum Operation
+    {
+        ADD,
+        DELETE,
+        RENAME
+    }
+
+    private Operation operation;
+    private String quoteName;
+    private String newQuoteName;
+    private Quote quote;
+
+    private JournalEntry(Operation operation, String quoteName, String newQuoteName, Quote quote)
+    {
+        this.operation = operation;
+        this.quoteName = quoteName;
+        this.newQuoteName = newQuoteName;
+        this.quote = quote;
+    }
+
+    public static JournalEntry add(Quote quote)
+    {
+        return new JournalEntry(Operation.ADD, quote.name, null, quote);
+    }
+
+    public static JournalEntry delete(String quoteName)
+    {
+        return new JournalEntry(Operation.DELETE, quoteName, null, null);
+    }
+
+    public static JournalEntry rename(String quoteName, String newQuoteName)
+    {
+        return new JournalEntry(Operation.RENAME, quoteName, newQuoteName, null);
+    }
+
+    public Operation getOperation()
+    {
+        return operation;
+    }
+
+    public String getQuoteName()
+    {
+        return quoteName;
+    }
+
+    public String getNewQuoteName()
+    {
+        return newQuoteName;
+    }
+
+    public Quote getQuote()
+    {
+        return quote;
+    }
+}
@@ -1,4 +1,4 @@
-package com.Zazsona.Quote;
+package com.Zazsona.QuoteCore;
 
 import java.io.Serializable;
 
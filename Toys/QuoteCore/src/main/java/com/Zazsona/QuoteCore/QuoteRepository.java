@@ -0,0 +1,42 @@
+package com.Zazsona.QuoteCore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the quotes of the most recently used guilds in memory, so that commands don't each have to read the quotes file.
+ */
+public class QuoteRepository
+{
+    /**
+     * The number of guilds to keep quotes for before the least recently used are dropped.
+     */
+    private static final int CACHED_GUILDS = 100;
+    private static final LinkedHashMap<String, GuildQuotes> guildIDToQuotes = new LinkedHashMap<String, GuildQuotes>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GuildQuotes> eldest)
+        {
+            return size() > CACHED_GUILDS;
+        }
+    };
+
+    /**
+     * Gets the guild's quotes, loading them if they aren't already in memory.
+     * @param guildID the guild's ID
+     * @return the guild's quotes
+     */
+    public static GuildQuotes getGuildQuotes(String guildID)
+    {
+        synchronized (guildIDToQuotes)
+        {
+            GuildQuotes guildQuotes = guildIDToQuotes.get(guildID);
+            if (guildQuotes == null)
+            {
+                guildQuotes = new GuildQuotes(guildID);
+                guildIDToQuotes.put(guildID, guildQuotes);
+            }
+            return guildQuotes;
+        }
+    }
+}
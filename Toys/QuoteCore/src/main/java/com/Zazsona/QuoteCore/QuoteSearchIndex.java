@@ -0,0 +1,349 @@
+package com.Zazsona.QuoteCore;
+
+import java.util.*;
+
+/**
+ * An inverted index over quotes' names, authors and messages, for ranked full-text search.<br>
+ * Each quote is given a document number, and each term keeps a posting list of the documents containing it in
+ * ascending order, alongside how strongly each document matches. Quotes are added and removed individually, so the
+ * index never needs to be rebuilt.<br>
+ * Removed quotes leave their document numbers unused, as new quotes are always numbered last to keep the posting lists in
+ * order. Once the unused numbers outnumber the quotes, the documents are renumbered in the same order to close the gaps.
+ */
+public class QuoteSearchIndex
+{
+    /**
+     * How much a term counts for each time it appears in the quote's name.
+     */
+    private static final int NAME_WEIGHT = 3;
+    /**
+     * How much a term counts for each time it appears as the quote's author.
+     */
+    private static final int USER_WEIGHT = 2;
+    /**
+     * How much a term counts for each time it appears in the quote's message.
+     */
+    private static final int MESSAGE_WEIGHT = 1;
+    private final HashMap<String, PostingList> termToPostings = new HashMap<>();
+    private final IdentityHashMap<Quote, Integer> quoteToDocument = new IdentityHashMap<>();
+    private final ArrayList<Quote> documents = new ArrayList<>();
+    /**
+     * The number of document numbers left unused by removed quotes.
+     */
+    private int removedDocuments = 0;
+    private float[] scores = new float[0];
+    private int[] matchedTerms = new int[0];
+    private int[] matchedDocuments = new int[0];
+
+    private static class PostingList
+    {
+        private int[] documents = new int[2];
+        private int[] weights = new int[2];
+        private int size = 0;
+
+        /**
+         * Adds the document, which must be numbered higher than any already in the list.
+         */
+        private void add(int document, int weight)
+        {
+            if (size == documents.length)
+            {
+                documents = Arrays.copyOf(documents, size*2);
+                weights = Arrays.copyOf(weights, size*2);
+            }
+            documents[size] = document;
+            weights[size] = weight;
+            size++;
+        }
+
+        private void remove(int document)
+        {
+            int index = Arrays.binarySearch(documents, 0, size, document);
+            if (index >= 0)
+            {
+                System.arraycopy(documents, index+1, documents, index, size-index-1);
+                System.arraycopy(weights, index+1, weights, index, size-index-1);
+                size--;
+            }
+        }
+
+        /**
+         * Renumbers the documents. The new numbers must be in the same order as the old, so the list stays in order.
+         */
+        private void renumber(int[] oldToNewDocument)
+        {
+            for (int i = 0; i<size; i++)
+            {
+                documents[i] = oldToNewDocument[documents[i]];
+            }
+        }
+    }
+
+    /**
+     * Adds the quote to the index. If it is already indexed, nothing happens.
+     * @param quote the quote
+     */
+    public void add(Quote quote)
+    {
+        if (quoteToDocument.containsKey(quote))
+        {
+            return;
+        }
+        int document = documents.size();
+        documents.add(quote);
+        quoteToDocument.put(quote, document);
+        for (Map.Entry<String, Integer> entry : getTermWeights(quote).entrySet())
+        {
+            termToPostings.computeIfAbsent(entry.getKey(), (k) -> new PostingList()).add(document, entry.getValue());
+        }
+    }
+
+    /**
+     * Removes the quote from the index. This must be called before the quote is changed, and the quote added back afterwards.
+     * @param quote the quote
+     */
+    public void remove(Quote quote)
+    {
+        Integer document = quoteToDocument.remove(quote);
+        if (document == null)
+        {
+            return;
+        }
+        documents.set(document, null);
+        for (String term : getTermWeights(quote).keySet())
+        {
+            PostingList postings = termToPostings.get(term);
+            if (postings != null)
+            {
+                postings.remove(document);
+                if (postings.size == 0)
+                {
+                    termToPostings.remove(term);
+                }
+            }
+        }
+        removedDocuments++;
+        if (removedDocuments > quoteToDocument.size())
+        {
+            compact();
+        }
+    }
+
+    /**
+     * Renumbers the documents from 0 in their current order, so the numbers left by removed quotes can be used again.
+     */
+    private void compact()
+    {
+        int[] oldToNewDocument = new int[documents.size()];
+        int newDocument = 0;
+        for (int document = 0; document<documents.size(); document++)
+        {
+            Quote quote = documents.get(document);
+            if (quote != null)
+            {
+                oldToNewDocument[document] = newDocument;
+                documents.set(newDocument, quote);
+                quoteToDocument.put(quote, newDocument);
+                newDocument++;
+            }
+        }
+        documents.subList(newDocument, documents.size()).clear();
+        documents.trimToSize();
+        for (PostingList postings : termToPostings.values())
+        {
+            postings.renumber(oldToNewDocument);
+        }
+        removedDocuments = 0;
+        scores = new float[0];
+        matchedTerms = new int[0];
+        matchedDocuments = new int[0];
+    }
+
+    public int size()
+    {
+        return quoteToDocument.size();
+    }
+
+    /**
+     * Finds the quotes that best match the query. Quotes are scored on each query term they contain, with rarer terms
+     * and matches in the name counting for more, and quotes containing more of the query's terms are ranked above those containing fewer.
+     * @param query the text to search for
+     * @param limit the maximum number of quotes to get
+     * @return the matching quotes, best first
+     */
+    public ArrayList<Quote> search(String query, int limit)
+    {
+        LinkedHashSet<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        ArrayList<Quote> results = new ArrayList<>();
+        if (queryTerms.isEmpty() || limit <= 0)
+        {
+            return results;
+        }
+        if (scores.length < documents.size())
+        {
+            scores = new float[documents.size()];
+            matchedTerms = new int[documents.size()];
+            matchedDocuments = new int[documents.size()];
+        }
+
+        int matchedCount = 0;
+        for (String term : queryTerms)
+        {
+            PostingList postings = termToPostings.get(term);
+            if (postings == null)
+            {
+                continue;
+            }
+            float idf = (float) Math.log(1.0+((double) size()/postings.size));
+            for (int i = 0; i<postings.size; i++)
+            {
+                int document = postings.documents[i];
+                if (matchedTerms[document] == 0)
+                {
+                    matchedDocuments[matchedCount++] = document;
+                }
+                matchedTerms[document]++;
+                scores[document] += postings.weights[i]*idf;
+            }
+        }
+
+        int[] topDocuments = new int[Math.min(limit, matchedCount)];
+        int topCount = 0;
+        for (int i = 0; i<matchedCount; i++)
+        {
+            int document = matchedDocuments[i];
+            if (topCount < topDocuments.length)
+            {
+                topDocuments[topCount] = document;
+                siftUp(topDocuments, topCount++);
+            }
+            else if (compareMatch(document, topDocuments[0]) > 0)
+            {
+                topDocuments[0] = document;
+                siftDown(topDocuments, topCount);
+            }
+        }
+        while (topCount > 0)
+        {
+            results.add(documents.get(topDocuments[0]));
+            topDocuments[0] = topDocuments[--topCount];
+            siftDown(topDocuments, topCount);
+        }
+        Collections.reverse(results);
+
+        for (int i = 0; i<matchedCount; i++)
+        {
+            scores[matchedDocuments[i]] = 0;
+            matchedTerms[matchedDocuments[i]] = 0;
+        }
+        return results;
+    }
+
+    /**
+     * Moves the document at the index up the heap until its parent is a weaker match.
+     */
+    private void siftUp(int[] heap, int index)
+    {
+        while (index > 0)
+        {
+            int parent = (index-1)/2;
+            if (compareMatch(heap[index], heap[parent]) >= 0)
+            {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    /**
+     * Moves the document at the top of the heap down until both its children are stronger matches.
+     */
+    private void siftDown(int[] heap, int size)
+    {
+        int index = 0;
+        while (index*2+1 < size)
+        {
+            int child = index*2+1;
+            if (child+1 < size && compareMatch(heap[child+1], heap[child]) < 0)
+            {
+                child++;
+            }
+            if (compareMatch(heap[index], heap[child]) <= 0)
+            {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int[] heap, int indexA, int indexB)
+    {
+        int document = heap[indexA];
+        heap[indexA] = heap[indexB];
+        heap[indexB] = document;
+    }
+
+    /**
+     * Compares how well two documents matched the last query, with the weaker match first.
+     */
+    private int compareMatch(int documentA, int documentB)
+    {
+        if (matchedTerms[documentA] != matchedTerms[documentB])
+        {
+            return Integer.compare(matchedTerms[documentA], matchedTerms[documentB]);
+        }
+        if (scores[documentA] != scores[documentB])
+        {
+            return Float.compare(scores[documentA], scores[documentB]);
+        }
+        return Integer.compare(documentB, documentA);
+    }
+
+    private HashMap<String, Integer> getTermWeights(Quote quote)
+    {
+        HashMap<String, Integer> termWeights = new HashMap<>();
+        addTermWeights(termWeights, quote.name, NAME_WEIGHT);
+        addTermWeights(termWeights, quote.user, USER_WEIGHT);
+        addTermWeights(termWeights, quote.message, MESSAGE_WEIGHT);
+        return termWeights;
+    }
+
+    private void addTermWeights(HashMap<String, Integer> termWeights, String text, int weight)
+    {
+        for (String term : tokenize(text))
+        {
+            termWeights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * Splits the text into lower case terms of letters and digits.
+     * @param text the text
+     * @return the terms, in the order they appear
+     */
+    public static ArrayList<String> tokenize(String text)
+    {
+        ArrayList<String> terms = new ArrayList<>();
+        if (text == null)
+        {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++)
+        {
+            boolean isTermChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTermChar && start == -1)
+            {
+                start = i;
+            }
+            else if (!isTermChar && start != -1)
+            {
+                terms.add(text.substring(start, i).toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -1,6 +1,7 @@
 package com.Zazsona.QuoteDelete;
 
-import com.Zazsona.Quote.FileManager;
+import com.Zazsona.QuoteCore.GuildQuotes;
+import com.Zazsona.QuoteCore.QuoteRepository;
 import commands.CmdUtil;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -20,8 +21,8 @@ public class DeleteQuote extends ModuleCommand
 
         if (parameters.length > 1)
         {
-            FileManager fm = new FileManager(msgEvent.getGuild().getId());
-            boolean success = fm.deleteQuote(msgEvent.getGuild().getId(), parameters[1]);
+            GuildQuotes guildQuotes = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId());
+            boolean success = guildQuotes.deleteQuote(parameters[1]);
 
             EmbedBuilder embed = new EmbedBuilder();
             embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
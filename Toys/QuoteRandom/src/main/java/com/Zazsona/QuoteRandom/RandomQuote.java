@@ -1,23 +1,22 @@
 package com.Zazsona.QuoteRandom;
 
-import com.Zazsona.Quote.FileManager;
-import com.Zazsona.Quote.Quote;
+import com.Zazsona.QuoteCore.Quote;
+import com.Zazsona.QuoteCore.QuoteRepository;
 import module.ModuleCommand;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 public class RandomQuote extends ModuleCommand
 {
+    private static final Random random = new Random();
 
     public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
     {
-        FileManager fm = new FileManager(msgEvent.getGuild().getId());
-        ArrayList<Quote> quotes = fm.getQuotes();
-        if (quotes.size() > 0)
+        Quote quote = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId()).getRandomQuote(random);
+        if (quote != null)
         {
-            new RecallQuote().run(msgEvent, new String[]{"", quotes.get(new Random().nextInt(quotes.size())).name});
+            new RecallQuote().sendQuote(msgEvent, quote);
         }
         else
         {
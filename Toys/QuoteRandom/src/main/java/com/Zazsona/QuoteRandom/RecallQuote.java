@@ -1,7 +1,6 @@
 package com.Zazsona.QuoteRandom;
 
-import com.Zazsona.Quote.FileManager;
-import com.Zazsona.Quote.Quote;
+import com.Zazsona.QuoteCore.Quote;
 import commands.CmdUtil;
 import configuration.SettingsUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -15,38 +14,15 @@ import java.time.format.DateTimeFormatter;
 public class RecallQuote
 {
 
-    public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
+    public void sendQuote(GuildMessageReceivedEvent msgEvent, Quote quote)
     {
-        if (parameters.length > 2)
+        EmbedBuilder embed = formatQuote(msgEvent.getGuild().getSelfMember(), quote);
+        if (quote.attachmentUrl != null)
         {
-            for (int i = 2; i<parameters.length; i++)
-            {
-                parameters[1] += " "+parameters[i];
-            }
+            embed.setTitle(quote.name, quote.attachmentUrl);
+            embed.setImage(quote.attachmentUrl);
         }
-
-        if (parameters.length >= 2)
-        {
-            FileManager fm = new FileManager(msgEvent.getGuild().getId());
-            Quote quote = fm.getQuoteByName(parameters[1]);
-            EmbedBuilder embed = new EmbedBuilder();
-            if (quote != null)
-            {
-                embed = formatQuote(msgEvent.getGuild().getSelfMember(), quote);
-                if (quote.attachmentUrl != null)
-                {
-                    embed.setTitle(quote.name, quote.attachmentUrl);
-                    embed.setImage(quote.attachmentUrl);
-                }
-            }
-            else
-            {
-                embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-                embed.setDescription("Error: Unable to locate quote.");
-            }
-            msgEvent.getChannel().sendMessage(embed.build()).queue();
-        }
-
+        msgEvent.getChannel().sendMessage(embed.build()).queue();
     }
 
     private EmbedBuilder formatQuote(Member selfMember, Quote quote)
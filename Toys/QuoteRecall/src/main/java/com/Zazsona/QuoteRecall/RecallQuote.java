@@ -1,7 +1,8 @@
 package com.Zazsona.QuoteRecall;
 
-import com.Zazsona.Quote.FileManager;
-import com.Zazsona.Quote.Quote;
+import com.Zazsona.QuoteCore.GuildQuotes;
+import com.Zazsona.QuoteCore.Quote;
+import com.Zazsona.QuoteCore.QuoteRepository;
 import commands.CmdUtil;
 import configuration.SettingsUtil;
 import module.ModuleCommand;
@@ -12,9 +13,11 @@ import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 
 public class RecallQuote extends ModuleCommand
 {
+    private static final int MAX_SUGGESTIONS = 5;
 
     public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
     {
@@ -28,8 +31,8 @@ public class RecallQuote extends ModuleCommand
 
         if (parameters.length >= 2)
         {
-            FileManager fm = new FileManager(msgEvent.getGuild().getId());
-            Quote quote = fm.getQuoteByName(parameters[1]);
+            GuildQuotes guildQuotes = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId());
+            Quote quote = guildQuotes.getQuoteByName(parameters[1]);
             EmbedBuilder embed = new EmbedBuilder();
             if (quote != null)
             {
@@ -50,7 +53,17 @@ public class RecallQuote extends ModuleCommand
             else
             {
                 embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-                embed.setDescription("Error: Unable to locate quote.");
+                StringBuilder descBuilder = new StringBuilder("Error: Unable to locate quote.");
+                ArrayList<Quote> suggestions = guildQuotes.getQuotesByPrefix(parameters[1], MAX_SUGGESTIONS);
+                if (suggestions.size() > 0)
+                {
+                    descBuilder.append("\n\nDid you mean:");
+                    for (Quote suggestion : suggestions)
+                    {
+                        descBuilder.append("\n**").append(suggestion.name).append("**");
+                    }
+                }
+                embed.setDescription(descBuilder.toString());
             }
             msgEvent.getChannel().sendMessage(embed.build()).queue();
         }
@@ -1,7 +1,8 @@
 package com.Zazsona.QuoteRename;
 
-import com.Zazsona.Quote.FileManager;
-import com.Zazsona.Quote.Quote;
+import com.Zazsona.QuoteCore.GuildQuotes;
+import com.Zazsona.QuoteCore.Quote;
+import com.Zazsona.QuoteCore.QuoteRepository;
 import commands.CmdUtil;
 import configuration.SettingsUtil;
 import jara.MessageManager;
@@ -24,11 +25,11 @@ public class RenameQuote extends ModuleCommand
         {
             EmbedBuilder embed = new EmbedBuilder();
             embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-            FileManager fm = new FileManager(msgEvent.getGuild().getId());
+            GuildQuotes guildQuotes = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId());
             ArrayList<Quote> foundQuotes = new ArrayList<>();
             for (int i = 2; i<parameters.length; i++)
             {
-                Quote potentialQuote = fm.getQuoteByName(parameters[1]);
+                Quote potentialQuote = guildQuotes.getQuoteByName(parameters[1]);
                 if (potentialQuote != null)
                 {
                     foundQuotes.add(potentialQuote);
@@ -47,14 +48,16 @@ public class RenameQuote extends ModuleCommand
                     msgEvent.getChannel().sendMessage(embed.build()).queue();
                     return;
                 }
-                if (fm.isQuoteNameTaken(newName))
+                if (guildQuotes.isQuoteNameTaken(newName))
                 {
                     embed.setDescription("That name has already been taken.");
                     msgEvent.getChannel().sendMessage(embed.build()).queue();
                     return;
                 }
-                fm.renameQuote(msgEvent.getGuild().getId(), quoteToRename.name, newName);
-                embed.setDescription("Successfully renamed quote to "+newName);
+                if (guildQuotes.renameQuote(quoteToRename.name, newName) != null)
+                    embed.setDescription("Successfully renamed quote to "+newName);
+                else
+                    embed.setDescription("Error: Unable to rename quote. It may have been changed by someone else.");
                 msgEvent.getChannel().sendMessage(embed.build()).queue();
             }
         }
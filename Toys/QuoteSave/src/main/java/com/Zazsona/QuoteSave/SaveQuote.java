@@ -1,7 +1,8 @@
 package com.Zazsona.QuoteSave;
 
-import com.Zazsona.Quote.FileManager;
-import com.Zazsona.Quote.Quote;
+import com.Zazsona.QuoteCore.GuildQuotes;
+import com.Zazsona.QuoteCore.Quote;
+import com.Zazsona.QuoteCore.QuoteRepository;
 import commands.CmdUtil;
 import configuration.SettingsUtil;
 import module.ModuleCommand;
@@ -55,8 +56,8 @@ public class SaveQuote extends ModuleCommand
             }
             else
             {
-                FileManager fm = new FileManager(msgEvent.getGuild().getId());
-                Quote quote = fm.addQuote(message, parameters[2]);
+                GuildQuotes guildQuotes = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId());
+                Quote quote = guildQuotes.addQuote(message, parameters[2]);
                 if (quote != null)
                     embed.setDescription("Successfully saved quote "+quote.name+" by "+message.getMember().getEffectiveName()+"!");
                 else
@@ -0,0 +1,58 @@
+package com.Zazsona.QuoteSearch;
+
+import com.Zazsona.QuoteCore.Quote;
+import com.Zazsona.QuoteCore.QuoteRepository;
+import commands.CmdUtil;
+import module.ModuleCommand;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
+
+import java.util.ArrayList;
+
+public class SearchQuotes extends ModuleCommand
+{
+    private static final int MAX_RESULTS = 10;
+    private static final int MAX_PREVIEW_LENGTH = 60;
+
+    public void run(GuildMessageReceivedEvent msgEvent, String... parameters)
+    {
+        if (parameters.length > 2)
+        {
+            for (int i = 2; i<parameters.length; i++)
+            {
+                parameters[1] += " "+parameters[i];
+            }
+        }
+
+        if (parameters.length >= 2)
+        {
+            EmbedBuilder embed = new EmbedBuilder();
+            embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
+            ArrayList<Quote> quotes = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId()).search(parameters[1], MAX_RESULTS);
+            if (quotes.size() > 0)
+            {
+                StringBuilder listBuilder = new StringBuilder();
+                for (Quote quote : quotes)
+                {
+                    listBuilder.append("**").append(quote.name).append("** - ").append(quote.user).append(": ").append(getPreview(quote.message)).append("\n");
+                }
+                embed.setDescription(listBuilder.toString());
+            }
+            else
+            {
+                embed.setDescription("No quotes matched your search.");
+            }
+            msgEvent.getChannel().sendMessage(embed.build()).queue();
+        }
+        else
+        {
+            CmdUtil.sendHelpInfo(msgEvent, getModuleAttributes().getKey());
+        }
+    }
+
+    private String getPreview(String message)
+    {
+        String preview = (message != null) ? message.replace("\n", " ") : "";
+        return (preview.length() > MAX_PREVIEW_LENGTH) ? preview.substring(0, MAX_PREVIEW_LENGTH-3)+"..." : preview;
+    }
+}
@@ -1,7 +1,8 @@
 package com.Zazsona.QuotesList;
 
-import com.Zazsona.Quote.FileManager;
-import com.Zazsona.Quote.Quote;
+import com.Zazsona.QuoteCore.GuildQuotes;
+import com.Zazsona.QuoteCore.Quote;
+import com.Zazsona.QuoteCore.QuoteRepository;
 import commands.CmdUtil;
 import configuration.SettingsUtil;
 import module.ModuleCommand;
@@ -23,8 +24,8 @@ public class ListQuotes extends ModuleCommand
         int listingsPerPage = 25;
         EmbedBuilder embed = new EmbedBuilder();
         embed.setColor(CmdUtil.getHighlightColour(msgEvent.getGuild().getSelfMember()));
-        FileManager fm = new FileManager(msgEvent.getGuild().getId());
-        ArrayList<Quote> quotes = fm.getQuotes();
+        GuildQuotes guildQuotes = QuoteRepository.getGuildQuotes(msgEvent.getGuild().getId());
+        ArrayList<Quote> quotes = guildQuotes.getQuotes();
 
         if (quotes.size() > 0)
         {
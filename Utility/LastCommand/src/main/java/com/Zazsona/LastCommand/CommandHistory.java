@@ -0,0 +1,294 @@
+package com.Zazsona.LastCommand;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the last command of each user, up to a maximum number of users and for a limited time.<br>
+ * Users are spread over segments, each locked separately, which keep their commands in an open addressed table keyed
+ * by the user's ID, so there is no boxed key or map entry per user. Once a segment is full, room is made by the clock
+ * algorithm: a command that has been replayed since the hand last passed it is spared once, and any expired command
+ * found along the way is taken first.
+ */
+public class CommandHistory
+{
+    private static final int SEGMENT_COUNT = 16;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final long timeToLiveMillis;
+    private final HistoryStats stats = new HistoryStats();
+    private final LongAdder estimatedEntryBytes = new LongAdder();
+
+    /**
+     * @param maxEntries the most users to hold a command for
+     * @param timeToLiveMillis how long a command can be replayed for
+     */
+    public CommandHistory(int maxEntries, long timeToLiveMillis)
+    {
+        this.timeToLiveMillis = timeToLiveMillis;
+        int segmentCapacity = Math.max(1, (maxEntries+SEGMENT_COUNT-1)/SEGMENT_COUNT);
+        for (int i = 0; i<SEGMENT_COUNT; i++)
+        {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets a user's last command
+     * @param userID the user's ID
+     * @return the command, or null if there is none that can still be replayed
+     */
+    public HistoricCommand get(long userID)
+    {
+        long hash = hash(userID);
+        HistoricCommand command = getSegment(hash).get(userID, hash, System.currentTimeMillis());
+        if (command == null)
+        {
+            stats.recordMiss();
+        }
+        else
+        {
+            stats.recordHit();
+        }
+        return command;
+    }
+
+    /**
+     * Sets a user's last command, replacing any before it
+     * @param userID the user's ID
+     * @param command the command
+     */
+    public void put(long userID, HistoricCommand command)
+    {
+        long hash = hash(userID);
+        getSegment(hash).put(userID, hash, command, System.currentTimeMillis());
+    }
+
+    /**
+     * Removes the commands that can no longer be replayed.
+     */
+    public void removeExpired()
+    {
+        long now = System.currentTimeMillis();
+        for (Segment segment : segments)
+        {
+            segment.removeExpired(now);
+        }
+    }
+
+    /**
+     * Gets the number of users with a command held
+     * @return the user count
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Segment segment : segments)
+        {
+            size += segment.getSize();
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the heap held by the history, including the tables, which are allocated up front.
+     * @return the estimate, in bytes
+     */
+    public long getEstimatedBytes()
+    {
+        long bytes = estimatedEntryBytes.sum();
+        for (Segment segment : segments)
+        {
+            bytes += segment.getTableBytes();
+        }
+        return bytes;
+    }
+
+    public HistoryStats getStats()
+    {
+        return stats;
+    }
+
+    private Segment getSegment(long hash)
+    {
+        return segments[(int) (hash >>> 60)];
+    }
+
+    /**
+     * Spreads the bits of an ID. Snowflake IDs are mostly timestamp, so their low bits alone would cluster.
+     */
+    private static long hash(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private class Segment
+    {
+        private final int capacity;
+        private final int mask;
+        private final long[] keys;
+        private final HistoricCommand[] values;
+        private final boolean[] referenced;
+        private int size;
+        private int hand;
+
+        private Segment(int capacity)
+        {
+            this.capacity = capacity;
+            int tableSize = Integer.highestOneBit(capacity*2-1)*2; //Keeps the table at most half full, for short probes.
+            this.mask = tableSize-1;
+            this.keys = new long[tableSize];
+            this.values = new HistoricCommand[tableSize];
+            this.referenced = new boolean[tableSize];
+        }
+
+        private synchronized HistoricCommand get(long key, long hash, long now)
+        {
+            int index = find(key, hash);
+            if (index == -1)
+            {
+                return null;
+            }
+            if (isExpired(values[index], now))
+            {
+                remove(index);
+                stats.recordExpiration();
+                return null;
+            }
+            referenced[index] = true;
+            return values[index];
+        }
+
+        private synchronized void put(long key, long hash, HistoricCommand command, long now)
+        {
+            int index = find(key, hash);
+            if (index != -1)
+            {
+                estimatedEntryBytes.add(command.getEstimatedBytes()-values[index].getEstimatedBytes());
+                values[index] = command;
+                referenced[index] = false;
+                return;
+            }
+            if (size >= capacity)
+            {
+                evict(now);
+            }
+            index = (int) hash & mask;
+            while (values[index] != null)
+            {
+                index = (index+1) & mask;
+            }
+            keys[index] = key;
+            values[index] = command;
+            referenced[index] = false;
+            size++;
+            estimatedEntryBytes.add(command.getEstimatedBytes());
+        }
+
+        private synchronized void removeExpired(long now)
+        {
+            int index = 0;
+            while (index < values.length)
+            {
+                if (values[index] != null && isExpired(values[index], now))
+                {
+                    remove(index);
+                    stats.recordExpiration();
+                    continue; //Another command may have been moved into this slot.
+                }
+                index++;
+            }
+        }
+
+        private synchronized int getSize()
+        {
+            return size;
+        }
+
+        private long getTableBytes()
+        {
+            return 3*16+values.length*(8L+4L+1L);
+        }
+
+        private int find(long key, long hash)
+        {
+            int index = (int) hash & mask;
+            while (values[index] != null)
+            {
+                if (keys[index] == key)
+                {
+                    return index;
+                }
+                index = (index+1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Removes one command, sweeping the clock hand until it finds one that is expired or has not been replayed since it last passed.
+         */
+        private void evict(long now)
+        {
+            while (true)
+            {
+                hand = (hand+1) & mask;
+                HistoricCommand command = values[hand];
+                if (command == null)
+                {
+                    continue;
+                }
+                if (isExpired(command, now))
+                {
+                    remove(hand);
+                    stats.recordExpiration();
+                    return;
+                }
+                if (referenced[hand])
+                {
+                    referenced[hand] = false;
+                    continue;
+                }
+                remove(hand);
+                stats.recordEviction();
+                return;
+            }
+        }
+
+        /**
+         * Removes the command in a slot, shifting back any that probed past it so that lookups still find them.
+         */
+        private void remove(int index)
+        {
+            estimatedEntryBytes.add(-values[index].getEstimatedBytes());
+            values[index] = null;
+            size--;
+            int next = index;
+            while (true)
+            {
+                next = (next+1) & mask;
+                if (values[next] == null)
+                {
+                    return;
+                }
+                int home = (int) hash(keys[next]) & mask;
+                boolean canMove = (index <= next) ? (home <= index || home > next) : (home <= index && home > next);
+                if (canMove)
+                {
+                    keys[index] = keys[next];
+                    values[index] = values[next];
+                    referenced[index] = referenced[next];
+                    values[next] = null;
+                    index = next;
+                }
+            }
+        }
+
+        private boolean isExpired(HistoricCommand command, long now)
+        {
+            return now-command.getCreatedMillis() >= timeToLiveMillis;
+        }
+    }
+}
@@ -3,28 +3,57 @@ package com.Zazsona.LastCommand;
 import jara.ModuleAttributes;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
+/**
+ * A command a user ran. Only the IDs of where it was run are kept, rather than the event, so the message and everything
+ * it references can be collected once the command is done. A replay is run against the event that asked for it.
+ */
 public class HistoricCommand
 {
-    private GuildMessageReceivedEvent msgEvent;
-    private ModuleAttributes attributes;
-    private String[] parameters;
+    private final long guildID;
+    private final long channelID;
+    private final long messageID;
+    private final ModuleAttributes attributes;
+    private final String[] parameters;
+    private final long createdMillis;
 
     public HistoricCommand(GuildMessageReceivedEvent msgEvent, ModuleAttributes attributes)
     {
-        this.msgEvent = msgEvent;
+        this.guildID = msgEvent.getGuild().getIdLong();
+        this.channelID = msgEvent.getChannel().getIdLong();
+        this.messageID = msgEvent.getMessageIdLong();
         this.attributes = attributes;
-        String msgContent = msgEvent.getMessage().getContentRaw();
-        parameters = msgContent.split(" ");
+        this.parameters = msgEvent.getMessage().getContentRaw().split(" ");
+        this.createdMillis = System.currentTimeMillis();
     }
 
     /**
-     * Gets ownerId
+     * Gets the ID of the guild the command was run in
      *
-     * @return ownerId
+     * @return the guild ID
      */
-    public GuildMessageReceivedEvent getMsgEvent()
+    public long getGuildID()
     {
-        return msgEvent;
+        return guildID;
+    }
+
+    /**
+     * Gets the ID of the channel the command was run in
+     *
+     * @return the channel ID
+     */
+    public long getChannelID()
+    {
+        return channelID;
+    }
+
+    /**
+     * Gets the ID of the message that ran the command
+     *
+     * @return the message ID
+     */
+    public long getMessageID()
+    {
+        return messageID;
     }
 
     /**
@@ -46,4 +75,29 @@ public class HistoricCommand
     {
         return parameters;
     }
+
+    /**
+     * Gets when the command was run
+     *
+     * @return the time, in epoch millis
+     */
+    public long getCreatedMillis()
+    {
+        return createdMillis;
+    }
+
+    /**
+     * Estimates the heap this entry holds on to. The module attributes are shared between entries, so are not counted.
+     *
+     * @return the estimate, in bytes
+     */
+    public long getEstimatedBytes()
+    {
+        long bytes = 56+16+(4L*parameters.length); //This object, and the parameter array.
+        for (String parameter : parameters)
+        {
+            bytes += 24+16+(2L*parameter.length()); //The string, and its character array.
+        }
+        return bytes;
+    }
 }
@@ -0,0 +1,72 @@
+package com.Zazsona.LastCommand;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how the command history is being used.
+ */
+public class HistoryStats
+{
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Records a user's last command being found.
+     */
+    protected void recordHit()
+    {
+        hits.increment();
+    }
+
+    /**
+     * Records a user having no last command, or one too old to be replayed.
+     */
+    protected void recordMiss()
+    {
+        misses.increment();
+    }
+
+    /**
+     * Records a command being removed to make room for another.
+     */
+    protected void recordEviction()
+    {
+        evictions.increment();
+    }
+
+    /**
+     * Records a command being removed for being too old to be replayed.
+     */
+    protected void recordExpiration()
+    {
+        expirations.increment();
+    }
+
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    public long getExpirations()
+    {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "History hits: "+getHits()+", misses: "+getMisses()+", evictions: "+getEvictions()+", expirations: "+getExpirations();
+    }
+}
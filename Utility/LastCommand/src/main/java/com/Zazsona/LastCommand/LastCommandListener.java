@@ -6,16 +6,23 @@ import listeners.CommandListener;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.message.guild.GuildMessageReceivedEvent;
 
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class LastCommandListener extends CommandListener
 {
+    private static final int MAX_HISTORY_ENTRIES = 100000;
+    private static final long HISTORY_TIME_TO_LIVE_MILLIS = 1000*60*60*3; //Three hours
+    private static final long CLEAN_UP_INTERVAL_MINUTES = 10;
     private static LastCommandListener instance;
-    private HashMap<String, HistoricCommand> userCommandMap;
+    private final CommandHistory commandHistory = new CommandHistory(MAX_HISTORY_ENTRIES, HISTORY_TIME_TO_LIVE_MILLIS);
+    private final ScheduledExecutorService cleanUpScheduler = Executors.newSingleThreadScheduledExecutor((runnable) ->
+    {
+        Thread thread = new Thread(runnable, "LastCommand-CleanUp");
+        thread.setDaemon(true);
+        return thread;
+    });
     private ModuleAttributes lastCommandAttributes;
 
     public static LastCommandListener getInstance()
@@ -29,14 +36,26 @@ public class LastCommandListener extends CommandListener
 
     private LastCommandListener()
     {
-        userCommandMap = new HashMap<>();
-        Timer cleanTimer = new Timer();
-        cleanTimer.scheduleAtFixedRate(new CleanUpTimerTask(), 1000*60*60, 1000*60*60);
+        cleanUpScheduler.scheduleAtFixedRate(commandHistory::removeExpired, CLEAN_UP_INTERVAL_MINUTES, CLEAN_UP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Gets a user's last command
+     * @param userID the user's ID
+     * @return the command, or null if they have not run one that can still be replayed
+     */
+    public HistoricCommand getLastCommand(long userID)
+    {
+        return commandHistory.get(userID);
     }
 
-    public HistoricCommand getLastCommand(String userID)
+    /**
+     * Gets the history of each user's last command
+     * @return the history
+     */
+    public CommandHistory getCommandHistory()
     {
-        return userCommandMap.get(userID);
+        return commandHistory;
     }
 
     public void setLastCommandAttributes(ModuleAttributes moduleAttributes)
@@ -47,12 +66,9 @@ public class LastCommandListener extends CommandListener
     @Override
     public void onCommandSuccess(GuildMessageReceivedEvent msgEvent, ModuleAttributes moduleAttributes)
     {
-        synchronized (instance)
+        if (!isLastCommandCall(msgEvent.getGuild(), msgEvent.getMessage().getContentRaw()))
         {
-            if (!isLastCommandCall(msgEvent.getGuild(), msgEvent.getMessage().getContentRaw()))
-            {
-                userCommandMap.put(msgEvent.getMember().getUser().getId(), new HistoricCommand(msgEvent, moduleAttributes));
-            }
+            commandHistory.put(msgEvent.getAuthor().getIdLong(), new HistoricCommand(msgEvent, moduleAttributes));
         }
     }
 
@@ -69,28 +85,4 @@ public class LastCommandListener extends CommandListener
         }
         return false;
     }
-
-    private class CleanUpTimerTask extends TimerTask
-    {
-        @Override
-        public void run()
-        {
-            synchronized (instance)
-            {
-                int timeToLive = 1000*60*60*3; //Three hours old
-                ArrayList<String> usersToClear = new ArrayList<>();
-                for (String userID : userCommandMap.keySet())
-                {
-                    if (userCommandMap.get(userID).getMsgEvent().getMessage().getTimeCreated().toEpochSecond()+timeToLive < Instant.now().getEpochSecond())
-                    {
-                        usersToClear.add(userID);
-                    }
-                }
-                for (String userID : usersToClear)
-                {
-                    userCommandMap.remove(userID);
-                }
-            }
-        }
-    }
 }
@@ -2,6 +2,7 @@ package com.Zazsona.Reminder;
 
 import com.Zazsona.ReminderCore.Reminder;
 import com.Zazsona.ReminderCore.ReminderManager;
+import com.Zazsona.ReminderCore.TimeParser;
 import com.Zazsona.ReminderCore.enums.GroupType;
 import com.Zazsona.ReminderCore.enums.RepetitionType;
 import commands.CmdUtil;
@@ -37,7 +38,9 @@ public class ReminderCommand extends ModuleCommand
             try
             {
                 RepetitionType rt = getRepetitionType(parameters[1]);
-                ZonedDateTime executionTime = new TimeParser(this).getExecutionTime(msgEvent.getGuild().getId(), rt, parameters);
+                TimeParser.ParsedTime parsedTime = TimeParser.parse(msgEvent.getGuild().getId(), rt, parameters);
+                setLastIndex(parsedTime.getLastIndex());
+                ZonedDateTime executionTime = parsedTime.getExecutionTime();
                 if (rt != RepetitionType.SINGLE || (rt == RepetitionType.SINGLE && executionTime.isAfter(ZonedDateTime.now(executionTime.getZone()))))
                 {
                     buildReminder(msgEvent, channelReminder, memberReminder, embed, rt, executionTime, parameters);
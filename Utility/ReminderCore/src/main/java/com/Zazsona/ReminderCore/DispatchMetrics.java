@@ -0,0 +1,70 @@
+package com.Zazsona.ReminderCore;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how late reminders are sent compared to when they were scheduled.
+ */
+public class DispatchMetrics
+{
+    private final LongAdder remindersSent = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder remindersFailed = new LongAdder();
+    private final LongAdder totalLagMillis = new LongAdder();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    /**
+     * Records a message being sent for one or more reminders.
+     * @param reminderCount the number of reminders coalesced into the message
+     * @param lagMillis the time between the reminders' scheduled time and the message being sent
+     */
+    protected void recordSent(int reminderCount, long lagMillis)
+    {
+        remindersSent.add(reminderCount);
+        messagesSent.increment();
+        totalLagMillis.add(lagMillis*reminderCount);
+        maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+    }
+
+    /**
+     * Records reminders that could not be sent.
+     * @param reminderCount the number of reminders
+     */
+    protected void recordFailed(int reminderCount)
+    {
+        remindersFailed.add(reminderCount);
+    }
+
+    public long getRemindersSent()
+    {
+        return remindersSent.sum();
+    }
+
+    public long getMessagesSent()
+    {
+        return messagesSent.sum();
+    }
+
+    public long getRemindersFailed()
+    {
+        return remindersFailed.sum();
+    }
+
+    public long getMeanLagMillis()
+    {
+        long sent = remindersSent.sum();
+        return (sent == 0) ? 0 : totalLagMillis.sum()/sent;
+    }
+
+    public long getMaxLagMillis()
+    {
+        return maxLagMillis.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Reminders sent: "+getRemindersSent()+" in "+getMessagesSent()+" messages, failed: "+getRemindersFailed()+", mean lag: "+getMeanLagMillis()+"ms, max lag: "+getMaxLagMillis()+"ms";
+    }
+}
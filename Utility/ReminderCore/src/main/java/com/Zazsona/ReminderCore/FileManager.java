@@ -1,17 +1,35 @@
 package com.Zazsona.ReminderCore;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import configuration.SettingsUtil;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class FileManager
 {
+    /**
+     * The number of journal entries after which the reminders are written out in full, and the journal is cleared.
+     */
+    private static final int CHECKPOINT_ENTRIES = 500;
+    /**
+     * Whether Reminders.jara is written with gzip compression. Either format is read, regardless of this setting.
+     */
+    private static final boolean COMPRESSED = Boolean.getBoolean("jara.reminders.gzip");
+    private static final int BUFFER_SIZE = 64*1024;
+    private static int journalEntries = 0;
+
     private static File getDataDirectory()
     {
         File dir = new File(SettingsUtil.getModuleDataDirectory()+"/Reminders/");
@@ -32,118 +50,169 @@ public class FileManager
         return remindersFile;
     }
 
-    private static File getDateTreeFile() throws IOException
-    {
-        File dateTreeFile = new File(getDataDirectory().getPath()+"/RemindersDateTree.jara");
-        if (!dateTreeFile.exists())
-        {
-            dateTreeFile.createNewFile();
-        }
-        return dateTreeFile;
-    }
-
-    private static File getFutureRemindersFile() throws IOException
+    private static File getJournalFile()
     {
-        File futureFile = new File(getDataDirectory().getPath()+"/FutureReminders.jara");
-        if (!futureFile.exists())
-        {
-            futureFile.createNewFile();
-        }
-        return futureFile;
-    }
-
-    protected static ReminderDateTree getReminderDateTree()
-    {
-        try
-        {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            String json = new String(Files.readAllBytes(getDateTreeFile().toPath()));
-            ReminderDateTree rdt = gson.fromJson(json, ReminderDateTree.class);
-            if (rdt == null)
-            {
-                rdt = new ReminderDateTree();
-            }
-            return rdt;
-        }
-        catch (IOException e)
-        {
-            LoggerFactory.getLogger("Reminders-File-Manager").error("Unable to read reminders date tree file.\n"+e.toString());
-            return new ReminderDateTree();
-        }
+        return new File(getDataDirectory().getPath()+"/RemindersJournal.jara");
     }
 
     protected static HashMap<String, Reminder> getReminders()
     {
+        HashMap<String, Reminder> reminders = new HashMap<>();
         try
         {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            String json = new String(Files.readAllBytes(getRemindersFile().toPath()));
-            TypeToken<HashMap<String, Reminder>> token = new TypeToken<HashMap<String, Reminder>>() {};
-            HashMap<String, Reminder> reminders = gson.fromJson(json, token.getType());
-            if (reminders == null)
+            File remindersFile = getRemindersFile();
+            if (remindersFile.length() > 0)
             {
-                reminders = new HashMap<>();
+                Gson gson = new Gson();
+                try (JsonReader reader = new JsonReader(new InputStreamReader(openInputStream(remindersFile), StandardCharsets.UTF_8)))
+                {
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT)
+                    {
+                        reader.beginObject();
+                        while (reader.hasNext())
+                        {
+                            String reminderID = reader.nextName();
+                            Reminder reminder = gson.fromJson(reader, Reminder.class);
+                            if (reminder != null)
+                            {
+                                reminders.put(reminderID, reminder);
+                            }
+                        }
+                        reader.endObject();
+                    }
+                }
             }
+            replayJournal(reminders);
             return reminders;
         }
-        catch (IOException e)
+        catch (IOException | JsonParseException e)
         {
             LoggerFactory.getLogger("Reminders-File-Manager").error("Unable to read reminders file.\n"+e.toString());
-            return new HashMap<>();
+            return reminders;
         }
     }
 
-    protected static HashMap<String, Integer> getFutureReminders()
+    /**
+     * Opens the file for reading, decompressing it if it was saved in gzip mode.
+     */
+    private static InputStream openInputStream(File file) throws IOException
     {
-        try
+        BufferedInputStream bis = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE);
+        bis.mark(2);
+        int magic = bis.read() | (bis.read() << 8);
+        bis.reset();
+        return (magic == GZIPInputStream.GZIP_MAGIC) ? new GZIPInputStream(bis, BUFFER_SIZE) : bis;
+    }
+
+    private static void replayJournal(HashMap<String, Reminder> reminders) throws IOException
+    {
+        File journalFile = getJournalFile();
+        if (journalFile.exists())
         {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            String json = new String(Files.readAllBytes(getFutureRemindersFile().toPath()));
-            TypeToken<HashMap<String, Integer>> token = new TypeToken<HashMap<String, Integer>>() {};
-            HashMap<String, Integer> reminders = gson.fromJson(json, token.getType());
-            if (reminders == null)
+            Gson gson = new Gson();
+            int lines = 0;
+            try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8))
             {
-                reminders = new HashMap<>();
+                String line;
+                while ((line = reader.readLine()) != null)
+                {
+                    lines++;
+                    try
+                    {
+                        JournalEntry entry = gson.fromJson(line, JournalEntry.class);
+                        if (entry == null)
+                        {
+                            continue;
+                        }
+                        else if (entry.getOperation() == JournalEntry.Operation.ADD)
+                        {
+                            reminders.put(entry.getReminderID(), entry.getReminder());
+                        }
+                        else if (entry.getOperation() == JournalEntry.Operation.DELETE)
+                        {
+                            reminders.remove(entry.getReminderID());
+                        }
+                    }
+                    catch (JsonParseException e)
+                    {
+                        //Only the final entry can be incomplete, if we stopped part way through writing it.
+                        LoggerFactory.getLogger("Reminders-File-Manager").warn("Skipping incomplete reminders journal entry.");
+                    }
+                }
             }
-            return reminders;
-        }
-        catch (IOException e)
-        {
-            LoggerFactory.getLogger("Reminders-File-Manager").error("Unable to read future reminders file.\n"+e.toString());
-            return new HashMap<>();
+            journalEntries = lines;
         }
     }
 
-    protected static synchronized void saveRemindersDateTree(ReminderDateTree rdt) throws IOException
+    /**
+     * Records a change to the reminders in the journal. This only writes the change itself, rather than every reminder.
+     * @param entry the change
+     * @return true if enough changes have been made that the reminders should be checkpointed with {@link #saveReminders(HashMap)}
+     * @throws IOException unable to write to the journal
+     */
+    protected static synchronized boolean appendToJournal(JournalEntry entry) throws IOException
     {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        String json = gson.toJson(rdt);
-        FileOutputStream fos = new FileOutputStream(getDateTreeFile());
-        PrintWriter pw = new PrintWriter(fos);
-        pw.print(json);
-        pw.close();
-        fos.close();
+        String json = new Gson().toJson(entry)+"\n";
+        try (FileOutputStream fos = new FileOutputStream(getJournalFile(), true))
+        {
+            fos.write(json.getBytes(StandardCharsets.UTF_8));
+            fos.getFD().sync();
+        }
+        journalEntries++;
+        return journalEntries >= CHECKPOINT_ENTRIES;
     }
 
+    /**
+     * Writes out all reminders and clears the journal.<br>
+     * The reminders are written to a temporary file that then replaces the existing one, so the reminders file is never left part-written.
+     * @param reminders the reminders to save
+     * @throws IOException unable to write the reminders
+     */
     protected static synchronized void saveReminders(HashMap<String, Reminder> reminders) throws IOException
     {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        String json = gson.toJson(reminders);
-        FileOutputStream fos = new FileOutputStream(getRemindersFile());
-        PrintWriter pw = new PrintWriter(fos);
-        pw.print(json);
-        pw.close();
-        fos.close();
+        Gson gson = new Gson();
+        File tempFile = new File(getDataDirectory().getPath()+"/Reminders.jara.tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile))
+        {
+            OutputStream os = (COMPRESSED) ? new GZIPOutputStream(fos, BUFFER_SIZE) : new BufferedOutputStream(fos, BUFFER_SIZE);
+            JsonWriter writer = new JsonWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            writer.beginObject();
+            for (Map.Entry<String, Reminder> entry : reminders.entrySet())
+            {
+                writer.name(entry.getKey());
+                gson.toJson(entry.getValue(), Reminder.class, writer);
+            }
+            writer.endObject();
+            writer.flush();
+            if (os instanceof GZIPOutputStream)
+            {
+                ((GZIPOutputStream) os).finish();
+            }
+            os.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), getRemindersFile().toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(getJournalFile().toPath());
+        journalEntries = 0;
     }
 
-    protected static synchronized void saveFutureReminders(HashMap<String, Integer> futureReminders) throws IOException
+    /**
+     * Retires the date tree and future reminder files used by older versions.<br>
+     * Reminders.jara holds everything needed to rebuild the schedule, so the legacy files are simply renamed out of the way.
+     */
+    protected static synchronized void migrateLegacyFiles()
     {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        String json = gson.toJson(futureReminders);
-        FileOutputStream fos = new FileOutputStream(getFutureRemindersFile());
-        PrintWriter pw = new PrintWriter(fos);
-        pw.print(json);
-        pw.close();
-        fos.close();
+        for (String legacyFileName : new String[] {"RemindersDateTree.jara", "FutureReminders.jara"})
+        {
+            File legacyFile = new File(getDataDirectory().getPath()+"/"+legacyFileName);
+            if (legacyFile.exists())
+            {
+                File retiredFile = new File(legacyFile.getPath()+".old");
+                if (legacyFile.renameTo(retiredFile))
+                {
+                    LoggerFactory.getLogger("Reminders-File-Manager").info("Migrated reminders from "+legacyFileName+". The old file has been kept as "+retiredFile.getName());
+                }
+            }
+        }
     }
 }
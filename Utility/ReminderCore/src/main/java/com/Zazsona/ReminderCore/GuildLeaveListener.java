@@ -0,0 +1,23 @@
+package com.Zazsona.ReminderCore;
+
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+public class GuildLeaveListener extends ListenerAdapter
+{
+    @Override
+    public void onGuildLeave(GuildLeaveEvent event)
+    {
+        try
+        {
+            ReminderManager.deleteRemindersForGuild(event.getGuild().getId());
+        }
+        catch (IOException e)
+        {
+            LoggerFactory.getLogger(getClass()).error("Unable to remove reminders for guild "+event.getGuild().getId()+"\n"+e.toString());
+        }
+    }
+}
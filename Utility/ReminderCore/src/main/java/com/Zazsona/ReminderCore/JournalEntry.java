@@ -0,0 +1,49 @@
+package com.Zazsona.ReminderCore;
+
+/**
+ * A single change to the set of reminders, as recorded in the reminders journal.
+ */
+public class JournalEntry
+{
+    public enum Operation
+    {
+        ADD,
+        DELETE
+    }
+
+    private Operation operation;
+    private String reminderID;
+    private Reminder reminder;
+
+    private JournalEntry(Operation operation, String reminderID, Reminder reminder)
+    {
+        this.operation = operation;
+        this.reminderID = reminderID;
+        this.reminder = reminder;
+    }
+
+    public static JournalEntry add(Reminder reminder)
+    {
+        return new JournalEntry(Operation.ADD, reminder.getUUID(), reminder);
+    }
+
+    public static JournalEntry delete(Reminder reminder)
+    {
+        return new JournalEntry(Operation.DELETE, reminder.getUUID(), null);
+    }
+
+    public Operation getOperation()
+    {
+        return operation;
+    }
+
+    public String getReminderID()
+    {
+        return reminderID;
+    }
+
+    public Reminder getReminder()
+    {
+        return reminder;
+    }
+}
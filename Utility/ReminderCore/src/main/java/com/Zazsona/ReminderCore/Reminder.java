@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.entities.*;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.time.Year;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
@@ -141,6 +142,67 @@ public class Reminder implements Serializable
         return ZonedDateTime.ofInstant(Instant.ofEpochSecond(executionTimeSecSinceEpoch), ZoneOffset.UTC);
     }
 
+    /**
+     * Gets the first time, at or after the specified second, that this reminder should be executed.<br>
+     * Repetitions are calculated in UTC. Monthly and annual reminders skip any month/year that does not have their day.
+     * @param fromEpochSecond the earliest second to consider
+     * @return the epoch second of the next execution, or -1 if the reminder will not run again
+     */
+    public long getNextExecutionSecond(long fromEpochSecond)
+    {
+        if (executionTimeSecSinceEpoch >= fromEpochSecond)
+        {
+            return executionTimeSecSinceEpoch;
+        }
+        ZonedDateTime first = getFirstExecutionTime();
+        ZonedDateTime from = ZonedDateTime.ofInstant(Instant.ofEpochSecond(fromEpochSecond), ZoneOffset.UTC);
+        switch (repetitionType)
+        {
+            case DAILY:
+                return getNextFixedPeriodSecond(fromEpochSecond, 86400);
+            case WEEKLY:
+                return getNextFixedPeriodSecond(fromEpochSecond, 604800);
+            case MONTHLY:
+                ZonedDateTime monthStart = from.withDayOfMonth(1);
+                for (int i = 0; i<13; i++)
+                {
+                    ZonedDateTime month = monthStart.plusMonths(i);
+                    if (month.toLocalDate().lengthOfMonth() >= first.getDayOfMonth())
+                    {
+                        long candidate = ZonedDateTime.of(month.toLocalDate().withDayOfMonth(first.getDayOfMonth()), first.toLocalTime(), ZoneOffset.UTC).toEpochSecond();
+                        if (candidate >= fromEpochSecond)
+                        {
+                            return candidate;
+                        }
+                    }
+                }
+                return -1;
+            case ANNUALLY:
+                for (int year = from.getYear(); year<from.getYear()+9; year++)
+                {
+                    if (first.getMonthValue() == 2 && first.getDayOfMonth() == 29 && !Year.isLeap(year))
+                    {
+                        continue;
+                    }
+                    long candidate = first.withYear(year).toEpochSecond();
+                    if (candidate >= fromEpochSecond)
+                    {
+                        return candidate;
+                    }
+                }
+                return -1;
+            case SINGLE:
+            default:
+                return -1;
+        }
+    }
+
+    private long getNextFixedPeriodSecond(long fromEpochSecond, long periodSeconds)
+    {
+        long periodsElapsed = ((fromEpochSecond-executionTimeSecSinceEpoch)+periodSeconds-1)/periodSeconds;
+        return executionTimeSecSinceEpoch+(periodsElapsed*periodSeconds);
+    }
+
     public void execute()
     {
         Guild guild = getGuild();
@@ -0,0 +1,198 @@
+package com.Zazsona.ReminderCore;
+
+import com.Zazsona.ReminderCore.enums.GroupType;
+import commands.CmdUtil;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Sends due reminders on a pool of worker threads, so that one slow request does not hold up every reminder behind it.<br>
+ * Reminders due in the same second to the same channel, or to the same DM from the same guild, are coalesced into one
+ * message, and each channel or DM only has one message in flight at a time.<br>
+ * If too many messages are queued, a message is sent on the thread that queued it instead, slowing the scheduler
+ * down rather than dropping reminders.
+ */
+public class ReminderDispatcher
+{
+    private static final int WORKER_THREADS = 4;
+    private static final int MAX_QUEUED_MESSAGES = 1000;
+    private static final long LAG_WARNING_MILLIS = 5000;
+    private static final ExecutorService workers = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_MESSAGES), runnable ->
+    {
+        Thread thread = new Thread(runnable, "Reminder-Dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+    private static final ConcurrentHashMap<String, CompletableFuture<Void>> routeToLastSend = new ConcurrentHashMap<>();
+    private static final DispatchMetrics metrics = new DispatchMetrics();
+    private static transient Logger logger = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    /**
+     * Queues the reminders to be sent.
+     * @param reminders reminders that were all due in the same second
+     * @param scheduledSecond the epoch second they were due
+     */
+    protected static void dispatch(List<Reminder> reminders, long scheduledSecond)
+    {
+        LinkedHashMap<String, ArrayList<Reminder>> messageToReminders = new LinkedHashMap<>();
+        for (Reminder reminder : reminders)
+        {
+            messageToReminders.computeIfAbsent(getMessageKey(reminder), (k) -> new ArrayList<>()).add(reminder);
+        }
+        for (ArrayList<Reminder> messageReminders : messageToReminders.values())
+        {
+            queue(getRoute(messageReminders.get(0)), () -> send(messageReminders, scheduledSecond));
+        }
+    }
+
+    /**
+     * Gets the dispatch metrics recorded since startup.
+     * @return the metrics
+     */
+    public static DispatchMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    private static String getRoute(Reminder reminder)
+    {
+        if (reminder.getGroupType() == GroupType.CHANNEL)
+        {
+            return reminder.getGuildID()+"/"+reminder.getChannelID();
+        }
+        else
+        {
+            return "DM/"+reminder.getUserID();
+        }
+    }
+
+    /**
+     * Gets the key of the message the reminder is sent in. A DM is sent in the context of its reminders' guild, so
+     * reminders from different guilds to the same DM are kept in separate messages.
+     */
+    private static String getMessageKey(Reminder reminder)
+    {
+        return (reminder.getGroupType() == GroupType.CHANNEL) ? getRoute(reminder) : getRoute(reminder)+"/"+reminder.getGuildID();
+    }
+
+    /**
+     * Queues the task to run after the last task queued for the route. The task is handed to the workers outside of
+     * the route map, as a full queue runs it on the calling thread.
+     */
+    private static void queue(String route, Runnable task)
+    {
+        CompletableFuture<Void> send = new CompletableFuture<>();
+        CompletableFuture<Void> lastSend = routeToLastSend.put(route, send);
+        Runnable sendTask = () ->
+        {
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                routeToLastSend.remove(route, send);
+                send.complete(null);
+            }
+        };
+        if (lastSend == null)
+        {
+            workers.execute(sendTask);
+        }
+        else
+        {
+            lastSend.whenComplete((v, e) -> workers.execute(sendTask));
+        }
+    }
+
+    private static void send(ArrayList<Reminder> reminders, long scheduledSecond)
+    {
+        try
+        {
+            Reminder firstReminder = reminders.get(0);
+            Guild guild = firstReminder.getGuild();
+            if (guild == null)
+            {
+                metrics.recordFailed(reminders.size());
+                return;
+            }
+            MessageChannel channel = (firstReminder.getGroupType() == GroupType.CHANNEL) ? firstReminder.getChannel() : firstReminder.getPrivateChannel();
+            if (channel == null)
+            {
+                metrics.recordFailed(reminders.size());
+                return;
+            }
+            ArrayList<MessageEmbed> embeds = buildEmbeds(guild, reminders);
+            for (MessageEmbed embed : embeds)
+            {
+                channel.sendMessage(embed).complete();
+            }
+            if (embeds.size() > 0)
+            {
+                long lagMillis = System.currentTimeMillis()-(scheduledSecond*1000);
+                metrics.recordSent(reminders.size(), lagMillis);
+                if (lagMillis > LAG_WARNING_MILLIS)
+                {
+                    logger.warn("Reminders were sent "+lagMillis+"ms late. "+metrics.toString());
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            metrics.recordFailed(reminders.size());
+            logger.error("Unable to send reminders.", e);
+        }
+    }
+
+    private static ArrayList<MessageEmbed> buildEmbeds(Guild guild, ArrayList<Reminder> reminders)
+    {
+        ArrayList<MessageEmbed> embeds = new ArrayList<>();
+        ArrayList<String> entries = new ArrayList<>();
+        String setBy = null;
+        for (Reminder reminder : reminders)
+        {
+            Member member = guild.getMemberById(reminder.getUserID());
+            if (member != null)
+            {
+                boolean showSetter = reminder.getGroupType() == GroupType.CHANNEL && reminders.size() > 1;
+                entries.add((showSetter) ? "**"+member.getEffectiveName()+":** "+reminder.getMessage() : reminder.getMessage());
+                setBy = member.getEffectiveName();
+            }
+        }
+        StringBuilder description = new StringBuilder();
+        for (String entry : entries)
+        {
+            if (description.length() > 0 && description.length()+entry.length()+2 > MessageEmbed.TEXT_MAX_LENGTH)
+            {
+                embeds.add(buildEmbed(guild, description.toString(), null));
+                description.setLength(0);
+            }
+            description.append((description.length() > 0) ? "\n\n" : "").append(entry);
+        }
+        if (description.length() > 0)
+        {
+            boolean showFooter = entries.size() == 1 && reminders.get(0).getGroupType() == GroupType.CHANNEL;
+            embeds.add(buildEmbed(guild, description.toString(), (showFooter) ? "Set by: "+setBy : null));
+        }
+        return embeds;
+    }
+
+    private static MessageEmbed buildEmbed(Guild guild, String description, String footer)
+    {
+        EmbedBuilder embed = new EmbedBuilder();
+        embed.setColor(CmdUtil.getHighlightColour(guild.getSelfMember()));
+        embed.setDescription(description);
+        if (footer != null)
+        {
+            embed.setFooter(footer, null);
+        }
+        return embed.build();
+    }
+}
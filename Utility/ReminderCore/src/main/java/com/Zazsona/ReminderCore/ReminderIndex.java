@@ -0,0 +1,200 @@
+package com.Zazsona.ReminderCore;
+
+import java.util.*;
+
+/**
+ * Orders reminders by the epoch second of their next execution.<br>
+ * Each reminder is stored once, regardless of how often it repeats. When the index is advanced past a reminder's
+ * execution time, the next one is calculated from its repetition type and it is re-inserted.
+ */
+public class ReminderIndex
+{
+    private TreeMap<Long, LinkedHashSet<String>> secondToReminderIDs = new TreeMap<>();
+    private HashMap<String, Long> reminderIDToSecond = new HashMap<>();
+    private long currentSecond;
+
+    /**
+     * Creates an empty index.
+     * @param currentSecond the epoch second from which execution times are calculated
+     */
+    public ReminderIndex(long currentSecond)
+    {
+        this.currentSecond = currentSecond;
+    }
+
+    /**
+     * Adds the reminder at its next execution time. If it has no further executions, it is not added.
+     * @param reminder the reminder to add
+     */
+    public void add(Reminder reminder)
+    {
+        remove(reminder.getUUID());
+        long nextSecond = reminder.getNextExecutionSecond(currentSecond);
+        if (nextSecond != -1)
+        {
+            put(reminder.getUUID(), nextSecond);
+        }
+    }
+
+    /**
+     * Removes the reminder from the index.
+     * @param reminderUUID the reminder's UUID
+     */
+    public void remove(String reminderUUID)
+    {
+        Long second = reminderIDToSecond.remove(reminderUUID);
+        if (second != null)
+        {
+            LinkedHashSet<String> ids = secondToReminderIDs.get(second);
+            ids.remove(reminderUUID);
+            if (ids.size() == 0)
+            {
+                secondToReminderIDs.remove(second);
+            }
+        }
+    }
+
+    /**
+     * Moves the index forward, rescheduling every reminder whose next execution is before the specified second.
+     * @param epochSecond the new current second
+     */
+    private void advanceTo(long epochSecond)
+    {
+        if (epochSecond <= currentSecond)
+        {
+            return;
+        }
+        currentSecond = epochSecond;
+        while (secondToReminderIDs.size() > 0 && secondToReminderIDs.firstKey() < epochSecond)
+        {
+            LinkedHashSet<String> ids = secondToReminderIDs.pollFirstEntry().getValue();
+            for (String id : ids)
+            {
+                reminderIDToSecond.remove(id);
+                Reminder reminder = ReminderManager.getReminderById(id);
+                if (reminder != null)
+                {
+                    long nextSecond = reminder.getNextExecutionSecond(epochSecond);
+                    if (nextSecond != -1)
+                    {
+                        put(id, nextSecond);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the IDs of all reminders that will execute at least once in the specified period. This does not move the index.
+     * @param startSecond the first second of the period (inclusive)
+     * @param endSecond the last second of the period (exclusive)
+     * @return the reminder IDs
+     */
+    public ArrayList<String> getReminderIds(long startSecond, long endSecond)
+    {
+        ArrayList<String> reminderIds = new ArrayList<>();
+        //Reminders are indexed at their next execution after the current second, so only those before the period can have an earlier one in it.
+        Map<Long, LinkedHashSet<String>> candidates = (startSecond >= currentSecond) ? secondToReminderIDs.headMap(endSecond) : secondToReminderIDs;
+        for (Map.Entry<Long, LinkedHashSet<String>> entry : candidates.entrySet())
+        {
+            if (entry.getKey() >= startSecond && entry.getKey() < endSecond)
+            {
+                reminderIds.addAll(entry.getValue());
+                continue;
+            }
+            for (String id : entry.getValue())
+            {
+                Reminder reminder = ReminderManager.getReminderById(id);
+                if (reminder != null)
+                {
+                    long nextSecond = reminder.getNextExecutionSecond(startSecond);
+                    if (nextSecond != -1 && nextSecond < endSecond)
+                    {
+                        reminderIds.add(id);
+                    }
+                }
+            }
+        }
+        return reminderIds;
+    }
+
+    /**
+     * Gets all reminders that will execute at least once in the specified period.
+     * @param startSecond the first second of the period (inclusive)
+     * @param endSecond the last second of the period (exclusive)
+     * @return the reminders
+     */
+    public ArrayList<Reminder> getReminders(long startSecond, long endSecond)
+    {
+        ArrayList<Reminder> reminders = new ArrayList<>();
+        for (String id : getReminderIds(startSecond, endSecond))
+        {
+            Reminder reminder = ReminderManager.getReminderById(id);
+            if (reminder != null)
+            {
+                reminders.add(reminder);
+            }
+        }
+        return reminders;
+    }
+
+    /**
+     * Gets all reminders due at or before the specified second, and moves the index past it.
+     * @param epochSecond the current second
+     * @return the due reminders, grouped by the second they were due
+     */
+    public TreeMap<Long, ArrayList<Reminder>> pollDueReminders(long epochSecond)
+    {
+        TreeMap<Long, ArrayList<Reminder>> dueReminders = new TreeMap<>();
+        for (Map.Entry<Long, LinkedHashSet<String>> entry : secondToReminderIDs.headMap(epochSecond, true).entrySet())
+        {
+            ArrayList<Reminder> reminders = new ArrayList<>();
+            for (String id : entry.getValue())
+            {
+                Reminder reminder = ReminderManager.getReminderById(id);
+                if (reminder != null)
+                {
+                    reminders.add(reminder);
+                }
+            }
+            dueReminders.put(entry.getKey(), reminders);
+        }
+        advanceTo(epochSecond+1);
+        return dueReminders;
+    }
+
+    /**
+     * Gets the epoch second of the earliest scheduled reminder.
+     * @return the epoch second, or -1 if the index is empty
+     */
+    public long getNextExecutionSecond()
+    {
+        return (secondToReminderIDs.size() > 0) ? secondToReminderIDs.firstKey() : -1;
+    }
+
+    /**
+     * Gets the epoch second at which the reminder will next execute.
+     * @param reminderUUID the reminder's UUID
+     * @return the epoch second, or -1 if it is not scheduled
+     */
+    public long getNextExecutionSecond(String reminderUUID)
+    {
+        Long second = reminderIDToSecond.get(reminderUUID);
+        return (second == null) ? -1 : second;
+    }
+
+    /**
+     * Gets the number of reminders in the index
+     * @return the size
+     */
+    public int size()
+    {
+        return reminderIDToSecond.size();
+    }
+
+    private void put(String reminderUUID, long second)
+    {
+        reminderIDToSecond.put(reminderUUID, second);
+        secondToReminderIDs.computeIfAbsent(second, (k) -> new LinkedHashSet<>()).add(reminderUUID);
+    }
+}
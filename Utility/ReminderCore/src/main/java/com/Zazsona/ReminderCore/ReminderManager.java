@@ -1,288 +1,158 @@
 package com.Zazsona.ReminderCore;
 
+import com.Zazsona.ReminderCore.enums.GroupType;
 import com.Zazsona.ReminderCore.enums.RepetitionType;
 import com.Zazsona.ReminderCore.enums.TimeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 public class ReminderManager
 {
-    private static ReminderDateTree rdt = new ReminderDateTree();
-    private static HashMap<String, Integer> reminderIDToFutureYearMap = new HashMap<>();
+    private static ReminderIndex index = new ReminderIndex(Instant.now().getEpochSecond());
     //TODO: HashMap means easy code and processing efficiency, but memory costs are pretty rough. Perhaps there's a better solution?
     private static HashMap<String, Reminder> idToReminderMap = new HashMap<>();
+    private static HashMap<String, LinkedHashSet<String>> userIDToReminderIDs = new HashMap<>();
+    private static HashMap<String, LinkedHashSet<String>> guildIDToReminderIDs = new HashMap<>();
     private transient static Logger logger = LoggerFactory.getLogger(ReminderManager.class);
 
-    protected static void initialise(ReminderDateTree rdtArg, HashMap<String, Integer> reminderIDToFutureYearMapArg, HashMap<String, Reminder> idToReminderMapArg)
+    protected static synchronized void initialise(HashMap<String, Reminder> idToReminderMapArg)
     {
+        idToReminderMap = idToReminderMapArg;
+        index = new ReminderIndex(Instant.now().getEpochSecond());
+        userIDToReminderIDs = new HashMap<>();
+        guildIDToReminderIDs = new HashMap<>();
+        for (Reminder reminder : idToReminderMap.values())
+        {
+            index.add(reminder);
+            addToSecondaryIndexes(reminder);
+        }
+        tidyReminders(new ArrayList<>(idToReminderMap.values()));
+        ReminderScheduler.scheduleNextRun(index.getNextExecutionSecond());
         try
         {
-            rdt = rdtArg;
-            reminderIDToFutureYearMap = reminderIDToFutureYearMapArg;
-            idToReminderMap = idToReminderMapArg;
-            getReminders(TimeType.YEAR, ZonedDateTime.now(ZoneOffset.UTC)); //Getting a reminder for a time deletes any null ones it finds. Here we get remove all null reminders.
-            FileManager.saveRemindersDateTree(rdt);
-            if (rdt.getYear().getYearValue() < ZonedDateTime.now(ZoneOffset.UTC).getYear())
-            {
-                logger.info("Preparing reminders for the new year...");
-                tidyReminders(new ArrayList(idToReminderMap.values())); //Expensive operation, but it only runs literally once a year.
-                loadFutureReminders();
-                getReminders(TimeType.YEAR, ZonedDateTime.now(ZoneOffset.UTC)); //Getting a reminder for a time deletes any null ones it finds. Here we get remove all null reminders.
-                FileManager.saveRemindersDateTree(rdt);
-            }
+            FileManager.saveReminders(idToReminderMap);
         }
         catch (IOException e)
         {
-            logger.error("Error when preparing reminders data.\n"+e.toString());
+            logger.error("Unable to checkpoint reminders.\n"+e.toString());
         }
     }
 
     public static synchronized void addReminder(Reminder reminder) throws IOException
     {
-        idToReminderMap.put(reminder.getUUID(), reminder);
-        RepetitionType rt = reminder.getRepetitionType();
-        ZonedDateTime execution = reminder.getFirstExecutionTime();
-        if (rt == RepetitionType.ANNUALLY)
+        Reminder replacedReminder = idToReminderMap.put(reminder.getUUID(), reminder);
+        if (replacedReminder != null)
         {
-            rdt.getYear().getMonth(execution.getMonthValue()).getDayOfMonth(execution.getDayOfMonth()).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).addReminderToTime(reminder.getUUID());
-            FileManager.saveRemindersDateTree(rdt);
-        }
-        else if (rt == RepetitionType.MONTHLY)
-        {
-            for (int i = 1; i<13; i++)
-            {
-                if (rdt.getYear().getMonth(i).getDaysInMonth() >= execution.getDayOfMonth())
-                {
-                    rdt.getYear().getMonth(i).getDayOfMonth(execution.getDayOfMonth()).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).addReminderToTime(reminder.getUUID());
-                }
-            }
-            FileManager.saveRemindersDateTree(rdt);
+            removeFromSecondaryIndexes(replacedReminder);
         }
-        else if (rt == RepetitionType.DAILY)
+        index.add(reminder);
+        addToSecondaryIndexes(reminder);
+        ReminderScheduler.scheduleNextRun(index.getNextExecutionSecond());
+        if (FileManager.appendToJournal(JournalEntry.add(reminder)))
         {
-            for (int monthValue = 1; monthValue<13; monthValue++)
-            {
-                for (int dayOfMonth = 1; dayOfMonth <= (rdt.getYear().getMonth(monthValue).getDaysInMonth()); dayOfMonth++)
-                {
-                    rdt.getYear().getMonth(monthValue).getDayOfMonth(dayOfMonth).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).addReminderToTime(reminder.getUUID());
-                }
-            }
-            FileManager.saveRemindersDateTree(rdt);
+            FileManager.saveReminders(idToReminderMap);
         }
-        else if (rt == RepetitionType.WEEKLY)
-        {
-            int dayOfWeek = execution.getDayOfWeek().getValue();
-            for (int monthValue = 1; monthValue<13; monthValue++)
-            {
-                for (int dayValue = 1; dayValue <= rdt.getYear().getMonth(monthValue).getDaysInMonth(); dayValue++)
-                {
-                    if (!rdt.getYear().isLeapYear() && monthValue == 2 && dayValue == 29)
-                    {
-                        continue;
-                    }
-                    else if (execution.withMonth(monthValue).withDayOfMonth(dayValue).getDayOfWeek().getValue() == dayOfWeek)
-                    {
-                        rdt.getYear().getMonth(monthValue).getDayOfMonth(dayValue).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).addReminderToTime(reminder.getUUID());
-                    }
-                }
-            }
-            ZonedDateTime futurezdt = execution.plusYears(1).withMonth(1);
-            for (int firstWeekOfJanDay = 1; firstWeekOfJanDay<8; firstWeekOfJanDay++)
-            {
-                if (futurezdt.withDayOfMonth(firstWeekOfJanDay).getDayOfWeek().getValue() == dayOfWeek)
-                {
-                    futurezdt = futurezdt.withDayOfMonth(firstWeekOfJanDay);
-                    break;
-                }
-            }
-            //UUID is intentionally matching, as this is technically the same reminder.
-            addFutureReminder(new Reminder(reminder.getUserID(), reminder.getCreationTimeStamp(), reminder.getGuildID(), reminder.getChannelID(), reminder.getGroupType(), reminder.getRepetitionType(), reminder.getMessage(), futurezdt));
-            FileManager.saveRemindersDateTree(rdt);
-        }
-        else if (rt == RepetitionType.SINGLE)
-        {
-            if (execution.getYear() == ZonedDateTime.now(ZoneOffset.UTC).getYear())
-            {
-                rdt.getYear().getMonth(execution.getMonthValue()).getDayOfMonth(execution.getDayOfMonth()).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).addReminderToTime(reminder.getUUID());
-                FileManager.saveRemindersDateTree(rdt);
-            }
-            else
-            {
-                addFutureReminder(reminder);
-                FileManager.saveFutureReminders(reminderIDToFutureYearMap);
-            }
-        }
-        ReminderScheduler.tryQueueReminderForCurrentExecution(reminder);
-        FileManager.saveReminders(idToReminderMap);
-    }
-
-    private static void addFutureReminder(Reminder reminder)
-    {
-        reminderIDToFutureYearMap.put(reminder.getUUID(), reminder.getFirstExecutionTime().getYear());
     }
 
     public static synchronized void deleteReminder(Reminder reminder) throws IOException
     {
-        idToReminderMap.remove(reminder.getUUID());
-        RepetitionType rt = reminder.getRepetitionType();
-        ZonedDateTime execution = reminder.getFirstExecutionTime();
-        if (rt == RepetitionType.ANNUALLY)
-        {
-            rdt.getYear().getMonth(execution.getMonthValue()).getDayOfMonth(execution.getDayOfMonth()).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).removeReminderFromTime(reminder.getUUID());
-            cleanTree(reminder.getFirstExecutionTime());
-            FileManager.saveRemindersDateTree(rdt);
-        }
-        else if (rt == RepetitionType.MONTHLY)
-        {
-            ZonedDateTime timeToClean = reminder.getFirstExecutionTime();
-            for (int i = 1; i<13; i++)
-            {
-                if (rdt.getYear().getMonth(i).getDaysInMonth() >= execution.getDayOfMonth())
-                {
-                    rdt.getYear().getMonth(i).getDayOfMonth(execution.getDayOfMonth()).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).removeReminderFromTime(reminder.getUUID());
-                    cleanTree(timeToClean.withMonth(i));
-                }
-            }
-            FileManager.saveRemindersDateTree(rdt);
-        }
-        else if (rt == RepetitionType.DAILY)
-        {
-            ZonedDateTime timeToClean = reminder.getFirstExecutionTime();
-            for (int monthValue = 1; monthValue<13; monthValue++)
-            {
-                for (int dayOfMonth = 1; dayOfMonth <= (rdt.getYear().getMonth(monthValue).getDaysInMonth()); dayOfMonth++)
-                {
-                    rdt.getYear().getMonth(monthValue).getDayOfMonth(dayOfMonth).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).removeReminderFromTime(reminder.getUUID());
-                    if (!rdt.getYear().isLeapYear() && monthValue == 2 && dayOfMonth == 29)
-                    {
-                        continue;
-                    }
-                    cleanTree(timeToClean.withMonth(monthValue).withDayOfMonth(dayOfMonth));
-                }
-            }
-            FileManager.saveRemindersDateTree(rdt);
-        }
-        else if (rt == RepetitionType.WEEKLY)
+        Reminder removedReminder = idToReminderMap.remove(reminder.getUUID());
+        if (removedReminder != null)
         {
-            ZonedDateTime timeToClean = reminder.getFirstExecutionTime();
-            int dayOfWeek = execution.getDayOfWeek().getValue();
-            for (int monthValue = 1; monthValue<13; monthValue++)
-            {
-                for (int dayValue = 1; dayValue <= rdt.getYear().getMonth(monthValue).getDaysInMonth(); dayValue++)
-                {
-                    if (!rdt.getYear().isLeapYear() && monthValue == 2 && dayValue == 29)
-                    {
-                        continue;
-                    }
-                    else if (execution.withMonth(monthValue).withDayOfMonth(dayValue).getDayOfWeek().getValue() == dayOfWeek)
-                    {
-                        rdt.getYear().getMonth(monthValue).getDayOfMonth(dayValue).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).removeReminderFromTime(reminder.getUUID());
-                        cleanTree(timeToClean.withMonth(monthValue).withDayOfMonth(dayValue));
-                    }
-                }
-            }
-            deleteFutureReminder(reminder);
-            FileManager.saveRemindersDateTree(rdt);
+            removeFromSecondaryIndexes(removedReminder);
         }
-        else if (rt == RepetitionType.SINGLE)
+        index.remove(reminder.getUUID());
+        ReminderScheduler.scheduleNextRun(index.getNextExecutionSecond());
+        if (FileManager.appendToJournal(JournalEntry.delete(reminder)))
         {
-            if (execution.getYear() == ZonedDateTime.now(ZoneOffset.UTC).getYear())
-            {
-                rdt.getYear().getMonth(execution.getMonthValue()).getDayOfMonth(execution.getDayOfMonth()).getHour(execution.getHour()).getMinute(execution.getMinute()).getSecond(execution.getSecond()).removeReminderFromTime(reminder.getUUID());
-                cleanTree(reminder.getFirstExecutionTime());
-                FileManager.saveRemindersDateTree(rdt);
-            }
-            else
-            {
-                deleteFutureReminder(reminder);
-                FileManager.saveFutureReminders(reminderIDToFutureYearMap);
-            }
+            FileManager.saveReminders(idToReminderMap);
         }
-        ReminderScheduler.removeReminderFromQueue(reminder);
-        FileManager.saveReminders(idToReminderMap);
     }
 
-    private static void cleanTree(ZonedDateTime dateTimeToClean)
+    public static synchronized Collection<String> getReminderIds(TimeType tt, ZonedDateTime utc)
     {
-        if (rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).getHour(dateTimeToClean.getHour()).getMinute(dateTimeToClean.getMinute()).getSecond(dateTimeToClean.getSecond()).getReminderIDs().size() == 0)
-        {
-            rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).getHour(dateTimeToClean.getHour()).getMinute(dateTimeToClean.getMinute()).removeSecond(dateTimeToClean.getSecond());
-        }
-        if (rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).getHour(dateTimeToClean.getHour()).getMinute(dateTimeToClean.getMinute()).getReminderIDs().size() == 0)
-        {
-            rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).getHour(dateTimeToClean.getHour()).removeMinute(dateTimeToClean.getMinute());
-        }
-        if (rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).getHour(dateTimeToClean.getHour()).getReminderIDs().size() == 0)
-        {
-            rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).removeHour(dateTimeToClean.getHour());
-        }
-        if (rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getDayOfMonth(dateTimeToClean.getDayOfMonth()).getReminderIDs().size() == 0)
-        {
-            rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).removeDay(dateTimeToClean.getDayOfMonth());
-        }
-        if (rdt.getYear().getMonth(dateTimeToClean.getMonthValue()).getReminderIDs().size() == 0)
-        {
-            rdt.getYear().removeMonth(dateTimeToClean.getMonthValue());
-        }
+        ZonedDateTime start = getPeriodStart(tt, utc);
+        return index.getReminderIds(start.toEpochSecond(), getPeriodEnd(tt, start).toEpochSecond());
     }
 
-    private static void deleteFutureReminder(Reminder reminder)
+    public static synchronized Collection<Reminder> getReminders(TimeType tt, ZonedDateTime utc)
     {
-        reminderIDToFutureYearMap.remove(reminder.getUUID());
+        ZonedDateTime start = getPeriodStart(tt, utc);
+        return index.getReminders(start.toEpochSecond(), getPeriodEnd(tt, start).toEpochSecond());
     }
 
-    public static Collection<String> getReminderIds(TimeType tt, ZonedDateTime utc)
+    private static ZonedDateTime getPeriodStart(TimeType tt, ZonedDateTime utc)
     {
+        utc = utc.withZoneSameInstant(ZoneOffset.UTC);
         switch (tt)
         {
             case YEAR:
-                return rdt.getYear().getReminderIDs();
+                return utc.withDayOfYear(1).truncatedTo(ChronoUnit.DAYS);
             case MONTH:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getReminderIDs();
+                return utc.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
             case DAY:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getReminderIDs();
+                return utc.truncatedTo(ChronoUnit.DAYS);
             case HOUR:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getHour(utc.getHour()).getReminderIDs();
+                return utc.truncatedTo(ChronoUnit.HOURS);
             case MINUTE:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getHour(utc.getHour()).getMinute(utc.getMinute()).getReminderIDs();
+                return utc.truncatedTo(ChronoUnit.MINUTES);
             case SECOND:
             default:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getHour(utc.getHour()).getMinute(utc.getMinute()).getSecond(utc.getSecond()).getReminderIDs();
+                return utc.truncatedTo(ChronoUnit.SECONDS);
         }
     }
 
-    public static Collection<Reminder> getReminders(TimeType tt, ZonedDateTime utc)
+    private static ZonedDateTime getPeriodEnd(TimeType tt, ZonedDateTime periodStart)
     {
         switch (tt)
         {
             case YEAR:
-                return rdt.getYear().getReminders();
+                return periodStart.plusYears(1);
             case MONTH:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getReminders();
+                return periodStart.plusMonths(1);
             case DAY:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getReminders();
+                return periodStart.plusDays(1);
             case HOUR:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getHour(utc.getHour()).getReminders();
+                return periodStart.plusHours(1);
             case MINUTE:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getHour(utc.getHour()).getMinute(utc.getMinute()).getReminders();
+                return periodStart.plusMinutes(1);
             case SECOND:
             default:
-                return rdt.getYear().getMonth(utc.getMonthValue()).getDayOfMonth(utc.getDayOfMonth()).getHour(utc.getHour()).getMinute(utc.getMinute()).getSecond(utc.getSecond()).getReminders();
+                return periodStart.plusSeconds(1);
         }
     }
 
-    public static Reminder getReminderById(String UUID)
+    /**
+     * Gets the reminders that are due to run, and schedules the next run for the reminders that follow.
+     * @param epochSecond the current second
+     * @return the due reminders, grouped by the second they were due
+     */
+    protected static synchronized TreeMap<Long, ArrayList<Reminder>> pollDueReminders(long epochSecond)
+    {
+        TreeMap<Long, ArrayList<Reminder>> reminders = index.pollDueReminders(epochSecond);
+        ReminderScheduler.scheduleNextRun(index.getNextExecutionSecond());
+        return reminders;
+    }
+
+    protected static synchronized void rescheduleNextRun()
+    {
+        ReminderScheduler.scheduleNextRun(index.getNextExecutionSecond());
+    }
+
+    public static synchronized Reminder getReminderById(String UUID)
     {
         return idToReminderMap.get(UUID);
     }
 
-    protected static void tidyReminders(ArrayList<Reminder> reminders)
+    protected static synchronized void tidyReminders(ArrayList<Reminder> reminders)
     {
         try
         {
@@ -301,43 +171,158 @@ public class ReminderManager
         }
     }
 
-    protected static void loadFutureReminders()
+    /**
+     * Deletes every reminder set in the guild, such as when the bot is removed from it.
+     * @param guildID the guild's ID
+     * @throws IOException unable to save the changes
+     */
+    public static synchronized void deleteRemindersForGuild(String guildID) throws IOException
     {
-        try
+        for (Reminder reminder : getRemindersForGuild(guildID))
         {
-            int currentYear = OffsetDateTime.now(ZoneOffset.UTC).getYear();
-            if (rdt.getYear().getYearValue() != currentYear)
-            {
-                Iterator<Map.Entry<String, Integer>> iterator = reminderIDToFutureYearMap.entrySet().iterator();
-                while (iterator.hasNext())
-                {
-                    Map.Entry<String, Integer> entry = iterator.next();
-                    if (entry.getValue() == currentYear)
-                    {
-                        addReminder(getReminderById(entry.getKey()));
-                        iterator.remove();
-                    }
-                }
-                rdt.getYear().setYearValue(currentYear);
-            }
+            deleteReminder(reminder);
         }
-        catch (IOException e)
+    }
+
+    /**
+     * Gets all reminders set by the user.
+     * @param userID the user's ID
+     * @return the user's reminders
+     */
+    public static synchronized ArrayList<Reminder> getRemindersForUser(String userID)
+    {
+        return getRemindersById(userIDToReminderIDs.get(userID));
+    }
+
+    /**
+     * Gets a page of the user's reminders, ordered by when they will next run.
+     * @param userID the user's ID
+     * @param pageNo the page, starting at 1
+     * @param pageSize the maximum number of reminders per page
+     * @return the reminders on the page, which is empty if the page does not exist
+     */
+    public static synchronized List<Reminder> getRemindersForUser(String userID, int pageNo, int pageSize)
+    {
+        return getPage(getRemindersForUser(userID), pageNo, pageSize);
+    }
+
+    /**
+     * Gets all reminders set in the guild.
+     * @param guildID the guild's ID
+     * @return the guild's reminders
+     */
+    public static synchronized ArrayList<Reminder> getRemindersForGuild(String guildID)
+    {
+        return getRemindersById(guildIDToReminderIDs.get(guildID));
+    }
+
+    /**
+     * Gets a page of the guild's reminders, ordered by when they will next run.
+     * @param guildID the guild's ID
+     * @param pageNo the page, starting at 1
+     * @param pageSize the maximum number of reminders per page
+     * @return the reminders on the page, which is empty if the page does not exist
+     */
+    public static synchronized List<Reminder> getRemindersForGuild(String guildID, int pageNo, int pageSize)
+    {
+        return getPage(getRemindersForGuild(guildID), pageNo, pageSize);
+    }
+
+    /**
+     * Gets a page of the reminders set for the channel, ordered by when they will next run.
+     * @param guildID the ID of the guild the channel is in
+     * @param channelID the channel's ID
+     * @param pageNo the page, starting at 1
+     * @param pageSize the maximum number of reminders per page
+     * @return the reminders on the page, which is empty if the page does not exist
+     */
+    public static synchronized List<Reminder> getRemindersForChannel(String guildID, String channelID, int pageNo, int pageSize)
+    {
+        ArrayList<Reminder> reminders = getRemindersForGuild(guildID);
+        reminders.removeIf((v) -> v.getGroupType() != GroupType.CHANNEL || !v.getChannelID().equals(channelID));
+        return getPage(reminders, pageNo, pageSize);
+    }
+
+    /**
+     * Gets a page of the reminders that will run at least once in the specified period, ordered by when they first run in it.
+     * This does not affect when any reminder is scheduled.
+     * @param startTime the start of the period (inclusive)
+     * @param endTime the end of the period (exclusive)
+     * @param pageNo the page, starting at 1
+     * @param pageSize the maximum number of reminders per page
+     * @return the reminders on the page, which is empty if the page does not exist
+     */
+    public static synchronized List<Reminder> getRemindersDue(ZonedDateTime startTime, ZonedDateTime endTime, int pageNo, int pageSize)
+    {
+        long startSecond = startTime.toEpochSecond();
+        ArrayList<Reminder> reminders = index.getReminders(startSecond, endTime.toEpochSecond());
+        return getPage(reminders, Comparator.comparingLong((v) -> v.getNextExecutionSecond(startSecond)), pageNo, pageSize);
+    }
+
+    private static List<Reminder> getPage(ArrayList<Reminder> reminders, int pageNo, int pageSize)
+    {
+        long currentSecond = Instant.now().getEpochSecond();
+        return getPage(reminders, Comparator.comparingLong((v) -> getSortSecond(v, currentSecond)), pageNo, pageSize);
+    }
+
+    private static List<Reminder> getPage(ArrayList<Reminder> reminders, Comparator<Reminder> order, int pageNo, int pageSize)
+    {
+        reminders.sort(order);
+        int startIndex = (pageNo-1)*pageSize;
+        if (pageNo < 1 || startIndex >= reminders.size())
         {
-            logger.error("Unable to schedule reminders for this year.");
+            return new ArrayList<>();
         }
+        return new ArrayList<>(reminders.subList(startIndex, Math.min(startIndex+pageSize, reminders.size())));
+    }
 
+    private static long getSortSecond(Reminder reminder, long currentSecond)
+    {
+        long nextSecond = index.getNextExecutionSecond(reminder.getUUID());
+        return (nextSecond != -1) ? nextSecond : reminder.getNextExecutionSecond(currentSecond);
     }
 
-    public static ArrayList<Reminder> getRemindersForUser(String userID)
+    private static ArrayList<Reminder> getRemindersById(Collection<String> reminderIDs)
     {
         ArrayList<Reminder> reminders = new ArrayList<>();
-        for (String key : idToReminderMap.keySet())
+        if (reminderIDs != null)
         {
-            if (key.startsWith(userID))
+            for (String reminderID : reminderIDs)
             {
-                reminders.add(idToReminderMap.get(key));
+                reminders.add(idToReminderMap.get(reminderID));
             }
         }
         return reminders;
     }
+
+    private static void addToSecondaryIndexes(Reminder reminder)
+    {
+        userIDToReminderIDs.computeIfAbsent(reminder.getUserID(), (k) -> new LinkedHashSet<>()).add(reminder.getUUID());
+        if (reminder.getGuildID() != null)
+        {
+            guildIDToReminderIDs.computeIfAbsent(reminder.getGuildID(), (k) -> new LinkedHashSet<>()).add(reminder.getUUID());
+        }
+    }
+
+    private static void removeFromSecondaryIndexes(Reminder reminder)
+    {
+        removeFromSecondaryIndex(userIDToReminderIDs, reminder.getUserID(), reminder.getUUID());
+        if (reminder.getGuildID() != null)
+        {
+            removeFromSecondaryIndex(guildIDToReminderIDs, reminder.getGuildID(), reminder.getUUID());
+        }
+    }
+
+    private static void removeFromSecondaryIndex(HashMap<String, LinkedHashSet<String>> secondaryIndex, String key, String reminderID)
+    {
+        LinkedHashSet<String> reminderIDs = secondaryIndex.get(key);
+        if (reminderIDs != null)
+        {
+            reminderIDs.remove(reminderID);
+            if (reminderIDs.size() == 0)
+            {
+                secondaryIndex.remove(key);
+            }
+        }
+    }
 }
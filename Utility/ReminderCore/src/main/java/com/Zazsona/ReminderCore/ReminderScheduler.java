@@ -1,142 +1,89 @@
 package com.Zazsona.ReminderCore;
 
-import com.Zazsona.ReminderCore.enums.TimeType;
+import jara.Core;
 import module.ModuleLoad;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class ReminderScheduler extends ModuleLoad
 {
-    private static HashMap<Long, ArrayList<Reminder>> remindersMap;
-    private static transient boolean remindersAddedDuringPeriod = false;
+    /**
+     * The longest the scheduler will sleep before re-checking the schedule, so changes to the system clock are picked up.
+     */
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+    /**
+     * The value of nextRunSecond when no run is waiting, which never matches a requested second.
+     */
+    private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+    private static ScheduledExecutorService executor;
+    private static ScheduledFuture<?> nextRun;
+    private static long nextRunSecond = NOT_SCHEDULED;
     private static transient Logger logger = LoggerFactory.getLogger(ReminderScheduler.class);
 
     @Override
     public void load()
     {
-        remindersMap = new HashMap<>();
-        ReminderDateTree rdt = FileManager.getReminderDateTree();
-        HashMap<String, Integer> futureReminders = FileManager.getFutureReminders();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable ->
+                                                              {
+                                                                  Thread thread = new Thread(runnable, "Reminder-Scheduler");
+                                                                  thread.setDaemon(true);
+                                                                  return thread;
+                                                              });
         HashMap<String, Reminder> reminders = FileManager.getReminders();
-        ReminderManager.initialise(rdt, futureReminders, reminders);
-        runReminders();
+        FileManager.migrateLegacyFiles();
+        ReminderManager.initialise(reminders);
+        Core.getShardManagerNotNull().addEventListener(new GuildLeaveListener());
     }
 
-    private static void queueReminderForCurrentExecution(Reminder reminder, ZonedDateTime utc)
+    /**
+     * Sets the scheduler to wake up for the specified second, if this is different from when it is currently set to wake up.
+     * @param epochSecond the second of the next due reminder, or -1 if there are none
+     */
+    protected static synchronized void scheduleNextRun(long epochSecond)
     {
-        long startTime = utc.withMinute(reminder.getFirstExecutionTime().getMinute()).withSecond(reminder.getFirstExecutionTime().getSecond()).toEpochSecond();
-        if (remindersMap.containsKey(startTime))
+        if (executor == null || (epochSecond == nextRunSecond && nextRun != null && !nextRun.isDone()))
         {
-            remindersMap.get(startTime).add(reminder);
+            return;
         }
-        else
+        if (nextRun != null)
         {
-            remindersMap.put(startTime, new ArrayList<>());
-            remindersMap.get(startTime).add(reminder);
+            nextRun.cancel(false);
         }
+        long delay = (epochSecond == -1) ? MAX_SLEEP_MILLIS : Math.min((epochSecond*1000)-Instant.now().toEpochMilli(), MAX_SLEEP_MILLIS);
+        nextRunSecond = epochSecond;
+        nextRun = executor.schedule(ReminderScheduler::runReminders, Math.max(delay, 0), TimeUnit.MILLISECONDS);
     }
 
-    protected static boolean tryQueueReminderForCurrentExecution(Reminder reminder)
+    private static void runReminders()
     {
-        ZonedDateTime utc = ZonedDateTime.now(ZoneOffset.UTC);
-        long reminderStartSecond = reminder.getFirstExecutionTime().toInstant().getEpochSecond();
-        long minStartTime = Instant.now().getEpochSecond();
-        long maxStartTime = utc.withMinute(0).withSecond(0).plusHours(Long.valueOf(1)).toEpochSecond();
-        if (reminderStartSecond > minStartTime && reminderStartSecond < maxStartTime)
+        synchronized (ReminderScheduler.class)
         {
-            queueReminderForCurrentExecution(reminder, utc);
-            remindersAddedDuringPeriod = true;
-            return true;
+            //This run is no longer waiting, so the run it schedules for the same second must not be mistaken for it.
+            nextRunSecond = NOT_SCHEDULED;
         }
-        return false;
-    }
-
-    protected static void removeReminderFromQueue(Reminder reminderToFind)
-    {
-        long key = -1;
-        int index = -1;
-        for (Map.Entry<Long, ArrayList<Reminder>> entry : remindersMap.entrySet())
-        {
-            for (Reminder reminder : entry.getValue())
-            {
-                if (reminder.getUUID().equals(reminderToFind.getUUID()))
-                {
-                    key = entry.getKey();
-                    index = entry.getValue().indexOf(reminder);
-                    break;
-                }
-            }
-        }
-        if (key != -1)
-        {
-            remindersMap.get(key).remove(index);
-            if (remindersMap.get(key).size() == 0)
-                remindersMap.remove(key);
-        }
-    }
-
-    private void runReminders()
-    {
         try
         {
-            while (true)
+            TreeMap<Long, ArrayList<Reminder>> reminders = ReminderManager.pollDueReminders(Instant.now().getEpochSecond());
+            for (Map.Entry<Long, ArrayList<Reminder>> entry : reminders.entrySet())
             {
-                ZonedDateTime utc = ZonedDateTime.now(ZoneOffset.UTC);
-                long resetSecond = utc.withMinute(0).withSecond(0).plusHours(Long.valueOf(1)).toEpochSecond();
-                ArrayList<Reminder> reminders = new ArrayList<>(ReminderManager.getReminders(TimeType.HOUR, utc));
-                if (reminders.size() > 0)
-                {
-                    reminders.forEach((v) -> queueReminderForCurrentExecution(v, utc));
-                }
-                while (Instant.now().getEpochSecond() < resetSecond)
-                {
-                    try
-                    {
-                        long epochSecond = Instant.now().getEpochSecond();
-                        if (remindersMap.containsKey(epochSecond))
-                        {
-                            for (Reminder reminder : remindersMap.get(epochSecond))
-                            {
-                                reminder.execute();
-                            }
-                        }
-                        Thread.sleep(((epochSecond+1)*1000)-Instant.now().toEpochMilli());
-                    }
-                    catch (InterruptedException e)
-                    {
-                        logger.error("Reminder scheduler got interrupted! Reminders will not run at this time.");
-                    }
-                }
-                tidyReminders(reminders);
-                remindersMap.clear();
+                ReminderDispatcher.dispatch(entry.getValue(), entry.getKey());
+                ReminderManager.tidyReminders(entry.getValue());
             }
         }
         catch (Exception e)
         {
-            logger.error("The reminder scheduler has stopped. Restarting...", e);
-            load();
-        }
-    }
-
-    private void tidyReminders(ArrayList<Reminder> baseReminderQueue)
-    {
-        if (remindersAddedDuringPeriod)
-        {
-            ArrayList<Reminder> reminders = new ArrayList<>();
-            remindersMap.forEach((k, v) -> reminders.addAll(v));
-            ReminderManager.tidyReminders(reminders);
-        }
-        else
-        {
-            ReminderManager.tidyReminders(baseReminderQueue);
+            logger.error("The reminder scheduler encountered an error. Rescheduling...", e);
+            ReminderManager.rescheduleNextRun();
         }
-        remindersAddedDuringPeriod = false;
     }
 }
@@ -0,0 +1,423 @@
+package com.Zazsona.ReminderCore;
+
+import com.Zazsona.ReminderCore.enums.RepetitionType;
+import configuration.SettingsUtil;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses reminder times from command parameters, in the form (Year) (Month) (Day) [Time].<br>
+ * Month and weekday names are looked up from tables built once, and numbers are read directly rather than through regular expressions.
+ */
+public class TimeParser
+{
+    /**
+     * How long a guild's time zone is cached before it is looked up again, so changes to the guild's settings are picked up.
+     */
+    private static final long ZONE_CACHE_MILLIS = 60*1000;
+    private static final HashMap<String, Integer> monthNameToValue = new HashMap<>();
+    private static final HashMap<String, Integer> weekdayNameToValue = new HashMap<>();
+    private static final ConcurrentHashMap<String, CachedZone> guildIDToZone = new ConcurrentHashMap<>();
+
+    static
+    {
+        String[][] monthNames = {{"january", "jan"}, {"february", "feb"}, {"march", "mar"}, {"april", "apr"}, {"may"}, {"june", "jun"}, {"july", "jul"}, {"august", "aug"}, {"september", "sep", "sept"}, {"october", "oct"}, {"november", "nov"}, {"december", "dec"}};
+        for (int i = 0; i<monthNames.length; i++)
+        {
+            for (String monthName : monthNames[i])
+            {
+                monthNameToValue.put(monthName, i+1);
+            }
+        }
+        String[] weekdayNames = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+        for (int i = 0; i<weekdayNames.length; i++)
+        {
+            weekdayNameToValue.put(weekdayNames[i], i+1);
+        }
+    }
+
+    /**
+     * The result of parsing a reminder time.
+     */
+    public static class ParsedTime
+    {
+        private ZonedDateTime executionTime;
+        private int lastIndex;
+
+        private ParsedTime(ZonedDateTime executionTime, int lastIndex)
+        {
+            this.executionTime = executionTime;
+            this.lastIndex = lastIndex;
+        }
+
+        /**
+         * Gets the time the reminder should first execute, in the guild's time zone
+         * @return the execution time
+         */
+        public ZonedDateTime getExecutionTime()
+        {
+            return executionTime;
+        }
+
+        /**
+         * Gets the index of the last parameter that was part of the time.
+         * @return the index
+         */
+        public int getLastIndex()
+        {
+            return lastIndex;
+        }
+    }
+
+    private static class CachedZone
+    {
+        private ZoneId zoneId;
+        private long expiryMillis;
+
+        private CachedZone(ZoneId zoneId, long expiryMillis)
+        {
+            this.zoneId = zoneId;
+            this.expiryMillis = expiryMillis;
+        }
+    }
+
+    /**
+     * Parses the reminder time in the guild's time zone.
+     * @param guildId the guild the reminder is being set in
+     * @param rt the repetition type, which has already been read from parameters[1] if it is not {@link RepetitionType#SINGLE}
+     * @param parameters the command parameters
+     * @return the parsed time
+     * @throws IllegalArgumentException the time is invalid. The message describes the problem.
+     */
+    public static ParsedTime parse(String guildId, RepetitionType rt, String... parameters) throws IllegalArgumentException
+    {
+        return parse(getGuildZone(guildId), rt, parameters);
+    }
+
+    /**
+     * Parses the reminder time in the specified time zone.
+     * @param zoneId the time zone
+     * @param rt the repetition type, which has already been read from parameters[1] if it is not {@link RepetitionType#SINGLE}
+     * @param parameters the command parameters
+     * @return the parsed time
+     * @throws IllegalArgumentException the time is invalid. The message describes the problem.
+     */
+    public static ParsedTime parse(ZoneId zoneId, RepetitionType rt, String... parameters) throws IllegalArgumentException
+    {
+        ZonedDateTime firstExecutionTime = ZonedDateTime.now(zoneId);
+        ZonedDateTime currentTime = firstExecutionTime;
+        boolean isYearSet = false;
+        boolean isMonthSet = false;
+        boolean isDaySet = false;
+        int minArgLength = (rt == RepetitionType.SINGLE) ? 1 : 2;
+        int maxArgLength = minArgLength+4;
+        int argEndIndex = getArgEndIndex(parameters);
+        for (int i = Math.max(maxArgLength-(argEndIndex-minArgLength), 0); i<maxArgLength; i++)
+        {
+            int index = argEndIndex-maxArgLength+i;
+            String parameter = parameters[index].toLowerCase(Locale.ENGLISH);
+            if (i == maxArgLength-1)
+            {
+                firstExecutionTime = getTime(parameter, isDaySet, firstExecutionTime, currentTime);
+            }
+            else if (i == maxArgLength-2)
+            {
+                firstExecutionTime = parseDay(parameter, isMonthSet, isYearSet, firstExecutionTime, currentTime);
+                isDaySet = true;
+            }
+            else if (i == maxArgLength-3)
+            {
+                firstExecutionTime = getMonth(parameter, isYearSet, firstExecutionTime, currentTime);
+                isMonthSet = true;
+            }
+            else if (i == maxArgLength-4)
+            {
+                firstExecutionTime = getYear(parameter, firstExecutionTime);
+                isYearSet = true;
+            }
+        }
+        return new ParsedTime(firstExecutionTime, argEndIndex-1);
+    }
+
+    private static ZoneId getGuildZone(String guildId)
+    {
+        long currentMillis = System.currentTimeMillis();
+        CachedZone cachedZone = guildIDToZone.get(guildId);
+        if (cachedZone == null || cachedZone.expiryMillis < currentMillis)
+        {
+            cachedZone = new CachedZone(SettingsUtil.getGuildSettings(guildId).getTimeZoneId(), currentMillis+ZONE_CACHE_MILLIS);
+            guildIDToZone.put(guildId, cachedZone);
+        }
+        return cachedZone.zoneId;
+    }
+
+    private static int getArgEndIndex(String[] parameters)
+    {
+        for (int i = 0; i<parameters.length; i++)
+        {
+            if (isTime(parameters[i].toLowerCase(Locale.ENGLISH).trim()))
+            {
+                return i+1;
+            }
+        }
+        throw new IllegalArgumentException("A reminder cannot be set without a time.");
+    }
+
+    private static ZonedDateTime getYear(String yearInput, ZonedDateTime zdt) throws NumberFormatException
+    {
+        int year = parseDigits(yearInput);
+        if (year > 2000)
+        {
+            return zdt.withYear(year);
+        }
+        else
+        {
+            throw new NumberFormatException(yearInput+" is not a valid year.\nYears must be a number.");
+        }
+    }
+
+    private static ZonedDateTime getMonth(String monthInput, boolean isYearSet, ZonedDateTime zdt, ZonedDateTime currentTime) throws NumberFormatException
+    {
+        int month = parseDigits(monthInput);
+        if (month == -1)
+        {
+            month = monthNameToValue.getOrDefault(monthInput, 0);
+        }
+
+        if (month > 0 && month < 13)
+        {
+            if (!isYearSet && month < currentTime.getMonthValue())
+            {
+                return zdt.withMonth(month).plusYears(1);
+            }
+            else
+            {
+                return zdt.withMonth(month);
+            }
+        }
+        else
+        {
+            throw new NumberFormatException("Unknown month: "+monthInput+".\nThere are only 12 months in a year!");
+        }
+    }
+
+    private static ZonedDateTime parseDay(String dayInput, boolean isMonthSet, boolean isYearSet, ZonedDateTime zdt, ZonedDateTime currentTime)
+    {
+        if (dayInput.endsWith("st") || dayInput.endsWith("nd") || dayInput.endsWith("rd") || dayInput.endsWith("th"))
+        {
+            dayInput = dayInput.substring(0, dayInput.length()-2);
+        }
+        int day = parseDigits(dayInput);
+        if (day != -1)
+        {
+            return getDay(day, isMonthSet, isYearSet, zdt, currentTime);
+        }
+        else if (dayInput.equals("tomorrow"))
+        {
+            return zdt.plusDays(1);
+        }
+        else
+        {
+            return getWeekDay(dayInput, isMonthSet, isYearSet, zdt);
+        }
+    }
+
+    //Run after month and year
+    private static ZonedDateTime getDay(int day, boolean isMonthSet, boolean isYearSet, ZonedDateTime zdt, ZonedDateTime currentTime) throws NumberFormatException
+    {
+        if (day > 0)
+        {
+            if (isMonthSet && day > zdt.toLocalDate().lengthOfMonth())
+            {
+                throw new NumberFormatException("This month doesn't have "+day+ " days!");
+            }
+            else
+            {
+                int max = (isYearSet && zdt.getYear() == currentTime.getYear()) ? 12-zdt.getMonthValue() : 12;
+                int min = (!isMonthSet && !isYearSet && day < currentTime.getDayOfMonth()) ? 1 : 0;
+                for (int i = min; i<max; i++)
+                {
+                    ZonedDateTime monthZDT = zdt.plusMonths(i);
+                    if (monthZDT.toLocalDate().lengthOfMonth() >= day)
+                    {
+                        return monthZDT.withDayOfMonth(day);
+                    }
+                }
+                throw new NumberFormatException("Unable to find a month with "+day+" days.");
+            }
+        }
+        else
+        {
+            throw new NumberFormatException(day+" is not a recognised day of the month.\nDay of month must be positive.");
+        }
+    }
+
+    private static ZonedDateTime getWeekDay(String weekDayInput, boolean isMonthSet, boolean isYearSet, ZonedDateTime zdt) throws IllegalArgumentException
+    {
+        int yearValue = zdt.getYear();
+        int monthValue = zdt.getMonthValue();
+        int weekDayValue = weekdayNameToValue.getOrDefault(weekDayInput, 0);
+        if (weekDayValue == 0)
+            throw new IllegalArgumentException(weekDayInput+" is not a valid weekday.\nMonday-Sunday is expected.");
+
+        for (int i = 0; i<7; i++)
+        {
+            ZonedDateTime weekLongZDT = zdt.plusDays(i);
+            if (weekLongZDT.getDayOfWeek().getValue() == weekDayValue)
+            {
+                if ((isYearSet && weekLongZDT.getYear() == yearValue) || !isYearSet)
+                {
+                    if (isMonthSet && weekLongZDT.getMonthValue() == monthValue || !isMonthSet)
+                    {
+                        return weekLongZDT;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unable to find a "+weekDayInput+" within the year/month specified.");
+    }
+
+    /**
+     * Checks if the input is a valid 12 or 24 hour clock time, such as 9am, 9:30pm or 21:30:15.
+     * @param timeInput the lower case input
+     * @return true if it is a time
+     */
+    private static boolean isTime(String timeInput)
+    {
+        int[] timeValues = readClockValues(timeInput);
+        if (timeValues == null)
+        {
+            return false;
+        }
+        boolean isTwelveHour = timeInput.contains("am") || timeInput.contains("pm");
+        boolean isHourValid = (isTwelveHour) ? (timeValues[0] > 0 && timeValues[0] <= 12) : timeValues[0] <= 23;
+        boolean isMinuteValid = timeValues.length < 2 || timeValues[1] <= 59;
+        boolean isSecondValid = timeValues.length < 3 || timeValues[2] <= 59;
+        return isHourValid && isMinuteValid && isSecondValid;
+    }
+
+    /**
+     * Reads the hour, minute and second values of a clock time.
+     * @param timeInput the lower case input
+     * @return the values that were present, or null if this is not a clock time
+     */
+    private static int[] readClockValues(String timeInput)
+    {
+        boolean isTwelveHour = timeInput.contains("am") || timeInput.contains("pm");
+        if (!isTwelveHour && timeInput.indexOf(':') == -1)
+        {
+            return null;
+        }
+        String digits = (isTwelveHour) ? timeInput.replace("am", "").replace("pm", "") : timeInput;
+        int[] values = new int[3];
+        int valueCount = 0;
+        int start = 0;
+        while (start <= digits.length())
+        {
+            int end = digits.indexOf(':', start);
+            end = (end == -1) ? digits.length() : end;
+            if (end == start && end == digits.length() && valueCount > 0)
+            {
+                break; //Trailing separator, e.g "9:"
+            }
+            int value = parseDigits(digits, start, end);
+            if (value == -1 || valueCount == values.length)
+            {
+                return null;
+            }
+            values[valueCount++] = value;
+            start = end+1;
+        }
+        int[] clockValues = new int[valueCount];
+        System.arraycopy(values, 0, clockValues, 0, valueCount);
+        return clockValues;
+    }
+
+    private static ZonedDateTime getTime(String timeInput, boolean isDaySet, ZonedDateTime zdt, ZonedDateTime currentTime) throws NumberFormatException
+    {
+        timeInput = timeInput.trim();
+        int[] timeValues = readClockValues(timeInput);
+        if (timeValues == null)
+        {
+            throw new NumberFormatException(timeInput+" is not a valid clock.");
+        }
+        if (timeInput.contains("am") || timeInput.contains("pm"))
+        {
+            zdt = parseTwelveHourClock(timeValues, timeInput.contains("am"), zdt);
+        }
+        else
+        {
+            zdt = parseTwentyFourHourClock(timeValues, zdt);
+        }
+        if (!isDaySet && zdt.isBefore(currentTime))
+            zdt = zdt.plusDays(1);
+        return zdt;
+    }
+
+    private static ZonedDateTime parseTwelveHourClock(int[] timeValues, boolean isAM, ZonedDateTime zdt) throws NumberFormatException
+    {
+        if (timeValues[0] <= 0 || timeValues[0] > 12)
+        {
+            throw new NumberFormatException("12 Hour clocks must have an hour value between 1 and 12!");
+        }
+        int hour = timeValues[0] % 12;
+        hour = (isAM) ? hour : hour+12; //Convert to 24/h clock
+        return withClockValues(zdt, hour, timeValues);
+    }
+
+    private static ZonedDateTime parseTwentyFourHourClock(int[] timeValues, ZonedDateTime zdt) throws NumberFormatException
+    {
+        if (timeValues[0] > 23)
+        {
+            throw new NumberFormatException("24-Hour clock means hours must be between 0 and 23!");
+        }
+        return withClockValues(zdt, timeValues[0], timeValues);
+    }
+
+    private static ZonedDateTime withClockValues(ZonedDateTime zdt, int hour, int[] timeValues) throws NumberFormatException
+    {
+        int minute = (timeValues.length > 1) ? timeValues[1] : 0;
+        int second = (timeValues.length > 2) ? timeValues[2] : 0;
+        if (minute > 59)
+        {
+            throw new NumberFormatException("Minutes must be between 0 and 59!");
+        }
+        if (second > 59)
+        {
+            throw new NumberFormatException("Seconds must be between 0 and 59!");
+        }
+        return zdt.withHour(hour).withMinute(minute).withSecond(second).withNano(0);
+    }
+
+    private static int parseDigits(String input)
+    {
+        return parseDigits(input, 0, input.length());
+    }
+
+    /**
+     * Reads a non-negative number from the input.
+     * @return the number, or -1 if the range is empty, contains anything other than digits, or is too large
+     */
+    private static int parseDigits(String input, int start, int end)
+    {
+        if (start >= end || end-start > 9)
+        {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i<end; i++)
+        {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9')
+            {
+                return -1;
+            }
+            value = (value*10)+(c-'0');
+        }
+        return value;
+    }
+}